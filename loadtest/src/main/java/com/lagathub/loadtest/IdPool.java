@@ -0,0 +1,36 @@
+package com.lagathub.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Transaction ids created during the run.
+ * An id is taken out while an update/delete is in flight so two requests
+ * never race on the same row (which would show up as spurious 404s).
+ */
+final class IdPool {
+	
+	private final List<Long> ids = new ArrayList<>();
+	
+	synchronized void put(long id) {
+		ids.add(id);
+	}
+	
+	//Removes a random id, or returns -1 when the pool is empty
+	synchronized long take(RandomGenerator random) {
+		if (ids.isEmpty()) {
+			return -1;
+		}
+		int index = random.nextInt(ids.size());
+		long id = ids.get(index);
+		ids.set(index, ids.get(ids.size() - 1)); //Swap-remove keeps take() O(1)
+		ids.remove(ids.size() - 1);
+		return id;
+	}
+	
+	synchronized int size() {
+		return ids.size();
+	}
+
+}
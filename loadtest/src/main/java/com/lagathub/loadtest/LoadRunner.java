@@ -0,0 +1,187 @@
+package com.lagathub.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lagathub.loadtest.RequestFactory.PlannedCall;
+
+/**
+ * Drives one scenario against a running app.
+ *
+ * Arrivals follow the phase's rate (open model): the scheduler never waits for
+ * responses, and every latency is measured from when the request was supposed to
+ * start, so a stalled server shows up as latency instead of silently lowering the
+ * load (coordinated omission). maxInFlight only bounds client memory; if it is hit
+ * the queueing time is still counted against the request.
+ */
+final class LoadRunner {
+	
+	private final Scenario scenario;
+	private final URI baseUri;
+	private final ObjectMapper mapper = Scenario.mapper();
+	private final RequestFactory requests;
+	private final IdPool ids = new IdPool();
+	
+	LoadRunner(Scenario scenario, URI baseUri) {
+		this.scenario = scenario;
+		this.baseUri = baseUri;
+		this.requests = new RequestFactory(baseUri, scenario, mapper);
+	}
+	
+	RunReport run() throws InterruptedException {
+		Instant startedAt = Instant.now();
+		SplittableRandom random = new SplittableRandom(scenario.seed());
+		List<RunReport.PhaseReport> reports = new ArrayList<>();
+		
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+				HttpClient client = HttpClient.newBuilder()
+						.connectTimeout(Duration.ofSeconds(5))
+						.executor(executor)
+						.build()) {
+			Semaphore inFlight = new Semaphore(scenario.maxInFlight());
+			
+			//Step 1: Give update/delete something to work on (not measured)
+			seed(client, executor, inFlight, random);
+			
+			//Step 2: Run each phase, draining in-flight requests before the next starts
+			for (Scenario.Phase phase : scenario.phases()) {
+				Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+				phase.mix().forEach((op, weight) -> {
+					if (weight > 0) {
+						stats.put(op, new OperationStats());
+					}
+				});
+				
+				System.out.printf("Running phase '%s' for %ds%s%n", phase.name(), phase.durationSeconds(),
+						phase.warmup() ? " (warmup)" : "");
+				long started = System.nanoTime();
+				runPhase(phase, stats, client, executor, inFlight, random);
+				drain(inFlight);
+				double seconds = (System.nanoTime() - started) / 1e9;
+				
+				if (!phase.warmup()) {
+					List<RunReport.OperationReport> operations = new ArrayList<>();
+					stats.forEach((op, opStats) -> operations.add(opStats.toReport(op, seconds)));
+					double targetRate = phase.rampToRatePerSecond() == null
+							? phase.ratePerSecond()
+							: (phase.ratePerSecond() + phase.rampToRatePerSecond()) / 2;
+					reports.add(new RunReport.PhaseReport(phase.name(), seconds, targetRate, operations));
+				}
+			}
+		}
+		return new RunReport(scenario.name(), baseUri.toString(), scenario.seed(), startedAt, reports);
+	}
+	
+	private void runPhase(Scenario.Phase phase, Map<Operation, OperationStats> stats, HttpClient client,
+			ExecutorService executor, Semaphore inFlight, SplittableRandom random) throws InterruptedException {
+		WeightedMix mix = new WeightedMix(phase.mix());
+		long phaseStart = System.nanoTime();
+		long phaseEnd = phaseStart + TimeUnit.SECONDS.toNanos(phase.durationSeconds());
+		long intendedStart = phaseStart;
+		
+		while (intendedStart < phaseEnd) {
+			long wait = intendedStart - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			PlannedCall call = requests.plan(mix.pick(random), random);
+			long scheduledAt = intendedStart;
+			inFlight.acquire();
+			executor.execute(() -> {
+				try {
+					execute(client, call, scheduledAt, stats.get(call.operation()));
+				} finally {
+					inFlight.release();
+				}
+			});
+			double elapsedSeconds = (intendedStart - phaseStart) / 1e9;
+			intendedStart += (long) (1e9 / phase.rateAt(elapsedSeconds));
+		}
+	}
+	
+	private void execute(HttpClient client, PlannedCall call, long intendedStart, OperationStats stats) {
+		Operation operation = call.operation();
+		long id = operation.needsExistingId() ? ids.take(new SplittableRandom(intendedStart)) : 0;
+		if (id < 0) {
+			stats.recordSkipped();
+			return;
+		}
+		
+		try {
+			HttpResponse<String> response = client.send(requests.build(call, id), HttpResponse.BodyHandlers.ofString());
+			long latency = System.nanoTime() - intendedStart;
+			boolean ok = response.statusCode() / 100 == 2;
+			if (ok) {
+				stats.recordSuccess(latency);
+			} else {
+				stats.recordError(latency, String.valueOf(response.statusCode()));
+			}
+			
+			if (operation == Operation.CREATE && ok) {
+				rememberCreated(response.body());
+			} else if (operation == Operation.UPDATE || (operation == Operation.DELETE && !ok)) {
+				ids.put(id); //Still exists
+			}
+		} catch (IOException e) {
+			stats.recordError(System.nanoTime() - intendedStart, e.getClass().getSimpleName());
+			if (operation.needsExistingId()) {
+				ids.put(id);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	private void seed(HttpClient client, ExecutorService executor, Semaphore inFlight, SplittableRandom random)
+			throws InterruptedException {
+		if (scenario.seedTransactions() <= 0) {
+			return;
+		}
+		System.out.printf("Seeding %d transactions for tenant '%s'%n", scenario.seedTransactions(), scenario.tenant());
+		OperationStats ignored = new OperationStats();
+		for (int i = 0; i < scenario.seedTransactions(); i++) {
+			PlannedCall call = requests.plan(Operation.CREATE, random);
+			inFlight.acquire();
+			executor.execute(() -> {
+				try {
+					execute(client, call, System.nanoTime(), ignored);
+				} finally {
+					inFlight.release();
+				}
+			});
+		}
+		drain(inFlight);
+	}
+	
+	private void rememberCreated(String body) {
+		try {
+			long id = mapper.readTree(body).path("id").asLong(-1);
+			if (id > 0) {
+				ids.put(id);
+			}
+		} catch (IOException e) {
+			//Not a transaction body; nothing to remember
+		}
+	}
+	
+	private void drain(Semaphore inFlight) throws InterruptedException {
+		inFlight.acquire(scenario.maxInFlight());
+		inFlight.release(scenario.maxInFlight());
+	}
+
+}
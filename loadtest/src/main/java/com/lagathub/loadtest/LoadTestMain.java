@@ -0,0 +1,87 @@
+package com.lagathub.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line entry point.
+ *
+ *   run &lt;scenario.json&gt; [--base-url http://localhost:8080] [--out results/run.json]
+ *   compare &lt;baseline.json&gt; &lt;candidate.json&gt; [--threshold 10]
+ *   slow-clients &lt;path&gt; [--clients 500] [--read-delay-ms 200] [--hold-seconds 60] [--tenant loadtest]
+ *
+ * run prints a per-endpoint table and writes the JSON report (by default under
+ * target/loadtest). compare exits with status 2 when the candidate regressed.
+ * slow-clients holds many slow readers on one endpoint and prints the server's cost.
+ */
+public final class LoadTestMain {
+	
+	private static final String DEFAULT_BASE_URL = "http://localhost:8080";
+	private static final double DEFAULT_THRESHOLD_PERCENT = 10;
+	
+	private LoadTestMain() {
+	}
+	
+	public static void main(String[] args) throws Exception {
+		List<String> positional = new ArrayList<>();
+		String baseUrl = DEFAULT_BASE_URL;
+		String out = null;
+		double threshold = DEFAULT_THRESHOLD_PERCENT;
+		int clients = 500;
+		long readDelayMillis = 200;
+		long holdSeconds = 60;
+		String tenant = Scenario.DEFAULT_TENANT;
+		
+		for (int i = 0; i < args.length; i++) {
+			switch (args[i]) {
+				case "--base-url" -> baseUrl = value(args, ++i);
+				case "--out" -> out = value(args, ++i);
+				case "--threshold" -> threshold = Double.parseDouble(value(args, ++i));
+				case "--clients" -> clients = Integer.parseInt(value(args, ++i));
+				case "--read-delay-ms" -> readDelayMillis = Long.parseLong(value(args, ++i));
+				case "--hold-seconds" -> holdSeconds = Long.parseLong(value(args, ++i));
+				case "--tenant" -> tenant = value(args, ++i);
+				default -> positional.add(args[i]);
+			}
+		}
+		
+		if (positional.size() == 2 && positional.get(0).equals("run")) {
+			Scenario scenario = Scenario.read(Path.of(positional.get(1)));
+			RunReport report = new LoadRunner(scenario, URI.create(baseUrl)).run();
+			report.print(System.out);
+			
+			Path target = out != null ? Path.of(out) : Path.of("target", "loadtest",
+					scenario.name() + "-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+			report.write(target);
+			System.out.printf("%nReport written to %s%n", target.toAbsolutePath());
+		} else if (positional.size() == 3 && positional.get(0).equals("compare")) {
+			RunReport baseline = RunReport.read(Path.of(positional.get(1)));
+			RunReport candidate = RunReport.read(Path.of(positional.get(2)));
+			if (!new RunComparison(baseline, candidate, threshold).print(System.out).isEmpty()) {
+				System.exit(2);
+			}
+		} else if (positional.size() == 2 && positional.get(0).equals("slow-clients")) {
+			SlowClientProbe probe = new SlowClientProbe(URI.create(baseUrl), positional.get(1), tenant, clients,
+					Duration.ofMillis(readDelayMillis), 1024, Duration.ofSeconds(holdSeconds));
+			probe.run().print(System.out);
+		} else {
+			System.err.println("usage: run <scenario.json> [--base-url URL] [--out FILE]");
+			System.err.println("       compare <baseline.json> <candidate.json> [--threshold PERCENT]");
+			System.err.println("       slow-clients <path> [--clients N] [--read-delay-ms MS] [--hold-seconds S] [--tenant ID]");
+			System.exit(1);
+		}
+	}
+	
+	private static String value(String[] args, int index) {
+		if (index >= args.length) {
+			throw new IllegalArgumentException("Missing value for " + args[index - 1]);
+		}
+		return args[index];
+	}
+
+}
@@ -0,0 +1,33 @@
+package com.lagathub.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * The SpendingController calls a scenario can mix.
+ * JSON names match the keys used in scenario files.
+ */
+public enum Operation {
+	
+	@JsonProperty("create")
+	CREATE,
+	@JsonProperty("update")
+	UPDATE,
+	@JsonProperty("delete")
+	DELETE,
+	@JsonProperty("list")
+	LIST,
+	@JsonProperty("filter")
+	FILTER,
+	@JsonProperty("search")
+	SEARCH,
+	@JsonProperty("today-total")
+	TODAY_TOTAL,
+	@JsonProperty("current-week")
+	CURRENT_WEEK;
+	
+	//Update and delete need an existing transaction id
+	public boolean needsExistingId() {
+		return this == UPDATE || this == DELETE;
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.lagathub.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency histogram and outcome counters for one operation within one phase.
+ * Latencies are recorded in microseconds from the request's intended start time.
+ */
+final class OperationStats {
+	
+	private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+	
+	private final Histogram latencies = new ConcurrentHistogram(1, HIGHEST_TRACKABLE_MICROS, 3);
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder errors = new LongAdder();
+	private final LongAdder skipped = new LongAdder();
+	private final Map<String, LongAdder> errorsByKind = new ConcurrentHashMap<>();
+	
+	void recordSuccess(long latencyNanos) {
+		requests.increment();
+		latencies.recordValue(toMicros(latencyNanos));
+	}
+	
+	//kind is the HTTP status, or the exception's simple name when no response came back
+	void recordError(long latencyNanos, String kind) {
+		requests.increment();
+		errors.increment();
+		errorsByKind.computeIfAbsent(kind, key -> new LongAdder()).increment();
+		latencies.recordValue(toMicros(latencyNanos));
+	}
+	
+	//Update/delete arrived while no transaction id was available
+	void recordSkipped() {
+		skipped.increment();
+	}
+	
+	RunReport.OperationReport toReport(Operation operation, double phaseSeconds) {
+		long count = requests.sum();
+		long failed = errors.sum();
+		Map<String, Long> kinds = new TreeMap<>();
+		errorsByKind.forEach((kind, adder) -> kinds.put(kind, adder.sum()));
+		return new RunReport.OperationReport(
+				operation,
+				count,
+				failed,
+				skipped.sum(),
+				count == 0 ? 0 : (double) failed / count,
+				count / phaseSeconds,
+				millis(latencies.getValueAtPercentile(50)),
+				millis(latencies.getValueAtPercentile(95)),
+				millis(latencies.getValueAtPercentile(99)),
+				millis(latencies.getValueAtPercentile(99.9)),
+				millis(latencies.getMaxValue()),
+				kinds);
+	}
+	
+	private static long toMicros(long nanos) {
+		return Math.max(1, Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+	}
+	
+	private static double millis(long micros) {
+		return micros / 1_000.0;
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.lagathub.loadtest;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Turns an operation into a concrete SpendingController request.
+ * Parameters are drawn from the scenario's seeded random on the scheduling thread,
+ * so two runs of the same scenario issue the same sequence of requests.
+ */
+final class RequestFactory {
+	
+	static final String TENANT_HEADER = "X-Tenant-Id";
+	private static final String[] NOTE_WORDS = {"lunch", "matatu", "groceries", "bundles", "rent", "coffee", "fuel", "movie"};
+	
+	private final URI baseUri;
+	private final String tenant;
+	private final List<String> categories;
+	private final Duration timeout;
+	private final ObjectMapper mapper;
+	
+	RequestFactory(URI baseUri, Scenario scenario, ObjectMapper mapper) {
+		this.baseUri = baseUri;
+		this.tenant = scenario.tenant();
+		this.categories = scenario.categories();
+		this.timeout = Duration.ofSeconds(scenario.requestTimeoutSeconds());
+		this.mapper = mapper;
+	}
+	
+	/**
+	 * A request whose parameters are fixed; update/delete still need an id at send time.
+	 */
+	record PlannedCall(Operation operation, String pathAndQuery, String body) {}
+	
+	PlannedCall plan(Operation operation, RandomGenerator random) {
+		return switch (operation) {
+			case CREATE -> new PlannedCall(operation, "/api/spending/transactions", transactionBody(random));
+			case UPDATE -> new PlannedCall(operation, "/api/spending/transactions/", transactionBody(random));
+			case DELETE -> new PlannedCall(operation, "/api/spending/transactions/", null);
+			case LIST -> new PlannedCall(operation, "/api/spending/transactions?page=" + random.nextInt(5) + "&size=50", null);
+			case FILTER -> {
+				LocalDate end = LocalDate.now().minusDays(random.nextInt(60));
+				LocalDate start = end.minusDays(7 + random.nextInt(24));
+				yield new PlannedCall(operation, "/api/spending/transactions?page=0&size=50"
+						+ "&category=" + encode(category(random))
+						+ "&startDate=" + start + "&endDate=" + end, null);
+			}
+			case SEARCH -> new PlannedCall(operation, "/api/spending/transactions/search?category=" + encode(category(random))
+					+ "&note=" + encode(NOTE_WORDS[random.nextInt(NOTE_WORDS.length)]), null);
+			case TODAY_TOTAL -> new PlannedCall(operation, "/api/spending/today-total", null);
+			case CURRENT_WEEK -> new PlannedCall(operation, "/api/spending/current-week", null);
+		};
+	}
+	
+	HttpRequest build(PlannedCall call, long transactionId) {
+		String path = call.operation().needsExistingId() ? call.pathAndQuery() + transactionId : call.pathAndQuery();
+		HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path))
+				.timeout(timeout)
+				.header(TENANT_HEADER, tenant)
+				.header("Accept", "application/json");
+		
+		return switch (call.operation()) {
+			case CREATE -> builder.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(call.body())).build();
+			case UPDATE -> builder.header("Content-Type", "application/json")
+					.PUT(HttpRequest.BodyPublishers.ofString(call.body())).build();
+			case DELETE -> builder.DELETE().build();
+			default -> builder.GET().build();
+		};
+	}
+	
+	private String transactionBody(RandomGenerator random) {
+		//Skewed toward small everyday amounts, with the occasional large bill
+		double amount = random.nextDouble() < 0.9 ? 20 + random.nextDouble() * 980 : 1_000 + random.nextDouble() * 49_000;
+		ObjectNode body = mapper.createObjectNode()
+				.put("amount", BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP))
+				.put("categoryName", category(random))
+				.put("note", NOTE_WORDS[random.nextInt(NOTE_WORDS.length)]);
+		return body.toString();
+	}
+	
+	private String category(RandomGenerator random) {
+		return categories.get(random.nextInt(categories.size()));
+	}
+	
+	private static String encode(String value) {
+		return URLEncoder.encode(value, StandardCharsets.UTF_8);
+	}
+
+}
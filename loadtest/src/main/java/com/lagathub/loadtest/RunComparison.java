@@ -0,0 +1,89 @@
+package com.lagathub.loadtest;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Compares a candidate run with a baseline, phase by phase and operation by operation.
+ * A regression is a p99 that grew by more than the threshold, or an error rate that
+ * grew by more than half a percentage point.
+ */
+final class RunComparison {
+	
+	private static final double ERROR_RATE_TOLERANCE = 0.005;
+	
+	private final RunReport baseline;
+	private final RunReport candidate;
+	private final double p99ThresholdPercent;
+	
+	RunComparison(RunReport baseline, RunReport candidate, double p99ThresholdPercent) {
+		this.baseline = baseline;
+		this.candidate = candidate;
+		this.p99ThresholdPercent = p99ThresholdPercent;
+	}
+	
+	//Prints the comparison and returns the regressions found
+	List<String> print(PrintStream out) {
+		List<String> regressions = new ArrayList<>();
+		out.printf("%nBaseline '%s' (%s) vs candidate '%s' (%s)%n",
+				baseline.scenario(), baseline.startedAt(), candidate.scenario(), candidate.startedAt());
+		
+		for (RunReport.PhaseReport phase : candidate.phases()) {
+			Optional<RunReport.PhaseReport> before = baseline.phases().stream()
+					.filter(candidatePhase -> candidatePhase.name().equals(phase.name()))
+					.findFirst();
+			if (before.isEmpty()) {
+				out.printf("%nPhase '%s' is not in the baseline%n", phase.name());
+				continue;
+			}
+			out.printf("%nPhase '%s': %.1f -> %.1f req/s%n", phase.name(), before.get().throughput(), phase.throughput());
+			out.printf("  %-13s %19s %19s %19s %17s%n", "operation", "p50 ms", "p99 ms", "req/s", "errors");
+			
+			for (RunReport.OperationReport op : phase.operations()) {
+				Optional<RunReport.OperationReport> old = before.get().operations().stream()
+						.filter(baselineOp -> baselineOp.operation() == op.operation())
+						.findFirst();
+				if (old.isEmpty()) {
+					out.printf("  %-13s (not in baseline)%n", op.operation().name().toLowerCase());
+					continue;
+				}
+				RunReport.OperationReport was = old.get();
+				double p99Change = change(was.p99Ms(), op.p99Ms());
+				out.printf("  %-13s %8.2f -> %-8.2f %8.2f -> %-8.2f %8.1f -> %-8.1f %6.2f%% -> %.2f%%%s%n",
+						op.operation().name().toLowerCase(),
+						was.p50Ms(), op.p50Ms(),
+						was.p99Ms(), op.p99Ms(),
+						was.throughput(), op.throughput(),
+						was.errorRate() * 100, op.errorRate() * 100,
+						p99Change > p99ThresholdPercent ? String.format("  p99 %+.0f%%", p99Change) : "");
+				
+				if (p99Change > p99ThresholdPercent) {
+					regressions.add(String.format("%s/%s p99 %.2fms -> %.2fms (%+.0f%%)",
+							phase.name(), op.operation(), was.p99Ms(), op.p99Ms(), p99Change));
+				}
+				if (op.errorRate() - was.errorRate() > ERROR_RATE_TOLERANCE) {
+					regressions.add(String.format("%s/%s error rate %.2f%% -> %.2f%%",
+							phase.name(), op.operation(), was.errorRate() * 100, op.errorRate() * 100));
+				}
+			}
+		}
+		
+		if (regressions.isEmpty()) {
+			out.printf("%nNo regressions (p99 threshold %.0f%%)%n", p99ThresholdPercent);
+		} else {
+			out.printf("%n%d regression(s):%n", regressions.size());
+			regressions.forEach(regression -> out.println("  " + regression));
+		}
+		return regressions;
+	}
+	
+	private static double change(double before, double after) {
+		if (before <= 0) {
+			return after > 0 ? Double.POSITIVE_INFINITY : 0;
+		}
+		return (after - before) / before * 100;
+	}
+
+}
@@ -0,0 +1,89 @@
+package com.lagathub.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Result of one scenario run; written as JSON so runs can be compared later.
+ */
+public record RunReport(
+		String scenario,
+		String baseUrl,
+		long seed,
+		Instant startedAt,
+		List<PhaseReport> phases) {
+	
+	public record PhaseReport(
+			String name,
+			double seconds,
+			double targetRatePerSecond,
+			List<OperationReport> operations) {
+		
+		public double throughput() {
+			return operations.stream().mapToDouble(OperationReport::throughput).sum();
+		}
+	}
+	
+	public record OperationReport(
+			Operation operation,
+			long requests,
+			long errors,
+			long skipped,
+			double errorRate,
+			double throughput,
+			double p50Ms,
+			double p95Ms,
+			double p99Ms,
+			double p999Ms,
+			double maxMs,
+			Map<String, Long> errorsByKind) {}
+	
+	public void write(Path file) throws IOException {
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		writer().writeValue(file.toFile(), this);
+	}
+	
+	public static RunReport read(Path file) throws IOException {
+		return Scenario.mapper().readValue(file.toFile(), RunReport.class);
+	}
+	
+	public void print(PrintStream out) {
+		out.printf("%nScenario '%s' against %s (seed %d)%n", scenario, baseUrl, seed);
+		for (PhaseReport phase : phases) {
+			out.printf("%nPhase '%s': %.1fs, target %.0f req/s, achieved %.1f req/s%n",
+					phase.name(), phase.seconds(), phase.targetRatePerSecond(), phase.throughput());
+			out.printf("  %-13s %8s %9s %8s %9s %9s %9s %9s %9s%n",
+					"operation", "requests", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms", "p999 ms", "max ms");
+			for (OperationReport op : phase.operations()) {
+				out.printf("  %-13s %8d %9.1f %7.2f%% %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+						op.operation().name().toLowerCase(), op.requests(), op.throughput(), op.errorRate() * 100,
+						op.p50Ms(), op.p95Ms(), op.p99Ms(), op.p999Ms(), op.maxMs());
+				if (!op.errorsByKind().isEmpty()) {
+					out.printf("  %-13s errors %s%n", "", op.errorsByKind());
+				}
+				if (op.skipped() > 0) {
+					out.printf("  %-13s skipped %d (no transaction id available)%n", "", op.skipped());
+				}
+			}
+		}
+	}
+	
+	private static ObjectWriter writer() {
+		return new ObjectMapper()
+				.findAndRegisterModules()
+				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.writerWithDefaultPrettyPrinter();
+	}
+
+}
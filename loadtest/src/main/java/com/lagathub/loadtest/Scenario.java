@@ -0,0 +1,92 @@
+package com.lagathub.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Declarative load scenario, read from a JSON file under loadtest/scenarios.
+ * A scenario is a sequence of phases; each phase drives an open-model arrival rate
+ * (optionally ramping) with a weighted mix of operations.
+ */
+public record Scenario(
+		String name,
+		String description,
+		String tenant,
+		long seed,
+		int seedTransactions,
+		int maxInFlight,
+		int requestTimeoutSeconds,
+		List<String> categories,
+		List<Phase> phases) {
+	
+	public static final String DEFAULT_TENANT = "loadtest";
+	
+	public Scenario {
+		if (name == null || name.isBlank()) {
+			throw new IllegalArgumentException("Scenario needs a name");
+		}
+		if (phases == null || phases.isEmpty()) {
+			throw new IllegalArgumentException("Scenario '" + name + "' has no phases");
+		}
+		tenant = tenant == null ? DEFAULT_TENANT : tenant;
+		maxInFlight = maxInFlight <= 0 ? 256 : maxInFlight;
+		requestTimeoutSeconds = requestTimeoutSeconds <= 0 ? 30 : requestTimeoutSeconds;
+		categories = categories == null || categories.isEmpty()
+				? List.of("Food", "Transport", "Airtime", "Entertainment", "Bills")
+				: List.copyOf(categories);
+		phases = List.copyOf(phases);
+	}
+	
+	/**
+	 * One stage of a run.
+	 * ratePerSecond is the arrival rate at the start; rampToRatePerSecond, when set,
+	 * is reached linearly by the end. Warmup phases run but are left out of the report.
+	 */
+	public record Phase(
+			String name,
+			int durationSeconds,
+			double ratePerSecond,
+			Double rampToRatePerSecond,
+			boolean warmup,
+			Map<Operation, Integer> mix) {
+		
+		public Phase {
+			if (name == null || name.isBlank()) {
+				throw new IllegalArgumentException("Phase needs a name");
+			}
+			if (durationSeconds <= 0 || ratePerSecond <= 0) {
+				throw new IllegalArgumentException("Phase '" + name + "' needs a positive duration and rate");
+			}
+			if (mix == null || mix.isEmpty() || mix.values().stream().anyMatch(weight -> weight == null || weight < 0)) {
+				throw new IllegalArgumentException("Phase '" + name + "' needs a mix of non-negative weights");
+			}
+			mix = new EnumMap<>(mix);
+		}
+		
+		//Arrival rate at the given offset into the phase
+		public double rateAt(double elapsedSeconds) {
+			if (rampToRatePerSecond == null) {
+				return ratePerSecond;
+			}
+			double progress = Math.min(1.0, elapsedSeconds / durationSeconds);
+			return ratePerSecond + (rampToRatePerSecond - ratePerSecond) * progress;
+		}
+	}
+	
+	public static Scenario read(Path file) throws IOException {
+		return mapper().readValue(file.toFile(), Scenario.class);
+	}
+	
+	static ObjectMapper mapper() {
+		return new ObjectMapper()
+				.findAndRegisterModules()
+				.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
+	}
+
+}
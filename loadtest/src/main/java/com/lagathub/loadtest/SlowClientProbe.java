@@ -0,0 +1,187 @@
+package com.lagathub.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Holds many slow readers open against one streaming endpoint and reports what that costs
+ * the server, so the servlet listing and the reactive NDJSON listing can be compared:
+ *
+ *   slow-clients /api/spending/transactions?size=100000
+ *   slow-clients /api/spending/reactive/transactions
+ *
+ * Each client reads readBytes every readDelay until holdFor ends, like a phone on a bad
+ * network. "Served" clients got their first bytes within firstByteTimeout; the rest were
+ * queued behind busy request threads. Heap and live threads come from the app's actuator
+ * metrics before and while the clients are connected, so per-client numbers include GC noise -
+ * use a few hundred clients or more.
+ */
+final class SlowClientProbe {
+	
+	static final Duration FIRST_BYTE_TIMEOUT = Duration.ofSeconds(10);
+	
+	private final URI baseUri;
+	private final String path;
+	private final String tenant;
+	private final int clients;
+	private final Duration readDelay;
+	private final int readBytes;
+	private final Duration holdFor;
+	private final ObjectMapper mapper = Scenario.mapper();
+	
+	SlowClientProbe(URI baseUri, String path, String tenant, int clients, Duration readDelay, int readBytes, Duration holdFor) {
+		if (clients <= 0 || readBytes <= 0) {
+			throw new IllegalArgumentException("clients and readBytes must be positive");
+		}
+		this.baseUri = baseUri;
+		this.path = path;
+		this.tenant = tenant;
+		this.clients = clients;
+		this.readDelay = readDelay;
+		this.readBytes = readBytes;
+		this.holdFor = holdFor;
+	}
+	
+	Report run() throws InterruptedException {
+		List<Long> firstByteMillis = Collections.synchronizedList(new ArrayList<>());
+		AtomicInteger errors = new AtomicInteger();
+		AtomicLong bytesRead = new AtomicLong();
+		CountDownLatch connected = new CountDownLatch(clients);
+		
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+				HttpClient client = HttpClient.newBuilder()
+						.version(HttpClient.Version.HTTP_1_1) //One connection per client, like real slow devices
+						.connectTimeout(Duration.ofSeconds(5))
+						.executor(executor)
+						.build()) {
+			//Step 1: Baseline before any client connects
+			Metrics before = metrics(client);
+			long deadline = System.nanoTime() + holdFor.toNanos();
+			
+			//Step 2: Open every client; each one reads slowly until the hold ends
+			for (int i = 0; i < clients; i++) {
+				executor.execute(() -> {
+					boolean counted = false;
+					try {
+						long started = System.nanoTime();
+						HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(path))
+								.header(RequestFactory.TENANT_HEADER, tenant)
+								.timeout(holdFor.plus(FIRST_BYTE_TIMEOUT))
+								.GET()
+								.build();
+						HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+						try (InputStream body = response.body()) {
+							byte[] buffer = new byte[readBytes];
+							int read = body.read(buffer);
+							long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+							if (response.statusCode() / 100 != 2 || read < 0 || waited > FIRST_BYTE_TIMEOUT.toMillis()) {
+								errors.incrementAndGet();
+								return;
+							}
+							firstByteMillis.add(waited);
+							connected.countDown();
+							counted = true;
+							bytesRead.addAndGet(read);
+							while (System.nanoTime() < deadline && (read = body.read(buffer)) >= 0) {
+								bytesRead.addAndGet(read);
+								Thread.sleep(readDelay);
+							}
+						}
+					} catch (IOException e) {
+						errors.incrementAndGet();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						if (!counted) {
+							connected.countDown();
+						}
+					}
+				});
+			}
+			
+			//Step 3: Sample the server once everyone got through (or gave up), while they are still reading
+			connected.await(FIRST_BYTE_TIMEOUT.toMillis() + holdFor.toMillis(), TimeUnit.MILLISECONDS);
+			Metrics during = metrics(client);
+			executor.shutdown();
+			executor.awaitTermination(holdFor.toMillis() + FIRST_BYTE_TIMEOUT.toMillis() * 2, TimeUnit.MILLISECONDS);
+			
+			List<Long> sorted = new ArrayList<>(firstByteMillis);
+			Collections.sort(sorted);
+			return new Report(path, clients, sorted.size(), errors.get(),
+					percentile(sorted, 0.50), percentile(sorted, 0.99), bytesRead.get(),
+					during.heapBytes() - before.heapBytes(), during.liveThreads() - before.liveThreads());
+		}
+	}
+	
+	private Metrics metrics(HttpClient client) throws InterruptedException {
+		return new Metrics(metric(client, "jvm.memory.used?tag=area:heap"), metric(client, "jvm.threads.live"));
+	}
+	
+	private double metric(HttpClient client, String name) throws InterruptedException {
+		try {
+			HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/actuator/metrics/" + name)).GET().build();
+			HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+			if (response.statusCode() != 200) {
+				return Double.NaN;
+			}
+			return valueOf(mapper.readTree(response.body()));
+		} catch (IOException e) {
+			return Double.NaN;
+		}
+	}
+	
+	//Actuator format: {"measurements":[{"statistic":"VALUE","value":123.0}]}
+	static double valueOf(JsonNode metric) {
+		for (JsonNode measurement : metric.path("measurements")) {
+			if ("VALUE".equals(measurement.path("statistic").asText())) {
+				return measurement.path("value").asDouble();
+			}
+		}
+		return Double.NaN;
+	}
+	
+	private static long percentile(List<Long> sorted, double quantile) {
+		if (sorted.isEmpty()) {
+			return -1;
+		}
+		return sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(quantile * sorted.size()) - 1));
+	}
+	
+	record Metrics(double heapBytes, double liveThreads) {
+	}
+	
+	record Report(String path, int clients, int served, int errors, long firstByteP50Millis, long firstByteP99Millis,
+			long bytesRead, double heapDeltaBytes, double threadDelta) {
+		
+		double heapPerServedClientKb() {
+			return served == 0 ? Double.NaN : heapDeltaBytes / served / 1024;
+		}
+		
+		void print(PrintStream out) {
+			out.printf("%s%n", path);
+			out.printf("  clients %d, served %d, errors/queued %d%n", clients, served, errors);
+			out.printf("  first byte p50 %d ms, p99 %d ms, read %,d bytes%n", firstByteP50Millis, firstByteP99Millis, bytesRead);
+			out.printf("  server heap %+.1f MB (%.1f KB per served client), live threads %+.0f%n",
+					heapDeltaBytes / (1024 * 1024), heapPerServedClientKb(), threadDelta);
+		}
+	}
+
+}
@@ -0,0 +1,42 @@
+package com.lagathub.loadtest;
+
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Picks operations in proportion to a phase's mix weights.
+ */
+final class WeightedMix {
+	
+	private final Operation[] operations;
+	private final int[] cumulative;
+	private final int total;
+	
+	WeightedMix(Map<Operation, Integer> weights) {
+		this.operations = new Operation[weights.size()];
+		this.cumulative = new int[weights.size()];
+		int running = 0;
+		int index = 0;
+		for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+			running += entry.getValue();
+			operations[index] = entry.getKey();
+			cumulative[index] = running;
+			index++;
+		}
+		if (running == 0) {
+			throw new IllegalArgumentException("Mix weights must not all be zero");
+		}
+		this.total = running;
+	}
+	
+	Operation pick(RandomGenerator random) {
+		int ticket = random.nextInt(total);
+		for (int i = 0; i < cumulative.length; i++) {
+			if (ticket < cumulative[i]) {
+				return operations[i];
+			}
+		}
+		return operations[operations.length - 1];
+	}
+
+}
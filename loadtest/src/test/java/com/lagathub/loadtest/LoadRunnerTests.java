@@ -0,0 +1,135 @@
+package com.lagathub.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+class LoadRunnerTests {
+	
+	@Test
+	void bundledScenariosParse() throws IOException {
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(Path.of("scenarios"), "*.json")) {
+			int count = 0;
+			for (Path file : files) {
+				Scenario scenario = Scenario.read(file);
+				assertFalse(scenario.phases().isEmpty(), file.toString());
+				count++;
+			}
+			assertTrue(count >= 3);
+		}
+	}
+	
+	@Test
+	void rejectsPhaseWithoutMix() {
+		assertThrows(IllegalArgumentException.class, () -> new Scenario.Phase("p", 10, 5, null, false, Map.of()));
+	}
+	
+	@Test
+	void mixFollowsWeightsAndSeed() {
+		Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+		weights.put(Operation.CREATE, 1);
+		weights.put(Operation.LIST, 3);
+		WeightedMix mix = new WeightedMix(weights);
+		
+		SplittableRandom first = new SplittableRandom(1);
+		SplittableRandom second = new SplittableRandom(1);
+		int lists = 0;
+		for (int i = 0; i < 40_000; i++) {
+			Operation picked = mix.pick(first);
+			assertEquals(picked, mix.pick(second)); //Same seed, same sequence
+			if (picked == Operation.LIST) {
+				lists++;
+			}
+		}
+		assertEquals(0.75, lists / 40_000.0, 0.01);
+	}
+	
+	@Test
+	void drivesEndpointsAndReportsPerOperation() throws Exception {
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		AtomicLong nextId = new AtomicLong(1);
+		server.createContext("/api/spending", exchange -> {
+			String method = exchange.getRequestMethod();
+			String body = method.equals("POST") ? "{\"id\":" + nextId.getAndIncrement() + "}" : "[]";
+			int status = method.equals("DELETE") ? 204 : method.equals("POST") ? 201 : 200;
+			if (exchange.getRequestURI().getPath().endsWith("/today-total")) {
+				status = 500; //Every today-total fails so error accounting is visible
+			}
+			byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(status, status == 204 ? -1 : bytes.length);
+			if (status != 204) {
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(bytes);
+				}
+			}
+			exchange.close();
+		});
+		server.start();
+		try {
+			Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+			mix.put(Operation.CREATE, 2);
+			mix.put(Operation.UPDATE, 1);
+			mix.put(Operation.DELETE, 1);
+			mix.put(Operation.LIST, 2);
+			mix.put(Operation.TODAY_TOTAL, 1);
+			Scenario scenario = new Scenario("stub", null, null, 3, 20, 0, 5, null, List.of(
+					new Scenario.Phase("warm", 1, 50, null, true, mix),
+					new Scenario.Phase("measured", 2, 100, 200.0, false, mix)));
+			
+			URI baseUri = URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+			RunReport report = new LoadRunner(scenario, baseUri).run();
+			
+			assertEquals(1, report.phases().size()); //Warmup is not reported
+			RunReport.PhaseReport measured = report.phases().get(0);
+			long total = measured.operations().stream().mapToLong(RunReport.OperationReport::requests).sum();
+			assertTrue(total > 200, "expected ~300 requests, got " + total);
+			for (RunReport.OperationReport op : measured.operations()) {
+				if (op.operation() == Operation.TODAY_TOTAL) {
+					assertEquals(1.0, op.errorRate());
+					assertEquals(op.requests(), op.errorsByKind().get("500"));
+				} else {
+					assertEquals(0, op.errors(), op.operation().toString());
+				}
+				assertTrue(op.p50Ms() <= op.p99Ms() && op.p99Ms() <= op.maxMs());
+			}
+		} finally {
+			server.stop(0);
+		}
+	}
+	
+	@Test
+	void comparisonFlagsP99Regression() {
+		RunReport baseline = report(10.0, 0.0);
+		assertTrue(new RunComparison(baseline, report(10.5, 0.0), 10).print(System.out).isEmpty());
+		assertEquals(1, new RunComparison(baseline, report(15.0, 0.0), 10).print(System.out).size());
+		assertEquals(1, new RunComparison(baseline, report(10.0, 0.02), 10).print(System.out).size());
+	}
+	
+	private static RunReport report(double p99, double errorRate) {
+		RunReport.OperationReport op = new RunReport.OperationReport(Operation.LIST, 1000, (long) (errorRate * 1000), 0,
+				errorRate, 100, p99 / 2, p99 * 0.9, p99, p99 * 1.5, p99 * 2, Map.of());
+		return new RunReport("s", "http://localhost", 1, Instant.EPOCH,
+				List.of(new RunReport.PhaseReport("steady", 10, 100, List.of(op))));
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.lagathub.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+class SlowClientProbeTests {
+	
+	@Test
+	void countsServedClientsAndReadsActuatorMetrics() throws Exception {
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+		server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+		server.createContext("/stream", exchange -> {
+			exchange.sendResponseHeaders(200, 0);
+			try (OutputStream out = exchange.getResponseBody()) {
+				for (int i = 0; i < 20; i++) {
+					out.write("{\"id\":1}\n".repeat(100).getBytes(StandardCharsets.UTF_8));
+					out.flush();
+				}
+			}
+		});
+		server.createContext("/actuator/metrics", exchange -> {
+			byte[] body = "{\"measurements\":[{\"statistic\":\"VALUE\",\"value\":1048576.0}]}".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		server.start();
+		try {
+			URI base = URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+			SlowClientProbe.Report report = new SlowClientProbe(base, "/stream", "probe", 8,
+					Duration.ofMillis(1), 512, Duration.ofMillis(300)).run();
+			
+			assertEquals(8, report.served());
+			assertEquals(0, report.errors());
+			assertTrue(report.bytesRead() > 0);
+			assertEquals(0, report.heapDeltaBytes(), 0.0); //Same stub value before and during
+		} finally {
+			server.stop(0);
+		}
+	}
+
+}
@@ -0,0 +1,97 @@
+#!/usr/bin/env bash
+#
+# Time from process start to the first successful API request, for each startup variant:
+#
+#   jvm      plain executable jar, prod profile
+#   cds      extracted jar + AppCDS archive from a training run
+#   cds-aot  as cds, with Spring AOT-generated bean definitions (jar built with -Paot)
+#   native   GraalVM native executable (built with -Paot,native native:compile)
+#
+# Usage: scripts/startup-benchmark.sh [runs] [variants...]
+#   e.g. scripts/startup-benchmark.sh 5 jvm cds cds-aot
+#
+# Needs the database from application.yml, already migrated:
+#   java -jar target/spendingtracker-*.jar --spring.profiles.active=prod,migrate
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${1:-5}"
+shift || true
+VARIANTS=("$@")
+if [ ${#VARIANTS[@]} -eq 0 ]; then
+	VARIANTS=(jvm cds cds-aot native)
+fi
+
+PORT="${PORT:-8080}"
+URL="http://localhost:${PORT}/api/spending/today-total"
+JAR="$(ls target/spendingtracker-*.jar | grep -v plain | head -n 1)"
+EXTRACTED="target/extracted"
+ARCHIVE="${EXTRACTED}/application.jsa"
+NATIVE="target/spendingtracker"
+PROFILE_ARGS=(--spring.profiles.active=prod "--server.port=${PORT}")
+
+now_ms() {
+	date +%s%3N
+}
+
+# Extract the jar into the CDS-friendly layout and record a class archive from a training
+# run that stops right after the context refreshes
+prepare_cds() {
+	if [ -f "${ARCHIVE}" ] && [ "${ARCHIVE}" -nt "${JAR}" ]; then
+		return
+	fi
+	rm -rf "${EXTRACTED}"
+	java -Djarmode=tools -jar "${JAR}" extract --destination "${EXTRACTED}" >/dev/null
+	java -XX:ArchiveClassesAtExit="${ARCHIVE}" -Dspring.context.exit=onRefresh \
+		-jar "${EXTRACTED}/$(basename "${JAR}")" "${PROFILE_ARGS[@]}" >/dev/null
+}
+
+command_for() {
+	case "$1" in
+		jvm)     echo "java -jar ${JAR}" ;;
+		cds)     echo "java -XX:SharedArchiveFile=${ARCHIVE} -jar ${EXTRACTED}/$(basename "${JAR}")" ;;
+		cds-aot) echo "java -XX:SharedArchiveFile=${ARCHIVE} -Dspring.aot.enabled=true -jar ${EXTRACTED}/$(basename "${JAR}")" ;;
+		native)  echo "${NATIVE}" ;;
+		*)       echo "unknown variant: $1" >&2; exit 1 ;;
+	esac
+}
+
+# One cold start: launch, poll until the first 200, stop. Prints milliseconds
+measure() {
+	local command="$1"
+	local started pid elapsed
+	started=$(now_ms)
+	${command} "${PROFILE_ARGS[@]}" >/dev/null 2>&1 &
+	pid=$!
+	until curl -sf -o /dev/null "${URL}"; do
+		if ! kill -0 "${pid}" 2>/dev/null; then
+			echo "process exited before serving a request" >&2
+			return 1
+		fi
+		sleep 0.02
+	done
+	elapsed=$(( $(now_ms) - started ))
+	kill "${pid}"
+	wait "${pid}" 2>/dev/null || true
+	echo "${elapsed}"
+}
+
+printf "%-8s %8s %8s %8s   (ms to first successful request, %s runs)\n" variant min median max "${RUNS}"
+for variant in "${VARIANTS[@]}"; do
+	case "${variant}" in
+		cds|cds-aot) prepare_cds ;;
+		native)
+			if [ ! -x "${NATIVE}" ]; then
+				echo "native   skipped (build with: ./mvnw -Paot,native native:compile -DskipTests)"
+				continue
+			fi ;;
+	esac
+	command=$(command_for "${variant}")
+	times=()
+	for _ in $(seq "${RUNS}"); do
+		times+=("$(measure "${command}")")
+	done
+	sorted=($(printf "%s\n" "${times[@]}" | sort -n))
+	printf "%-8s %8s %8s %8s\n" "${variant}" "${sorted[0]}" "${sorted[$(( ${#sorted[@]} / 2 ))]}" "${sorted[-1]}"
+done
@@ -0,0 +1,66 @@
+package com.lagathub.spendingtracker.cache;
+
+import java.time.Duration;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/*
+ * In-memory caches for data that is read on every page load but rarely changes.
+ * Each cache has its own size and TTL bound; stats are recorded so hit rates show up under
+ * /actuator/metrics/cache.gets (tags cache=..., result=hit|miss).
+ * The manager is transaction aware: evictions from a write path happen after its commit,
+ * so a concurrent reader cannot re-cache the pre-commit state
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+	
+	@Bean
+	public CacheManager cacheManager() {
+		CaffeineCacheManager caffeine = new CaffeineCacheManager();
+		caffeine.setAllowNullValues(false);
+		
+		//Tiny lists per tenant; change only when a category is created or renamed
+		caffeine.registerCustomCache(SpendingCaches.CATEGORIES, Caffeine.newBuilder()
+				.maximumSize(10_000)
+				.expireAfterWrite(Duration.ofHours(1))
+				.recordStats()
+				.build());
+		//Changes when a category gains its first or loses its last transaction
+		caffeine.registerCustomCache(SpendingCaches.USED_CATEGORIES, Caffeine.newBuilder()
+				.maximumSize(10_000)
+				.expireAfterWrite(Duration.ofMinutes(30))
+				.recordStats()
+				.build());
+		//Closed weeks only; entries are evicted when a transaction in that week changes
+		caffeine.registerCustomCache(SpendingCaches.WEEKLY_REPORTS, Caffeine.newBuilder()
+				.maximumSize(50_000)
+				.expireAfterAccess(Duration.ofHours(6))
+				.recordStats()
+				.build());
+		//Day totals of closed months (one entry per tenant, month and category filter, ~31 rows each);
+		//evicted when a transaction in that month changes
+		caffeine.registerCustomCache(SpendingCaches.HEATMAP_MONTHS, Caffeine.newBuilder()
+				.maximumSize(50_000)
+				.expireAfterAccess(Duration.ofHours(6))
+				.recordStats()
+				.build());
+		//Week-by-week trends up to the last closed week; keys roll over each Monday, so the TTL
+		//only has to outlive a week. Evicted when a closed week changes
+		caffeine.registerCustomCache(SpendingCaches.WEEKLY_TRENDS, Caffeine.newBuilder()
+				.maximumSize(10_000)
+				.expireAfterWrite(Duration.ofDays(7))
+				.recordStats()
+				.build());
+		
+		return new TransactionAwareCacheManagerProxy(caffeine);
+	}
+
+}
@@ -0,0 +1,202 @@
+package com.lagathub.spendingtracker.cache;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.lagathub.spendingtracker.dto.response.CategoryResponse;
+import com.lagathub.spendingtracker.dto.response.CategoryTrendResponse;
+import com.lagathub.spendingtracker.dto.response.DailyTotalResponse;
+import com.lagathub.spendingtracker.dto.response.WeeklyReportResponse;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+/*
+ * Names, keys and invalidation rules for the caches in CacheConfig.
+ * Every key starts with the tenant id, so tenants never see each other's entries.
+ * Write paths call the evict methods here instead of clearing whole caches
+ */
+@Component("spendingCaches")
+public class SpendingCaches {
+	
+	public static final String CATEGORIES = "categories";
+	public static final String USED_CATEGORIES = "usedCategories";
+	public static final String WEEKLY_REPORTS = "weeklyReports";
+	public static final String HEATMAP_MONTHS = "heatmapMonths";
+	public static final String WEEKLY_TRENDS = "weeklyTrends";
+	
+	//SpEL for @Cacheable keys that only depend on the tenant
+	public static final String TENANT_KEY = "@spendingCaches.tenantKey()";
+	
+	private final CacheManager cacheManager;
+	
+	public SpendingCaches(CacheManager cacheManager) {
+		this.cacheManager = cacheManager;
+	}
+	
+	public String tenantKey() {
+		return TenantContext.currentTenant();
+	}
+	
+	//A week is closed once its Sunday is over; only closed weeks are cached
+	public static boolean isClosedWeek(LocalDate weekStart) {
+		return weekStart.with(DayOfWeek.MONDAY).isBefore(LocalDate.now().with(DayOfWeek.MONDAY));
+	}
+	
+	//Likewise a month once its last day is over
+	public static boolean isClosedMonth(YearMonth month) {
+		return month.isBefore(YearMonth.now());
+	}
+	
+	//Closed weeks come from the cache (loading on a miss); the open week always from the loader
+	public WeeklyReportResponse weeklyReport(LocalDate weekStart, Supplier<WeeklyReportResponse> loader) {
+		if (!isClosedWeek(weekStart)) {
+			return loader.get();
+		}
+		return cache(WEEKLY_REPORTS).get(weeklyReportKey(weekStart), loader::get);
+	}
+	
+	//Trends up to the last closed week: the key moves on when the next week closes
+	public List<CategoryTrendResponse> weeklyTrends(LocalDate lastClosedWeek, int weeks, Supplier<List<CategoryTrendResponse>> loader) {
+		return cache(WEEKLY_TRENDS).get(tenantKey() + ":" + lastClosedWeek + ":" + weeks, loader::get);
+	}
+	
+	//Cached day totals of a closed month for one category (null: all categories), or null on a miss
+	@SuppressWarnings("unchecked")
+	public List<DailyTotalResponse> heatmapMonth(YearMonth month, Long categoryId) {
+		Cache.ValueWrapper cached = cache(HEATMAP_MONTHS).get(heatmapKey(month, categoryId));
+		return cached != null ? (List<DailyTotalResponse>) cached.get() : null;
+	}
+	
+	public void putHeatmapMonth(YearMonth month, Long categoryId, List<DailyTotalResponse> days) {
+		if (isClosedMonth(month)) {
+			cache(HEATMAP_MONTHS).put(heatmapKey(month, categoryId), List.copyOf(days));
+		}
+	}
+	
+	public void evictCategories() {
+		cache(CATEGORIES).evict(tenantKey());
+	}
+	
+	public void evictUsedCategories() {
+		cache(USED_CATEGORIES).evict(tenantKey());
+	}
+	
+	//A category just got a transaction: only matters if the cached used list lacks it
+	@SuppressWarnings("unchecked")
+	public void categoryUsed(Long categoryId) {
+		Cache.ValueWrapper cached = cache(USED_CATEGORIES).get(tenantKey());
+		if (cached == null) {
+			return;
+		}
+		List<CategoryResponse> used = (List<CategoryResponse>) cached.get();
+		if (used.stream().noneMatch(category -> category.getId().equals(categoryId))) {
+			evictUsedCategories();
+		}
+	}
+	
+	//A transaction created at this time was added, changed or removed
+	public void transactionChanged(LocalDateTime createdAt) {
+		evictWeeklyReport(createdAt.toLocalDate());
+		YearMonth month = YearMonth.from(createdAt);
+		if (isClosedMonth(month)) {
+			String prefix = tenantKey() + ":" + month + ":"; //The month's entries for every category
+			evictMatching(HEATMAP_MONTHS, key -> String.valueOf(key).startsWith(prefix));
+		}
+	}
+	
+	//The stored report for the week containing this date was recomputed
+	public void evictWeeklyReport(LocalDate date) {
+		LocalDate weekStart = date.with(DayOfWeek.MONDAY);
+		if (isClosedWeek(weekStart)) {
+			cache(WEEKLY_REPORTS).evict(weeklyReportKey(weekStart));
+			evictTrends(); //Every cached span of the tenant may include the week
+		}
+	}
+	
+	//Category names are embedded in cached reports, so a rename drops the tenant's reports
+	public void evictWeeklyReports() {
+		evictTenant(WEEKLY_REPORTS, tenantKey());
+	}
+	
+	//Transactions moved between categories: per-category day totals change
+	public void evictHeatmaps() {
+		evictTenant(HEATMAP_MONTHS, tenantKey());
+	}
+	
+	//Per-category series (and their names) changed
+	public void evictTrends() {
+		evictTenant(WEEKLY_TRENDS, tenantKey());
+	}
+	
+	//After bulk changes (e.g. a bulk load) drop everything cached for the tenant
+	public void evictTenant(String tenantId) {
+		evictTenant(CATEGORIES, tenantId);
+		evictTenant(USED_CATEGORIES, tenantId);
+		evictTenant(WEEKLY_REPORTS, tenantId);
+		evictTenant(HEATMAP_MONTHS, tenantId);
+		evictTenant(WEEKLY_TRENDS, tenantId);
+	}
+	
+	private void evictTenant(String cacheName, String tenantId) {
+		evictMatching(cacheName, key -> isTenantKey(key, tenantId));
+	}
+	
+	private void evictMatching(String cacheName, Predicate<Object> keyFilter) {
+		Cache cache = cache(cacheName);
+		Cache target = cache instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : cache;
+		afterCommit(() -> {
+			if (target.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+				caffeine.asMap().keySet().removeIf(keyFilter);
+			} else {
+				target.clear(); //Not Caffeine: coarse but safe
+			}
+		});
+	}
+	
+	//Same timing as the transaction-aware decorator's evict: after commit, or now if there is no transaction
+	private static void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+	
+	private static boolean isTenantKey(Object key, String tenantId) {
+		String value = String.valueOf(key);
+		return value.equals(tenantId) || value.startsWith(tenantId + ":");
+	}
+	
+	private String weeklyReportKey(LocalDate weekStart) {
+		return tenantKey() + ":" + weekStart.with(DayOfWeek.MONDAY);
+	}
+	
+	private String heatmapKey(YearMonth month, Long categoryId) {
+		return tenantKey() + ":" + month + ":" + (categoryId != null ? categoryId : "all");
+	}
+	
+	private Cache cache(String name) {
+		Cache cache = cacheManager.getCache(name);
+		if (cache == null) {
+			throw new IllegalStateException("Cache '" + name + "' is not configured");
+		}
+		return cache;
+	}
+
+}
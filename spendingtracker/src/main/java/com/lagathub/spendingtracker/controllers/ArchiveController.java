@@ -0,0 +1,42 @@
+package com.lagathub.spendingtracker.controllers;
+
+import org.springframework.web.bind.annotation.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.format.annotation.DateTimeFormat;
+import java.time.YearMonth;
+import java.util.List;
+
+import com.lagathub.spendingtracker.service.TransactionArchiveService;
+import com.lagathub.spendingtracker.service.archive.ArchiveSummary;
+import com.lagathub.spendingtracker.dto.response.ArchiveSegmentResponse;
+
+// Archived rows are still read through /api/spending/export/transactions, merged with the live ledger
+@RestController
+@RequestMapping("/api/spending/archive")
+@CrossOrigin(origins = "http://localhost:3000") // Allow React frontend
+public class ArchiveController {
+    
+    private final TransactionArchiveService archiveService;
+    
+    public ArchiveController(TransactionArchiveService archiveService) {
+        this.archiveService = archiveService;
+    }
+    
+    // Archived months with their size
+    @GetMapping("/segments")
+    public ResponseEntity<List<ArchiveSegmentResponse>> getSegments() {
+        return ResponseEntity.ok(archiveService.getSegments());
+    }
+    
+    // Archive one closed month now, e.g. POST /api/spending/archive/2023-01
+    @PostMapping("/{month}")
+    public ResponseEntity<ArchiveSummary> archiveMonth(@PathVariable @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        return ResponseEntity.ok(archiveService.archiveMonth(month));
+    }
+    
+    // Move an archived month back into the live ledger
+    @PostMapping("/{month}/restore")
+    public ResponseEntity<ArchiveSummary> restoreMonth(@PathVariable @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        return ResponseEntity.ok(archiveService.restoreMonth(month));
+    }
+}
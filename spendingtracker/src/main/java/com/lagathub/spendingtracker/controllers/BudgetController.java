@@ -0,0 +1,48 @@
+package com.lagathub.spendingtracker.controllers;
+
+import org.springframework.web.bind.annotation.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import jakarta.validation.Valid;
+import java.util.List;
+
+import com.lagathub.spendingtracker.service.BudgetService;
+import com.lagathub.spendingtracker.dto.request.BudgetRequest;
+import com.lagathub.spendingtracker.dto.response.BudgetAlertResponse;
+import com.lagathub.spendingtracker.dto.response.BudgetResponse;
+
+@RestController
+@RequestMapping("/api/spending/budgets")
+@CrossOrigin(origins = "http://localhost:3000") // Allow React frontend
+public class BudgetController {
+    
+    private final BudgetService budgetService;
+    
+    public BudgetController(BudgetService budgetService) {
+        this.budgetService = budgetService;
+    }
+    
+    // Weekly or monthly limit for a category, e.g. {"categoryName": "Food", "period": "MONTH", "limitAmount": 400, "warnPercent": 80}
+    @PostMapping
+    public ResponseEntity<BudgetResponse> createBudget(@Valid @RequestBody BudgetRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(budgetService.createBudget(request));
+    }
+    
+    // Every budget with what has been spent in its current period
+    @GetMapping
+    public ResponseEntity<List<BudgetResponse>> getBudgets() {
+        return ResponseEntity.ok(budgetService.getBudgets());
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteBudget(@PathVariable Long id) {
+        budgetService.deleteBudget(id);
+        return ResponseEntity.noContent().build();
+    }
+    
+    // Thresholds crossed, newest first
+    @GetMapping("/alerts")
+    public ResponseEntity<List<BudgetAlertResponse>> getAlerts(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(budgetService.getRecentAlerts(limit));
+    }
+}
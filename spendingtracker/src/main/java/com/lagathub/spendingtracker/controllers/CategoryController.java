@@ -0,0 +1,142 @@
+package com.lagathub.spendingtracker.controllers;
+
+import org.springframework.web.bind.annotation.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.format.annotation.DateTimeFormat;
+import jakarta.validation.Valid;
+import java.time.LocalDate;
+import java.util.List;
+
+import com.lagathub.spendingtracker.service.CategoryMergeService;
+import com.lagathub.spendingtracker.service.CategoryService;
+import com.lagathub.spendingtracker.service.CategoryStatisticsService;
+import com.lagathub.spendingtracker.service.SpendingSketchService;
+import com.lagathub.spendingtracker.dto.request.RecategorizeRequest;
+import com.lagathub.spendingtracker.dto.response.CategoryMoveResponse;
+import com.lagathub.spendingtracker.dto.response.CategoryResponse;
+import com.lagathub.spendingtracker.dto.response.CategoryStatisticsDrift;
+import com.lagathub.spendingtracker.dto.response.CategoryStatisticsResponse;
+import com.lagathub.spendingtracker.dto.response.CategoryTotalResponse;
+import com.lagathub.spendingtracker.dto.response.DailyTotalResponse;
+import com.lagathub.spendingtracker.dto.response.PercentileResponse;
+
+@RestController
+@RequestMapping("/api/spending/categories")
+@CrossOrigin(origins = "http://localhost:3000") // Allow React frontend
+public class CategoryController {
+    
+    private final CategoryService categoryService;
+    private final CategoryStatisticsService categoryStatisticsService;
+    private final SpendingSketchService spendingSketchService;
+    private final CategoryMergeService categoryMergeService;
+    
+    public CategoryController(CategoryService categoryService,
+                              CategoryStatisticsService categoryStatisticsService,
+                              SpendingSketchService spendingSketchService,
+                              CategoryMergeService categoryMergeService) {
+        this.categoryService = categoryService;
+        this.categoryStatisticsService = categoryStatisticsService;
+        this.spendingSketchService = spendingSketchService;
+        this.categoryMergeService = categoryMergeService;
+    }
+    
+    // All categories for dropdown lists
+    @GetMapping
+    public ResponseEntity<List<CategoryResponse>> getCategories() {
+        return ResponseEntity.ok(categoryService.getAllCategories());
+    }
+    
+    // Categories that have at least one transaction
+    @GetMapping("/used")
+    public ResponseEntity<List<CategoryResponse>> getUsedCategories() {
+        return ResponseEntity.ok(categoryService.getUsedCategories());
+    }
+    
+    // Fold one category into another, e.g. POST /api/spending/categories/7/merge-into/3 (category 7 is deleted)
+    @PostMapping("/{id}/merge-into/{targetId}")
+    public ResponseEntity<CategoryMoveResponse> mergeCategory(@PathVariable Long id, @PathVariable Long targetId) {
+        return ResponseEntity.ok(categoryMergeService.mergeCategories(id, targetId));
+    }
+    
+    // Move every transaction matching the filters to another category in one statement
+    @PostMapping("/recategorize")
+    public ResponseEntity<CategoryMoveResponse> recategorize(@Valid @RequestBody RecategorizeRequest request) {
+        return ResponseEntity.ok(categoryMergeService.recategorize(request));
+    }
+    
+    // Heaviest categories in a date range, from pre-aggregated day/week totals
+    @GetMapping("/top")
+    public ResponseEntity<List<CategoryTotalResponse>> getTopCategories(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(spendingSketchService.getTopCategories(startDate, endDate, limit));
+    }
+    
+    // Running statistics (count, sum, mean, variance, min, max) for every category
+    @GetMapping("/statistics")
+    public ResponseEntity<List<CategoryStatisticsResponse>> getAllStatistics() {
+        return ResponseEntity.ok(categoryStatisticsService.getAllStatistics());
+    }
+    
+    @GetMapping("/{id}/statistics")
+    public ResponseEntity<CategoryStatisticsResponse> getStatistics(@PathVariable Long id) {
+        return ResponseEntity.ok(categoryStatisticsService.getStatistics(id));
+    }
+    
+    // Rebuild all running statistics from the transactions table
+    @PostMapping("/statistics/rebuild")
+    public ResponseEntity<Integer> rebuildStatistics() {
+        return ResponseEntity.ok(categoryStatisticsService.rebuildAll());
+    }
+    
+    // Compare running statistics with a full recompute (read-only)
+    @GetMapping("/statistics/drift")
+    public ResponseEntity<List<CategoryStatisticsDrift>> checkStatisticsDrift() {
+        return ResponseEntity.ok(categoryStatisticsService.checkDrift());
+    }
+    
+    // Approximate percentiles of a category's amounts, e.g. ?startDate=2025-03-01&endDate=2025-03-31&q=0.5&q=0.9
+    @GetMapping("/{id}/percentiles")
+    public ResponseEntity<PercentileResponse> getPercentiles(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(name = "q", defaultValue = "0.5,0.9,0.99") List<Double> quantiles) {
+        return ResponseEntity.ok(spendingSketchService.getPercentiles(id, startDate, endDate, quantiles));
+    }
+    
+    // Same across all categories
+    @GetMapping("/percentiles")
+    public ResponseEntity<PercentileResponse> getAllCategoriesPercentiles(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(name = "q", defaultValue = "0.5,0.9,0.99") List<Double> quantiles) {
+        return ResponseEntity.ok(spendingSketchService.getPercentiles(null, startDate, endDate, quantiles));
+    }
+    
+    // Per-day totals and counts for a calendar heatmap, every day in the range included,
+    // e.g. ?startDate=2025-01-01&endDate=2025-12-31
+    @GetMapping("/heatmap")
+    public ResponseEntity<List<DailyTotalResponse>> getDailyTotals(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(spendingSketchService.getDailyTotals(null, startDate, endDate));
+    }
+    
+    // Same for one category
+    @GetMapping("/{id}/heatmap")
+    public ResponseEntity<List<DailyTotalResponse>> getCategoryDailyTotals(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(spendingSketchService.getDailyTotals(id, startDate, endDate));
+    }
+    
+    // Rebuild every quantile sketch from the transactions table
+    @PostMapping("/percentiles/rebuild")
+    public ResponseEntity<Void> rebuildSketches() {
+        spendingSketchService.rebuildAll();
+        return ResponseEntity.noContent().build();
+    }
+}
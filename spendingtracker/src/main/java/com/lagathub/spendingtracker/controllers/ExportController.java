@@ -0,0 +1,55 @@
+package com.lagathub.spendingtracker.controllers;
+
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.format.annotation.DateTimeFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.lagathub.spendingtracker.service.LedgerExportService;
+import com.lagathub.spendingtracker.service.export.ExportFormat;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+@RestController
+@RequestMapping("/api/spending/export")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ExportController {
+    
+    private final LedgerExportService ledgerExportService;
+    
+    public ExportController(LedgerExportService ledgerExportService) {
+        this.ledgerExportService = ledgerExportService;
+    }
+    
+    // Stream the ledger for a date range as CSV or columnar file (optionally gzipped)
+    // Resume an interrupted export by passing the last received row's createdAt and id
+    @GetMapping("/transactions")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime resumeAfterCreatedAt,
+            @RequestParam(required = false) Long resumeAfterId) {
+        
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        String fileName = "ledger-" + startDate + "-" + endDate + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        
+        // The body is written on another thread - carry the tenant over
+        String tenantId = TenantContext.currentTenant();
+        StreamingResponseBody body = out -> {
+            try (TenantContext.Scope scope = TenantContext.open(tenantId)) {
+                ledgerExportService.exportTransactions(
+                        startDate, endDate, exportFormat, gzip, resumeAfterCreatedAt, resumeAfterId, out);
+            }
+        };
+        
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+                .body(body);
+    }
+}
@@ -0,0 +1,64 @@
+package com.lagathub.spendingtracker.controllers;
+
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import com.lagathub.spendingtracker.jfr.FlightRecordingService;
+import com.lagathub.spendingtracker.jfr.FlightRecordingStatus;
+
+// On-demand Flight Recorder recording: start, check, dump a snapshot, stop (open the .jfr in JDK Mission Control)
+@RestController
+@RequestMapping("/api/admin/flight-recording")
+public class FlightRecordingController {
+    
+    private final FlightRecordingService flightRecordingService;
+    
+    public FlightRecordingController(FlightRecordingService flightRecordingService) {
+        this.flightRecordingService = flightRecordingService;
+    }
+    
+    // e.g. POST /api/admin/flight-recording/start?settings=profile&maxAge=PT10M
+    @PostMapping("/start")
+    public ResponseEntity<FlightRecordingStatus> start(
+            @RequestParam(defaultValue = "default") String settings,
+            @RequestParam(required = false) Duration maxAge) {
+        return ResponseEntity.ok(flightRecordingService.start(settings, maxAge));
+    }
+    
+    @GetMapping
+    public ResponseEntity<FlightRecordingStatus> status() {
+        return ResponseEntity.ok(flightRecordingService.status());
+    }
+    
+    // Snapshot of the running recording; it keeps recording
+    @GetMapping("/dump")
+    public ResponseEntity<StreamingResponseBody> dump() {
+        return download(flightRecordingService.dump());
+    }
+    
+    // Stop and download the whole recording
+    @PostMapping("/stop")
+    public ResponseEntity<StreamingResponseBody> stop() {
+        return download(flightRecordingService.stop());
+    }
+    
+    private ResponseEntity<StreamingResponseBody> download(Path file) {
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"spendingtracker.jfr\"")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(body);
+    }
+}
@@ -0,0 +1,61 @@
+package com.lagathub.spendingtracker.controllers;
+
+import org.springframework.web.bind.annotation.*;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.lagathub.spendingtracker.service.reactive.ReactiveSpendingService;
+import com.lagathub.spendingtracker.dto.response.TransactionField;
+import com.lagathub.spendingtracker.dto.response.WeeklyReportResponse;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+ * Non-blocking twins of the long-running reads in SpendingController and ReportController.
+ * The request thread returns as soon as the query is built; listings are written as NDJSON one
+ * row at a time, and the next row is only requested once the previous one was written, so a slow
+ * client slows the Postgres fetch down instead of piling rows up in memory
+ */
+@RestController
+@RequestMapping("/api/spending/reactive")
+@CrossOrigin(origins = "http://localhost:3000") // Allow React frontend
+public class ReactiveSpendingController {
+    
+    private final ReactiveSpendingService reactiveSpendingService;
+    
+    public ReactiveSpendingController(ReactiveSpendingService reactiveSpendingService) {
+        this.reactiveSpendingService = reactiveSpendingService;
+    }
+    
+    // Stream every matching transaction, newest first, e.g. ?category=Groceries&startDate=2024-01-01
+    // ?fields=id,amount,createdAt narrows both the selected columns and each line
+    @GetMapping(value = "/transactions", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<?> streamTransactions(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return reactiveSpendingService.streamTransactionFields(category, startDate, endDate, TransactionField.parse(fields));
+        }
+        return reactiveSpendingService.streamTransactions(category, startDate, endDate);
+    }
+    
+    // Total spent in a date range, e.g. ?startDate=2024-01-01&endDate=2024-12-31
+    @GetMapping("/total")
+    public Mono<BigDecimal> getRangeTotal(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return reactiveSpendingService.getRangeTotal(startDate, endDate);
+    }
+    
+    // Weekly report for the week containing the date (defaults to this week)
+    @GetMapping("/reports/weekly")
+    public Mono<WeeklyReportResponse> getWeeklyReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return reactiveSpendingService.getWeeklyReport(date != null ? date : LocalDate.now());
+    }
+}
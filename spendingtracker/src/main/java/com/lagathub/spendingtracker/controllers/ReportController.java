@@ -0,0 +1,41 @@
+package com.lagathub.spendingtracker.controllers;
+
+import org.springframework.web.bind.annotation.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.format.annotation.DateTimeFormat;
+import java.time.LocalDate;
+import java.util.List;
+
+import com.lagathub.spendingtracker.service.SpendingSketchService;
+import com.lagathub.spendingtracker.service.WeeklyReportService;
+import com.lagathub.spendingtracker.dto.response.CategoryTrendResponse;
+import com.lagathub.spendingtracker.dto.response.WeeklyReportResponse;
+
+@RestController
+@RequestMapping("/api/spending/reports")
+@CrossOrigin(origins = "http://localhost:3000") // Allow React frontend
+public class ReportController {
+    
+    private final WeeklyReportService weeklyReportService;
+    private final SpendingSketchService spendingSketchService;
+    
+    public ReportController(WeeklyReportService weeklyReportService, SpendingSketchService spendingSketchService) {
+        this.weeklyReportService = weeklyReportService;
+        this.spendingSketchService = spendingSketchService;
+    }
+    
+    // Weekly report for the week containing the date, e.g. ?date=2025-03-12 (defaults to this week)
+    @GetMapping("/weekly")
+    public ResponseEntity<WeeklyReportResponse> getWeeklyReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        LocalDate week = date != null ? date : LocalDate.now();
+        return ResponseEntity.ok(weeklyReportService.getWeeklyReport(week));
+    }
+    
+    // Rolling averages, week-over-week / month-over-month changes and streaks over the last N closed
+    // weeks, e.g. ?weeks=26. The first series is the total across categories
+    @GetMapping("/trends")
+    public ResponseEntity<List<CategoryTrendResponse>> getWeeklyTrends(@RequestParam(defaultValue = "12") int weeks) {
+        return ResponseEntity.ok(spendingSketchService.getWeeklyTrends(weeks));
+    }
+}
@@ -6,14 +6,15 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import jakarta.validation.Valid;
 import java.util.List;
-import java.util.stream.Collectors;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 import com.lagathub.spendingtracker.domain.model.Transaction;
 import com.lagathub.spendingtracker.service.TransactionService;
+import com.lagathub.spendingtracker.service.TransactionStreamService;
 import com.lagathub.spendingtracker.dto.request.TransactionRequest;
 import com.lagathub.spendingtracker.dto.response.TransactionResponse;
+import com.lagathub.spendingtracker.dto.response.TransactionField;
 import com.lagathub.spendingtracker.exception.TransactionNotFoundException;
 import com.lagathub.spendingtracker.exception.InvalidTransactionException;
 
@@ -23,9 +24,11 @@ import com.lagathub.spendingtracker.exception.InvalidTransactionException;
 public class SpendingController {
     
     private final TransactionService transactionService;
+    private final TransactionStreamService transactionStreamService;
     
-    public SpendingController(TransactionService transactionService) {
+    public SpendingController(TransactionService transactionService, TransactionStreamService transactionStreamService) {
         this.transactionService = transactionService;
+        this.transactionStreamService = transactionStreamService;
     }
     
     // Get all transactions
@@ -36,23 +39,40 @@ public class SpendingController {
     }
     
     //Get endpoint with pagination and filtering
+    //?fields=id,amount,categoryName,createdAt returns only those keys and only reads their columns
     @GetMapping("/transactions")
-    public ResponseEntity<List<TransactionResponse>> getTransactions(
+    public ResponseEntity<?> getTransactions(
     		@RequestParam(defaultValue = "0") int page,
     		@RequestParam(defaultValue = "50") int size,
     		@RequestParam(required = false) String category,
     		@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-    		@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+    		@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+    		@RequestParam(required = false) String fields) {
     	
-    	List<Transaction> transactions = transactionService.getTransactions(page, size, category, startDate, endDate);
-    	List<TransactionResponse> responses = transactions.stream()
-    			.map(TransactionResponse::from)
-    			.collect(Collectors.toList());
-    	
-    	return ResponseEntity.ok(responses);
+    	if (fields != null) {
+    		return ResponseEntity.ok(transactionService.getTransactionFields(page, size, category, startDate, endDate,
+    				TransactionField.parse(fields)));
+    	}
+    	//Full rows go straight from the result set into the response, same JSON as TransactionResponse
+    	return ResponseEntity.ok(transactionStreamService.getTransactionRows(page, size, category, startDate, endDate));
     }
     
     
+    // Biggest expenses in a date range, e.g. ?startDate=2025-03-01&endDate=2025-03-31&limit=10
+    @GetMapping("/transactions/top")
+    public ResponseEntity<?> getLargestTransactions(
+    		@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+    		@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+    		@RequestParam(defaultValue = "10") int limit,
+    		@RequestParam(required = false) String fields) {
+    	
+    	if (fields != null) {
+    		return ResponseEntity.ok(transactionService.getLargestTransactionFields(startDate, endDate, limit,
+    				TransactionField.parse(fields)));
+    	}
+    	return ResponseEntity.ok(transactionStreamService.getLargestTransactionRows(startDate, endDate, limit));
+    }
+    
     // Get transaction by ID with proper error handling
     @GetMapping("/transactions/{id}")
     public ResponseEntity<Transaction> getTransactionById(@PathVariable Long id) {
@@ -0,0 +1,28 @@
+package com.lagathub.spendingtracker.controllers;
+
+import org.springframework.web.bind.annotation.*;
+import org.springframework.http.ResponseEntity;
+
+import com.lagathub.spendingtracker.service.LedgerSyncService;
+import com.lagathub.spendingtracker.dto.response.SyncChangesResponse;
+
+// Offline clients: fetch once from since=0, then only ask for what changed after the returned cursor
+@RestController
+@RequestMapping("/api/spending/sync")
+@CrossOrigin(origins = "http://localhost:3000") // Allow React frontend
+public class SyncController {
+    
+    private final LedgerSyncService ledgerSyncService;
+    
+    public SyncController(LedgerSyncService ledgerSyncService) {
+        this.ledgerSyncService = ledgerSyncService;
+    }
+    
+    // Inserts, updates and deletes after the cursor, e.g. GET /api/spending/sync?since=80412.4211&limit=500
+    // Repeat with the returned cursor while hasMore is true
+    @GetMapping
+    public ResponseEntity<SyncChangesResponse> getChanges(@RequestParam(defaultValue = "0") String since,
+                                                          @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(ledgerSyncService.getChanges(since, limit));
+    }
+}
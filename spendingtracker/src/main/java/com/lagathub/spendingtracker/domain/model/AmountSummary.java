@@ -0,0 +1,32 @@
+package com.lagathub.spendingtracker.domain.model;
+
+import java.math.BigDecimal;
+
+/*
+ * Count, sum, mean, m2 and bounds of a group of amounts, as produced by one SQL aggregate
+ * (COUNT, SUM, AVG, VAR_POP * COUNT, MIN, MAX). Two summaries combine without the
+ * individual amounts, which is what set-based moves between categories rely on
+ */
+public record AmountSummary(long count, BigDecimal total, double mean, double m2, BigDecimal min, BigDecimal max) {
+	
+	public static final AmountSummary EMPTY = new AmountSummary(0, BigDecimal.ZERO, 0.0, 0.0, null, null);
+	
+	//Chan et al. parallel combination of two groups
+	public AmountSummary plus(AmountSummary other) {
+		if (other.count == 0) {
+			return this;
+		}
+		if (count == 0) {
+			return other;
+		}
+		long combined = count + other.count;
+		double delta = other.mean - mean;
+		return new AmountSummary(combined,
+				total.add(other.total),
+				mean + delta * other.count / combined,
+				m2 + other.m2 + delta * delta * count * other.count / combined,
+				min.compareTo(other.min) <= 0 ? min : other.min,
+				max.compareTo(other.max) >= 0 ? max : other.max);
+	}
+
+}
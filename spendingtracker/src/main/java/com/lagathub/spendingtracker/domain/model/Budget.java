@@ -0,0 +1,110 @@
+package com.lagathub.spendingtracker.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.Id;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.UniqueConstraint;
+
+/*
+ * Spending limit for one category per week or month.
+ * The amount spent in each period is not stored here but in budget_usage, a running counter
+ * adjusted by every transaction write from trackedFrom on (see BudgetService)
+ */
+@Entity
+@Table(name = "budgets",
+		uniqueConstraints = @UniqueConstraint(columnNames = {"category_id", "period"}))
+public class Budget {
+	
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+	
+	@TenantId //Owning tenant - set and filtered automatically by Hibernate
+	@ColumnDefault("'default'")
+	@Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+	private String tenantId;
+	
+	@Column(name = "category_id", nullable = false)
+	private Long categoryId;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 10)
+	private BudgetPeriod period;
+	
+	@Column(nullable = false, precision = 12, scale = 2)
+	private BigDecimal limitAmount;
+	
+	private Integer warnPercent;
+	
+	@Column(nullable = false)
+	private LocalDate trackedFrom;
+	
+	@Column(nullable = false)
+	private LocalDateTime createdAt;
+	
+	public Budget() {
+		
+	}
+	
+	//Business constructor: counters start with the current period
+	public Budget(Long categoryId, BudgetPeriod period, BigDecimal limitAmount, Integer warnPercent) {
+		this.categoryId = categoryId;
+		this.period = period;
+		this.limitAmount = limitAmount;
+		this.warnPercent = warnPercent;
+		this.createdAt = LocalDateTime.now();
+		this.trackedFrom = period.periodStart(createdAt.toLocalDate());
+	}
+	
+	public Long getId() {
+		return id;
+	}
+	
+	public String getTenantId() {
+		return tenantId;
+	}
+	
+	public Long getCategoryId() {
+		return categoryId;
+	}
+	
+	public BudgetPeriod getPeriod() {
+		return period;
+	}
+	
+	public BigDecimal getLimitAmount() {
+		return limitAmount;
+	}
+	
+	public void setLimitAmount(BigDecimal limitAmount) {
+		this.limitAmount = limitAmount;
+	}
+	
+	public Integer getWarnPercent() {
+		return warnPercent;
+	}
+	
+	public void setWarnPercent(Integer warnPercent) {
+		this.warnPercent = warnPercent;
+	}
+	
+	public LocalDate getTrackedFrom() {
+		return trackedFrom;
+	}
+	
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+}
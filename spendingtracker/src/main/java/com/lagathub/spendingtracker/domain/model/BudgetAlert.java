@@ -0,0 +1,97 @@
+package com.lagathub.spendingtracker.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.Id;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.EnumType;
+
+/*
+ * A budget threshold crossed by a transaction write. Written after that write commits
+ * (BudgetAlertListener), read by the alerts endpoint
+ */
+@Entity
+@Table(name = "budget_alerts")
+public class BudgetAlert {
+	
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+	
+	@TenantId //Owning tenant - set and filtered automatically by Hibernate
+	@ColumnDefault("'default'")
+	@Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+	private String tenantId;
+	
+	@Column(name = "budget_id", nullable = false)
+	private Long budgetId;
+	
+	@Column(name = "category_id", nullable = false)
+	private Long categoryId;
+	
+	@Column(nullable = false)
+	private LocalDate periodStart;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 10)
+	private BudgetAlertLevel level;
+	
+	@Column(nullable = false, precision = 14, scale = 2)
+	private BigDecimal spent;
+	
+	@Column(nullable = false, precision = 12, scale = 2)
+	private BigDecimal limitAmount;
+	
+	@Column(nullable = false)
+	private LocalDateTime triggeredAt;
+	
+	public BudgetAlert() {
+		
+	}
+	
+	public Long getId() {
+		return id;
+	}
+	
+	public String getTenantId() {
+		return tenantId;
+	}
+	
+	public Long getBudgetId() {
+		return budgetId;
+	}
+	
+	public Long getCategoryId() {
+		return categoryId;
+	}
+	
+	public LocalDate getPeriodStart() {
+		return periodStart;
+	}
+	
+	public BudgetAlertLevel getLevel() {
+		return level;
+	}
+	
+	public BigDecimal getSpent() {
+		return spent;
+	}
+	
+	public BigDecimal getLimitAmount() {
+		return limitAmount;
+	}
+	
+	public LocalDateTime getTriggeredAt() {
+		return triggeredAt;
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.lagathub.spendingtracker.domain.model;
+
+import java.math.BigDecimal;
+
+/*
+ * How far a budget period's spending has gone, in increasing order
+ */
+public enum BudgetAlertLevel {
+	
+	WARNING,  //At or above the budget's warn percentage of the limit
+	EXCEEDED; //Above the limit
+	
+	//Level for an amount spent against a limit, or null while below every threshold
+	public static BudgetAlertLevel of(BigDecimal spent, BigDecimal limitAmount, Integer warnPercent) {
+		if (spent.compareTo(limitAmount) > 0) {
+			return EXCEEDED;
+		}
+		if (warnPercent != null
+				&& spent.multiply(BigDecimal.valueOf(100)).compareTo(limitAmount.multiply(BigDecimal.valueOf(warnPercent))) >= 0) {
+			return WARNING;
+		}
+		return null;
+	}
+	
+	//The level reached by moving from spentBefore to spentAfter, if it is a new (higher) one
+	public static BudgetAlertLevel crossed(BigDecimal spentBefore, BigDecimal spentAfter, BigDecimal limitAmount, Integer warnPercent) {
+		BigDecimal increase = spentAfter.subtract(spentBefore);
+		if (increase.signum() <= 0) {
+			return null;
+		}
+		BudgetAlertLevel before = of(spentBefore, limitAmount, warnPercent);
+		BudgetAlertLevel after = of(spentAfter, limitAmount, warnPercent);
+		if (after == null || (before != null && before.compareTo(after) >= 0)) {
+			return null;
+		}
+		return after;
+	}
+
+}
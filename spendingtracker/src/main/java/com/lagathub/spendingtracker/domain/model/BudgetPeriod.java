@@ -0,0 +1,22 @@
+package com.lagathub.spendingtracker.domain.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/*
+ * Length of a budget period
+ */
+public enum BudgetPeriod {
+	
+	WEEK, //Monday-based, same as weekly reports
+	MONTH;
+	
+	public LocalDate periodStart(LocalDate date) {
+		return this == WEEK ? date.with(DayOfWeek.MONDAY) : date.withDayOfMonth(1);
+	}
+	
+	public LocalDate periodEnd(LocalDate periodStart) {
+		return this == WEEK ? periodStart.plusWeeks(1) : periodStart.plusMonths(1); //Exclusive
+	}
+
+}
@@ -5,8 +5,11 @@ import java.util.List;
 import java.util.ArrayList;
 
 //JPA imports
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.persistence.Id;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -17,17 +20,23 @@ import jakarta.persistence.CascadeType;
 
 
 @Entity //This class maps to a database table
-@Table(name = "categories") //Table name in PostgreSQL
+@Table(name = "categories", //Table name in PostgreSQL
+		uniqueConstraints = @UniqueConstraint(columnNames = {"tenant_id", "name"})) //Names are unique per tenant
 public class Category {
 	
 	@Id //This field is the primary key
 	@GeneratedValue(strategy = GenerationType.IDENTITY) //Auto-increment
 	private Long id;
 	
-	@Column(unique = true, nullable = false) //Name must be unique and not null
+	@TenantId //Owning tenant - set and filtered automatically by Hibernate
+	@ColumnDefault("'default'")
+	@Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+	private String tenantId;
+	
+	@Column(nullable = false, length = 100) //Name must not be null (unique within the tenant); VARCHAR(100) in V1
 	private String name;
 	
-	@Column //Optional column (can be null)
+	@Column(columnDefinition = "TEXT") //Optional column (can be null)
 	private String description;
 	
 	@Column(nullable = false) //Required field
@@ -61,6 +70,10 @@ public class Category {
 	
 	//No setId() - ID is managed by database
 	
+	public String getTenantId() {
+		return tenantId;
+	}
+	
 	public String getName() {
 		return name;
 	}
@@ -1,5 +1,7 @@
 package com.lagathub.spendingtracker.domain.model;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.Id;
@@ -25,6 +27,11 @@ public class CategorySpending {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
 	
+	@TenantId //Owning tenant - set and filtered automatically by Hibernate
+	@ColumnDefault("'default'")
+	@Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+	private String tenantId;
+	
 	@Column(nullable = false, precision = 12, scale = 2)
 	private BigDecimal amountSpent; //Total spent in this category this week
 	
@@ -69,6 +76,10 @@ public class CategorySpending {
 		return id;
 	}
 	
+	public String getTenantId() {
+		return tenantId;
+	}
+	
 	public BigDecimal getAmountSpent() {
 		return amountSpent;
 	}
@@ -0,0 +1,218 @@
+package com.lagathub.spendingtracker.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.Id;
+import jakarta.persistence.Column;
+
+/*
+ * All-time running statistics for one category, maintained incrementally on every
+ * transaction write (Welford's algorithm) so reads never scan the transactions table.
+ *
+ * mean and m2 (sum of squared deviations from the mean) are kept as doubles;
+ * count, total and the bounds are exact.
+ */
+@Entity
+@Table(name = "category_statistics")
+public class CategoryStatistics {
+	
+	@Id //Shares the category's id - one row per category
+	@Column(name = "category_id")
+	private Long categoryId;
+	
+	@TenantId //Owning tenant - set and filtered automatically by Hibernate
+	@ColumnDefault("'default'")
+	@Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+	private String tenantId;
+	
+	@Column(nullable = false)
+	private long transactionCount;
+	
+	@Column(nullable = false, precision = 19, scale = 2)
+	private BigDecimal totalAmount = BigDecimal.ZERO;
+	
+	@Column(nullable = false)
+	private double mean;
+	
+	@Column(nullable = false)
+	private double m2;
+	
+	@Column(precision = 12, scale = 2)
+	private BigDecimal minAmount;
+	
+	@Column(precision = 12, scale = 2)
+	private BigDecimal maxAmount;
+	
+	@Column(nullable = false)
+	private LocalDateTime updatedAt;
+	
+	public CategoryStatistics() {
+		
+	}
+	
+	public CategoryStatistics(Long categoryId) {
+		this.categoryId = categoryId;
+		this.updatedAt = LocalDateTime.now();
+	}
+	
+	//Business methods: O(1) updates
+	
+	/**
+	 * Include one transaction amount
+	 */
+	public void add(BigDecimal amount) {
+		double x = amount.doubleValue();
+		transactionCount++;
+		double delta = x - mean;
+		mean += delta / transactionCount;
+		m2 += delta * (x - mean);
+		totalAmount = totalAmount.add(amount);
+		if (minAmount == null || amount.compareTo(minAmount) < 0) {
+			minAmount = amount;
+		}
+		if (maxAmount == null || amount.compareTo(maxAmount) > 0) {
+			maxAmount = amount;
+		}
+		updatedAt = LocalDateTime.now();
+	}
+	
+	/**
+	 * Exclude one previously added amount (Welford in reverse).
+	 * Returns true when the removed amount was a bound, i.e. min/max must be re-read
+	 */
+	public boolean remove(BigDecimal amount) {
+		if (transactionCount <= 1) {
+			reset();
+			return false;
+		}
+		double x = amount.doubleValue();
+		long remaining = transactionCount - 1;
+		double previousMean = (mean * transactionCount - x) / remaining;
+		m2 = Math.max(0.0, m2 - (x - mean) * (x - previousMean));
+		mean = previousMean;
+		transactionCount = remaining;
+		totalAmount = totalAmount.subtract(amount);
+		updatedAt = LocalDateTime.now();
+		return amount.compareTo(minAmount) == 0 || amount.compareTo(maxAmount) == 0;
+	}
+	
+	/**
+	 * Include a whole group of amounts at once (Chan's parallel combination of two Welford states)
+	 */
+	public void merge(AmountSummary other) {
+		AmountSummary combined = summary().plus(other);
+		replaceWith(combined.count(), combined.total(), combined.mean(), combined.m2(), combined.min(), combined.max());
+	}
+	
+	/**
+	 * Exclude a previously included group (the combination solved for the remaining part).
+	 * Returns true when the group held a bound, i.e. min/max must be re-read
+	 */
+	public boolean subtract(AmountSummary other) {
+		if (other.count() == 0) {
+			return false;
+		}
+		if (other.count() >= transactionCount) {
+			reset();
+			return false;
+		}
+		long remaining = transactionCount - other.count();
+		double remainingMean = (mean * transactionCount - other.mean() * other.count()) / remaining;
+		double delta = other.mean() - remainingMean;
+		m2 = Math.max(0.0, m2 - other.m2() - delta * delta * remaining * other.count() / transactionCount);
+		mean = remainingMean;
+		transactionCount = remaining;
+		totalAmount = totalAmount.subtract(other.total());
+		updatedAt = LocalDateTime.now();
+		return other.min().compareTo(minAmount) <= 0 || other.max().compareTo(maxAmount) >= 0;
+	}
+	
+	public AmountSummary summary() {
+		return new AmountSummary(transactionCount, totalAmount, mean, m2, minAmount, maxAmount);
+	}
+	
+	/**
+	 * Overwrite with values computed elsewhere (full recompute)
+	 */
+	public void replaceWith(long count, BigDecimal total, double mean, double m2, BigDecimal min, BigDecimal max) {
+		this.transactionCount = count;
+		this.totalAmount = total;
+		this.mean = mean;
+		this.m2 = m2;
+		this.minAmount = min;
+		this.maxAmount = max;
+		this.updatedAt = LocalDateTime.now();
+	}
+	
+	public void setBounds(BigDecimal minAmount, BigDecimal maxAmount) {
+		this.minAmount = minAmount;
+		this.maxAmount = maxAmount;
+	}
+	
+	private void reset() {
+		replaceWith(0, BigDecimal.ZERO, 0.0, 0.0, null, null);
+	}
+	
+	//Population variance (every transaction of the category is in the population)
+	public double getVariance() {
+		return transactionCount > 0 ? m2 / transactionCount : 0.0;
+	}
+	
+	public double getStandardDeviation() {
+		return Math.sqrt(getVariance());
+	}
+	
+	//Getters
+	public Long getCategoryId() {
+		return categoryId;
+	}
+	
+	public String getTenantId() {
+		return tenantId;
+	}
+	
+	public long getTransactionCount() {
+		return transactionCount;
+	}
+	
+	public BigDecimal getTotalAmount() {
+		return totalAmount;
+	}
+	
+	public double getMean() {
+		return mean;
+	}
+	
+	public double getM2() {
+		return m2;
+	}
+	
+	public BigDecimal getMinAmount() {
+		return minAmount;
+	}
+	
+	public BigDecimal getMaxAmount() {
+		return maxAmount;
+	}
+	
+	public LocalDateTime getUpdatedAt() {
+		return updatedAt;
+	}
+	
+	@Override
+	public String toString() {
+		return "CategoryStatistics{" +
+				"categoryId=" + categoryId +
+				", transactionCount=" + transactionCount +
+				", totalAmount=" + totalAmount +
+				", mean=" + mean +
+				", variance=" + getVariance() +
+				'}';
+	}
+
+}
@@ -0,0 +1,22 @@
+package com.lagathub.spendingtracker.domain.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/*
+ * Time bucket sizes for spending sketches
+ */
+public enum SketchGranularity {
+	
+	DAY,
+	WEEK; //Monday-based, same as weekly reports
+	
+	public LocalDate bucketStart(LocalDate date) {
+		return this == WEEK ? date.with(DayOfWeek.MONDAY) : date;
+	}
+	
+	public LocalDate bucketEnd(LocalDate bucketStart) {
+		return this == WEEK ? bucketStart.plusDays(7) : bucketStart.plusDays(1); //Exclusive
+	}
+
+}
@@ -0,0 +1,124 @@
+package com.lagathub.spendingtracker.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.Id;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.UniqueConstraint;
+
+/*
+ * Quantile sketch (serialized t-digest) of one category's amounts in one day or week.
+ * Count and total are exact and always current; the digest itself cannot forget values,
+ * so deletes and edits set needsRebuild and the digest is rebuilt from that bucket's rows
+ */
+@Entity
+@Table(name = "spending_sketches",
+		uniqueConstraints = @UniqueConstraint(columnNames = {"category_id", "granularity", "bucket_start"}))
+public class SpendingSketch {
+	
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+	
+	@TenantId //Owning tenant - set and filtered automatically by Hibernate
+	@ColumnDefault("'default'")
+	@Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+	private String tenantId;
+	
+	@Column(name = "category_id", nullable = false)
+	private Long categoryId;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 10)
+	private SketchGranularity granularity;
+	
+	@Column(name = "bucket_start", nullable = false)
+	private LocalDate bucketStart;
+	
+	@Column(nullable = false)
+	private long transactionCount;
+	
+	@Column(nullable = false, precision = 19, scale = 2)
+	private BigDecimal totalAmount = BigDecimal.ZERO;
+	
+	@Column(nullable = false)
+	private byte[] digest;
+	
+	@Column(nullable = false)
+	private boolean needsRebuild;
+	
+	@Column(nullable = false)
+	private LocalDateTime updatedAt;
+	
+	public SpendingSketch() {
+		
+	}
+	
+	public Long getId() {
+		return id;
+	}
+	
+	public String getTenantId() {
+		return tenantId;
+	}
+	
+	public Long getCategoryId() {
+		return categoryId;
+	}
+	
+	public SketchGranularity getGranularity() {
+		return granularity;
+	}
+	
+	public LocalDate getBucketStart() {
+		return bucketStart;
+	}
+	
+	public long getTransactionCount() {
+		return transactionCount;
+	}
+	
+	public void setTransactionCount(long transactionCount) {
+		this.transactionCount = transactionCount;
+	}
+	
+	public BigDecimal getTotalAmount() {
+		return totalAmount;
+	}
+	
+	public void setTotalAmount(BigDecimal totalAmount) {
+		this.totalAmount = totalAmount;
+	}
+	
+	public byte[] getDigest() {
+		return digest;
+	}
+	
+	public void setDigest(byte[] digest) {
+		this.digest = digest;
+		this.updatedAt = LocalDateTime.now();
+	}
+	
+	public boolean isNeedsRebuild() {
+		return needsRebuild;
+	}
+	
+	public void setNeedsRebuild(boolean needsRebuild) {
+		this.needsRebuild = needsRebuild;
+	}
+	
+	public LocalDateTime getUpdatedAt() {
+		return updatedAt;
+	}
+
+}
@@ -4,6 +4,8 @@ import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.GenerationType;
@@ -21,6 +23,11 @@ public class Transaction {
 	@GeneratedValue(strategy = GenerationType.IDENTITY) //Auto increment
 	private Long id;
 	
+	@TenantId //Owning tenant - set and filtered automatically by Hibernate
+	@ColumnDefault("'default'")
+	@Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+	private String tenantId;
+	
 	@Column(nullable = false, precision = 12, scale = 2)
 	private BigDecimal amount; //Use BigDecimal for money, not double
 	
@@ -34,7 +41,7 @@ public class Transaction {
 	@Column
 	private LocalDateTime updatedAt;
 	
-	@Column(nullable = true) //Optional field
+	@Column(nullable = true, columnDefinition = "TEXT") //Optional field
 	private String note;
 	
 	//Business logic: Is this a small expense?
@@ -78,6 +85,17 @@ public class Transaction {
 		validateAmount(); //validate on creation
 	}
 	
+	//Journal mode: a write accepted but not yet in the database, id drawn from the sequence ahead of the insert
+	public Transaction (Long id, BigDecimal amount, Category category, String note, LocalDateTime createdAt, LocalDateTime updatedAt) {
+		this.id = id;
+		this.amount = amount;
+		this.category = category;
+		this.note = note;
+		this.createdAt = createdAt;
+		this.updatedAt = updatedAt;
+		validateAmount();
+	}
+	
 	//Getters and setters
 	public Long getId() {
 		return id;
@@ -85,6 +103,10 @@ public class Transaction {
 	
 	//No setId() - ID is managed by database
 	
+	public String getTenantId() {
+		return tenantId;
+	}
+	
 	public BigDecimal getAmount() {
 		return amount;
 	}
@@ -131,9 +153,14 @@ public class Transaction {
 	}
 	
 	public boolean wasRecentlyUpdated() {
+		return wasRecentlyUpdated(createdAt, updatedAt, LocalDateTime.now());
+	}
+	
+	//Same rule for rows read without the entity; pass one 'now' for a whole page
+	public static boolean wasRecentlyUpdated(LocalDateTime createdAt, LocalDateTime updatedAt, LocalDateTime now) {
 		return updatedAt != null && 
 				updatedAt.isAfter(createdAt) &&
-				Duration.between(updatedAt, LocalDateTime.now()).toMinutes() < 30;
+				Duration.between(updatedAt, now).toMinutes() < 30;
 	}
 	
 
@@ -1,7 +1,10 @@
 package com.lagathub.spendingtracker.domain.model;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.persistence.Id;
 import jakarta.persistence.Column;
 import jakarta.persistence.GeneratedValue;
@@ -18,14 +21,20 @@ import java.math.BigDecimal;
 
 
 @Entity //This class maps to a database table
-@Table(name = "weekly_reports") //Table name in PostgreSQL -- uses the snake-case for table names
+@Table(name = "weekly_reports", //Table name in PostgreSQL -- uses the snake-case for table names
+		uniqueConstraints = @UniqueConstraint(columnNames = {"tenant_id", "week_start_date"})) //One report per week per tenant
 public class WeeklyReport {
 	
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
 	
-	@Column(nullable = false, unique = true)
+	@TenantId //Owning tenant - set and filtered automatically by Hibernate
+	@ColumnDefault("'default'")
+	@Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+	private String tenantId;
+	
+	@Column(nullable = false)
 	private LocalDate weekStartDate;  //just the date, not time
 	
 	@Column(nullable = false)
@@ -62,6 +71,10 @@ public class WeeklyReport {
 		return id;
 	}
 	
+	public String getTenantId() {
+		return tenantId;
+	}
+	
 	public LocalDate getWeekStartDate() {
 		return weekStartDate;
 	}
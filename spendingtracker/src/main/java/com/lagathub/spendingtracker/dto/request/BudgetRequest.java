@@ -0,0 +1,51 @@
+package com.lagathub.spendingtracker.dto.request;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+
+import com.lagathub.spendingtracker.domain.model.BudgetPeriod;
+
+/**
+ * DTO for budget creation: a limit for one category per week or month,
+ * optionally with an early warning at a percentage of the limit
+ */
+public class BudgetRequest {
+    
+    @NotBlank(message = "Category name is required")
+    @Size(max = 50, message = "Category name must not exceed 50 characters")
+    private String categoryName;
+    
+    @NotNull(message = "Period is required (WEEK or MONTH)")
+    private BudgetPeriod period;
+    
+    @NotNull(message = "Limit is required")
+    @DecimalMin(value = "0.01", message = "Limit must be greater than 0")
+    private BigDecimal limitAmount;
+    
+    @Min(value = 1, message = "Warn percent must be between 1 and 99")
+    @Max(value = 99, message = "Warn percent must be between 1 and 99")
+    private Integer warnPercent;
+    
+    // Default constructor (required for JSON deserialization)
+    public BudgetRequest() {
+    }
+    
+    // Getters and Setters
+    public String getCategoryName() { return categoryName; }
+    public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
+    
+    public BudgetPeriod getPeriod() { return period; }
+    public void setPeriod(BudgetPeriod period) { this.period = period; }
+    
+    public BigDecimal getLimitAmount() { return limitAmount; }
+    public void setLimitAmount(BigDecimal limitAmount) { this.limitAmount = limitAmount; }
+    
+    public Integer getWarnPercent() { return warnPercent; }
+    public void setWarnPercent(Integer warnPercent) { this.warnPercent = warnPercent; }
+
+}
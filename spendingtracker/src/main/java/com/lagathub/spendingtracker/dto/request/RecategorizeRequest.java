@@ -0,0 +1,56 @@
+package com.lagathub.spendingtracker.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDate;
+
+/**
+ * DTO for bulk recategorize requests: every transaction matching the filters
+ * moves to targetCategory (created if missing). At least one filter is required
+ */
+public class RecategorizeRequest {
+    
+    @NotBlank(message = "Target category is required")
+    @Size(max = 50, message = "Category name must not exceed 50 characters")
+    private String targetCategory;
+    
+    // Filters - all optional, combined with AND
+    private String fromCategory;
+    private LocalDate startDate;
+    private LocalDate endDate; // Inclusive
+    
+    @Size(max = 255, message = "Note filter must not exceed 255 characters")
+    private String noteContains;
+    
+    // Default constructor (required for JSON deserialization)
+    public RecategorizeRequest() {
+    }
+    
+    public RecategorizeRequest(String targetCategory, String fromCategory, LocalDate startDate, LocalDate endDate, String noteContains) {
+        this.targetCategory = targetCategory;
+        this.fromCategory = fromCategory;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.noteContains = noteContains;
+    }
+    
+    public boolean hasFilter() {
+        return fromCategory != null || startDate != null || endDate != null || noteContains != null;
+    }
+    
+    // Getters and Setters
+    public String getTargetCategory() { return targetCategory; }
+    public void setTargetCategory(String targetCategory) { this.targetCategory = targetCategory; }
+    
+    public String getFromCategory() { return fromCategory; }
+    public void setFromCategory(String fromCategory) { this.fromCategory = fromCategory; }
+    
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    
+    public String getNoteContains() { return noteContains; }
+    public void setNoteContains(String noteContains) { this.noteContains = noteContains; }
+}
@@ -0,0 +1,53 @@
+package com.lagathub.spendingtracker.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+public class ArchiveSegmentResponse {
+    private YearMonth month;
+    private LocalDate rangeStart;    // first Monday of the month
+    private LocalDate rangeEnd;      // exclusive: first Monday of the next month
+    private long rowCount;
+    private BigDecimal totalAmount;
+    private long compressedBytes;
+    private LocalDateTime archivedAt;
+    
+    // Constructors
+    public ArchiveSegmentResponse() {}
+    
+    public ArchiveSegmentResponse(YearMonth month, LocalDate rangeStart, LocalDate rangeEnd, long rowCount,
+                                  BigDecimal totalAmount, long compressedBytes, LocalDateTime archivedAt) {
+        this.month = month;
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+        this.rowCount = rowCount;
+        this.totalAmount = totalAmount;
+        this.compressedBytes = compressedBytes;
+        this.archivedAt = archivedAt;
+    }
+    
+    // Getters and setters
+    public YearMonth getMonth() { return month; }
+    public void setMonth(YearMonth month) { this.month = month; }
+    
+    public LocalDate getRangeStart() { return rangeStart; }
+    public void setRangeStart(LocalDate rangeStart) { this.rangeStart = rangeStart; }
+    
+    public LocalDate getRangeEnd() { return rangeEnd; }
+    public void setRangeEnd(LocalDate rangeEnd) { this.rangeEnd = rangeEnd; }
+    
+    public long getRowCount() { return rowCount; }
+    public void setRowCount(long rowCount) { this.rowCount = rowCount; }
+    
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+    
+    public long getCompressedBytes() { return compressedBytes; }
+    public void setCompressedBytes(long compressedBytes) { this.compressedBytes = compressedBytes; }
+    
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
+
+}
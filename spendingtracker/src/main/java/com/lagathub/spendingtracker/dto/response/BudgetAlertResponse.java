@@ -0,0 +1,74 @@
+package com.lagathub.spendingtracker.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.lagathub.spendingtracker.domain.model.BudgetAlert;
+import com.lagathub.spendingtracker.domain.model.BudgetAlertLevel;
+
+public class BudgetAlertResponse {
+    private Long id;
+    private Long budgetId;
+    private Long categoryId;
+    private LocalDate periodStart;
+    private BudgetAlertLevel level;
+    private BigDecimal spent;
+    private BigDecimal limitAmount;
+    private LocalDateTime triggeredAt;
+    
+    // Constructors
+    public BudgetAlertResponse() {}
+    
+    public BudgetAlertResponse(Long id, Long budgetId, Long categoryId, LocalDate periodStart, BudgetAlertLevel level,
+                               BigDecimal spent, BigDecimal limitAmount, LocalDateTime triggeredAt) {
+        this.id = id;
+        this.budgetId = budgetId;
+        this.categoryId = categoryId;
+        this.periodStart = periodStart;
+        this.level = level;
+        this.spent = spent;
+        this.limitAmount = limitAmount;
+        this.triggeredAt = triggeredAt;
+    }
+    
+    // Factory method
+    public static BudgetAlertResponse from(BudgetAlert alert) {
+        return new BudgetAlertResponse(
+            alert.getId(),
+            alert.getBudgetId(),
+            alert.getCategoryId(),
+            alert.getPeriodStart(),
+            alert.getLevel(),
+            alert.getSpent(),
+            alert.getLimitAmount(),
+            alert.getTriggeredAt()
+        );
+    }
+    
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getBudgetId() { return budgetId; }
+    public void setBudgetId(Long budgetId) { this.budgetId = budgetId; }
+    
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+    
+    public LocalDate getPeriodStart() { return periodStart; }
+    public void setPeriodStart(LocalDate periodStart) { this.periodStart = periodStart; }
+    
+    public BudgetAlertLevel getLevel() { return level; }
+    public void setLevel(BudgetAlertLevel level) { this.level = level; }
+    
+    public BigDecimal getSpent() { return spent; }
+    public void setSpent(BigDecimal spent) { this.spent = spent; }
+    
+    public BigDecimal getLimitAmount() { return limitAmount; }
+    public void setLimitAmount(BigDecimal limitAmount) { this.limitAmount = limitAmount; }
+    
+    public LocalDateTime getTriggeredAt() { return triggeredAt; }
+    public void setTriggeredAt(LocalDateTime triggeredAt) { this.triggeredAt = triggeredAt; }
+
+}
@@ -0,0 +1,69 @@
+package com.lagathub.spendingtracker.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.lagathub.spendingtracker.domain.model.BudgetAlertLevel;
+import com.lagathub.spendingtracker.domain.model.BudgetPeriod;
+
+public class BudgetResponse {
+    private Long id;
+    private Long categoryId;
+    private String categoryName;
+    private BudgetPeriod period;
+    private BigDecimal limitAmount;
+    private Integer warnPercent;
+    private LocalDate periodStart;   // current period
+    private BigDecimal spent;        // in the current period
+    private BigDecimal remaining;    // negative once exceeded
+    private BudgetAlertLevel level;  // null while below every threshold
+    
+    // Constructors
+    public BudgetResponse() {}
+    
+    public BudgetResponse(Long id, Long categoryId, String categoryName, BudgetPeriod period, BigDecimal limitAmount,
+                          Integer warnPercent, LocalDate periodStart, BigDecimal spent) {
+        this.id = id;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.period = period;
+        this.limitAmount = limitAmount;
+        this.warnPercent = warnPercent;
+        this.periodStart = periodStart;
+        this.spent = spent;
+        this.remaining = limitAmount.subtract(spent);
+        this.level = BudgetAlertLevel.of(spent, limitAmount, warnPercent);
+    }
+    
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+    
+    public String getCategoryName() { return categoryName; }
+    public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
+    
+    public BudgetPeriod getPeriod() { return period; }
+    public void setPeriod(BudgetPeriod period) { this.period = period; }
+    
+    public BigDecimal getLimitAmount() { return limitAmount; }
+    public void setLimitAmount(BigDecimal limitAmount) { this.limitAmount = limitAmount; }
+    
+    public Integer getWarnPercent() { return warnPercent; }
+    public void setWarnPercent(Integer warnPercent) { this.warnPercent = warnPercent; }
+    
+    public LocalDate getPeriodStart() { return periodStart; }
+    public void setPeriodStart(LocalDate periodStart) { this.periodStart = periodStart; }
+    
+    public BigDecimal getSpent() { return spent; }
+    public void setSpent(BigDecimal spent) { this.spent = spent; }
+    
+    public BigDecimal getRemaining() { return remaining; }
+    public void setRemaining(BigDecimal remaining) { this.remaining = remaining; }
+    
+    public BudgetAlertLevel getLevel() { return level; }
+    public void setLevel(BudgetAlertLevel level) { this.level = level; }
+
+}
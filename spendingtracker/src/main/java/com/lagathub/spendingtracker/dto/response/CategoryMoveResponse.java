@@ -0,0 +1,33 @@
+package com.lagathub.spendingtracker.dto.response;
+
+// Outcome of a category merge or bulk recategorize
+public class CategoryMoveResponse {
+    private Long targetCategoryId;
+    private String targetCategoryName;
+    private long transactionsMoved;
+    private long elapsedMillis;
+    
+    // Constructors
+    public CategoryMoveResponse() {}
+    
+    public CategoryMoveResponse(Long targetCategoryId, String targetCategoryName, long transactionsMoved, long elapsedMillis) {
+        this.targetCategoryId = targetCategoryId;
+        this.targetCategoryName = targetCategoryName;
+        this.transactionsMoved = transactionsMoved;
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    // Getters and setters
+    public Long getTargetCategoryId() { return targetCategoryId; }
+    public void setTargetCategoryId(Long targetCategoryId) { this.targetCategoryId = targetCategoryId; }
+    
+    public String getTargetCategoryName() { return targetCategoryName; }
+    public void setTargetCategoryName(String targetCategoryName) { this.targetCategoryName = targetCategoryName; }
+    
+    public long getTransactionsMoved() { return transactionsMoved; }
+    public void setTransactionsMoved(long transactionsMoved) { this.transactionsMoved = transactionsMoved; }
+    
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+}
@@ -0,0 +1,46 @@
+package com.lagathub.spendingtracker.dto.response;
+
+import java.time.LocalDateTime;
+
+import com.lagathub.spendingtracker.domain.model.Category;
+
+public class CategoryResponse {
+    private Long id;
+    private String name;
+    private String description;
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public CategoryResponse() {}
+    
+    public CategoryResponse(Long id, String name, String description, LocalDateTime createdAt) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.createdAt = createdAt;
+    }
+    
+    // Factory method
+    public static CategoryResponse from(Category category) {
+        return new CategoryResponse(
+            category.getId(),
+            category.getName(),
+            category.getDescription(),
+            category.getCreatedAt()
+        );
+    }
+    
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+}
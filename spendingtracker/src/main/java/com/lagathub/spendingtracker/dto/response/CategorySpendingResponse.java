@@ -0,0 +1,46 @@
+package com.lagathub.spendingtracker.dto.response;
+
+import java.math.BigDecimal;
+
+import com.lagathub.spendingtracker.domain.model.CategorySpending;
+
+public class CategorySpendingResponse {
+    private Long categoryId;
+    private String categoryName;
+    private BigDecimal amountSpent;
+    private Integer transactionCount;
+    
+    // Constructors
+    public CategorySpendingResponse() {}
+    
+    public CategorySpendingResponse(Long categoryId, String categoryName, BigDecimal amountSpent, Integer transactionCount) {
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.amountSpent = amountSpent;
+        this.transactionCount = transactionCount;
+    }
+    
+    // Factory method
+    public static CategorySpendingResponse from(CategorySpending spending) {
+        return new CategorySpendingResponse(
+            spending.getCategory().getId(),
+            spending.getCategory().getName(),
+            spending.getAmountSpent(),
+            spending.getTransactionCount()
+        );
+    }
+    
+    // Getters and setters
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+    
+    public String getCategoryName() { return categoryName; }
+    public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
+    
+    public BigDecimal getAmountSpent() { return amountSpent; }
+    public void setAmountSpent(BigDecimal amountSpent) { this.amountSpent = amountSpent; }
+    
+    public Integer getTransactionCount() { return transactionCount; }
+    public void setTransactionCount(Integer transactionCount) { this.transactionCount = transactionCount; }
+
+}
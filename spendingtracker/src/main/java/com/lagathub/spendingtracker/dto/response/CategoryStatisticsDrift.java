@@ -0,0 +1,70 @@
+package com.lagathub.spendingtracker.dto.response;
+
+import java.math.BigDecimal;
+
+/**
+ * One category's stored running statistics next to a full recompute
+ */
+public class CategoryStatisticsDrift {
+    private Long categoryId;
+    private long storedCount;
+    private long actualCount;
+    private BigDecimal storedTotal;
+    private BigDecimal actualTotal;
+    private double storedMean;
+    private double actualMean;
+    private double storedVariance;
+    private double actualVariance;
+    private boolean drifted;
+    
+    // Constructors
+    public CategoryStatisticsDrift() {}
+    
+    public CategoryStatisticsDrift(Long categoryId, long storedCount, long actualCount,
+                                   BigDecimal storedTotal, BigDecimal actualTotal,
+                                   double storedMean, double actualMean,
+                                   double storedVariance, double actualVariance, boolean drifted) {
+        this.categoryId = categoryId;
+        this.storedCount = storedCount;
+        this.actualCount = actualCount;
+        this.storedTotal = storedTotal;
+        this.actualTotal = actualTotal;
+        this.storedMean = storedMean;
+        this.actualMean = actualMean;
+        this.storedVariance = storedVariance;
+        this.actualVariance = actualVariance;
+        this.drifted = drifted;
+    }
+    
+    // Getters and setters
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+    
+    public long getStoredCount() { return storedCount; }
+    public void setStoredCount(long storedCount) { this.storedCount = storedCount; }
+    
+    public long getActualCount() { return actualCount; }
+    public void setActualCount(long actualCount) { this.actualCount = actualCount; }
+    
+    public BigDecimal getStoredTotal() { return storedTotal; }
+    public void setStoredTotal(BigDecimal storedTotal) { this.storedTotal = storedTotal; }
+    
+    public BigDecimal getActualTotal() { return actualTotal; }
+    public void setActualTotal(BigDecimal actualTotal) { this.actualTotal = actualTotal; }
+    
+    public double getStoredMean() { return storedMean; }
+    public void setStoredMean(double storedMean) { this.storedMean = storedMean; }
+    
+    public double getActualMean() { return actualMean; }
+    public void setActualMean(double actualMean) { this.actualMean = actualMean; }
+    
+    public double getStoredVariance() { return storedVariance; }
+    public void setStoredVariance(double storedVariance) { this.storedVariance = storedVariance; }
+    
+    public double getActualVariance() { return actualVariance; }
+    public void setActualVariance(double actualVariance) { this.actualVariance = actualVariance; }
+    
+    public boolean isDrifted() { return drifted; }
+    public void setDrifted(boolean drifted) { this.drifted = drifted; }
+
+}
@@ -0,0 +1,70 @@
+package com.lagathub.spendingtracker.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.lagathub.spendingtracker.domain.model.CategoryStatistics;
+
+public class CategoryStatisticsResponse {
+    private Long categoryId;
+    private String categoryName;
+    private long transactionCount;
+    private BigDecimal totalAmount;
+    private double mean;
+    private double variance;
+    private double standardDeviation;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public CategoryStatisticsResponse() {}
+    
+    // Factory method
+    public static CategoryStatisticsResponse from(CategoryStatistics statistics, String categoryName) {
+        CategoryStatisticsResponse response = new CategoryStatisticsResponse();
+        response.categoryId = statistics.getCategoryId();
+        response.categoryName = categoryName;
+        response.transactionCount = statistics.getTransactionCount();
+        response.totalAmount = statistics.getTotalAmount();
+        response.mean = statistics.getMean();
+        response.variance = statistics.getVariance();
+        response.standardDeviation = statistics.getStandardDeviation();
+        response.minAmount = statistics.getMinAmount();
+        response.maxAmount = statistics.getMaxAmount();
+        response.updatedAt = statistics.getUpdatedAt();
+        return response;
+    }
+    
+    // Getters and setters
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+    
+    public String getCategoryName() { return categoryName; }
+    public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
+    
+    public long getTransactionCount() { return transactionCount; }
+    public void setTransactionCount(long transactionCount) { this.transactionCount = transactionCount; }
+    
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+    
+    public double getMean() { return mean; }
+    public void setMean(double mean) { this.mean = mean; }
+    
+    public double getVariance() { return variance; }
+    public void setVariance(double variance) { this.variance = variance; }
+    
+    public double getStandardDeviation() { return standardDeviation; }
+    public void setStandardDeviation(double standardDeviation) { this.standardDeviation = standardDeviation; }
+    
+    public BigDecimal getMinAmount() { return minAmount; }
+    public void setMinAmount(BigDecimal minAmount) { this.minAmount = minAmount; }
+    
+    public BigDecimal getMaxAmount() { return maxAmount; }
+    public void setMaxAmount(BigDecimal maxAmount) { this.maxAmount = maxAmount; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+}
@@ -0,0 +1,34 @@
+package com.lagathub.spendingtracker.dto.response;
+
+import java.math.BigDecimal;
+
+public class CategoryTotalResponse {
+    private Long categoryId;
+    private String categoryName;
+    private BigDecimal totalAmount;
+    private long transactionCount;
+    
+    // Constructors
+    public CategoryTotalResponse() {}
+    
+    public CategoryTotalResponse(Long categoryId, String categoryName, BigDecimal totalAmount, long transactionCount) {
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.totalAmount = totalAmount;
+        this.transactionCount = transactionCount;
+    }
+    
+    // Getters and setters
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+    
+    public String getCategoryName() { return categoryName; }
+    public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
+    
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+    
+    public long getTransactionCount() { return transactionCount; }
+    public void setTransactionCount(long transactionCount) { this.transactionCount = transactionCount; }
+
+}
@@ -0,0 +1,29 @@
+package com.lagathub.spendingtracker.dto.response;
+
+import java.util.List;
+
+public class CategoryTrendResponse {
+    private Long categoryId;     // null for the total across all categories
+    private String categoryName;
+    private List<WeeklyTrendResponse> weeks;
+    
+    // Constructors
+    public CategoryTrendResponse() {}
+    
+    public CategoryTrendResponse(Long categoryId, String categoryName, List<WeeklyTrendResponse> weeks) {
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.weeks = weeks;
+    }
+    
+    // Getters and setters
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+    
+    public String getCategoryName() { return categoryName; }
+    public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
+    
+    public List<WeeklyTrendResponse> getWeeks() { return weeks; }
+    public void setWeeks(List<WeeklyTrendResponse> weeks) { this.weeks = weeks; }
+
+}
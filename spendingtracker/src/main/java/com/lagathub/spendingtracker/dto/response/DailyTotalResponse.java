@@ -0,0 +1,30 @@
+package com.lagathub.spendingtracker.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class DailyTotalResponse {
+    private LocalDate date;
+    private BigDecimal totalAmount;
+    private long transactionCount;
+    
+    // Constructors
+    public DailyTotalResponse() {}
+    
+    public DailyTotalResponse(LocalDate date, BigDecimal totalAmount, long transactionCount) {
+        this.date = date;
+        this.totalAmount = totalAmount;
+        this.transactionCount = transactionCount;
+    }
+    
+    // Getters and setters
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+    
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+    
+    public long getTransactionCount() { return transactionCount; }
+    public void setTransactionCount(long transactionCount) { this.transactionCount = transactionCount; }
+
+}
@@ -0,0 +1,21 @@
+package com.lagathub.spendingtracker.dto.response;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Response body that writes itself straight into the response's generator (JSON, CBOR or Smile,
+ * whichever the client negotiated) - rows go from the result set to the wire without a DTO list
+ */
+@FunctionalInterface
+public interface JsonRows {
+    
+    JsonRows EMPTY_ARRAY = generator -> {
+        generator.writeStartArray();
+        generator.writeEndArray();
+    };
+    
+    void writeTo(JsonGenerator generator) throws IOException;
+
+}
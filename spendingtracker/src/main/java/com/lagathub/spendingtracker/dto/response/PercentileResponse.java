@@ -0,0 +1,51 @@
+package com.lagathub.spendingtracker.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Approximate percentiles of transaction amounts over a date range,
+ * keyed like "p50", "p90", "p99.9"
+ */
+public class PercentileResponse {
+    private Long categoryId; // null when computed across all categories
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private long transactionCount;
+    private BigDecimal totalAmount;
+    private Map<String, BigDecimal> percentiles;
+    
+    // Constructors
+    public PercentileResponse() {}
+    
+    public PercentileResponse(Long categoryId, LocalDate startDate, LocalDate endDate,
+                              long transactionCount, BigDecimal totalAmount, Map<String, BigDecimal> percentiles) {
+        this.categoryId = categoryId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.transactionCount = transactionCount;
+        this.totalAmount = totalAmount;
+        this.percentiles = percentiles;
+    }
+    
+    // Getters and setters
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+    
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    
+    public long getTransactionCount() { return transactionCount; }
+    public void setTransactionCount(long transactionCount) { this.transactionCount = transactionCount; }
+    
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+    
+    public Map<String, BigDecimal> getPercentiles() { return percentiles; }
+    public void setPercentiles(Map<String, BigDecimal> percentiles) { this.percentiles = percentiles; }
+
+}
@@ -0,0 +1,41 @@
+package com.lagathub.spendingtracker.dto.response;
+
+import java.util.List;
+
+// One batch of changes after a sync cursor. Apply deletions, then categories, then transactions
+public class SyncChangesResponse {
+    private String cursor;      // opaque: pass back as ?since= for the next batch
+    private boolean hasMore;    // more changes after cursor: ask again straight away
+    private List<CategoryResponse> categories;      // inserted or updated, current state
+    private List<TransactionResponse> transactions; // inserted or updated, current state
+    private List<SyncDeletion> deleted;
+    
+    // Constructors
+    public SyncChangesResponse() {}
+    
+    public SyncChangesResponse(String cursor, boolean hasMore, List<CategoryResponse> categories,
+                               List<TransactionResponse> transactions, List<SyncDeletion> deleted) {
+        this.cursor = cursor;
+        this.hasMore = hasMore;
+        this.categories = categories;
+        this.transactions = transactions;
+        this.deleted = deleted;
+    }
+    
+    // Getters and setters
+    public String getCursor() { return cursor; }
+    public void setCursor(String cursor) { this.cursor = cursor; }
+    
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+    
+    public List<CategoryResponse> getCategories() { return categories; }
+    public void setCategories(List<CategoryResponse> categories) { this.categories = categories; }
+    
+    public List<TransactionResponse> getTransactions() { return transactions; }
+    public void setTransactions(List<TransactionResponse> transactions) { this.transactions = transactions; }
+    
+    public List<SyncDeletion> getDeleted() { return deleted; }
+    public void setDeleted(List<SyncDeletion> deleted) { this.deleted = deleted; }
+
+}
@@ -0,0 +1,27 @@
+package com.lagathub.spendingtracker.dto.response;
+
+public class SyncDeletion {
+    private String type;    // "transaction" or "category"
+    private Long id;
+    private long changeSeq;
+    
+    // Constructors
+    public SyncDeletion() {}
+    
+    public SyncDeletion(String type, Long id, long changeSeq) {
+        this.type = type;
+        this.id = id;
+        this.changeSeq = changeSeq;
+    }
+    
+    // Getters and setters
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public long getChangeSeq() { return changeSeq; }
+    public void setChangeSeq(long changeSeq) { this.changeSeq = changeSeq; }
+
+}
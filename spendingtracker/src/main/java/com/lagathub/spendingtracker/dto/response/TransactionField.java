@@ -0,0 +1,54 @@
+package com.lagathub.spendingtracker.dto.response;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Fields of TransactionResponse a client can ask for with ?fields=id,amount,categoryName,createdAt
+public enum TransactionField {
+    ID("id"),
+    AMOUNT("amount"),
+    CATEGORY_NAME("categoryName"),
+    CATEGORY_ID("categoryId"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt"),
+    NOTE("note"),
+    RECENTLY_UPDATED("recentlyUpdated");
+    
+    private final String jsonName;
+    
+    TransactionField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+    
+    public String getJsonName() { return jsonName; }
+    
+    // Parse a comma separated list of JSON names; null or blank means every field
+    public static Set<TransactionField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return EnumSet.allOf(TransactionField.class);
+        }
+        Set<TransactionField> parsed = EnumSet.noneOf(TransactionField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                parsed.add(fromJsonName(trimmed));
+            }
+        }
+        if (parsed.isEmpty()) {
+            return EnumSet.allOf(TransactionField.class);
+        }
+        return parsed;
+    }
+    
+    private static TransactionField fromJsonName(String name) {
+        for (TransactionField field : values()) {
+            if (field.jsonName.equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field '" + name + "', expected one of " +
+                Arrays.stream(values()).map(TransactionField::getJsonName).collect(Collectors.joining(",")));
+    }
+}
@@ -0,0 +1,103 @@
+package com.lagathub.spendingtracker.dto.response;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.lagathub.spendingtracker.domain.model.Transaction;
+
+/**
+ * Writes one transaction in exactly the shape Jackson gives TransactionResponse, from column
+ * values, without building the DTO. Field names are pre-encoded and timestamps are formatted
+ * into a reused buffer, so per row it only allocates what the generator needs for the amount.
+ * One instance per response (not thread-safe)
+ */
+public class TransactionJsonWriter {
+    
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString AMOUNT = new SerializedString("amount");
+    private static final SerializedString CATEGORY_NAME = new SerializedString("categoryName");
+    private static final SerializedString CATEGORY_ID = new SerializedString("categoryId");
+    private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+    private static final SerializedString NOTE = new SerializedString("note");
+    private static final SerializedString RECENTLY_UPDATED = new SerializedString("recentlyUpdated");
+    
+    private final LocalDateTime now; // one 'now' for the whole page, like the fields= path
+    private final char[] timestamp = new char[29]; // yyyy-MM-ddTHH:mm:ss.SSSSSSSSS
+    
+    public TransactionJsonWriter(LocalDateTime now) {
+        this.now = now;
+    }
+    
+    public void write(JsonGenerator generator, long id, BigDecimal amount, String categoryName, long categoryId,
+                      LocalDateTime createdAt, LocalDateTime updatedAt, String note) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        generator.writeNumber(id);
+        generator.writeFieldName(AMOUNT);
+        generator.writeNumber(amount);
+        generator.writeFieldName(CATEGORY_NAME);
+        generator.writeString(categoryName);
+        generator.writeFieldName(CATEGORY_ID);
+        generator.writeNumber(categoryId);
+        generator.writeFieldName(CREATED_AT);
+        writeTimestamp(generator, createdAt);
+        generator.writeFieldName(UPDATED_AT);
+        writeTimestamp(generator, updatedAt);
+        generator.writeFieldName(NOTE);
+        generator.writeString(note);
+        generator.writeFieldName(RECENTLY_UPDATED);
+        generator.writeBoolean(createdAt != null && Transaction.wasRecentlyUpdated(createdAt, updatedAt, now));
+        generator.writeEndObject();
+    }
+    
+    // Same text as DateTimeFormatter.ISO_LOCAL_DATE_TIME (Jackson's default): seconds always,
+    // fraction only when non-zero and without trailing zeros
+    private void writeTimestamp(JsonGenerator generator, LocalDateTime value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+        if (value.getYear() < 0 || value.getYear() > 9999) {
+            generator.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value)); // signed/extended years
+            return;
+        }
+        int length = 0;
+        length = digits(value.getYear(), 4, length);
+        timestamp[length++] = '-';
+        length = digits(value.getMonthValue(), 2, length);
+        timestamp[length++] = '-';
+        length = digits(value.getDayOfMonth(), 2, length);
+        timestamp[length++] = 'T';
+        length = digits(value.getHour(), 2, length);
+        timestamp[length++] = ':';
+        length = digits(value.getMinute(), 2, length);
+        timestamp[length++] = ':';
+        length = digits(value.getSecond(), 2, length);
+        int nanos = value.getNano();
+        if (nanos > 0) {
+            int width = 9;
+            while (nanos % 10 == 0) {
+                nanos /= 10;
+                width--;
+            }
+            timestamp[length++] = '.';
+            length = digits(nanos, width, length);
+        }
+        generator.writeString(timestamp, 0, length);
+    }
+    
+    // Zero-padded decimal digits of value at offset; returns the new length
+    private int digits(int value, int width, int offset) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            timestamp[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + width;
+    }
+
+}
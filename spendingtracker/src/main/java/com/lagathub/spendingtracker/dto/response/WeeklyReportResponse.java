@@ -0,0 +1,70 @@
+package com.lagathub.spendingtracker.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.lagathub.spendingtracker.domain.model.WeeklyReport;
+
+public class WeeklyReportResponse {
+    private Long id;
+    private LocalDate weekStartDate;
+    private LocalDate weekEndDate;
+    private BigDecimal totalSpent;
+    private LocalDateTime generatedAt;
+    private List<CategorySpendingResponse> categoryBreakdowns;
+    private boolean stale; // transactions in this week changed after generatedAt; a background refresh is pending
+    
+    // Constructors
+    public WeeklyReportResponse() {}
+    
+    public WeeklyReportResponse(Long id, LocalDate weekStartDate, LocalDate weekEndDate, BigDecimal totalSpent,
+                                LocalDateTime generatedAt, List<CategorySpendingResponse> categoryBreakdowns) {
+        this.id = id;
+        this.weekStartDate = weekStartDate;
+        this.weekEndDate = weekEndDate;
+        this.totalSpent = totalSpent;
+        this.generatedAt = generatedAt;
+        this.categoryBreakdowns = categoryBreakdowns;
+    }
+    
+    // Factory method - call inside a transaction, breakdowns and categories are lazy
+    public static WeeklyReportResponse from(WeeklyReport report) {
+        List<CategorySpendingResponse> breakdowns = report.getCategoryBreakdowns().stream()
+            .map(CategorySpendingResponse::from)
+            .collect(Collectors.toList());
+        return new WeeklyReportResponse(
+            report.getId(),
+            report.getWeekStartDate(),
+            report.getWeekEndDate(),
+            report.getTotalSpent(),
+            report.getGeneratedAt(),
+            List.copyOf(breakdowns)
+        );
+    }
+    
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public LocalDate getWeekStartDate() { return weekStartDate; }
+    public void setWeekStartDate(LocalDate weekStartDate) { this.weekStartDate = weekStartDate; }
+    
+    public LocalDate getWeekEndDate() { return weekEndDate; }
+    public void setWeekEndDate(LocalDate weekEndDate) { this.weekEndDate = weekEndDate; }
+    
+    public BigDecimal getTotalSpent() { return totalSpent; }
+    public void setTotalSpent(BigDecimal totalSpent) { this.totalSpent = totalSpent; }
+    
+    public LocalDateTime getGeneratedAt() { return generatedAt; }
+    public void setGeneratedAt(LocalDateTime generatedAt) { this.generatedAt = generatedAt; }
+    
+    public List<CategorySpendingResponse> getCategoryBreakdowns() { return categoryBreakdowns; }
+    public void setCategoryBreakdowns(List<CategorySpendingResponse> categoryBreakdowns) { this.categoryBreakdowns = categoryBreakdowns; }
+    
+    public boolean isStale() { return stale; }
+    public void setStale(boolean stale) { this.stale = stale; }
+
+}
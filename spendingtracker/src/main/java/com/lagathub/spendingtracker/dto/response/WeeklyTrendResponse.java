@@ -0,0 +1,57 @@
+package com.lagathub.spendingtracker.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class WeeklyTrendResponse {
+    private LocalDate weekStartDate;
+    private BigDecimal totalSpent;
+    private long transactionCount;
+    private BigDecimal fourWeekAverage;
+    private BigDecimal twelveWeekAverage;
+    private BigDecimal weekOverWeekChange;  // against the previous week
+    private BigDecimal monthOverMonthChange; // last 4 weeks against the 4 weeks before
+    private int streak;                      // consecutive weeks up (> 0) or down (< 0)
+    
+    // Constructors
+    public WeeklyTrendResponse() {}
+    
+    public WeeklyTrendResponse(LocalDate weekStartDate, BigDecimal totalSpent, long transactionCount,
+                               BigDecimal fourWeekAverage, BigDecimal twelveWeekAverage,
+                               BigDecimal weekOverWeekChange, BigDecimal monthOverMonthChange, int streak) {
+        this.weekStartDate = weekStartDate;
+        this.totalSpent = totalSpent;
+        this.transactionCount = transactionCount;
+        this.fourWeekAverage = fourWeekAverage;
+        this.twelveWeekAverage = twelveWeekAverage;
+        this.weekOverWeekChange = weekOverWeekChange;
+        this.monthOverMonthChange = monthOverMonthChange;
+        this.streak = streak;
+    }
+    
+    // Getters and setters
+    public LocalDate getWeekStartDate() { return weekStartDate; }
+    public void setWeekStartDate(LocalDate weekStartDate) { this.weekStartDate = weekStartDate; }
+    
+    public BigDecimal getTotalSpent() { return totalSpent; }
+    public void setTotalSpent(BigDecimal totalSpent) { this.totalSpent = totalSpent; }
+    
+    public long getTransactionCount() { return transactionCount; }
+    public void setTransactionCount(long transactionCount) { this.transactionCount = transactionCount; }
+    
+    public BigDecimal getFourWeekAverage() { return fourWeekAverage; }
+    public void setFourWeekAverage(BigDecimal fourWeekAverage) { this.fourWeekAverage = fourWeekAverage; }
+    
+    public BigDecimal getTwelveWeekAverage() { return twelveWeekAverage; }
+    public void setTwelveWeekAverage(BigDecimal twelveWeekAverage) { this.twelveWeekAverage = twelveWeekAverage; }
+    
+    public BigDecimal getWeekOverWeekChange() { return weekOverWeekChange; }
+    public void setWeekOverWeekChange(BigDecimal weekOverWeekChange) { this.weekOverWeekChange = weekOverWeekChange; }
+    
+    public BigDecimal getMonthOverMonthChange() { return monthOverMonthChange; }
+    public void setMonthOverMonthChange(BigDecimal monthOverMonthChange) { this.monthOverMonthChange = monthOverMonthChange; }
+    
+    public int getStreak() { return streak; }
+    public void setStreak(int streak) { this.streak = streak; }
+
+}
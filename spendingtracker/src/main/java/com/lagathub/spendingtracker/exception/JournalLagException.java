@@ -0,0 +1,12 @@
+package com.lagathub.spendingtracker.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+//Journal mode: the tenant's journaled writes did not reach the database in time to serve a consistent read
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class JournalLagException extends RuntimeException {
+	public JournalLagException(String message) {
+		super(message);
+	}
+}
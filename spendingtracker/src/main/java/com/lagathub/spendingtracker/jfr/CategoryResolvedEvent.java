@@ -0,0 +1,27 @@
+package com.lagathub.spendingtracker.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("spendingtracker.CategoryResolved")
+@Label("Find Or Create Category")
+@Description("CategoryService.findOrCreateCategory: name lookup, plus the insert when the category is new")
+public class CategoryResolvedEvent extends SpendingEvent {
+	
+	@Label("Category Id")
+	long categoryId;
+	
+	@Label("Created")
+	boolean created;
+	
+	public void commit(Long categoryId, boolean created) {
+		if (shouldCommit()) {
+			tagTenant();
+			this.categoryId = categoryId != null ? categoryId : -1;
+			this.created = created;
+			commit();
+		}
+	}
+
+}
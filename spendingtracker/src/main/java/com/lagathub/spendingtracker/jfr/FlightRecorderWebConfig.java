@@ -0,0 +1,21 @@
+package com.lagathub.spendingtracker.jfr;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class FlightRecorderWebConfig implements WebMvcConfigurer {
+	
+	private final ResponseSerializationEvents responseSerializationEvents;
+	
+	public FlightRecorderWebConfig(ResponseSerializationEvents responseSerializationEvents) {
+		this.responseSerializationEvents = responseSerializationEvents;
+	}
+	
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(responseSerializationEvents);
+	}
+
+}
@@ -0,0 +1,115 @@
+package com.lagathub.spendingtracker.jfr;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.lagathub.spendingtracker.exception.ResourceNotFoundException;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/*
+ * One on-demand Flight Recorder recording for the whole process: start it when latency spikes,
+ * dump it while it runs (a snapshot) or when stopping it, and open the file in JDK Mission Control.
+ * Settings are the JDK's "default" (continuous, ~1% overhead) or "profile" (more detail, ~2%);
+ * the spendingtracker.* events are recorded with either
+ */
+@Service
+public class FlightRecordingService {
+	
+	private static final Logger log = LoggerFactory.getLogger(FlightRecordingService.class);
+	
+	static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(30);
+	
+	private Recording recording; //Guarded by this
+	private String settings;
+	
+	public synchronized FlightRecordingStatus start(String settings, Duration maxAge) {
+		if (recording != null && recording.getState() == RecordingState.RUNNING) {
+			throw new IllegalArgumentException("A recording is already running (id " + recording.getId() + ")");
+		}
+		if (maxAge != null && (maxAge.isNegative() || maxAge.isZero())) {
+			throw new IllegalArgumentException("Max age must be positive");
+		}
+		discard();
+		
+		Recording started = new Recording(configuration(settings));
+		started.setName("spendingtracker");
+		started.setToDisk(true); //Bounded by maxAge instead of memory
+		started.setMaxAge(maxAge != null ? maxAge : DEFAULT_MAX_AGE);
+		started.start();
+		this.recording = started;
+		this.settings = settings;
+		log.info("Started flight recording {} with '{}' settings, keeping {}", started.getId(), settings, started.getMaxAge());
+		return status();
+	}
+	
+	public synchronized FlightRecordingStatus status() {
+		Recording current = current();
+		return new FlightRecordingStatus(current.getId(), current.getState().name(), settings,
+				current.getStartTime(), current.getMaxAge(), current.getSize());
+	}
+	
+	//Write what has been recorded so far to a new temporary file; the caller deletes it
+	public synchronized Path dump() {
+		return dumpTo(current());
+	}
+	
+	//Stop recording and return the complete recording as a temporary file; the caller deletes it
+	public synchronized Path stop() {
+		Recording current = current();
+		if (current.getState() == RecordingState.RUNNING) {
+			current.stop();
+			log.info("Stopped flight recording {} ({} bytes)", current.getId(), current.getSize());
+		}
+		Path file = dumpTo(current);
+		discard();
+		return file;
+	}
+	
+	private Recording current() {
+		if (recording == null) {
+			throw new ResourceNotFoundException("No flight recording has been started");
+		}
+		return recording;
+	}
+	
+	private void discard() {
+		if (recording != null) {
+			recording.close(); //Also deletes its chunk files
+			recording = null;
+			settings = null;
+		}
+	}
+	
+	private static Path dumpTo(Recording recording) {
+		try {
+			Path file = Files.createTempFile("spendingtracker-", ".jfr");
+			recording.dump(file);
+			return file;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private static Configuration configuration(String settings) {
+		if (!"default".equals(settings) && !"profile".equals(settings)) {
+			throw new IllegalArgumentException("Settings must be 'default' or 'profile'");
+		}
+		try {
+			return Configuration.getConfiguration(settings);
+		} catch (IOException | ParseException e) {
+			throw new IllegalStateException("JDK recording settings '" + settings + "' are unreadable", e);
+		}
+	}
+
+}
@@ -0,0 +1,10 @@
+package com.lagathub.spendingtracker.jfr;
+
+import java.time.Duration;
+import java.time.Instant;
+
+//State of the on-demand recording; sizeBytes is what a dump would currently contain
+public record FlightRecordingStatus(long id, String state, String settings, Instant startedAt,
+									Duration maxAge, long sizeBytes) {
+	
+}
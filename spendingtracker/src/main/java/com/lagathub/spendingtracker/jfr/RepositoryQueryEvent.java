@@ -0,0 +1,27 @@
+package com.lagathub.spendingtracker.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("spendingtracker.RepositoryQuery")
+@Label("Repository Query")
+@Description("One call to a Spring Data repository method, including flushes it triggers")
+public class RepositoryQueryEvent extends SpendingEvent {
+	
+	@Label("Repository")
+	String repository;
+	
+	@Label("Method")
+	String method;
+	
+	public void commit(String repository, String method) {
+		if (shouldCommit()) {
+			tagTenant();
+			this.repository = repository;
+			this.method = method;
+			commit();
+		}
+	}
+
+}
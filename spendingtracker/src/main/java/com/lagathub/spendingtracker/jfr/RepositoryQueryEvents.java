@@ -0,0 +1,45 @@
+package com.lagathub.spendingtracker.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/*
+ * Adds a RepositoryQueryEvent around every Spring Data repository call, by customizing each
+ * repository factory before it builds its proxy. Plain JdbcTemplate statements are not covered
+ */
+@Component
+public class RepositoryQueryEvents implements BeanPostProcessor {
+	
+	@Override
+	public Object postProcessBeforeInitialization(Object bean, String beanName) {
+		if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+			factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor((proxy, repositoryInformation) ->
+					proxy.addAdvice(new QueryInterceptor(repositoryInformation.getRepositoryInterface().getSimpleName()))));
+		}
+		return bean;
+	}
+	
+	private static class QueryInterceptor implements MethodInterceptor {
+		
+		private final String repository;
+		
+		QueryInterceptor(String repository) {
+			this.repository = repository;
+		}
+		
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			RepositoryQueryEvent event = new RepositoryQueryEvent();
+			event.begin();
+			try {
+				return invocation.proceed();
+			} finally {
+				event.commit(repository, invocation.getMethod().getName());
+			}
+		}
+	}
+
+}
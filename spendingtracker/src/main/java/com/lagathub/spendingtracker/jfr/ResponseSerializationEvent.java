@@ -0,0 +1,30 @@
+package com.lagathub.spendingtracker.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("spendingtracker.ResponseSerialization")
+@Label("Response Serialization")
+@Description("Writing a controller's response body through its message converter; for streamed row bodies this includes the query")
+public class ResponseSerializationEvent extends SpendingEvent {
+	
+	@Label("Endpoint")
+	String endpoint;
+	
+	@Label("Body Type")
+	String bodyType;
+	
+	@Label("Media Type")
+	String mediaType;
+	
+	//Body and media type are known before the write starts, the endpoint is filled in here
+	void commit(String endpoint) {
+		if (shouldCommit()) {
+			tagTenant();
+			this.endpoint = endpoint;
+			commit();
+		}
+	}
+
+}
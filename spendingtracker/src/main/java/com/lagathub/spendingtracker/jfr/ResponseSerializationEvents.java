@@ -0,0 +1,58 @@
+package com.lagathub.spendingtracker.jfr;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jdk.jfr.EventType;
+
+/*
+ * Times response serialization: the event begins just before the converter writes the body
+ * (ResponseBodyAdvice) and is committed once the handler has completed (HandlerInterceptor,
+ * registered in FlightRecorderWebConfig). Nothing is allocated per request unless a recording
+ * has the event enabled
+ */
+@ControllerAdvice
+public class ResponseSerializationEvents implements ResponseBodyAdvice<Object>, HandlerInterceptor {
+	
+	private static final String EVENT_ATTRIBUTE = ResponseSerializationEvents.class.getName() + ".event";
+	private static final EventType EVENT_TYPE = EventType.getEventType(ResponseSerializationEvent.class);
+	
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return true;
+	}
+	
+	@Override
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+								  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+								  ServerHttpRequest request, ServerHttpResponse response) {
+		if (EVENT_TYPE.isEnabled() && request instanceof ServletServerHttpRequest servletRequest) {
+			ResponseSerializationEvent event = new ResponseSerializationEvent();
+			event.mediaType = selectedContentType.toString();
+			event.bodyType = body != null ? body.getClass().getSimpleName() : "null";
+			servletRequest.getServletRequest().setAttribute(EVENT_ATTRIBUTE, event);
+			event.begin();
+		}
+		return body;
+	}
+	
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		if (request.getAttribute(EVENT_ATTRIBUTE) instanceof ResponseSerializationEvent event) {
+			request.removeAttribute(EVENT_ATTRIBUTE);
+			Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+			event.commit(request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI()));
+		}
+	}
+
+}
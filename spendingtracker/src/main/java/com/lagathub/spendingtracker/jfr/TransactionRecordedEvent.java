@@ -0,0 +1,29 @@
+package com.lagathub.spendingtracker.jfr;
+
+import java.math.BigDecimal;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("spendingtracker.TransactionRecorded")
+@Label("Record Transaction")
+@Description("TransactionService.recordTransaction: category resolution, insert and the counters kept in step with it")
+public class TransactionRecordedEvent extends SpendingEvent {
+	
+	@Label("Category Id")
+	long categoryId;
+	
+	@Label("Amount")
+	double amount;
+	
+	public void commit(long categoryId, BigDecimal amount) {
+		if (shouldCommit()) {
+			tagTenant();
+			this.categoryId = categoryId;
+			this.amount = amount.doubleValue();
+			commit();
+		}
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.lagathub.spendingtracker.jfr;
+
+import com.lagathub.spendingtracker.domain.model.CategorySpending;
+import com.lagathub.spendingtracker.domain.model.WeeklyReport;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("spendingtracker.WeeklyReport")
+@Label("Generate Weekly Report")
+@Description("WeeklyReportService.generateWeeklyReport: loading the week and aggregating it, or returning the stored report")
+public class WeeklyReportEvent extends SpendingEvent {
+	
+	@Label("Week Start")
+	String weekStart;
+	
+	@Label("Transaction Count")
+	int transactionCount;
+	
+	@Label("Category Count")
+	int categoryCount;
+	
+	@Label("Stored")
+	@Description("The report already existed and was returned as stored")
+	boolean stored;
+	
+	public void commit(WeeklyReport report, boolean stored) {
+		if (shouldCommit()) {
+			tagTenant();
+			this.weekStart = report.getWeekStartDate().toString();
+			this.categoryCount = report.getCategoryBreakdowns().size();
+			int transactions = 0;
+			for (CategorySpending breakdown : report.getCategoryBreakdowns()) {
+				Integer count = breakdown.getTransactionCount();
+				transactions += count != null ? count : 0;
+			}
+			this.transactionCount = transactions;
+			this.stored = stored;
+			commit();
+		}
+	}
+
+}
@@ -0,0 +1,15 @@
+package com.lagathub.spendingtracker.journal;
+
+//When journaled writes reach the device (ledger.journal.fsync)
+public enum FsyncPolicy {
+	
+	//Before the write is acknowledged; concurrent writers share one flush
+	ALWAYS,
+	
+	//Every ledger.journal.fsync-interval: a power loss can drop the writes of the last interval
+	INTERVAL,
+	
+	//Left to the operating system: survives a crash of the application, not of the machine
+	NONE
+
+}
@@ -0,0 +1,36 @@
+package com.lagathub.spendingtracker.journal;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+//The projector's position in the journal, kept in the database next to what it applied (V17), and the records it gave up on (V19)
+public class JournalCheckpoints {
+	
+	private final JdbcTemplate jdbcTemplate;
+	
+	public JournalCheckpoints(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+	
+	//0 before anything was ever applied
+	public long load() {
+		return jdbcTemplate.query("SELECT applied_offset FROM journal_checkpoint WHERE id = 1",
+				rs -> rs.next() ? rs.getLong(1) : 0L);
+	}
+	
+	//Call inside the transaction that applied the records up to appliedOffset
+	public void save(long appliedOffset) {
+		jdbcTemplate.update("INSERT INTO journal_checkpoint (id, applied_offset) VALUES (1, ?) " +
+				"ON CONFLICT (id) DO UPDATE SET applied_offset = EXCLUDED.applied_offset, updated_at = NOW()", appliedOffset);
+	}
+	
+	//Keep a record that cannot be applied, with why; call inside the transaction that saves the checkpoint past it
+	public void deadLetter(TransactionJournal.Entry entry, String error) {
+		JournalRecord record = entry.record();
+		jdbcTemplate.update("INSERT INTO journal_dead_letters (end_offset, tenant_id, record_type, transaction_id, category_id, " +
+				"category_name, amount, note, recorded_at, error) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (end_offset) DO NOTHING",
+				entry.endOffset(), record.tenantId(), record.type().name(), record.transactionId(),
+				record.type() == JournalRecord.Type.DELETE ? null : record.categoryId(), record.categoryName(), record.amount(),
+				record.note(), record.at(), error);
+	}
+
+}
@@ -0,0 +1,71 @@
+package com.lagathub.spendingtracker.journal;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.lagathub.spendingtracker.service.TransactionService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*
+ * Journal mode (ledger.journal.enabled=true): transaction writes are acknowledged once journaled and
+ * applied to the database by JournalProjector. Off by default; without these beans TransactionService
+ * writes straight to the database as before
+ */
+@Configuration
+@ConditionalOnProperty(name = "ledger.journal.enabled", havingValue = "true")
+public class JournalConfig {
+	
+	@Bean
+	public JournalCheckpoints journalCheckpoints(JdbcTemplate jdbcTemplate) {
+		return new JournalCheckpoints(jdbcTemplate);
+	}
+	
+	@Bean
+	public TransactionIdBlocks transactionIdBlocks(JdbcTemplate jdbcTemplate,
+												   @Value("${ledger.journal.id-block:1000}") int blockSize) {
+		return new TransactionIdBlocks(jdbcTemplate, blockSize);
+	}
+	
+	@Bean(destroyMethod = "close")
+	public TransactionJournal transactionJournal(JournalCheckpoints checkpoints, MeterRegistry meterRegistry,
+												 @Value("${ledger.journal.directory:./journal}") Path directory,
+												 @Value("${ledger.journal.segment-size:64MB}") DataSize segmentSize,
+												 @Value("${ledger.journal.fsync:interval}") FsyncPolicy fsync,
+												 @Value("${ledger.journal.fsync-interval:10ms}") Duration fsyncInterval) {
+		TransactionJournal journal = new TransactionJournal(directory, Math.toIntExact(segmentSize.toBytes()), fsync, fsyncInterval, checkpoints.load());
+		meterRegistry.gauge("ledger.journal.lag", journal, TransactionJournal::getLagBytes); //Bytes accepted but not yet applied
+		return journal;
+	}
+	
+	@Bean
+	public JournalProjector journalProjector(TransactionJournal transactionJournal, JournalCheckpoints checkpoints,
+											 TransactionService transactionService, PlatformTransactionManager transactionManager,
+											 @Value("${ledger.journal.batch-size:500}") int batchSize) {
+		return new JournalProjector(transactionJournal, checkpoints, transactionService,
+				new TransactionTemplate(transactionManager), batchSize);
+	}
+	
+	@Bean
+	public WebMvcConfigurer journalReadBarrierConfigurer(TransactionJournal transactionJournal,
+														 @Value("${ledger.journal.read-wait:5s}") Duration readWait) {
+		return new WebMvcConfigurer() {
+			@Override
+			public void addInterceptors(InterceptorRegistry registry) {
+				registry.addInterceptor(new JournalReadBarrier(transactionJournal, readWait)).addPathPatterns("/api/**");
+			}
+		};
+	}
+
+}
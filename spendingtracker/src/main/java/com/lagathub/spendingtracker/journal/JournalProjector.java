@@ -0,0 +1,210 @@
+package com.lagathub.spendingtracker.journal;
+
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.lagathub.spendingtracker.service.TransactionService;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+/*
+ * Applies journaled writes to the database in journal order, on one background thread. Each run of
+ * consecutive records from the same tenant is one database transaction (a Hibernate session belongs to
+ * one tenant), and the checkpoint is saved in that same transaction: after a crash the projector resumes
+ * exactly after the last committed run, and replaying a run that did not commit is harmless.
+ *
+ * A batch that fails because the database is unavailable (or it lost a lock race) is retried with a growing
+ * backoff for as long as that lasts - those writes were acknowledged, and nothing is wrong with them. Any
+ * other failure is retried MAX_ATTEMPTS times, then the batch's records one at a time, and a single record
+ * that still fails is moved to journal_dead_letters (V19) with its error in the transaction that moves the
+ * checkpoint past it, so one bad write cannot stall every later one and is not lost. Whatever else goes
+ * wrong is logged and retried; the thread only ends when stopped
+ */
+public class JournalProjector implements SmartLifecycle {
+	
+	private static final Logger log = LoggerFactory.getLogger(JournalProjector.class);
+	
+	private static final int MAX_ATTEMPTS = 3;
+	private static final long BACKOFF_MILLIS = 1000;
+	private static final int MAX_BACKOFF_DOUBLINGS = 5; //An outage is retried at least every 32 backoffs
+	private static final long IDLE_WAIT_MILLIS = 100;
+	
+	private final TransactionJournal journal;
+	private final JournalCheckpoints checkpoints;
+	private final TransactionService transactionService;
+	private final TransactionTemplate transactionTemplate;
+	private final int batchSize;
+	private final long backoffMillis;
+	private volatile boolean running;
+	private Thread worker;
+	
+	//Worker thread only
+	private int failures; //Consecutive failures of the records at the projected offset, outages aside
+	private int outages; //Consecutive attempts that found the database unavailable
+	private long singlesUntil; //After a batch keeps failing, its records are retried one at a time up to here
+	
+	public JournalProjector(TransactionJournal journal, JournalCheckpoints checkpoints, TransactionService transactionService,
+							TransactionTemplate transactionTemplate, int batchSize) {
+		this(journal, checkpoints, transactionService, transactionTemplate, batchSize, Duration.ofMillis(BACKOFF_MILLIS));
+	}
+	
+	JournalProjector(TransactionJournal journal, JournalCheckpoints checkpoints, TransactionService transactionService,
+					 TransactionTemplate transactionTemplate, int batchSize, Duration backoff) {
+		this.journal = journal;
+		this.checkpoints = checkpoints;
+		this.transactionService = transactionService;
+		this.transactionTemplate = transactionTemplate;
+		this.batchSize = batchSize;
+		this.backoffMillis = backoff.toMillis();
+	}
+	
+	@Override
+	public void start() {
+		running = true;
+		worker = Thread.ofPlatform().name("journal-projector").daemon().start(this::run);
+	}
+	
+	@Override
+	public void stop() {
+		running = false;
+		try {
+			worker.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	//False once the worker has ended, however it ended
+	@Override
+	public boolean isRunning() {
+		return running && worker != null && worker.isAlive();
+	}
+	
+	private void run() {
+		while (running) {
+			try {
+				projectNext();
+			} catch (InterruptedException e) {
+				return;
+			} catch (RuntimeException e) {
+				//A failed dead-letter write, or the journal itself: nothing was skipped, so try again
+				log.error("Journal projection failed at offset {}, retrying", journal.getProjectedOffset(), e);
+				pause(backoffMillis);
+			}
+		}
+	}
+	
+	private void projectNext() throws InterruptedException {
+		//Step 1: The next durable records, or a short wait for some
+		long applied = journal.getProjectedOffset();
+		List<TransactionJournal.Entry> entries = journal.read(applied, applied < singlesUntil ? 1 : batchSize);
+		if (entries.isEmpty()) {
+			journal.awaitReadable(applied, IDLE_WAIT_MILLIS);
+			return;
+		}
+		
+		//Step 2: Apply them run by run; runs before a failing one stay committed
+		try {
+			applyRuns(entries);
+			failures = 0;
+			outages = 0;
+		} catch (RuntimeException e) {
+			applied = journal.getProjectedOffset();
+			if (isTransient(e)) {
+				//Step 3a: Nothing wrong with the records - wait for the database however long it takes
+				outages++;
+				long wait = backoffMillis << Math.min(outages - 1, MAX_BACKOFF_DOUBLINGS);
+				if (outages == 1) {
+					log.warn("Database unavailable applying the journal from offset {}, retrying until it is back", applied, e);
+				} else {
+					log.warn("Database still unavailable applying the journal from offset {} (attempt {}): {}", applied, outages, e.toString());
+				}
+				pause(wait);
+				return;
+			}
+			
+			//Step 3b: Retry, then one record at a time, then set the failing record aside
+			outages = 0;
+			failures++;
+			if (failures < MAX_ATTEMPTS) {
+				log.warn("Applying the journal from offset {} failed (attempt {}), retrying", applied, failures, e);
+				pause(backoffMillis);
+			} else if (entries.size() > 1) {
+				log.warn("Applying the journal from offset {} failed {} times, retrying one record at a time", applied, failures, e);
+				singlesUntil = entries.getLast().endOffset();
+				failures = 0;
+			} else {
+				TransactionJournal.Entry poisoned = entries.getFirst();
+				log.error("Dead-lettering the journal record at offset {} after {} failed attempts: {}", applied, failures, poisoned.record(), e);
+				deadLetter(poisoned, e);
+				failures = 0;
+			}
+		}
+	}
+	
+	private void applyRuns(List<TransactionJournal.Entry> entries) {
+		int start = 0;
+		while (start < entries.size()) {
+			String tenantId = entries.get(start).record().tenantId();
+			int end = start + 1;
+			while (end < entries.size() && entries.get(end).record().tenantId().equals(tenantId)) {
+				end++;
+			}
+			List<TransactionJournal.Entry> run = entries.subList(start, end);
+			long runEnd = run.getLast().endOffset();
+			try (TenantContext.Scope scope = TenantContext.open(tenantId)) {
+				transactionTemplate.executeWithoutResult(status -> {
+					run.forEach(entry -> transactionService.applyJournalRecord(entry.record()));
+					checkpoints.save(runEnd);
+				});
+			}
+			journal.projected(runEnd);
+			start = end;
+		}
+	}
+	
+	//Move the checkpoint past a record without applying it, keeping the record; if this fails, the record is retried
+	private void deadLetter(TransactionJournal.Entry entry, RuntimeException cause) {
+		transactionTemplate.executeWithoutResult(status -> {
+			checkpoints.deadLetter(entry, cause.toString());
+			checkpoints.save(entry.endOffset());
+		});
+		journal.projected(entry.endOffset());
+	}
+	
+	//Connection trouble, a timeout, a deadlock or serialization failure: worth retrying without limit
+	static boolean isTransient(Throwable failure) {
+		for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+			if (cause instanceof TransientDataAccessException || cause instanceof RecoverableDataAccessException
+					|| cause instanceof DataAccessResourceFailureException || cause instanceof CannotCreateTransactionException
+					|| cause instanceof SQLTransientException || cause instanceof SQLRecoverableException) {
+				return true;
+			}
+			//Connection exception (08), rollback (40), insufficient resources (53), operator intervention (57)
+			if (cause instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().matches("(08|40|53|57).*")) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private void pause(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			running = false;
+		}
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.lagathub.spendingtracker.journal;
+
+import java.time.Duration;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.lagathub.spendingtracker.controllers.SpendingController;
+import com.lagathub.spendingtracker.exception.JournalLagException;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/*
+ * Journal mode read-your-writes: a request sees the database only once it holds every write already
+ * journaled for its tenant. Only SpendingController's creates pass straight through, as they need
+ * nothing from the database; updates and deletes wait here, before a transaction holds a pooled
+ * connection the projector needs to catch up. Answers 503 when the projector is further behind than
+ * ledger.journal.read-wait
+ */
+public class JournalReadBarrier implements HandlerInterceptor {
+	
+	private final TransactionJournal journal;
+	private final Duration readWait;
+	
+	public JournalReadBarrier(TransactionJournal journal, Duration readWait) {
+		this.journal = journal;
+		this.readWait = readWait;
+	}
+	
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (isJournaledCreate(request, handler)) {
+			return true;
+		}
+		if (!journal.awaitProjected(TenantContext.currentTenant(), readWait)) {
+			throw new JournalLagException("Earlier writes are still being applied, try again shortly");
+		}
+		return true;
+	}
+	
+	private static boolean isJournaledCreate(HttpServletRequest request, Object handler) {
+		return handler instanceof HandlerMethod method
+				&& method.getBeanType() == SpendingController.class
+				&& HttpMethod.POST.matches(request.getMethod());
+	}
+
+}
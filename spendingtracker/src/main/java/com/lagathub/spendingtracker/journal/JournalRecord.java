@@ -0,0 +1,99 @@
+package com.lagathub.spendingtracker.journal;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import com.lagathub.spendingtracker.domain.model.Category;
+
+/*
+ * One journaled transaction write. CREATE and UPDATE carry the full new state (so applying one
+ * twice leaves the same row), DELETE only the id. The category is resolved when the write is
+ * accepted; its name goes along in case the id is gone (merged away) by the time it is applied.
+ *
+ * Binary layout: type, tenant, transaction id, category id, category name, amount (scale, unscaled - amounts
+ * are journaled at the column's scale, so they fit a long), note, timestamp (epoch seconds as UTC, nanos).
+ * Strings are UTF-8 with a length prefix, -1 for null
+ */
+public record JournalRecord(Type type, String tenantId, long transactionId, long categoryId, String categoryName,
+							BigDecimal amount, String note, LocalDateTime at) {
+	
+	public enum Type {
+		CREATE, UPDATE, DELETE
+	}
+	
+	public static JournalRecord created(String tenantId, long transactionId, Category category, BigDecimal amount,
+										String note, LocalDateTime createdAt) {
+		return new JournalRecord(Type.CREATE, tenantId, transactionId, category.getId(), category.getName(), amount, note, createdAt);
+	}
+	
+	public static JournalRecord updated(String tenantId, long transactionId, Category category, BigDecimal amount,
+										String note, LocalDateTime updatedAt) {
+		return new JournalRecord(Type.UPDATE, tenantId, transactionId, category.getId(), category.getName(), amount, note, updatedAt);
+	}
+	
+	public static JournalRecord deleted(String tenantId, long transactionId, LocalDateTime deletedAt) {
+		return new JournalRecord(Type.DELETE, tenantId, transactionId, 0, null, null, null, deletedAt);
+	}
+	
+	//Bytes writeTo will produce
+	public int encodedSize() {
+		return 1 + sizeOf(tenantId) + 8 + 8 + sizeOf(categoryName) + 1 + 8 + sizeOf(note) + 8 + 4;
+	}
+	
+	public void writeTo(ByteBuffer buffer) {
+		buffer.put((byte) type.ordinal());
+		putString(buffer, tenantId);
+		buffer.putLong(transactionId);
+		buffer.putLong(categoryId);
+		putString(buffer, categoryName);
+		if (amount == null) {
+			buffer.put((byte) -1).putLong(0);
+		} else {
+			buffer.put((byte) amount.scale()).putLong(amount.unscaledValue().longValueExact());
+		}
+		putString(buffer, note);
+		buffer.putLong(at.toEpochSecond(ZoneOffset.UTC)).putInt(at.getNano());
+	}
+	
+	public static JournalRecord readFrom(ByteBuffer buffer) {
+		Type type = Type.values()[buffer.get()];
+		String tenantId = getString(buffer);
+		long transactionId = buffer.getLong();
+		long categoryId = buffer.getLong();
+		String categoryName = getString(buffer);
+		byte scale = buffer.get();
+		long unscaled = buffer.getLong();
+		BigDecimal amount = scale < 0 ? null : new BigDecimal(BigInteger.valueOf(unscaled), scale);
+		String note = getString(buffer);
+		LocalDateTime at = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+		return new JournalRecord(type, tenantId, transactionId, categoryId, categoryName, amount, note, at);
+	}
+	
+	private static int sizeOf(String value) {
+		return 4 + (value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length);
+	}
+	
+	private static void putString(ByteBuffer buffer, String value) {
+		if (value == null) {
+			buffer.putInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		buffer.putInt(bytes.length).put(bytes);
+	}
+	
+	private static String getString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
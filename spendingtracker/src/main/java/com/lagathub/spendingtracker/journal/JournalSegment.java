@@ -0,0 +1,144 @@
+package com.lagathub.spendingtracker.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/*
+ * One fixed-size journal file, memory-mapped for its whole length. Records are framed as
+ * [payload length][CRC32C of payload][payload]; the length is written last, so a record cut short
+ * by a crash reads as length 0 (the end) or fails its checksum. A new file is all zeros, which also
+ * reads as the end.
+ *
+ * Appends come from one thread at a time (TransactionJournal holds the lock); reads only look at
+ * records below the journal's published offset and never move the buffer's position
+ */
+class JournalSegment {
+	
+	static final int FRAME_HEADER = 8;
+	
+	private final long baseOffset;
+	private final Path path;
+	private final MappedByteBuffer buffer;
+	private int writePosition;
+	private int forcedPosition;
+	
+	private JournalSegment(long baseOffset, Path path, MappedByteBuffer buffer) {
+		this.baseOffset = baseOffset;
+		this.path = path;
+		this.buffer = buffer;
+	}
+	
+	static JournalSegment open(Path path, long baseOffset, int size) {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			//The mapping stays valid after the channel is closed
+			return new JournalSegment(baseOffset, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot map journal segment " + path, e);
+		}
+	}
+	
+	/*
+	 * Find the end of the intact records and clear whatever a crash left after it, so a later
+	 * append there can never be followed by stale bytes that happen to look like a record
+	 */
+	int recover() {
+		int position = 0;
+		while (recordLength(position) > 0 && checksumMatches(position)) {
+			position += FRAME_HEADER + recordLength(position);
+		}
+		int dirtyEnd = position;
+		for (int i = position; i < buffer.capacity(); i += 8) {
+			if (i + 8 > buffer.capacity() ? buffer.get(i) != 0 : buffer.getLong(i) != 0) {
+				dirtyEnd = Math.min(i + 8, buffer.capacity());
+			}
+		}
+		for (int i = position; i < dirtyEnd; i++) {
+			buffer.put(i, (byte) 0);
+		}
+		writePosition = position;
+		forcedPosition = position;
+		return position;
+	}
+	
+	//Continue appending at this position (after a recovery that had to skip ahead)
+	void resumeAt(int position) {
+		for (int i = writePosition; i < position; i++) {
+			buffer.put(i, (byte) 0);
+		}
+		writePosition = position;
+		forcedPosition = position;
+	}
+	
+	int remaining() {
+		return buffer.capacity() - writePosition;
+	}
+	
+	int writePosition() {
+		return writePosition;
+	}
+	
+	//Frame and write the record at the end; returns the new end position
+	int append(JournalRecord record, int payloadLength) {
+		int position = writePosition;
+		record.writeTo(buffer.slice(position + FRAME_HEADER, payloadLength));
+		CRC32C crc = new CRC32C();
+		crc.update(buffer.slice(position + FRAME_HEADER, payloadLength));
+		buffer.putInt(position + 4, (int) crc.getValue());
+		buffer.putInt(position, payloadLength); //Last: until now the record reads as the end
+		writePosition = position + FRAME_HEADER + payloadLength;
+		return writePosition;
+	}
+	
+	//Payload length of the record at this position, 0 at the end of the written records
+	int recordLength(int position) {
+		if (position + FRAME_HEADER > buffer.capacity()) {
+			return 0;
+		}
+		int length = buffer.getInt(position);
+		return length > 0 && position + FRAME_HEADER + length <= buffer.capacity() ? length : 0;
+	}
+	
+	JournalRecord read(int position) {
+		if (!checksumMatches(position)) {
+			throw new IllegalStateException("Corrupt journal record at offset " + (baseOffset + position) + " in " + path);
+		}
+		return JournalRecord.readFrom(buffer.slice(position + FRAME_HEADER, recordLength(position)));
+	}
+	
+	private boolean checksumMatches(int position) {
+		CRC32C crc = new CRC32C();
+		crc.update(buffer.slice(position + FRAME_HEADER, recordLength(position)));
+		return buffer.getInt(position + 4) == (int) crc.getValue();
+	}
+	
+	//Write the appended range up to end (a position the caller read under the append lock) to the device
+	synchronized void force(int end) {
+		if (end > forcedPosition) {
+			buffer.force(forcedPosition, end - forcedPosition);
+			forcedPosition = end;
+		}
+	}
+	
+	long baseOffset() {
+		return baseOffset;
+	}
+	
+	int capacity() {
+		return buffer.capacity();
+	}
+	
+	void delete() {
+		try {
+			Files.deleteIfExists(path); //The mapping itself goes away with the buffer
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot delete journal segment " + path, e);
+		}
+	}
+
+}
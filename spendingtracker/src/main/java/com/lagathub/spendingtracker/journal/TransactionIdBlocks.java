@@ -0,0 +1,35 @@
+package com.lagathub.spendingtracker.journal;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/*
+ * Transaction ids for journaled creates. The id is part of the response, so it is needed before the
+ * row exists: ids are drawn from the transactions sequence a block at a time, one round trip per
+ * block instead of one per write. Ids left over at shutdown are simply never used
+ */
+public class TransactionIdBlocks {
+	
+	private static final String NEXT_BLOCK_SQL =
+			"SELECT nextval(pg_get_serial_sequence('transactions', 'id')) FROM generate_series(1, ?)";
+	
+	private final JdbcTemplate jdbcTemplate;
+	private final int blockSize;
+	private List<Long> block = List.of();
+	private int next;
+	
+	public TransactionIdBlocks(JdbcTemplate jdbcTemplate, int blockSize) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.blockSize = blockSize;
+	}
+	
+	public synchronized long nextId() {
+		if (next == block.size()) {
+			block = jdbcTemplate.queryForList(NEXT_BLOCK_SQL, Long.class, blockSize);
+			next = 0;
+		}
+		return block.get(next++);
+	}
+
+}
@@ -0,0 +1,305 @@
+package com.lagathub.spendingtracker.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Append-only log of transaction writes in journal mode (ledger.journal.enabled). A write is
+ * acknowledged once its record is in the memory-mapped segment (and flushed, under FsyncPolicy.ALWAYS);
+ * JournalProjector applies records to the database later, in order.
+ *
+ * Offsets are logical byte positions across segments: segment files are named by the offset of their
+ * first byte, and the next segment starts where the previous one ends. Three offsets only move forward:
+ *   written   - end of the last appended record
+ *   durable   - end of what has reached the device; the projector never reads past it, so the database
+ *               can never hold a write that a crash then removes from the journal
+ *   projected - end of what the database holds (the checkpoint committed with each applied batch)
+ * Segments wholly below the projected offset are deleted.
+ *
+ * Read-your-writes: each tenant's last appended offset is kept until it is projected, and reads for
+ * that tenant wait for it (awaitProjected). Tenants without unprojected writes never wait
+ */
+public class TransactionJournal implements AutoCloseable {
+	
+	private static final Logger log = LoggerFactory.getLogger(TransactionJournal.class);
+	
+	private static final String SUFFIX = ".journal";
+	
+	private final Path directory;
+	private final int segmentSize;
+	private final FsyncPolicy fsync;
+	private final NavigableMap<Long, JournalSegment> segments = new ConcurrentSkipListMap<>();
+	private final Map<String, Long> unprojectedByTenant = new ConcurrentHashMap<>();
+	private final Object appendLock = new Object();
+	private final Object flushLock = new Object();
+	private final Object progress = new Object(); //Notified when the durable or projected offset moves
+	private final ScheduledExecutorService flusher;
+	
+	private JournalSegment active; //Guarded by appendLock; always the last segment
+	private volatile long writtenOffset;
+	private volatile long durableOffset;
+	private volatile long projectedOffset;
+	
+	/*
+	 * Opens the segments in the directory (creating it if needed) and recovers the end of the log.
+	 * checkpoint is the projected offset the database last committed
+	 */
+	public TransactionJournal(Path directory, int segmentSize, FsyncPolicy fsync, Duration fsyncInterval, long checkpoint) {
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.fsync = fsync;
+		
+		//Step 1: Existing segments, oldest first; those the database already holds in full go
+		for (Path path : segmentFiles()) {
+			long baseOffset = Long.parseLong(path.getFileName().toString().replace(SUFFIX, ""));
+			long size = sizeOf(path);
+			JournalSegment segment = JournalSegment.open(path, baseOffset, size > 0 ? (int) size : segmentSize); //0: crashed while creating it
+			if (baseOffset + segment.capacity() <= checkpoint) {
+				segment.delete();
+			} else {
+				segments.put(baseOffset, segment);
+			}
+		}
+		
+		//Step 2: The end of the intact records in the last segment is where appends continue
+		long end;
+		if (segments.isEmpty()) {
+			active = createSegment(checkpoint);
+			end = checkpoint;
+		} else {
+			active = segments.lastEntry().getValue();
+			end = active.baseOffset() + active.recover();
+		}
+		
+		//Step 3: The database can only be ahead if the machine lost writes the OS had not flushed (FsyncPolicy.NONE)
+		if (checkpoint > end) {
+			log.warn("Journal ends at offset {} but the database has applied up to {}: continuing after the checkpoint", end, checkpoint);
+			if (checkpoint < active.baseOffset() + active.capacity()) {
+				active.resumeAt((int) (checkpoint - active.baseOffset()));
+			} else {
+				active = createSegment(checkpoint);
+			}
+			end = checkpoint;
+		}
+		writtenOffset = end;
+		durableOffset = end;
+		projectedOffset = checkpoint;
+		log.info("Journal in {} recovered: {} bytes waiting to be applied from offset {}", directory, end - checkpoint, checkpoint);
+		
+		if (fsync == FsyncPolicy.INTERVAL) {
+			flusher = Executors.newSingleThreadScheduledExecutor(runnable -> Thread.ofPlatform().name("journal-fsync").daemon().unstarted(runnable));
+			long intervalNanos = fsyncInterval.toNanos();
+			flusher.scheduleWithFixedDelay(this::flush, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+		} else {
+			flusher = null;
+		}
+	}
+	
+	//Append a record; returns the offset just past it. Under FsyncPolicy.ALWAYS it is on the device on return
+	public long append(JournalRecord record) {
+		int length = record.encodedSize();
+		if (JournalSegment.FRAME_HEADER + length > segmentSize) {
+			throw new IllegalArgumentException("Journal record of " + length + " bytes does not fit a segment");
+		}
+		long end;
+		synchronized (appendLock) {
+			if (active.remaining() < JournalSegment.FRAME_HEADER + length) {
+				roll();
+			}
+			end = active.baseOffset() + active.append(record, length);
+			writtenOffset = end;
+			unprojectedByTenant.put(record.tenantId(), end);
+		}
+		switch (fsync) {
+			case ALWAYS -> awaitDurable(end);
+			case NONE -> advanceDurable(end);
+			case INTERVAL -> { } //The flusher picks it up
+		}
+		return end;
+	}
+	
+	//Start the next segment where the full one ends; the full one is forced first, so it is complete on disk
+	private void roll() {
+		active.force(active.writePosition());
+		active = createSegment(active.baseOffset() + active.capacity());
+	}
+	
+	private JournalSegment createSegment(long baseOffset) {
+		JournalSegment segment = JournalSegment.open(directory.resolve(String.format("%020d%s", baseOffset, SUFFIX)), baseOffset, segmentSize);
+		segments.put(baseOffset, segment);
+		return segment;
+	}
+	
+	//Force everything written so far
+	public void flush() {
+		awaitDurable(writtenOffset);
+	}
+	
+	//One writer forces for everyone waiting: whoever finds the target already covered returns at once
+	private void awaitDurable(long target) {
+		synchronized (flushLock) {
+			if (durableOffset >= target) {
+				return;
+			}
+			JournalSegment segment;
+			long end;
+			synchronized (appendLock) {
+				segment = active;
+				end = writtenOffset;
+			}
+			segment.force((int) (end - segment.baseOffset())); //Earlier segments were forced when they filled up
+			advanceDurable(end);
+		}
+	}
+	
+	private void advanceDurable(long offset) {
+		synchronized (progress) {
+			if (offset > durableOffset) {
+				durableOffset = offset;
+				progress.notifyAll();
+			}
+		}
+	}
+	
+	/*
+	 * Up to max durable records starting at offset from (a record boundary: 0, a checkpoint or an
+	 * Entry.endOffset), in order
+	 */
+	public List<Entry> read(long from, int max) {
+		List<Entry> entries = new ArrayList<>();
+		long position = from;
+		long limit = durableOffset;
+		while (entries.size() < max && position < limit) {
+			Map.Entry<Long, JournalSegment> containing = segments.floorEntry(position);
+			if (containing == null) {
+				throw new IllegalStateException("Journal offset " + position + " is not in any segment under " + directory);
+			}
+			JournalSegment segment = containing.getValue();
+			int relative = (int) (position - segment.baseOffset());
+			int length = segment.recordLength(relative);
+			if (length == 0) { //End of a full segment: continue in the next one
+				Long next = segments.higherKey(segment.baseOffset());
+				if (next == null) {
+					break;
+				}
+				position = next;
+				continue;
+			}
+			position += JournalSegment.FRAME_HEADER + length;
+			entries.add(new Entry(segment.read(relative), position));
+		}
+		return entries;
+	}
+	
+	//Wait until there is something durable after offset, or the timeout passes
+	public void awaitReadable(long offset, long timeoutMillis) throws InterruptedException {
+		synchronized (progress) {
+			if (durableOffset <= offset) {
+				progress.wait(timeoutMillis);
+			}
+		}
+	}
+	
+	//The database now holds everything before offset
+	public void projected(long offset) {
+		projectedOffset = offset;
+		unprojectedByTenant.entrySet().removeIf(tenant -> tenant.getValue() <= offset); //Keeps marks replaced meanwhile
+		synchronized (progress) {
+			progress.notifyAll();
+		}
+		while (segments.size() > 1) {
+			Map.Entry<Long, JournalSegment> oldest = segments.firstEntry();
+			if (oldest.getKey() + oldest.getValue().capacity() > offset) {
+				break;
+			}
+			segments.remove(oldest.getKey());
+			oldest.getValue().delete();
+		}
+	}
+	
+	//Wait until the database holds every write journaled for this tenant; false on timeout
+	public boolean awaitProjected(String tenantId, Duration timeout) {
+		Long mark = unprojectedByTenant.get(tenantId);
+		if (mark == null || projectedOffset >= mark) {
+			return true;
+		}
+		long deadline = System.nanoTime() + timeout.toNanos();
+		synchronized (progress) {
+			while (projectedOffset < mark) {
+				long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+				if (remainingMillis <= 0) {
+					return false;
+				}
+				try {
+					progress.wait(remainingMillis);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+	
+	public long getWrittenOffset() {
+		return writtenOffset;
+	}
+	
+	public long getProjectedOffset() {
+		return projectedOffset;
+	}
+	
+	//Bytes accepted but not yet in the database
+	public long getLagBytes() {
+		return writtenOffset - projectedOffset;
+	}
+	
+	@Override
+	public void close() {
+		if (flusher != null) {
+			flusher.shutdown();
+		}
+		flush();
+	}
+	
+	private List<Path> segmentFiles() {
+		try {
+			Files.createDirectories(directory);
+			try (Stream<Path> files = Files.list(directory)) {
+				return files.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot open journal directory " + directory, e);
+		}
+	}
+	
+	private static long sizeOf(Path path) {
+		try {
+			return Files.size(path);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	//A record and the offset just past it (where the next read starts)
+	public record Entry(JournalRecord record, long endOffset) {
+	
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.lagathub.spendingtracker.repository;
+
+import com.lagathub.spendingtracker.domain.model.BudgetAlert;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BudgetAlertRepository extends JpaRepository<BudgetAlert, Long> {
+	
+	//Latest alerts first (index on tenant_id, triggered_at)
+	List<BudgetAlert> findAllByOrderByTriggeredAtDesc(Pageable pageable);
+
+}
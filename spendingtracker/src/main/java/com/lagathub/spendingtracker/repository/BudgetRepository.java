@@ -0,0 +1,26 @@
+package com.lagathub.spendingtracker.repository;
+
+import com.lagathub.spendingtracker.domain.model.Budget;
+import com.lagathub.spendingtracker.domain.model.BudgetPeriod;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BudgetRepository extends JpaRepository<Budget, Long> {
+	
+	//Lookup by id through JPQL so the tenant filter applies (a plain find() by key would not be filtered)
+	@Override
+	@Query("SELECT b FROM Budget b WHERE b.id = :id")
+	Optional<Budget> findById(@Param("id") Long id);
+	
+	List<Budget> findAllByOrderByCategoryIdAscPeriodAsc();
+	
+	boolean existsByCategoryIdAndPeriod(Long categoryId, BudgetPeriod period);
+
+}
@@ -2,8 +2,10 @@ package com.lagathub.spendingtracker.repository;
 
 import com.lagathub.spendingtracker.domain.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,6 +13,11 @@ import java.util.Optional;
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 	
+	//Lookup by id through JPQL so the tenant filter applies (a plain find() by key would not be filtered)
+	@Override
+	@Query("SELECT c FROM Category c WHERE c.id = :id")
+	Optional<Category> findById(@Param("id") Long id);
+	
 	//Find category by name (case-sensitive)
 	Optional<Category> findByNameIgnoreCase(String name);
 	
@@ -20,9 +27,15 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
 	//Checks if category exists by name
 	boolean existsByNameIgnoreCase(String name);
 	
+	//Remove a merged (now empty) category; native so the transactions cascade does not load anything
+	@Modifying(flushAutomatically = true)
+	@Query(value = "DELETE FROM categories WHERE tenant_id = :tenantId AND id = :id", nativeQuery = true)
+	int deleteEmptyCategory(@Param("tenantId") String tenantId, @Param("id") Long id);
+	
 	//Business-specific queries
 	//Find categories that have been used (have transactions)
-	@Query("SELECT DISTINCT c FROM Category c INNER JOIN c.transactions t")
+	//EXISTS stops at the first transaction per category instead of joining and de-duplicating all of them
+	@Query("SELECT c FROM Category c WHERE EXISTS (SELECT 1 FROM Transaction t WHERE t.category = c) ORDER BY c.name")
 	List<Category> findCategoriesWithTransactions();
 	/*
 	 * // In CategoryRepository - add index hint for better performance
@@ -0,0 +1,51 @@
+package com.lagathub.spendingtracker.repository;
+
+import com.lagathub.spendingtracker.domain.model.CategorySpending;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/*
+ * Set-based maintenance of stored weekly breakdowns when transactions change category in bulk.
+ * Native queries, so each filters by tenant explicitly
+ */
+@Repository
+public interface CategorySpendingRepository extends JpaRepository<CategorySpending, Long> {
+	
+	//Merge step 1: weeks that already break down both categories get the source's figures added to the target's
+	@Modifying
+	@Query(value = "UPDATE category_spending target SET amount_spent = target.amount_spent + source.amount_spent, " +
+			"transaction_count = target.transaction_count + source.transaction_count " +
+			"FROM category_spending source WHERE source.weekly_report_id = target.weekly_report_id " +
+			"AND source.tenant_id = :tenantId AND source.category_id = :sourceCategoryId " +
+			"AND target.tenant_id = :tenantId AND target.category_id = :targetCategoryId", nativeQuery = true)
+	int addIntoExistingRows(@Param("tenantId") String tenantId,
+							@Param("sourceCategoryId") Long sourceCategoryId,
+							@Param("targetCategoryId") Long targetCategoryId);
+	
+	//Merge step 2: drop the source rows that were just added in
+	@Modifying
+	@Query(value = "DELETE FROM category_spending source WHERE source.tenant_id = :tenantId AND source.category_id = :sourceCategoryId " +
+			"AND EXISTS (SELECT 1 FROM category_spending target WHERE target.weekly_report_id = source.weekly_report_id " +
+			"AND target.category_id = :targetCategoryId)", nativeQuery = true)
+	int deleteFoldedRows(@Param("tenantId") String tenantId,
+						 @Param("sourceCategoryId") Long sourceCategoryId,
+						 @Param("targetCategoryId") Long targetCategoryId);
+	
+	//Merge step 3: the remaining source rows simply change category
+	@Modifying
+	@Query(value = "UPDATE category_spending SET category_id = :targetCategoryId " +
+			"WHERE tenant_id = :tenantId AND category_id = :sourceCategoryId", nativeQuery = true)
+	int reassignCategory(@Param("tenantId") String tenantId,
+						 @Param("sourceCategoryId") Long sourceCategoryId,
+						 @Param("targetCategoryId") Long targetCategoryId);
+	
+	//After a partial move: breakdowns left without transactions
+	@Modifying
+	@Query(value = "DELETE FROM category_spending WHERE tenant_id = :tenantId AND transaction_count = 0", nativeQuery = true)
+	int deleteEmptyRows(@Param("tenantId") String tenantId);
+
+}
@@ -0,0 +1,62 @@
+package com.lagathub.spendingtracker.repository;
+
+import com.lagathub.spendingtracker.domain.model.CategoryStatistics;
+
+import jakarta.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CategoryStatisticsRepository extends JpaRepository<CategoryStatistics, Long> {
+	
+	//Lookup by id through JPQL so the tenant filter applies (a plain find() by key would not be filtered)
+	@Override
+	@Query("SELECT s FROM CategoryStatistics s WHERE s.categoryId = :categoryId")
+	Optional<CategoryStatistics> findById(@Param("categoryId") Long categoryId);
+	
+	//Row lock so concurrent writes to the same category apply one after the other
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT s FROM CategoryStatistics s WHERE s.categoryId = :categoryId")
+	Optional<CategoryStatistics> findForUpdate(@Param("categoryId") Long categoryId);
+	
+	//Create the empty row if missing; safe when two writers race on a new category
+	@Modifying
+	@Query(value = "INSERT INTO category_statistics (category_id, tenant_id, transaction_count, total_amount, mean, m2, updated_at) " +
+			"VALUES (:categoryId, :tenantId, 0, 0, 0, 0, NOW()) ON CONFLICT (category_id) DO NOTHING", nativeQuery = true)
+	void insertIfMissing(@Param("categoryId") Long categoryId, @Param("tenantId") String tenantId);
+	
+	/*
+	 * Native queries are not tenant-filtered by Hibernate, hence the explicit tenantId parameters
+	 *
+	 * Full recompute straight from transactions, one row per category:
+	 * category_id, count, sum, mean, m2 (= population variance * count), min, max
+	 */
+	@Query(value = "SELECT c.id, COUNT(t.id), COALESCE(SUM(t.amount), 0), COALESCE(AVG(t.amount), 0), " +
+			"COALESCE(VAR_POP(t.amount) * COUNT(t.id), 0), MIN(t.amount), MAX(t.amount) " +
+			"FROM categories c LEFT JOIN transactions t ON t.category_id = c.id " +
+			"WHERE c.tenant_id = :tenantId " +
+			"GROUP BY c.id ORDER BY c.id", nativeQuery = true)
+	List<Object[]> recomputeAll(@Param("tenantId") String tenantId);
+	
+	//Set-based rebuild: the same aggregate written back in one statement
+	@Modifying
+	@Query(value = "INSERT INTO category_statistics (category_id, tenant_id, transaction_count, total_amount, mean, m2, min_amount, max_amount, updated_at) " +
+			"SELECT c.id, c.tenant_id, COUNT(t.id), COALESCE(SUM(t.amount), 0), COALESCE(AVG(t.amount), 0), " +
+			"COALESCE(VAR_POP(t.amount) * COUNT(t.id), 0), MIN(t.amount), MAX(t.amount), NOW() " +
+			"FROM categories c LEFT JOIN transactions t ON t.category_id = c.id " +
+			"WHERE c.tenant_id = :tenantId GROUP BY c.id, c.tenant_id " +
+			"ON CONFLICT (category_id) DO UPDATE SET transaction_count = EXCLUDED.transaction_count, " +
+			"total_amount = EXCLUDED.total_amount, mean = EXCLUDED.mean, m2 = EXCLUDED.m2, " +
+			"min_amount = EXCLUDED.min_amount, max_amount = EXCLUDED.max_amount, updated_at = EXCLUDED.updated_at",
+			nativeQuery = true)
+	int rebuildAll(@Param("tenantId") String tenantId);
+
+}
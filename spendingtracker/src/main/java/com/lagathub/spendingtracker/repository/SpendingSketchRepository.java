@@ -0,0 +1,165 @@
+package com.lagathub.spendingtracker.repository;
+
+import com.lagathub.spendingtracker.domain.model.SketchGranularity;
+import com.lagathub.spendingtracker.domain.model.SpendingSketch;
+
+import jakarta.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SpendingSketchRepository extends JpaRepository<SpendingSketch, Long> {
+	
+	//Row lock so concurrent writes into the same bucket apply one after the other
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT s FROM SpendingSketch s WHERE s.categoryId = :categoryId AND s.granularity = :granularity AND s.bucketStart = :bucketStart")
+	Optional<SpendingSketch> findForUpdate(@Param("categoryId") Long categoryId,
+										   @Param("granularity") SketchGranularity granularity,
+										   @Param("bucketStart") LocalDate bucketStart);
+	
+	//All buckets of one category, locked - a category merge folds them into another category's
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT s FROM SpendingSketch s WHERE s.categoryId = :categoryId")
+	List<SpendingSketch> findAllForUpdate(@Param("categoryId") Long categoryId);
+	
+	//Native queries below filter by tenant explicitly (Hibernate only filters JPQL)
+	
+	//Hand the remaining buckets of a merged category to the target (flushes the merged buckets first)
+	@Modifying(flushAutomatically = true)
+	@Query(value = "UPDATE spending_sketches SET category_id = :targetCategoryId, updated_at = NOW() " +
+			"WHERE tenant_id = :tenantId AND category_id = :sourceCategoryId", nativeQuery = true)
+	int reassignCategory(@Param("tenantId") String tenantId,
+						 @Param("sourceCategoryId") Long sourceCategoryId,
+						 @Param("targetCategoryId") Long targetCategoryId);
+	
+	//Create an empty bucket if missing; safe when two writers race on the same bucket
+	@Modifying
+	@Query(value = "INSERT INTO spending_sketches (tenant_id, category_id, granularity, bucket_start, transaction_count, total_amount, digest, needs_rebuild, updated_at) " +
+			"VALUES (:tenantId, :categoryId, :granularity, :bucketStart, 0, 0, :digest, FALSE, NOW()) " +
+			"ON CONFLICT (category_id, granularity, bucket_start) DO NOTHING", nativeQuery = true)
+	void insertIfMissing(@Param("tenantId") String tenantId,
+						 @Param("categoryId") Long categoryId,
+						 @Param("granularity") String granularity,
+						 @Param("bucketStart") LocalDate bucketStart,
+						 @Param("digest") byte[] digest);
+	
+	//One category's buckets of one granularity with bucket start in [from, to]
+	@Query("SELECT s FROM SpendingSketch s WHERE s.categoryId = :categoryId AND s.granularity = :granularity " +
+			"AND s.bucketStart >= :from AND s.bucketStart <= :to")
+	List<SpendingSketch> findBuckets(@Param("categoryId") Long categoryId,
+									 @Param("granularity") SketchGranularity granularity,
+									 @Param("from") LocalDate from,
+									 @Param("to") LocalDate to);
+	
+	//Same across all categories
+	@Query("SELECT s FROM SpendingSketch s WHERE s.granularity = :granularity " +
+			"AND s.bucketStart >= :from AND s.bucketStart <= :to")
+	List<SpendingSketch> findBucketsForAllCategories(@Param("granularity") SketchGranularity granularity,
+													 @Param("from") LocalDate from,
+													 @Param("to") LocalDate to);
+	
+	/*
+	 * Heaviest categories over a range planned by SketchRangePlan (empty parts have from > to).
+	 * Reads one row per category per bucket and lets Postgres keep only the top :limit groups,
+	 * so the cost depends on categories x buckets, not on the number of transactions
+	 * Returns: category_id, total_amount, transaction_count
+	 */
+	@Query(value = "SELECT category_id, SUM(total_amount) AS total, SUM(transaction_count) AS transactions " +
+			"FROM spending_sketches WHERE tenant_id = :tenantId " +
+			"AND ((granularity = 'WEEK' AND bucket_start BETWEEN :weekFrom AND :weekTo) " +
+			"OR (granularity = 'DAY' AND (bucket_start BETWEEN :headFrom AND :headTo OR bucket_start BETWEEN :tailFrom AND :tailTo))) " +
+			"GROUP BY category_id HAVING SUM(transaction_count) > 0 " +
+			"ORDER BY total DESC, category_id LIMIT :limit", nativeQuery = true)
+	List<Object[]> findTopCategoriesByTotal(@Param("tenantId") String tenantId,
+											@Param("weekFrom") LocalDate weekFrom, @Param("weekTo") LocalDate weekTo,
+											@Param("headFrom") LocalDate headFrom, @Param("headTo") LocalDate headTo,
+											@Param("tailFrom") LocalDate tailFrom, @Param("tailTo") LocalDate tailTo,
+											@Param("limit") int limit);
+	
+	/*
+	 * One row per day in [from, to] for one category, days without transactions included (gap filled
+	 * by generate_series). Reads the DAY buckets only, one index probe per day
+	 * Returns: day, total_amount, transaction_count
+	 */
+	@Query(value = "SELECT CAST(d AS DATE) AS day, COALESCE(SUM(s.total_amount), 0) AS total, " +
+			"COALESCE(SUM(s.transaction_count), 0) AS transactions " +
+			"FROM generate_series(CAST(:from AS DATE), CAST(:to AS DATE), INTERVAL '1 day') AS d " +
+			"LEFT JOIN spending_sketches s ON s.tenant_id = :tenantId AND s.category_id = :categoryId " +
+			"AND s.granularity = 'DAY' AND s.bucket_start = CAST(d AS DATE) " +
+			"GROUP BY d ORDER BY d", nativeQuery = true)
+	List<Object[]> findDailyTotals(@Param("tenantId") String tenantId,
+								   @Param("categoryId") Long categoryId,
+								   @Param("from") LocalDate from,
+								   @Param("to") LocalDate to);
+	
+	//Same across all categories
+	@Query(value = "SELECT CAST(d AS DATE) AS day, COALESCE(SUM(s.total_amount), 0) AS total, " +
+			"COALESCE(SUM(s.transaction_count), 0) AS transactions " +
+			"FROM generate_series(CAST(:from AS DATE), CAST(:to AS DATE), INTERVAL '1 day') AS d " +
+			"LEFT JOIN spending_sketches s ON s.tenant_id = :tenantId " +
+			"AND s.granularity = 'DAY' AND s.bucket_start = CAST(d AS DATE) " +
+			"GROUP BY d ORDER BY d", nativeQuery = true)
+	List<Object[]> findDailyTotalsForAllCategories(@Param("tenantId") String tenantId,
+												   @Param("from") LocalDate from,
+												   @Param("to") LocalDate to);
+	
+	/*
+	 * Weekly trend rows for every category with spending in [from, to], plus a total row per week
+	 * (category_id NULL), in one statement over the WEEK buckets. Weeks without spending count as 0.
+	 * from should lie 11 weeks before firstWeek so the windows are full for every week returned
+	 * (streaks can reach back to from).
+	 *   avg4, avg12 - rolling averages over the last 4 / 12 weeks
+	 *   wow         - change against the previous week
+	 *   mom         - last 4 weeks against the 4 weeks before ("month" over "month")
+	 *   streak      - consecutive weeks up (positive) or down (negative), 0 when flat
+	 * Returns: category_id, week_start, amount, transactions, avg4, avg12, wow, mom, streak
+	 */
+	@Query(value = "WITH weeks AS (" +
+			"  SELECT CAST(w AS DATE) AS week_start FROM generate_series(CAST(:from AS DATE), CAST(:to AS DATE), INTERVAL '7 days') AS w), " +
+			"buckets AS (" +
+			"  SELECT category_id, bucket_start, total_amount, transaction_count FROM spending_sketches " +
+			"  WHERE tenant_id = :tenantId AND granularity = 'WEEK' AND bucket_start BETWEEN :from AND :to), " +
+			"series AS (" +
+			"  SELECT c.category_id, w.week_start, COALESCE(SUM(b.total_amount), 0) AS amount, " +
+			"  COALESCE(SUM(b.transaction_count), 0) AS transactions " +
+			"  FROM weeks w CROSS JOIN (SELECT DISTINCT category_id FROM buckets UNION ALL SELECT NULL) c " +
+			"  LEFT JOIN buckets b ON b.bucket_start = w.week_start AND (c.category_id IS NULL OR b.category_id = c.category_id) " +
+			"  GROUP BY c.category_id, w.week_start), " +
+			"windowed AS (" +
+			"  SELECT category_id, week_start, amount, transactions, " +
+			"  AVG(amount) OVER (PARTITION BY category_id ORDER BY week_start ROWS BETWEEN 3 PRECEDING AND CURRENT ROW) AS avg4, " +
+			"  AVG(amount) OVER (PARTITION BY category_id ORDER BY week_start ROWS BETWEEN 11 PRECEDING AND CURRENT ROW) AS avg12, " +
+			"  amount - LAG(amount) OVER (PARTITION BY category_id ORDER BY week_start) AS wow, " +
+			"  SUM(amount) OVER (PARTITION BY category_id ORDER BY week_start ROWS BETWEEN 3 PRECEDING AND CURRENT ROW) AS sum4 " +
+			"  FROM series), " +
+			"compared AS (" +
+			"  SELECT *, sum4 - LAG(sum4, 4) OVER (PARTITION BY category_id ORDER BY week_start) AS mom, " +
+			"  CAST(SIGN(COALESCE(wow, 0)) AS INTEGER) AS direction FROM windowed), " +
+			"islands AS (" +
+			"  SELECT *, ROW_NUMBER() OVER (PARTITION BY category_id ORDER BY week_start) " +
+			"  - ROW_NUMBER() OVER (PARTITION BY category_id, direction ORDER BY week_start) AS island FROM compared), " +
+			"streaks AS (" +
+			"  SELECT *, direction * ROW_NUMBER() OVER (PARTITION BY category_id, direction, island ORDER BY week_start) AS streak " +
+			"  FROM islands) " +
+			"SELECT category_id, week_start, amount, transactions, ROUND(avg4, 2) AS avg4, ROUND(avg12, 2) AS avg12, wow, mom, " +
+			"CAST(streak AS INTEGER) AS streak " +
+			"FROM streaks WHERE week_start >= :firstWeek ORDER BY category_id NULLS FIRST, week_start", nativeQuery = true)
+	List<Object[]> findWeeklyTrends(@Param("tenantId") String tenantId,
+									@Param("from") LocalDate from,
+									@Param("firstWeek") LocalDate firstWeek,
+									@Param("to") LocalDate to);
+	
+	@Modifying
+	@Query(value = "DELETE FROM spending_sketches WHERE tenant_id = :tenantId", nativeQuery = true)
+	void deleteAllSketches(@Param("tenantId") String tenantId);
+
+}
@@ -0,0 +1,23 @@
+package com.lagathub.spendingtracker.repository;
+
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.lagathub.spendingtracker.domain.model.Transaction;
+import com.lagathub.spendingtracker.dto.response.TransactionField;
+
+import jakarta.persistence.Tuple;
+
+//Fragment of TransactionRepository for sparse (?fields=) reads, implemented in TransactionFieldsRepositoryImpl
+public interface TransactionFieldsRepository {
+	
+	/*
+	 * Only the columns behind the requested fields, one tuple per row, aliased by field JSON name.
+	 * categories is only joined when categoryName is asked for
+	 */
+	List<Tuple> findFields(Specification<Transaction> filters, Set<TransactionField> fields, Pageable pageable);
+
+}
@@ -0,0 +1,74 @@
+package com.lagathub.spendingtracker.repository;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.lagathub.spendingtracker.domain.model.Transaction;
+import com.lagathub.spendingtracker.dto.response.TransactionField;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+class TransactionFieldsRepositoryImpl implements TransactionFieldsRepository {
+	
+	private final EntityManager entityManager;
+	
+	TransactionFieldsRepositoryImpl(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+	
+	@Override
+	public List<Tuple> findFields(Specification<Transaction> filters, Set<TransactionField> fields, Pageable pageable) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<Transaction> root = query.from(Transaction.class);
+		
+		//Step 1: recentlyUpdated is computed from the two timestamps, not stored
+		Set<TransactionField> columns = EnumSet.copyOf(fields);
+		if (columns.remove(TransactionField.RECENTLY_UPDATED)) {
+			columns.add(TransactionField.CREATED_AT);
+			columns.add(TransactionField.UPDATED_AT);
+		}
+		
+		//Step 2: Select only those columns; categoryId is the foreign key, no join needed
+		List<Selection<?>> selections = new ArrayList<>();
+		for (TransactionField column : columns) {
+			Selection<?> selection = switch (column) {
+				case ID -> root.get("id");
+				case AMOUNT -> root.get("amount");
+				case CATEGORY_NAME -> root.join("category").get("name");
+				case CATEGORY_ID -> root.get("category").get("id");
+				case CREATED_AT -> root.get("createdAt");
+				case UPDATED_AT -> root.get("updatedAt");
+				case NOTE -> root.get("note");
+				case RECENTLY_UPDATED -> throw new IllegalStateException("Computed field");
+			};
+			selections.add(selection.alias(column.getJsonName()));
+		}
+		query.multiselect(selections);
+		
+		//Step 3: Same filters and ordering as the entity query
+		Predicate predicate = filters.toPredicate(root, query, cb);
+		if (predicate != null) {
+			query.where(predicate);
+		}
+		query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+		
+		return entityManager.createQuery(query)
+				.setFirstResult((int) pageable.getOffset())
+				.setMaxResults(pageable.getPageSize())
+				.getResultList();
+	}
+
+}
@@ -5,6 +5,8 @@ import com.lagathub.spendingtracker.domain.model.Transaction;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,9 +14,17 @@ import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+//Dynamic filters are built with TransactionSpecifications (see TransactionService.getTransactions)
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction>,
+		TransactionFieldsRepository {
+	
+	//Lookup by id through JPQL so the tenant filter applies (a plain find() by key would not be filtered)
+	@Override
+	@Query("SELECT t FROM Transaction t WHERE t.id = :id")
+	Optional<Transaction> findById(@Param("id") Long id);
 	
 	//Spring automatically generates SQL from method names
 	
@@ -29,6 +39,9 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 	
 	List<Transaction> findByCategoryNameAndNoteContaining(String categoryName, String note);
 	
+	//Does the category still have any transaction? (stops at the first match)
+	boolean existsByCategoryId(Long categoryId);
+	
 	
 	//custom JPQL queries (complex)
 	/*
@@ -50,20 +63,53 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 	@Query("SELECT t FROM Transaction t WHERE t.amount < :threshold ORDER BY t.createdAt DESC")
 	List<Transaction> findSmallTransactions(@Param("threshold") BigDecimal threshold);
 	
-	//complex filtering query
-	@Query("SELECT t FROM Transaction t WHERE " + 
-	       "(:category IS NULL OR t.category.name = :category) AND " +
-			"(:startDate IS NULL OR t.createdAt >= :startDate) AND " +
-	       "(:endDate IS NULL OR t.createdAt <= :endDate) " +
-			"ORDER BY t.createdAt DESC")
-	List<Transaction> findWithFilters(@Param("category") String category,
-			                          @Param("startDate") LocalDateTime startDate,
-			                          @Param("endDate") LocalDateTime endDate,
-			                          Pageable pageable);
+	/*
+	 * Top-N by amount within a date range, category fetched in the same query.
+	 * Pass PageRequest.of(0, n): Postgres either walks the tenant's slice of
+	 * idx_transactions_tenant_amount_desc and stops after n rows in range, or range-scans
+	 * idx_transactions_tenant_created_at_id keeping only n rows in a bounded heap
+	 */
+	@Query("SELECT t FROM Transaction t JOIN FETCH t.category WHERE t.createdAt >= :start AND t.createdAt < :end " +
+			"ORDER BY t.amount DESC, t.id DESC")
+	List<Transaction> findLargestInRange(@Param("start") LocalDateTime start,
+										 @Param("end") LocalDateTime end,
+										 Pageable pageable);
 	
 	//Find transactions by category with pagination
 	Page<Transaction> findByCategoryNameOrderByCreatedAtDesc(String categoryName, Pageable pageable);
 	
+	//Smallest/largest amount in a category - used to repair running statistics bounds after a delete
+	@Query("SELECT MIN(t.amount) FROM Transaction t WHERE t.category.id = :categoryId")
+	BigDecimal findMinAmountByCategoryId(@Param("categoryId") Long categoryId);
+	
+	@Query("SELECT MAX(t.amount) FROM Transaction t WHERE t.category.id = :categoryId")
+	BigDecimal findMaxAmountByCategoryId(@Param("categoryId") Long categoryId);
+	
+	//Category merge: every transaction of source moves to target in one statement (updated_at untouched - not a user edit)
+	@Modifying
+	@Query(value = "UPDATE transactions SET category_id = :targetCategoryId " +
+			"WHERE tenant_id = :tenantId AND category_id = :sourceCategoryId", nativeQuery = true)
+	int reassignCategory(@Param("tenantId") String tenantId,
+						 @Param("sourceCategoryId") Long sourceCategoryId,
+						 @Param("targetCategoryId") Long targetCategoryId);
+	
+	//Journal mode: insert a journaled create with its pre-drawn id; 0 when it was applied before (replay)
+	@Modifying(flushAutomatically = true)
+	@Query(value = "INSERT INTO transactions (id, tenant_id, amount, category_id, created_at, updated_at, note) " +
+			"VALUES (:id, :tenantId, :amount, :categoryId, :createdAt, :createdAt, :note) ON CONFLICT (id) DO NOTHING", nativeQuery = true)
+	int insertJournaled(@Param("id") Long id,
+						@Param("tenantId") String tenantId,
+						@Param("amount") BigDecimal amount,
+						@Param("categoryId") Long categoryId,
+						@Param("createdAt") LocalDateTime createdAt,
+						@Param("note") String note);
+	
+	//Amounts of one category in [start, end) - used to rebuild a quantile sketch bucket
+	@Query("SELECT t.amount FROM Transaction t WHERE t.category.id = :categoryId AND t.createdAt >= :start AND t.createdAt < :end")
+	List<BigDecimal> findAmountsByCategoryIdAndCreatedAtRange(@Param("categoryId") Long categoryId,
+															  @Param("start") LocalDateTime start,
+															  @Param("end") LocalDateTime end);
+	
 	//Find recent transactions (for dashboard)
 	@Query("SELECT COUNT(t) FROM Transaction t WHERE t.category.name = :categoryName")
 	Long countByCategoryName(@Param("categoryName") String categoryName);
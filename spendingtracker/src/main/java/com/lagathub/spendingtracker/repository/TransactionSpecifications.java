@@ -0,0 +1,34 @@
+package com.lagathub.spendingtracker.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.lagathub.spendingtracker.domain.model.Transaction;
+
+/*
+ * Building blocks for dynamic transaction queries. Each one adds a single plain predicate,
+ * and callers combine only the filters they actually have - so Postgres plans every
+ * combination on its own and can use the matching index, unlike one catch-all
+ * "(:x IS NULL OR ...)" query that gets a single generic plan
+ */
+public final class TransactionSpecifications {
+	
+	private TransactionSpecifications() {
+	}
+	
+	//By foreign key column: no join to categories
+	public static Specification<Transaction> inCategory(Long categoryId) {
+		return (root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+	}
+	
+	public static Specification<Transaction> createdOnOrAfter(LocalDateTime start) {
+		return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), start);
+	}
+	
+	//Exclusive upper bound, so a whole day is [day, day + 1)
+	public static Specification<Transaction> createdBefore(LocalDateTime end) {
+		return (root, query, cb) -> cb.lessThan(root.get("createdAt"), end);
+	}
+
+}
@@ -14,6 +14,11 @@ import java.math.BigDecimal;
 @Repository
 public interface WeeklyReportRepository extends JpaRepository<WeeklyReport, Long>{
 	
+	//Lookup by id through JPQL so the tenant filter applies (a plain find() by key would not be filtered)
+	@Override
+	@Query("SELECT wr FROM WeeklyReport wr WHERE wr.id = :id")
+	Optional<WeeklyReport> findById(@Param("id") Long id);
+	
 	//Find report for a specific week
 	Optional<WeeklyReport> findByWeekStartDate(LocalDate weekStartDate);
 	
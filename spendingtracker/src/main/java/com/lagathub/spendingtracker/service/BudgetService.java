@@ -0,0 +1,238 @@
+package com.lagathub.spendingtracker.service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.lagathub.spendingtracker.domain.model.Budget;
+import com.lagathub.spendingtracker.domain.model.BudgetAlertLevel;
+import com.lagathub.spendingtracker.domain.model.BudgetPeriod;
+import com.lagathub.spendingtracker.domain.model.Category;
+import com.lagathub.spendingtracker.dto.request.BudgetRequest;
+import com.lagathub.spendingtracker.dto.response.BudgetAlertResponse;
+import com.lagathub.spendingtracker.dto.response.BudgetResponse;
+import com.lagathub.spendingtracker.exception.ResourceNotFoundException;
+import com.lagathub.spendingtracker.repository.BudgetAlertRepository;
+import com.lagathub.spendingtracker.repository.BudgetRepository;
+import com.lagathub.spendingtracker.repository.CategoryRepository;
+import com.lagathub.spendingtracker.service.budget.BudgetThresholdCrossed;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+/*
+ * Per-category budgets. Each budget keeps a running amount spent per period in budget_usage,
+ * adjusted by one upsert in the same DB transaction as every transaction write. The write path
+ * already holds the category's statistics row lock, so adjustments to a counter are serialized
+ * and the RETURNING row tells exactly which threshold this write crossed - no sums over the ledger.
+ * Crossings are published as events and turned into alerts after commit (BudgetAlertListener)
+ */
+@Service
+@Transactional
+public class BudgetService {
+	
+	//Upper bound for the alert list
+	static final int MAX_ALERTS = 200;
+	
+	/*
+	 * Adjust the counters of every budget on the category for the period containing the write,
+	 * creating the period's row on first use, and return the new totals with the thresholds.
+	 * Budgets created after that period are left alone (their counters start at trackedFrom)
+	 */
+	private static final String ADJUST_USAGE_SQL =
+			"WITH applied AS (INSERT INTO budget_usage (budget_id, tenant_id, period_start, spent) " +
+			"SELECT b.id, b.tenant_id, CASE WHEN b.period = 'WEEK' THEN CAST(? AS DATE) ELSE CAST(? AS DATE) END, GREATEST(0, ?) " +
+			"FROM budgets b WHERE b.tenant_id = ? AND b.category_id = ? " +
+			"AND (CASE WHEN b.period = 'WEEK' THEN CAST(? AS DATE) ELSE CAST(? AS DATE) END) >= b.tracked_from " +
+			"ON CONFLICT (budget_id, period_start) DO UPDATE SET spent = GREATEST(0, budget_usage.spent + ?) " +
+			"RETURNING budget_id, period_start, spent) " +
+			"SELECT a.budget_id, a.period_start, a.spent, b.limit_amount, b.warn_percent, b.category_id " +
+			"FROM applied a JOIN budgets b ON b.id = a.budget_id";
+	
+	//Current period's spent for every budget of the tenant
+	private static final String CURRENT_USAGE_SQL =
+			"SELECT b.id, u.spent FROM budgets b JOIN budget_usage u ON u.budget_id = b.id " +
+			"AND u.period_start = CASE WHEN b.period = 'WEEK' THEN CAST(? AS DATE) ELSE CAST(? AS DATE) END " +
+			"WHERE b.tenant_id = ?";
+	
+	//Counters rebuilt from the ledger; {categories} narrows both statements to some categories
+	private static final String RESET_USAGE_SQL =
+			"UPDATE budget_usage u SET spent = 0 FROM budgets b WHERE b.id = u.budget_id AND b.tenant_id = ? {categories}";
+	private static final String RECOMPUTE_USAGE_SQL =
+			"INSERT INTO budget_usage (budget_id, tenant_id, period_start, spent) " +
+			"SELECT b.id, b.tenant_id, CAST(date_trunc(CASE WHEN b.period = 'WEEK' THEN 'week' ELSE 'month' END, t.created_at) AS DATE) AS period_start, SUM(t.amount) " +
+			"FROM budgets b JOIN transactions t ON t.tenant_id = b.tenant_id AND t.category_id = b.category_id AND t.created_at >= b.tracked_from " +
+			"WHERE b.tenant_id = ? {categories}" +
+			"GROUP BY b.id, b.tenant_id, period_start " +
+			"ON CONFLICT (budget_id, period_start) DO UPDATE SET spent = EXCLUDED.spent";
+	
+	private final BudgetRepository budgetRepository;
+	private final BudgetAlertRepository budgetAlertRepository;
+	private final CategoryRepository categoryRepository;
+	private final CategoryService categoryService;
+	private final CategoryStatisticsService categoryStatisticsService;
+	private final JdbcTemplate jdbcTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+	
+	public BudgetService(BudgetRepository budgetRepository,
+						 BudgetAlertRepository budgetAlertRepository,
+						 CategoryRepository categoryRepository,
+						 CategoryService categoryService,
+						 CategoryStatisticsService categoryStatisticsService,
+						 JdbcTemplate jdbcTemplate,
+						 ApplicationEventPublisher eventPublisher) {
+		this.budgetRepository = budgetRepository;
+		this.budgetAlertRepository = budgetAlertRepository;
+		this.categoryRepository = categoryRepository;
+		this.categoryService = categoryService;
+		this.categoryStatisticsService = categoryStatisticsService;
+		this.jdbcTemplate = jdbcTemplate;
+		this.eventPublisher = eventPublisher;
+	}
+	
+	//Create a budget for a category (created if needed), seeded with what the current period already holds
+	public BudgetResponse createBudget(BudgetRequest request) {
+		//Step 1: Resolve the category
+		Category category = categoryService.findOrCreateCategory(request.getCategoryName());
+		
+		//Step 2: Take the category's write lock, so no transaction write slips between the seed and the first adjustment
+		categoryStatisticsService.lockForMove(List.of(category.getId()));
+		if (budgetRepository.existsByCategoryIdAndPeriod(category.getId(), request.getPeriod())) {
+			throw new IllegalArgumentException("Category '" + category.getName() + "' already has a "
+					+ request.getPeriod().name().toLowerCase() + "ly budget");
+		}
+		
+		//Step 3: Save and seed the current period from the ledger
+		Budget budget = budgetRepository.saveAndFlush(new Budget(category.getId(), request.getPeriod(),
+				request.getLimitAmount(), request.getWarnPercent()));
+		LocalDate periodStart = budget.getTrackedFrom();
+		BigDecimal spent = jdbcTemplate.queryForObject(
+				"INSERT INTO budget_usage (budget_id, tenant_id, period_start, spent) " +
+				"SELECT ?, ?, ?, COALESCE(SUM(amount), 0) FROM transactions " +
+				"WHERE tenant_id = ? AND category_id = ? AND created_at >= ? AND created_at < ? RETURNING spent",
+				BigDecimal.class, budget.getId(), TenantContext.currentTenant(), periodStart,
+				TenantContext.currentTenant(), category.getId(),
+				Timestamp.valueOf(periodStart.atStartOfDay()),
+				Timestamp.valueOf(budget.getPeriod().periodEnd(periodStart).atStartOfDay()));
+		
+		return toResponse(budget, category.getName(), periodStart, spent);
+	}
+	
+	public void deleteBudget(Long id) {
+		Budget budget = budgetRepository.findById(id)
+				.orElseThrow(() -> new ResourceNotFoundException("Budget not found with id: " + id));
+		budgetRepository.delete(budget); //Usage rows and alerts cascade
+	}
+	
+	//Every budget with its current period's spending
+	@Transactional(readOnly = true)
+	public List<BudgetResponse> getBudgets() {
+		List<Budget> budgets = budgetRepository.findAllByOrderByCategoryIdAscPeriodAsc();
+		if (budgets.isEmpty()) {
+			return List.of();
+		}
+		LocalDate today = LocalDate.now();
+		Map<Long, BigDecimal> spentByBudget = new HashMap<>();
+		jdbcTemplate.query(CURRENT_USAGE_SQL, resultSet -> {
+			spentByBudget.put(resultSet.getLong(1), resultSet.getBigDecimal(2));
+		}, BudgetPeriod.WEEK.periodStart(today), BudgetPeriod.MONTH.periodStart(today), TenantContext.currentTenant());
+		
+		Map<Long, String> names = new HashMap<>();
+		categoryRepository.findAllById(budgets.stream().map(Budget::getCategoryId).distinct().toList())
+				.forEach(category -> names.put(category.getId(), category.getName()));
+		
+		return budgets.stream()
+				.map(budget -> toResponse(budget, names.get(budget.getCategoryId()),
+						budget.getPeriod().periodStart(today),
+						spentByBudget.getOrDefault(budget.getId(), BigDecimal.ZERO)))
+				.toList();
+	}
+	
+	//Most recent alerts first
+	@Transactional(readOnly = true)
+	public List<BudgetAlertResponse> getRecentAlerts(int limit) {
+		if (limit < 1 || limit > MAX_ALERTS) {
+			throw new IllegalArgumentException("Limit must be between 1 and " + MAX_ALERTS);
+		}
+		return budgetAlertRepository.findAllByOrderByTriggeredAtDesc(PageRequest.of(0, limit)).stream()
+				.map(BudgetAlertResponse::from)
+				.toList();
+	}
+	
+	/*
+	 * A transaction write changed the category's spending at createdAt by delta (negative on removal).
+	 * Call inside the write's transaction, after the category's statistics row is locked
+	 */
+	public void recordSpent(Long categoryId, LocalDateTime createdAt, BigDecimal delta) {
+		if (delta.signum() == 0) {
+			return;
+		}
+		String tenantId = TenantContext.currentTenant();
+		LocalDate date = createdAt.toLocalDate();
+		LocalDate weekStart = BudgetPeriod.WEEK.periodStart(date);
+		LocalDate monthStart = BudgetPeriod.MONTH.periodStart(date);
+		
+		//Step 1: One statement adjusts every counter and returns the new totals
+		List<BudgetThresholdCrossed> crossings = new ArrayList<>();
+		jdbcTemplate.query(ADJUST_USAGE_SQL, resultSet -> {
+			BigDecimal spent = resultSet.getBigDecimal(3);
+			BigDecimal limitAmount = resultSet.getBigDecimal(4);
+			Integer warnPercent = resultSet.getObject(5, Integer.class);
+		
+			//Step 2: Compare before and after - only the write that crosses a threshold alerts
+			BudgetAlertLevel level = BudgetAlertLevel.crossed(spent.subtract(delta), spent, limitAmount, warnPercent);
+			if (level != null) {
+				crossings.add(new BudgetThresholdCrossed(tenantId, resultSet.getLong(1), resultSet.getLong(6),
+						resultSet.getObject(2, LocalDate.class), level, spent, limitAmount, LocalDateTime.now()));
+			}
+		}, weekStart, monthStart, delta, tenantId, categoryId, weekStart, monthStart, delta);
+		
+		//Step 3: Alerts are written after commit, off this thread
+		crossings.forEach(eventPublisher::publishEvent);
+	}
+	
+	//A transaction's amount or category changed (the date never does)
+	public void recordChanged(Long oldCategoryId, BigDecimal oldAmount, Long newCategoryId, BigDecimal newAmount,
+							  LocalDateTime createdAt) {
+		if (oldCategoryId.equals(newCategoryId)) {
+			recordSpent(newCategoryId, createdAt, newAmount.subtract(oldAmount));
+		} else {
+			recordSpent(oldCategoryId, createdAt, oldAmount.negate());
+			recordSpent(newCategoryId, createdAt, newAmount);
+		}
+	}
+	
+	/*
+	 * Recompute the counters of these categories' budgets from the ledger (all budgets when null),
+	 * after bulk moves and loads that bypass the per-write path. No alerts are raised
+	 */
+	public void recomputeUsage(Collection<Long> categoryIds) {
+		List<Object> parameters = new ArrayList<>(List.of(TenantContext.currentTenant()));
+		String categories = "";
+		if (categoryIds != null) {
+			if (categoryIds.isEmpty()) {
+				return;
+			}
+			categories = "AND b.category_id IN (" + String.join(", ", categoryIds.stream().map(id -> "?").toList()) + ") ";
+			parameters.addAll(categoryIds);
+		}
+		jdbcTemplate.update(RESET_USAGE_SQL.replace("{categories}", categories), parameters.toArray());
+		jdbcTemplate.update(RECOMPUTE_USAGE_SQL.replace("{categories}", categories), parameters.toArray());
+	}
+	
+	private static BudgetResponse toResponse(Budget budget, String categoryName, LocalDate periodStart, BigDecimal spent) {
+		return new BudgetResponse(budget.getId(), budget.getCategoryId(), categoryName, budget.getPeriod(),
+				budget.getLimitAmount(), budget.getWarnPercent(), periodStart, spent);
+	}
+
+}
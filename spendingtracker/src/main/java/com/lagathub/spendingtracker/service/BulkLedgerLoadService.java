@@ -0,0 +1,140 @@
+package com.lagathub.spendingtracker.service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.lagathub.spendingtracker.cache.SpendingCaches;
+import com.lagathub.spendingtracker.service.bulk.BulkLoadSummary;
+import com.lagathub.spendingtracker.service.bulk.CopyLoader;
+import com.lagathub.spendingtracker.service.bulk.SyntheticLedgerGenerator;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+/*
+ * Loads millions of synthetic transactions for the current tenant through PostgreSQL COPY,
+ * bypassing JPA entirely, then rebuilds everything derived from the ledger
+ * (category statistics, sketches) and drops weekly reports and cached entries so they regenerate on demand
+ */
+@Service
+public class BulkLedgerLoadService {
+	
+	private static final Logger log = LoggerFactory.getLogger(BulkLedgerLoadService.class);
+	
+	private final DataSource dataSource;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final CategoryStatisticsService statisticsService;
+	private final SpendingSketchService sketchService;
+	private final BudgetService budgetService;
+	private final TransactionArchiveService archiveService;
+	private final SpendingCaches spendingCaches;
+	
+	public BulkLedgerLoadService(DataSource dataSource,
+								 JdbcTemplate jdbcTemplate,
+								 PlatformTransactionManager transactionManager,
+								 CategoryStatisticsService statisticsService,
+								 SpendingSketchService sketchService,
+								 BudgetService budgetService,
+								 TransactionArchiveService archiveService,
+								 SpendingCaches spendingCaches) {
+		this.dataSource = dataSource;
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.statisticsService = statisticsService;
+		this.sketchService = sketchService;
+		this.budgetService = budgetService;
+		this.archiveService = archiveService;
+		this.spendingCaches = spendingCaches;
+	}
+	
+	/*
+	 * Generate and load `rows` transactions spread over startDate..endDate (inclusive).
+	 * The COPY runs in one transaction: either every row lands or none do.
+	 * Aggregates are rebuilt afterwards, each in its own transaction
+	 */
+	public BulkLoadSummary loadSynthetic(long rows, long seed, LocalDate startDate, LocalDate endDate) {
+		if (rows <= 0) {
+			throw new IllegalArgumentException("Row count must be positive");
+		}
+		if (archiveService.overlapsArchive(startDate, endDate.plusDays(1))) {
+			//Archived weeks keep their stored reports as final - new rows there would never be counted
+			throw new IllegalArgumentException("Date range overlaps archived months; restore them first");
+		}
+		SyntheticLedgerGenerator generator = new SyntheticLedgerGenerator(seed, startDate, endDate);
+		String tenantId = TenantContext.currentTenant();
+		
+		//Step 1: COPY categories and transactions
+		long started = System.nanoTime();
+		int[] categoriesCreated = new int[1];
+		transactionTemplate.executeWithoutResult(status -> {
+			Connection connection = DataSourceUtils.getConnection(dataSource); //Same connection as the transaction
+			try {
+				CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+				CopyLoader loader = new CopyLoader(copyManager, tenantId);
+				Map<String, Long> existing = findCategoryIds(tenantId);
+				categoriesCreated[0] = loader.copyMissingCategories(existing, SyntheticLedgerGenerator.categoryNames(),
+						SyntheticLedgerGenerator.categoryDescriptions());
+				Map<String, Long> ids = findCategoryIds(tenantId);
+				List<Long> categoryIds = SyntheticLedgerGenerator.categoryNames().stream().map(ids::get).toList();
+				loader.copyTransactions(generator, rows, categoryIds);
+			} catch (SQLException e) {
+				throw new IllegalStateException("Bulk load failed: " + e.getMessage(), e);
+			} finally {
+				DataSourceUtils.releaseConnection(connection, dataSource);
+			}
+		});
+		double copySeconds = (System.nanoTime() - started) / 1e9;
+		log.info("Copied {} transactions for tenant {} in {}s ({} rows/s)",
+				rows, tenantId, String.format("%.1f", copySeconds), String.format("%.0f", rows / copySeconds));
+		
+		//Step 2: Fresh planner statistics - the table may have just grown by orders of magnitude
+		jdbcTemplate.execute("ANALYZE transactions");
+		
+		//Step 3: Rebuild derived data from the ledger
+		long rebuildStarted = System.nanoTime();
+		statisticsService.rebuildAll();
+		sketchService.rebuildAll();
+		budgetService.recomputeUsage(null);
+		transactionTemplate.executeWithoutResult(status -> discardWeeklyReports(tenantId));
+		spendingCaches.evictTenant(tenantId);
+		double rebuildSeconds = (System.nanoTime() - rebuildStarted) / 1e9;
+		log.info("Rebuilt aggregates for tenant {} in {}s", tenantId, String.format("%.1f", rebuildSeconds));
+		
+		return new BulkLoadSummary(tenantId, rows, categoriesCreated[0], copySeconds, rebuildSeconds);
+	}
+	
+	private Map<String, Long> findCategoryIds(String tenantId) {
+		Map<String, Long> ids = new HashMap<>();
+		jdbcTemplate.query("SELECT name, id FROM categories WHERE tenant_id = ?",
+				resultSet -> {
+					ids.put(resultSet.getString(1), resultSet.getLong(2));
+				}, tenantId);
+		return ids;
+	}
+	
+	//Stored reports no longer match the ledger; they are regenerated on the next request.
+	//Reports of archived weeks are kept - there are no rows left to regenerate them from
+	private void discardWeeklyReports(String tenantId) {
+		String live = "AND NOT EXISTS (SELECT 1 FROM transaction_archive_segments s WHERE s.tenant_id = wr.tenant_id " +
+				"AND wr.week_start_date >= s.range_start AND wr.week_start_date < s.range_end)";
+		jdbcTemplate.update("DELETE FROM category_spending cs USING weekly_reports wr " +
+				"WHERE cs.weekly_report_id = wr.id AND wr.tenant_id = ? " + live, tenantId);
+		jdbcTemplate.update("DELETE FROM weekly_reports wr WHERE wr.tenant_id = ? " + live, tenantId);
+	}
+
+}
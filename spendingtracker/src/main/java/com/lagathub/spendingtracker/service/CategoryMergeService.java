@@ -0,0 +1,211 @@
+package com.lagathub.spendingtracker.service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.lagathub.spendingtracker.cache.SpendingCaches;
+import com.lagathub.spendingtracker.domain.model.AmountSummary;
+import com.lagathub.spendingtracker.domain.model.Category;
+import com.lagathub.spendingtracker.dto.request.RecategorizeRequest;
+import com.lagathub.spendingtracker.dto.response.CategoryMoveResponse;
+import com.lagathub.spendingtracker.exception.CategoryNotFoundException;
+import com.lagathub.spendingtracker.repository.CategoryRepository;
+import com.lagathub.spendingtracker.repository.TransactionRepository;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+/*
+ * Moves transactions between categories in bulk with set-based statements - no Transaction
+ * entity is loaded, and updatedAt is left alone since no transaction was edited by the user.
+ * Running statistics, sketches and stored weekly breakdowns are adjusted from aggregates in
+ * the same DB transaction, and the affected caches are dropped after commit
+ */
+@Service
+@Transactional
+public class CategoryMergeService {
+	
+	/*
+	 * Moves the matching rows and reports what left each source category, per day, in the same
+	 * statement. The GROUPING SETS rows with whole_category = 1 are per-category totals.
+	 * {filters} is replaced by the optional predicates on "old"
+	 */
+	private static final String RECATEGORIZE_SQL =
+			"WITH moved AS (UPDATE transactions t SET category_id = ? FROM transactions old " +
+			"WHERE t.id = old.id AND old.tenant_id = ? AND old.category_id <> ? {filters}" +
+			"RETURNING old.category_id AS old_category_id, t.amount, t.created_at) " +
+			"SELECT old_category_id, CAST(created_at AS DATE) AS day, GROUPING(CAST(created_at AS DATE)) AS whole_category, " +
+			"COUNT(*), SUM(amount), AVG(amount), VAR_POP(amount) * COUNT(*), MIN(amount), MAX(amount) " +
+			"FROM moved GROUP BY GROUPING SETS ((old_category_id), (old_category_id, CAST(created_at AS DATE)))";
+	
+	//Categories that currently hold matching rows (same {filters})
+	private static final String SOURCES_SQL =
+			"SELECT DISTINCT old.category_id FROM transactions old WHERE old.tenant_id = ? AND old.category_id <> ? {filters}";
+	
+	private final CategoryRepository categoryRepository;
+	private final CategoryService categoryService;
+	private final TransactionRepository transactionRepository;
+	private final CategoryStatisticsService categoryStatisticsService;
+	private final SpendingSketchService spendingSketchService;
+	private final WeeklyReportService weeklyReportService;
+	private final BudgetService budgetService;
+	private final SpendingCaches spendingCaches;
+	private final JdbcTemplate jdbcTemplate;
+	
+	public CategoryMergeService(CategoryRepository categoryRepository,
+								CategoryService categoryService,
+								TransactionRepository transactionRepository,
+								CategoryStatisticsService categoryStatisticsService,
+								SpendingSketchService spendingSketchService,
+								WeeklyReportService weeklyReportService,
+								BudgetService budgetService,
+								SpendingCaches spendingCaches,
+								JdbcTemplate jdbcTemplate) {
+		this.categoryRepository = categoryRepository;
+		this.categoryService = categoryService;
+		this.transactionRepository = transactionRepository;
+		this.categoryStatisticsService = categoryStatisticsService;
+		this.spendingSketchService = spendingSketchService;
+		this.weeklyReportService = weeklyReportService;
+		this.budgetService = budgetService;
+		this.spendingCaches = spendingCaches;
+		this.jdbcTemplate = jdbcTemplate;
+	}
+	
+	//Fold source into target ("Snacks into Food"): every transaction moves over and source is deleted
+	public CategoryMoveResponse mergeCategories(Long sourceCategoryId, Long targetCategoryId) {
+		long started = System.nanoTime();
+		String tenantId = TenantContext.currentTenant();
+		
+		//Step 1: Both must exist in this tenant
+		if (sourceCategoryId.equals(targetCategoryId)) {
+			throw new IllegalArgumentException("Cannot merge a category into itself");
+		}
+		categoryRepository.findById(sourceCategoryId)
+				.orElseThrow(() -> new CategoryNotFoundException("Category with ID " + sourceCategoryId + " not found"));
+		Category target = categoryRepository.findById(targetCategoryId)
+				.orElseThrow(() -> new CategoryNotFoundException("Category with ID " + targetCategoryId + " not found"));
+		
+		//Step 2: Statistics rows first - creates, updates and deletes lock theirs before touching transactions too
+		categoryStatisticsService.recordMerged(sourceCategoryId, targetCategoryId);
+		int moved = transactionRepository.reassignCategory(tenantId, sourceCategoryId, targetCategoryId);
+		
+		//Step 3: Sketch buckets, stored breakdowns and budget counters follow, then the empty category goes
+		//(its budgets with it - the target's own budgets now count the merged rows)
+		spendingSketchService.recordMerged(sourceCategoryId, targetCategoryId);
+		weeklyReportService.recordMerged(sourceCategoryId, targetCategoryId);
+		budgetService.recomputeUsage(List.of(targetCategoryId));
+		categoryRepository.deleteEmptyCategory(tenantId, sourceCategoryId);
+		
+		evictCaches();
+		return new CategoryMoveResponse(target.getId(), target.getName(), moved, elapsedMillis(started));
+	}
+	
+	//Move every transaction matching the request's filters to its target category
+	public CategoryMoveResponse recategorize(RecategorizeRequest request) {
+		long started = System.nanoTime();
+		String tenantId = TenantContext.currentTenant();
+		
+		//Step 1: Validate and resolve the categories
+		if (!request.hasFilter()) {
+			throw new IllegalArgumentException("At least one filter is required to recategorize");
+		}
+		if (request.getStartDate() != null && request.getEndDate() != null && request.getEndDate().isBefore(request.getStartDate())) {
+			throw new IllegalArgumentException("endDate must not be before startDate");
+		}
+		Long fromCategoryId = null;
+		if (request.getFromCategory() != null) {
+			fromCategoryId = categoryService.findCategoryId(request.getFromCategory())
+					.orElseThrow(() -> new CategoryNotFoundException("Category '" + request.getFromCategory() + "' not found"));
+		}
+		Category target = categoryService.findOrCreateCategory(request.getTargetCategory());
+		
+		//Step 2: Only the supplied filters go into the statements
+		List<Object> filterParameters = new ArrayList<>();
+		StringBuilder filters = new StringBuilder();
+		if (fromCategoryId != null) {
+			filters.append("AND old.category_id = ? ");
+			filterParameters.add(fromCategoryId);
+		}
+		if (request.getStartDate() != null) {
+			filters.append("AND old.created_at >= ? ");
+			filterParameters.add(Timestamp.valueOf(request.getStartDate().atStartOfDay()));
+		}
+		if (request.getEndDate() != null) {
+			filters.append("AND old.created_at < ? ");
+			filterParameters.add(Timestamp.valueOf(request.getEndDate().plusDays(1).atStartOfDay()));
+		}
+		if (request.getNoteContains() != null) {
+			filters.append("AND old.note ILIKE ? ");
+			filterParameters.add("%" + escapeLike(request.getNoteContains()) + "%");
+		}
+		
+		//Step 3: Lock the statistics rows of every category involved before any transaction row
+		List<Long> involved = new ArrayList<>(List.of(target.getId()));
+		if (fromCategoryId != null) {
+			involved.add(fromCategoryId);
+		} else {
+			involved.addAll(jdbcTemplate.queryForList(SOURCES_SQL.replace("{filters}", filters.toString()), Long.class,
+					parameters(List.of(tenantId, target.getId()), filterParameters)));
+		}
+		categoryStatisticsService.lockForMove(involved);
+		
+		//Step 4: Move the rows and collect what moved
+		Map<Long, AmountSummary> movedByCategory = new TreeMap<>();
+		Map<Long, Map<LocalDate, AmountSummary>> movedByDay = new HashMap<>();
+		jdbcTemplate.query(RECATEGORIZE_SQL.replace("{filters}", filters.toString()), resultSet -> {
+			long categoryId = resultSet.getLong(1);
+			AmountSummary summary = new AmountSummary(resultSet.getLong(4), resultSet.getBigDecimal(5),
+					resultSet.getDouble(6), resultSet.getDouble(7), resultSet.getBigDecimal(8), resultSet.getBigDecimal(9));
+			if (resultSet.getInt(3) == 1) {
+				movedByCategory.put(categoryId, summary);
+			} else {
+				movedByDay.computeIfAbsent(categoryId, id -> new TreeMap<>())
+						.put(resultSet.getDate(2).toLocalDate(), summary);
+			}
+		}, parameters(List.of(target.getId(), tenantId, target.getId()), filterParameters));
+		
+		//Step 5: Aggregates follow the rows
+		long moved = movedByCategory.values().stream().mapToLong(AmountSummary::count).sum();
+		if (moved > 0) {
+			categoryStatisticsService.recordMoved(movedByCategory, target.getId());
+			spendingSketchService.recordMoved(movedByDay, target.getId());
+			weeklyReportService.recordMoved(movedByDay, target.getId());
+			budgetService.recomputeUsage(involved);
+			evictCaches();
+		}
+		return new CategoryMoveResponse(target.getId(), target.getName(), moved, elapsedMillis(started));
+	}
+	
+	//Names, used lists, report breakdowns, per-category day totals and trends all change
+	private void evictCaches() {
+		spendingCaches.evictCategories();
+		spendingCaches.evictUsedCategories();
+		spendingCaches.evictWeeklyReports();
+		spendingCaches.evictHeatmaps();
+		spendingCaches.evictTrends();
+	}
+	
+	private static Object[] parameters(List<Object> leading, List<Object> filterParameters) {
+		List<Object> all = new ArrayList<>(leading);
+		all.addAll(filterParameters);
+		return all.toArray();
+	}
+	
+	private static String escapeLike(String value) {
+		return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+	
+	private static long elapsedMillis(long started) {
+		return (System.nanoTime() - started) / 1_000_000;
+	}
+
+}
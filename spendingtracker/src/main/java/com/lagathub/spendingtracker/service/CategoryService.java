@@ -3,22 +3,29 @@ package com.lagathub.spendingtracker.service;
 import com.lagathub.spendingtracker.domain.model.Category;
 import java.util.Optional;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import com.lagathub.spendingtracker.repository.CategoryRepository;
+import com.lagathub.spendingtracker.cache.SpendingCaches;
+import com.lagathub.spendingtracker.dto.response.CategoryResponse;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.lagathub.spendingtracker.exception.CategoryNotFoundException;
 import com.lagathub.spendingtracker.exception.DuplicateCategoryException;
+import com.lagathub.spendingtracker.jfr.CategoryResolvedEvent;
 
 @Service
 @Transactional //For db consistency
 public class CategoryService {
 	
 	private final CategoryRepository categoryRepository;
+	private final SpendingCaches spendingCaches;
 	
 	//Constructor - Spring will inject the repository
-	public CategoryService(CategoryRepository categoryRepository) {
+	public CategoryService(CategoryRepository categoryRepository, SpendingCaches spendingCaches) {
 		this.categoryRepository = categoryRepository;
+		this.spendingCaches = spendingCaches;
 	}
 		
 		//Operation 1: Find existing category or create new one
@@ -31,26 +38,51 @@ public class CategoryService {
 			//Keep original case for display, but search case-insensitive
 			String trimmedName = categoryName.trim();
 			
+			CategoryResolvedEvent event = new CategoryResolvedEvent();
+			event.begin();
+			
 			//Try to find existing Category
 			Optional<Category> existing = categoryRepository.findByNameIgnoreCase(trimmedName);
 			
 			if (existing.isPresent()) {
+				event.commit(existing.get().getId(), false);
 				return existing.get();
 			} else {
 				//Create new category
 				Category newCategory = new Category(trimmedName);
-				return categoryRepository.save(newCategory);
+				spendingCaches.evictCategories(); //Dropdown list gains an entry
+				Category saved = categoryRepository.save(newCategory);
+				event.commit(saved.getId(), true);
+				return saved;
+			}
+		}
+		
+		//Category by id in the current tenant
+		public Optional<Category> findCategory(Long categoryId) {
+			return categoryRepository.findById(categoryId);
+		}
+		
+		//Resolve a category name (case-insensitive, like findOrCreateCategory) to its id
+		@Transactional(readOnly = true)
+		public Optional<Long> findCategoryId(String categoryName) {
+			if (categoryName == null || categoryName.trim().isEmpty()) {
+				return Optional.empty();
 			}
+			return categoryRepository.findByNameIgnoreCase(categoryName.trim()).map(Category::getId);
 		}
 		
-		//Operation 2: Get all categories for dropdown lists
-		public List<Category> getAllCategories() {
-			return categoryRepository.findAllByOrderByNameAsc();
+		//Operation 2: Get all categories for dropdown lists (cached per tenant)
+		@Transactional(readOnly = true)
+		@Cacheable(cacheNames = SpendingCaches.CATEGORIES, key = SpendingCaches.TENANT_KEY)
+		public List<CategoryResponse> getAllCategories() {
+			return toResponses(categoryRepository.findAllByOrderByNameAsc());
 		}
 		
-		//Operation 3: Get categories that have been used (have transactions)
-		public List<Category> getUsedCategories() {
-			return categoryRepository.findCategoriesWithTransactions();
+		//Operation 3: Get categories that have been used (have transactions), cached per tenant
+		@Transactional(readOnly = true)
+		@Cacheable(cacheNames = SpendingCaches.USED_CATEGORIES, key = SpendingCaches.TENANT_KEY)
+		public List<CategoryResponse> getUsedCategories() {
+			return toResponses(categoryRepository.findCategoriesWithTransactions());
 		}
 		
 		//Operation 4: Rename a category
@@ -72,9 +104,22 @@ public class CategoryService {
 			
 			//Update and save
 			category.setName(trimmedNewName);
+			
+			//Names appear in every cached list and report
+			spendingCaches.evictCategories();
+			spendingCaches.evictUsedCategories();
+			spendingCaches.evictWeeklyReports();
+			spendingCaches.evictTrends();
 			return categoryRepository.save(category);
 		}
 		
+		//Cached lists hold DTOs, never entities (entities are tied to the session that loaded them)
+		private List<CategoryResponse> toResponses(List<Category> categories) {
+			return List.copyOf(categories.stream()
+					.map(CategoryResponse::from)
+					.collect(Collectors.toList()));
+		}
+		
 		//Private helper method
 		private void validateCategoryName(String name) {
 			if (name == null || name.trim().isEmpty()) {
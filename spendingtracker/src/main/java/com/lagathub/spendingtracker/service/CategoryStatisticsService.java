@@ -0,0 +1,210 @@
+package com.lagathub.spendingtracker.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.lagathub.spendingtracker.domain.model.AmountSummary;
+import com.lagathub.spendingtracker.domain.model.Category;
+import com.lagathub.spendingtracker.domain.model.CategoryStatistics;
+import com.lagathub.spendingtracker.dto.response.CategoryStatisticsDrift;
+import com.lagathub.spendingtracker.dto.response.CategoryStatisticsResponse;
+import com.lagathub.spendingtracker.exception.CategoryNotFoundException;
+import com.lagathub.spendingtracker.repository.CategoryRepository;
+import com.lagathub.spendingtracker.repository.CategoryStatisticsRepository;
+import com.lagathub.spendingtracker.repository.TransactionRepository;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+/*
+ * Keeps per-category running statistics in step with the transactions table.
+ * Write-path methods are called by TransactionService inside its own DB transaction,
+ * so the statistics commit or roll back together with the transaction row
+ */
+@Service
+@Transactional
+public class CategoryStatisticsService {
+	
+	//Relative tolerance for the floating point fields in the drift check
+	private static final double DRIFT_TOLERANCE = 1e-9;
+	
+	private final CategoryStatisticsRepository statisticsRepository;
+	private final CategoryRepository categoryRepository;
+	private final TransactionRepository transactionRepository;
+	
+	public CategoryStatisticsService(CategoryStatisticsRepository statisticsRepository,
+									 CategoryRepository categoryRepository,
+									 TransactionRepository transactionRepository) {
+		this.statisticsRepository = statisticsRepository;
+		this.categoryRepository = categoryRepository;
+		this.transactionRepository = transactionRepository;
+	}
+	
+	//Write path 1: a transaction was recorded
+	public void recordAdded(Long categoryId, BigDecimal amount) {
+		lockStatistics(categoryId).add(amount);
+	}
+	
+	//Write path 1, replayed: lock the row before the insert, count it only if the insert went through
+	public void lockForAdd(Long categoryId) {
+		lockStatistics(categoryId);
+	}
+	
+	//Write path 2: a transaction was deleted
+	public void recordRemoved(Long categoryId, BigDecimal amount) {
+		CategoryStatistics statistics = lockStatistics(categoryId);
+		if (statistics.remove(amount)) {
+			//The removed amount was the min or max - read the new bounds (index on category_id, amount)
+			statistics.setBounds(transactionRepository.findMinAmountByCategoryId(categoryId),
+					transactionRepository.findMaxAmountByCategoryId(categoryId));
+		}
+	}
+	
+	//Write path 3: a transaction's amount and/or category changed
+	public void recordChanged(Long oldCategoryId, BigDecimal oldAmount, Long newCategoryId, BigDecimal newAmount) {
+		if (oldCategoryId.equals(newCategoryId) && oldAmount.compareTo(newAmount) == 0) {
+			return; //Only the note changed
+		}
+		//Lock in id order so two opposite moves between the same categories cannot deadlock
+		if (oldCategoryId <= newCategoryId) {
+			recordRemoved(oldCategoryId, oldAmount);
+			recordAdded(newCategoryId, newAmount);
+		} else {
+			recordAdded(newCategoryId, newAmount);
+			recordRemoved(oldCategoryId, oldAmount);
+		}
+	}
+	
+	//Write path 4: every transaction of source now belongs to target (category merge)
+	public void recordMerged(Long sourceCategoryId, Long targetCategoryId) {
+		Map<Long, CategoryStatistics> locked = lockInOrder(List.of(sourceCategoryId, targetCategoryId));
+		locked.get(targetCategoryId).merge(locked.get(sourceCategoryId).summary());
+	}
+	
+	//Lock the rows a bulk move will touch before its UPDATE, in the same order as every other writer
+	public void lockForMove(Collection<Long> categoryIds) {
+		lockInOrder(categoryIds);
+	}
+	
+	//Write path 5: groups of transactions moved from several categories into target (bulk recategorize)
+	public void recordMoved(Map<Long, AmountSummary> movedByCategory, Long targetCategoryId) {
+		List<Long> categoryIds = new ArrayList<>(movedByCategory.keySet());
+		categoryIds.add(targetCategoryId);
+		Map<Long, CategoryStatistics> locked = lockInOrder(categoryIds);
+		
+		AmountSummary arrived = AmountSummary.EMPTY;
+		for (Map.Entry<Long, AmountSummary> moved : movedByCategory.entrySet()) {
+			CategoryStatistics source = locked.get(moved.getKey());
+			if (source.subtract(moved.getValue())) {
+				source.setBounds(transactionRepository.findMinAmountByCategoryId(moved.getKey()),
+						transactionRepository.findMaxAmountByCategoryId(moved.getKey()));
+			}
+			arrived = arrived.plus(moved.getValue());
+		}
+		locked.get(targetCategoryId).merge(arrived);
+	}
+	
+	@Transactional(readOnly = true)
+	public CategoryStatisticsResponse getStatistics(Long categoryId) {
+		Category category = categoryRepository.findById(categoryId)
+				.orElseThrow(() -> new CategoryNotFoundException("Category with ID " + categoryId + " not found"));
+		CategoryStatistics statistics = statisticsRepository.findById(categoryId)
+				.orElseGet(() -> new CategoryStatistics(categoryId));
+		return CategoryStatisticsResponse.from(statistics, category.getName());
+	}
+	
+	@Transactional(readOnly = true)
+	public List<CategoryStatisticsResponse> getAllStatistics() {
+		Map<Long, CategoryStatistics> statisticsById = statisticsRepository.findAll().stream()
+				.collect(Collectors.toMap(CategoryStatistics::getCategoryId, Function.identity()));
+		
+		List<CategoryStatisticsResponse> responses = new ArrayList<>();
+		for (Category category : categoryRepository.findAllByOrderByNameAsc()) {
+			CategoryStatistics statistics = statisticsById.getOrDefault(category.getId(), new CategoryStatistics(category.getId()));
+			responses.add(CategoryStatisticsResponse.from(statistics, category.getName()));
+		}
+		return responses;
+	}
+	
+	//Rebuild every category's statistics from a full recompute (one set-based statement)
+	public int rebuildAll() {
+		return statisticsRepository.rebuildAll(TenantContext.currentTenant());
+	}
+	
+	//Compare stored statistics with a full recompute, without changing anything
+	@Transactional(readOnly = true)
+	public List<CategoryStatisticsDrift> checkDrift() {
+		Map<Long, CategoryStatistics> stored = statisticsRepository.findAll().stream()
+				.collect(Collectors.toMap(CategoryStatistics::getCategoryId, Function.identity()));
+		
+		List<CategoryStatisticsDrift> report = new ArrayList<>();
+		for (Object[] row : statisticsRepository.recomputeAll(TenantContext.currentTenant())) {
+			Long categoryId = ((Number) row[0]).longValue();
+			long actualCount = ((Number) row[1]).longValue();
+			BigDecimal actualTotal = toBigDecimal(row[2]);
+			double actualMean = ((Number) row[3]).doubleValue();
+			double actualVariance = actualCount > 0 ? ((Number) row[4]).doubleValue() / actualCount : 0.0;
+			
+			CategoryStatistics current = stored.getOrDefault(categoryId, new CategoryStatistics(categoryId));
+			boolean drifted = current.getTransactionCount() != actualCount
+					|| current.getTotalAmount().compareTo(actualTotal) != 0
+					|| !closeEnough(current.getMean(), actualMean)
+					|| !closeEnough(current.getVariance(), actualVariance)
+					|| !sameAmount(current.getMinAmount(), toBigDecimal(row[5]))
+					|| !sameAmount(current.getMaxAmount(), toBigDecimal(row[6]));
+			
+			report.add(new CategoryStatisticsDrift(categoryId,
+					current.getTransactionCount(), actualCount,
+					current.getTotalAmount(), actualTotal,
+					current.getMean(), actualMean,
+					current.getVariance(), actualVariance, drifted));
+		}
+		return report;
+	}
+	
+	//Helper: lock the category's statistics row, creating it first if needed
+	private CategoryStatistics lockStatistics(Long categoryId) {
+		return statisticsRepository.findForUpdate(categoryId).orElseGet(() -> {
+			statisticsRepository.insertIfMissing(categoryId, TenantContext.currentTenant());
+			return statisticsRepository.findForUpdate(categoryId)
+					.orElseThrow(() -> new CategoryNotFoundException("Category with ID " + categoryId + " not found"));
+		});
+	}
+	
+	//Helper: lock several rows in id order, so concurrent bulk moves cannot deadlock each other
+	private Map<Long, CategoryStatistics> lockInOrder(Collection<Long> categoryIds) {
+		Map<Long, CategoryStatistics> locked = new TreeMap<>();
+		for (Long categoryId : new TreeSet<>(categoryIds)) {
+			locked.put(categoryId, lockStatistics(categoryId));
+		}
+		return locked;
+	}
+	
+	private static boolean closeEnough(double stored, double actual) {
+		double scale = Math.max(1.0, Math.max(Math.abs(stored), Math.abs(actual)));
+		return Math.abs(stored - actual) <= DRIFT_TOLERANCE * scale;
+	}
+	
+	private static boolean sameAmount(BigDecimal stored, BigDecimal actual) {
+		if (stored == null || actual == null) {
+			return stored == actual;
+		}
+		return stored.compareTo(actual) == 0;
+	}
+	
+	private static BigDecimal toBigDecimal(Object value) {
+		if (value == null) {
+			return null;
+		}
+		return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+	}
+
+}
@@ -0,0 +1,174 @@
+package com.lagathub.spendingtracker.service;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.lagathub.spendingtracker.service.archive.ArchivedLedgerCursor;
+import com.lagathub.spendingtracker.service.export.ExportFormat;
+import com.lagathub.spendingtracker.service.export.ExportSummary;
+import com.lagathub.spendingtracker.service.export.LedgerRow;
+import com.lagathub.spendingtracker.service.export.LedgerRowWriter;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+/*
+ * Streams the ledger for a date range straight from a JDBC cursor into the output stream.
+ * Nothing is materialized: no entities, no lists - each row is written as soon as it is read.
+ * Archived months are merged in from their segments, so the export covers the whole ledger
+ */
+@Service
+public class LedgerExportService {
+	
+	private static final Logger log = LoggerFactory.getLogger(LedgerExportService.class);
+	
+	//Rows fetched per round trip; the driver only keeps this many rows in memory
+	static final int FETCH_SIZE = 5_000;
+	
+	private static final String EXPORT_SQL =
+			"SELECT t.id, t.created_at, t.amount, t.category_id, c.name, t.note " +
+			"FROM transactions t JOIN categories c ON c.id = t.category_id " +
+			"WHERE t.tenant_id = ? AND t.created_at >= ? AND t.created_at < ? ";
+	private static final String RESUME_SQL = "AND (t.created_at, t.id) > (?, ?) ";
+	private static final String ORDER_SQL = "ORDER BY t.created_at, t.id";
+	
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionArchiveService archiveService;
+	
+	public LedgerExportService(JdbcTemplate jdbcTemplate, TransactionArchiveService archiveService) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.archiveService = archiveService;
+	}
+	
+	/*
+	 * Export transactions created between startDate and endDate (both inclusive).
+	 * Rows come out in (created_at, id) order, so an interrupted export can be resumed by
+	 * passing the last received row's createdAt and id as resumeAfterCreatedAt/resumeAfterId
+	 */
+	@Transactional(readOnly = true) //Postgres only uses a server-side cursor inside a transaction
+	public ExportSummary exportTransactions(LocalDate startDate, LocalDate endDate,
+											ExportFormat format, boolean gzip,
+											LocalDateTime resumeAfterCreatedAt, Long resumeAfterId,
+											OutputStream out) throws IOException {
+		validateRange(startDate, endDate);
+		if ((resumeAfterCreatedAt == null) != (resumeAfterId == null)) {
+			throw new IllegalArgumentException("Resume cursor needs both createdAt and id");
+		}
+		
+		long started = System.nanoTime();
+		CountingOutputStream counted = new CountingOutputStream(out);
+		GZIPOutputStream compressed = gzip ? new GZIPOutputStream(counted, 64 * 1024) : null;
+		LedgerRowWriter writer = format.newWriter(compressed != null ? compressed : counted);
+		
+		String tenantId = TenantContext.currentTenant(); //Plain JDBC: filter by tenant explicitly
+		boolean resuming = resumeAfterId != null;
+		String sql = EXPORT_SQL + (resuming ? RESUME_SQL : "") + ORDER_SQL;
+		ExportProgress progress = new ExportProgress();
+		ArchivedLedgerCursor archived = archiveService.openArchivedRows(startDate.atStartOfDay(),
+				endDate.plusDays(1).atStartOfDay(), resumeAfterCreatedAt, resumeAfterId);
+		
+		jdbcTemplate.query(connection -> {
+			PreparedStatement statement = connection.prepareStatement(sql,
+					ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			statement.setFetchSize(FETCH_SIZE);
+			statement.setString(1, tenantId);
+			statement.setTimestamp(2, Timestamp.valueOf(startDate.atStartOfDay()));
+			statement.setTimestamp(3, Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()));
+			if (resuming) {
+				statement.setTimestamp(4, Timestamp.valueOf(resumeAfterCreatedAt));
+				statement.setLong(5, resumeAfterId);
+			}
+			return statement;
+		}, resultSet -> {
+			LedgerRow row = new LedgerRow(
+					resultSet.getLong(1),
+					resultSet.getTimestamp(2).toLocalDateTime(),
+					resultSet.getBigDecimal(3),
+					resultSet.getLong(4),
+					resultSet.getString(5),
+					resultSet.getString(6));
+			//Archived rows that sort before this one go first
+			while (archived.hasNext() && ArchivedLedgerCursor.isBefore(archived.peek(), row.createdAt(), row.id())) {
+				write(writer, archived.next(), progress);
+			}
+			write(writer, row, progress);
+		});
+		while (archived.hasNext()) {
+			write(writer, archived.next(), progress);
+		}
+		
+		writer.finish();
+		if (compressed != null) {
+			compressed.finish();
+		}
+		counted.flush();
+		
+		ExportSummary summary = new ExportSummary(progress.rows, counted.count,
+				Duration.ofNanos(System.nanoTime() - started), progress.lastCreatedAt, progress.lastId);
+		log.info("Exported {} rows ({} bytes, {}{}) in {} ms - {} rows/s",
+				summary.rows(), summary.bytesWritten(), format, gzip ? "+gzip" : "",
+				summary.elapsed().toMillis(), Math.round(summary.rowsPerSecond()));
+		return summary;
+	}
+	
+	private static void write(LedgerRowWriter writer, LedgerRow row, ExportProgress progress) {
+		try {
+			writer.writeRow(row);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e); //Client went away - abort the cursor
+		}
+		progress.rows++;
+		progress.lastCreatedAt = row.createdAt();
+		progress.lastId = row.id();
+	}
+	
+	//Helper: same rules as TransactionService.getTransactionsByDateRange
+	private void validateRange(LocalDate startDate, LocalDate endDate) {
+		if (startDate == null || endDate == null) {
+			throw new IllegalArgumentException("Date range cannot be null");
+		}
+		if (startDate.isAfter(endDate)) {
+			throw new IllegalArgumentException("Start date must be before or equal to end date");
+		}
+	}
+	
+	private static class ExportProgress {
+		long rows;
+		LocalDateTime lastCreatedAt;
+		Long lastId;
+	}
+	
+	private static class CountingOutputStream extends FilterOutputStream {
+		long count;
+		
+		CountingOutputStream(OutputStream out) {
+			super(out);
+		}
+		
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			count++;
+		}
+		
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+	}
+
+}
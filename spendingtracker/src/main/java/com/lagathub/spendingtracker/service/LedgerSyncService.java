@@ -0,0 +1,170 @@
+package com.lagathub.spendingtracker.service;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.lagathub.spendingtracker.domain.model.Transaction;
+import com.lagathub.spendingtracker.dto.response.CategoryResponse;
+import com.lagathub.spendingtracker.dto.response.SyncChangesResponse;
+import com.lagathub.spendingtracker.dto.response.SyncDeletion;
+import com.lagathub.spendingtracker.dto.response.TransactionResponse;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+/*
+ * Delta sync: what changed in the tenant's ledger after a client's cursor. Triggers stamp every
+ * inserted or updated transaction and category with the writing transaction's id and a change_seq,
+ * and turn deletes into tombstones (V16, V18). Changes are returned in (change_txid, change_seq)
+ * order, and only those of transactions older than every transaction still running: nothing can
+ * commit below the cursor afterwards, so "everything above the cursor" is exactly what the client
+ * has not seen. A long-running write (a bulk load, archiving) holds newer changes back until it
+ * ends, without blocking anyone. Each source is read through its (tenant_id, change_txid, change_seq)
+ * index, so a batch costs the changes it returns, not the size of the ledger
+ */
+@Service
+public class LedgerSyncService {
+	
+	//Upper bound for one batch
+	static final int MAX_BATCH = 1000;
+	
+	//Oldest transaction still running when the snapshot was taken; everything below it has finished
+	private static final String WATERMARK_SQL = "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint";
+	
+	private static final String TRANSACTIONS_SQL =
+			"SELECT t.change_txid, t.change_seq, t.id, t.amount, c.name, t.category_id, t.created_at, t.updated_at, t.note " +
+			"FROM transactions t JOIN categories c ON c.id = t.category_id " +
+			"WHERE t.tenant_id = ? AND (t.change_txid, t.change_seq) > (?, ?) AND t.change_txid < ? " +
+			"ORDER BY t.change_txid, t.change_seq LIMIT ?";
+	
+	private static final String CATEGORIES_SQL =
+			"SELECT change_txid, change_seq, id, name, description, created_at FROM categories " +
+			"WHERE tenant_id = ? AND (change_txid, change_seq) > (?, ?) AND change_txid < ? " +
+			"ORDER BY change_txid, change_seq LIMIT ?";
+	
+	private static final String TOMBSTONES_SQL =
+			"SELECT change_txid, change_seq, entity_type, entity_id FROM ledger_tombstones " +
+			"WHERE tenant_id = ? AND (change_txid, change_seq) > (?, ?) AND change_txid < ? " +
+			"ORDER BY change_txid, change_seq LIMIT ?";
+	
+	private final JdbcTemplate jdbcTemplate;
+	
+	public LedgerSyncService(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+	
+	/*
+	 * Up to limit changes after the cursor, oldest first. Repeatable read: the watermark and the three
+	 * queries must see the same commits, or a change committed between them could land below the
+	 * returned cursor unseen
+	 */
+	@Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+	public SyncChangesResponse getChanges(String since, int limit) {
+		Cursor after = Cursor.parse(since);
+		if (limit < 1 || limit > MAX_BATCH) {
+			throw new IllegalArgumentException("Limit must be between 1 and " + MAX_BATCH);
+		}
+		
+		//Step 1: The watermark first - it fixes the snapshot the queries read
+		Long watermark = jdbcTemplate.queryForObject(WATERMARK_SQL, Long.class);
+		
+		//Step 2: The next limit + 1 finished changes from each source; no source can contribute more than that
+		String tenantId = TenantContext.currentTenant(); //Plain JDBC: filter by tenant explicitly
+		LocalDateTime now = LocalDateTime.now();
+		List<Sequenced<TransactionResponse>> transactions = jdbcTemplate.query(TRANSACTIONS_SQL, (rs, rowNum) ->
+				new Sequenced<>(new Cursor(rs.getLong(1), rs.getLong(2)), new TransactionResponse(rs.getLong(3), rs.getBigDecimal(4),
+						rs.getString(5), rs.getLong(6), rs.getObject(7, LocalDateTime.class), rs.getObject(8, LocalDateTime.class),
+						rs.getString(9), Transaction.wasRecentlyUpdated(rs.getObject(7, LocalDateTime.class),
+								rs.getObject(8, LocalDateTime.class), now))),
+				tenantId, after.txid(), after.seq(), watermark, limit + 1);
+		List<Sequenced<CategoryResponse>> categories = jdbcTemplate.query(CATEGORIES_SQL, (rs, rowNum) ->
+				new Sequenced<>(new Cursor(rs.getLong(1), rs.getLong(2)), new CategoryResponse(rs.getLong(3), rs.getString(4),
+						rs.getString(5), rs.getObject(6, LocalDateTime.class))),
+				tenantId, after.txid(), after.seq(), watermark, limit + 1);
+		List<Sequenced<SyncDeletion>> deletions = jdbcTemplate.query(TOMBSTONES_SQL, (rs, rowNum) ->
+				new Sequenced<>(new Cursor(rs.getLong(1), rs.getLong(2)), new SyncDeletion(rs.getString(3), rs.getLong(4), rs.getLong(2))),
+				tenantId, after.txid(), after.seq(), watermark, limit + 1);
+		
+		//Step 3: Merge in change order and stop after limit; the last one taken is the new cursor
+		int t = 0, c = 0, d = 0;
+		Cursor cursor = after;
+		for (int taken = 0; taken < limit; taken++) {
+			Cursor nextTransaction = t < transactions.size() ? transactions.get(t).position() : Cursor.END;
+			Cursor nextCategory = c < categories.size() ? categories.get(c).position() : Cursor.END;
+			Cursor nextDeletion = d < deletions.size() ? deletions.get(d).position() : Cursor.END;
+			Cursor next = Cursor.min(nextTransaction, Cursor.min(nextCategory, nextDeletion));
+			if (next == Cursor.END) {
+				break;
+			}
+			if (next == nextTransaction) {
+				t++;
+			} else if (next == nextCategory) {
+				c++;
+			} else {
+				d++;
+			}
+			cursor = next;
+		}
+		boolean hasMore = t < transactions.size() || c < categories.size() || d < deletions.size();
+		
+		//Step 4: A row deleted and inserted again (archive restore) is live: its tombstone is older, drop it
+		List<TransactionResponse> changedTransactions = transactions.subList(0, t).stream().map(Sequenced::item).toList();
+		List<CategoryResponse> changedCategories = categories.subList(0, c).stream().map(Sequenced::item).toList();
+		Set<String> live = new HashSet<>();
+		changedTransactions.forEach(transaction -> live.add("transaction:" + transaction.getId()));
+		changedCategories.forEach(category -> live.add("category:" + category.getId()));
+		List<SyncDeletion> deleted = deletions.subList(0, d).stream().map(Sequenced::item)
+				.filter(deletion -> !live.contains(deletion.getType() + ":" + deletion.getId()))
+				.toList();
+		
+		return new SyncChangesResponse(cursor.toString(), hasMore, changedCategories, changedTransactions, deleted);
+	}
+	
+	private record Sequenced<T>(Cursor position, T item) {
+		
+	}
+	
+	/*
+	 * Position in change order, "txid.seq" on the wire. A bare number is a cursor from before V18:
+	 * those rows all carry txid 0, so it still means the same position
+	 */
+	record Cursor(long txid, long seq) {
+		
+		static final Cursor END = new Cursor(Long.MAX_VALUE, Long.MAX_VALUE);
+		
+		static Cursor parse(String value) {
+			try {
+				int dot = value.indexOf('.');
+				Cursor cursor = dot < 0 ? new Cursor(0, Long.parseLong(value))
+						: new Cursor(Long.parseLong(value.substring(0, dot)), Long.parseLong(value.substring(dot + 1)));
+				if (cursor.txid() >= 0 && cursor.seq() >= 0) {
+					return cursor;
+				}
+			} catch (NumberFormatException e) {
+				//Reported below
+			}
+			throw new IllegalArgumentException("Invalid sync cursor: '" + value + "'");
+		}
+		
+		static Cursor min(Cursor a, Cursor b) {
+			return a.compareTo(b) <= 0 ? a : b;
+		}
+		
+		int compareTo(Cursor other) {
+			int byTransaction = Long.compare(txid, other.txid);
+			return byTransaction != 0 ? byTransaction : Long.compare(seq, other.seq);
+		}
+		
+		@Override
+		public String toString() {
+			return txid + "." + seq;
+		}
+		
+	}
+
+}
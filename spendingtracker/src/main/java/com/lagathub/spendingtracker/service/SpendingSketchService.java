@@ -0,0 +1,498 @@
+package com.lagathub.spendingtracker.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.lagathub.spendingtracker.domain.model.AmountSummary;
+import com.lagathub.spendingtracker.domain.model.SketchGranularity;
+import com.lagathub.spendingtracker.domain.model.SpendingSketch;
+import com.lagathub.spendingtracker.cache.SpendingCaches;
+import com.lagathub.spendingtracker.dto.response.CategoryTotalResponse;
+import com.lagathub.spendingtracker.dto.response.CategoryTrendResponse;
+import com.lagathub.spendingtracker.dto.response.DailyTotalResponse;
+import com.lagathub.spendingtracker.dto.response.PercentileResponse;
+import com.lagathub.spendingtracker.dto.response.WeeklyTrendResponse;
+import com.lagathub.spendingtracker.repository.CategoryRepository;
+import com.lagathub.spendingtracker.repository.SpendingSketchRepository;
+import com.lagathub.spendingtracker.repository.TransactionRepository;
+import com.lagathub.spendingtracker.service.sketch.SketchRangePlan;
+import com.lagathub.spendingtracker.service.sketch.TDigest;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+/*
+ * Maintains per-category day and week quantile sketches on the write path and answers
+ * percentile queries by merging a handful of them: whole weeks come from week buckets,
+ * the partial weeks at either end from day buckets - at most 12 day buckets plus one
+ * week bucket per full week, whatever the number of transactions
+ */
+@Service
+@Transactional
+public class SpendingSketchService {
+	
+	private static final SketchGranularity[] GRANULARITIES = SketchGranularity.values();
+	private static final byte[] EMPTY_DIGEST = new TDigest().toBytes();
+	
+	//Upper bound for day-by-day ranges (about ten years)
+	static final int MAX_DAILY_RANGE_DAYS = 3_660;
+	
+	//Upper bound for week-by-week trends (two years)
+	static final int MAX_TREND_WEEKS = 104;
+	
+	private final SpendingSketchRepository sketchRepository;
+	private final TransactionRepository transactionRepository;
+	private final CategoryRepository categoryRepository;
+	private final JdbcTemplate jdbcTemplate;
+	private final SpendingCaches spendingCaches;
+	
+	public SpendingSketchService(SpendingSketchRepository sketchRepository,
+								 TransactionRepository transactionRepository,
+								 CategoryRepository categoryRepository,
+								 JdbcTemplate jdbcTemplate,
+								 SpendingCaches spendingCaches) {
+		this.sketchRepository = sketchRepository;
+		this.transactionRepository = transactionRepository;
+		this.categoryRepository = categoryRepository;
+		this.jdbcTemplate = jdbcTemplate;
+		this.spendingCaches = spendingCaches;
+	}
+	
+	//Write path 1: a transaction was recorded
+	public void recordAdded(Long categoryId, BigDecimal amount, LocalDateTime createdAt) {
+		for (SketchGranularity granularity : GRANULARITIES) {
+			SpendingSketch sketch = lockBucket(categoryId, granularity, createdAt.toLocalDate());
+			sketch.setTransactionCount(sketch.getTransactionCount() + 1);
+			sketch.setTotalAmount(sketch.getTotalAmount().add(amount));
+			if (!sketch.isNeedsRebuild()) {
+				TDigest digest = TDigest.fromBytes(sketch.getDigest());
+				digest.add(amount.doubleValue());
+				sketch.setDigest(digest.toBytes());
+			}
+		}
+	}
+	
+	//Write path 2: a transaction was deleted - counts stay exact, the digest is rebuilt on next read
+	public void recordRemoved(Long categoryId, BigDecimal amount, LocalDateTime createdAt) {
+		for (SketchGranularity granularity : GRANULARITIES) {
+			SpendingSketch sketch = lockBucket(categoryId, granularity, createdAt.toLocalDate());
+			sketch.setTransactionCount(sketch.getTransactionCount() - 1);
+			sketch.setTotalAmount(sketch.getTotalAmount().subtract(amount));
+			sketch.setNeedsRebuild(true);
+		}
+	}
+	
+	//Write path 3: amount and/or category of a transaction changed
+	public void recordChanged(Long oldCategoryId, BigDecimal oldAmount,
+							  Long newCategoryId, BigDecimal newAmount, LocalDateTime createdAt) {
+		if (oldCategoryId.equals(newCategoryId) && oldAmount.compareTo(newAmount) == 0) {
+			return;
+		}
+		recordRemoved(oldCategoryId, oldAmount, createdAt);
+		recordAdded(newCategoryId, newAmount, createdAt);
+	}
+	
+	/*
+	 * Write path 4: category merge. Buckets both categories have are combined - digests are
+	 * mergeable, so no transaction is re-read - and the rest are handed over in one UPDATE
+	 */
+	public void recordMerged(Long sourceCategoryId, Long targetCategoryId) {
+		//Step 1: Lock both categories' buckets (lower id first, like the statistics rows)
+		List<SpendingSketch> sourceBuckets;
+		List<SpendingSketch> targetBuckets;
+		if (sourceCategoryId < targetCategoryId) {
+			sourceBuckets = sketchRepository.findAllForUpdate(sourceCategoryId);
+			targetBuckets = sketchRepository.findAllForUpdate(targetCategoryId);
+		} else {
+			targetBuckets = sketchRepository.findAllForUpdate(targetCategoryId);
+			sourceBuckets = sketchRepository.findAllForUpdate(sourceCategoryId);
+		}
+		Map<String, SpendingSketch> targetByBucket = new HashMap<>();
+		for (SpendingSketch bucket : targetBuckets) {
+			targetByBucket.put(bucket.getGranularity() + "/" + bucket.getBucketStart(), bucket);
+		}
+		
+		//Step 2: Fold overlapping buckets into the target's
+		List<SpendingSketch> folded = new ArrayList<>();
+		for (SpendingSketch source : sourceBuckets) {
+			SpendingSketch target = targetByBucket.get(source.getGranularity() + "/" + source.getBucketStart());
+			if (target == null) {
+				continue;
+			}
+			target.setTransactionCount(target.getTransactionCount() + source.getTransactionCount());
+			target.setTotalAmount(target.getTotalAmount().add(source.getTotalAmount()));
+			if (source.isNeedsRebuild() || target.isNeedsRebuild()) {
+				target.setNeedsRebuild(true);
+			} else {
+				TDigest digest = TDigest.fromBytes(target.getDigest());
+				digest.merge(TDigest.fromBytes(source.getDigest()));
+				target.setDigest(digest.toBytes());
+			}
+			folded.add(source);
+		}
+		sketchRepository.deleteAllInBatch(folded);
+		
+		//Step 3: Move the rest
+		sketchRepository.reassignCategory(TenantContext.currentTenant(), sourceCategoryId, targetCategoryId);
+	}
+	
+	/*
+	 * Write path 5: bulk recategorize. movedByDay holds, per source category, what moved from each day.
+	 * Exact counts and totals shift in one batched upsert; the digests of touched buckets are
+	 * rebuilt on their next read, since only the aggregates of the moved amounts are known here
+	 */
+	public void recordMoved(Map<Long, Map<LocalDate, AmountSummary>> movedByDay, Long targetCategoryId) {
+		String tenantId = TenantContext.currentTenant();
+		Map<String, Object[]> deltas = new LinkedHashMap<>();
+		movedByDay.forEach((categoryId, days) -> days.forEach((day, moved) -> {
+			for (SketchGranularity granularity : GRANULARITIES) {
+				LocalDate bucketStart = granularity.bucketStart(day);
+				addDelta(deltas, tenantId, categoryId, granularity, bucketStart, -moved.count(), moved.total().negate());
+				addDelta(deltas, tenantId, targetCategoryId, granularity, bucketStart, moved.count(), moved.total());
+			}
+		}));
+		jdbcTemplate.batchUpdate("INSERT INTO spending_sketches (tenant_id, category_id, granularity, bucket_start, " +
+				"transaction_count, total_amount, digest, needs_rebuild, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, TRUE, NOW()) " +
+				"ON CONFLICT (category_id, granularity, bucket_start) DO UPDATE SET " +
+				"transaction_count = spending_sketches.transaction_count + EXCLUDED.transaction_count, " +
+				"total_amount = spending_sketches.total_amount + EXCLUDED.total_amount, needs_rebuild = TRUE, updated_at = NOW()",
+				new ArrayList<>(deltas.values()));
+	}
+	
+	//Helper: accumulate one bucket's change, so each bucket is written once
+	private static void addDelta(Map<String, Object[]> deltas, String tenantId, Long categoryId, SketchGranularity granularity,
+								 LocalDate bucketStart, long count, BigDecimal total) {
+		Object[] row = deltas.computeIfAbsent(categoryId + "/" + granularity + "/" + bucketStart,
+				key -> new Object[] {tenantId, categoryId, granularity.name(), bucketStart, 0L, BigDecimal.ZERO, EMPTY_DIGEST});
+		row[4] = (Long) row[4] + count;
+		row[5] = ((BigDecimal) row[5]).add(total);
+	}
+	
+	/**
+	 * Percentiles of amounts between startDate and endDate (inclusive) for one category,
+	 * or across all categories when categoryId is null
+	 */
+	public PercentileResponse getPercentiles(Long categoryId, LocalDate startDate, LocalDate endDate, List<Double> quantiles) {
+		SketchRangePlan plan = SketchRangePlan.of(startDate, endDate);
+		List<SpendingSketch> buckets = new ArrayList<>();
+		if (plan.hasWeeks()) {
+			buckets.addAll(findBuckets(categoryId, SketchGranularity.WEEK, plan.weekFrom(), plan.weekTo()));
+		}
+		if (plan.hasHeadDays()) {
+			buckets.addAll(findBuckets(categoryId, SketchGranularity.DAY, plan.headDayFrom(), plan.headDayTo()));
+		}
+		if (plan.hasTailDays()) {
+			buckets.addAll(findBuckets(categoryId, SketchGranularity.DAY, plan.tailDayFrom(), plan.tailDayTo()));
+		}
+		
+		TDigest merged = new TDigest();
+		long count = 0;
+		BigDecimal total = BigDecimal.ZERO;
+		for (SpendingSketch bucket : buckets) {
+			if (bucket.isNeedsRebuild()) {
+				rebuildBucket(bucket);
+			}
+			merged.merge(TDigest.fromBytes(bucket.getDigest()));
+			count += bucket.getTransactionCount();
+			total = total.add(bucket.getTotalAmount());
+		}
+		
+		Map<String, BigDecimal> percentiles = new LinkedHashMap<>();
+		for (Double q : quantiles) {
+			double value = merged.quantile(q);
+			percentiles.put(percentileLabel(q), Double.isNaN(value) ? null
+					: BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP));
+		}
+		return new PercentileResponse(categoryId, startDate, endDate, count, total, percentiles);
+	}
+	
+	/**
+	 * Top categories by total spent between startDate and endDate (inclusive), from sketch bucket totals
+	 */
+	public List<CategoryTotalResponse> getTopCategories(LocalDate startDate, LocalDate endDate, int limit) {
+		if (limit < 1 || limit > TransactionService.MAX_TOP_N) {
+			throw new IllegalArgumentException("Limit must be between 1 and " + TransactionService.MAX_TOP_N);
+		}
+		SketchRangePlan plan = SketchRangePlan.of(startDate, endDate);
+		List<Object[]> rows = sketchRepository.findTopCategoriesByTotal(TenantContext.currentTenant(),
+				plan.weekFrom(), plan.weekTo(),
+				plan.headDayFrom(), plan.headDayTo(),
+				plan.tailDayFrom(), plan.tailDayTo(), limit);
+		
+		List<Long> categoryIds = rows.stream().map(row -> ((Number) row[0]).longValue()).toList();
+		Map<Long, String> names = new HashMap<>();
+		categoryRepository.findAllById(categoryIds).forEach(category -> names.put(category.getId(), category.getName()));
+		
+		List<CategoryTotalResponse> top = new ArrayList<>(rows.size());
+		for (Object[] row : rows) {
+			Long categoryId = ((Number) row[0]).longValue();
+			top.add(new CategoryTotalResponse(categoryId, names.get(categoryId),
+					(BigDecimal) row[1], ((Number) row[2]).longValue()));
+		}
+		return top;
+	}
+	
+	/**
+	 * Total and count for every day between startDate and endDate (inclusive), days without
+	 * transactions included, for one category or across all categories when categoryId is null.
+	 * Closed months come from the cache; the months missing from it (always the current one)
+	 * are read in a single gap-filled query over the DAY buckets
+	 */
+	public List<DailyTotalResponse> getDailyTotals(Long categoryId, LocalDate startDate, LocalDate endDate) {
+		
+		//Step 1: Validate the range
+		if (startDate == null || endDate == null) {
+			throw new IllegalArgumentException("Date range cannot be null");
+		}
+		if (startDate.isAfter(endDate)) {
+			throw new IllegalArgumentException("Start date must be before or equal to end date");
+		}
+		if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_DAILY_RANGE_DAYS) {
+			throw new IllegalArgumentException("Date range cannot exceed " + MAX_DAILY_RANGE_DAYS + " days");
+		}
+		
+		//Step 2: Closed months from the cache; note the span of months still missing
+		Map<YearMonth, List<DailyTotalResponse>> months = new TreeMap<>();
+		YearMonth firstMissing = null;
+		YearMonth lastMissing = null;
+		for (YearMonth month = YearMonth.from(startDate); !month.isAfter(YearMonth.from(endDate)); month = month.plusMonths(1)) {
+			List<DailyTotalResponse> cached = SpendingCaches.isClosedMonth(month) ? spendingCaches.heatmapMonth(month, categoryId) : null;
+			if (cached != null) {
+				months.put(month, cached);
+			} else {
+				firstMissing = firstMissing == null ? month : firstMissing;
+				lastMissing = month;
+			}
+		}
+		
+		//Step 3: Read whole missing months in one round trip and cache the closed ones
+		if (firstMissing != null) {
+			String tenantId = TenantContext.currentTenant();
+			LocalDate from = firstMissing.atDay(1);
+			LocalDate to = lastMissing.atEndOfMonth();
+			List<Object[]> rows = categoryId != null
+					? sketchRepository.findDailyTotals(tenantId, categoryId, from, to)
+					: sketchRepository.findDailyTotalsForAllCategories(tenantId, from, to);
+			
+			Map<YearMonth, List<DailyTotalResponse>> read = new LinkedHashMap<>();
+			for (Object[] row : rows) {
+				LocalDate day = toLocalDate(row[0]);
+				read.computeIfAbsent(YearMonth.from(day), month -> new ArrayList<>())
+						.add(new DailyTotalResponse(day, (BigDecimal) row[1], ((Number) row[2]).longValue()));
+			}
+			read.forEach((month, days) -> {
+				if (months.putIfAbsent(month, days) == null) {
+					spendingCaches.putHeatmapMonth(month, categoryId, days);
+				}
+			});
+		}
+		
+		//Step 4: Trim the first and last month to the requested range
+		List<DailyTotalResponse> days = new ArrayList<>();
+		months.values().forEach(monthDays -> monthDays.stream()
+				.filter(day -> !day.getDate().isBefore(startDate) && !day.getDate().isAfter(endDate))
+				.forEach(days::add));
+		return days;
+	}
+	
+	/**
+	 * Week-by-week trends over the last `weeks` closed weeks: one series for the total (first, with
+	 * a null category) and one per category with spending in the span. A single window-function
+	 * query over the WEEK buckets; cached until the next week closes or a closed week changes
+	 */
+	public List<CategoryTrendResponse> getWeeklyTrends(int weeks) {
+		if (weeks < 1 || weeks > MAX_TREND_WEEKS) {
+			throw new IllegalArgumentException("Weeks must be between 1 and " + MAX_TREND_WEEKS);
+		}
+		LocalDate lastWeek = LocalDate.now().with(DayOfWeek.MONDAY).minusWeeks(1);
+		return spendingCaches.weeklyTrends(lastWeek, weeks, () -> loadWeeklyTrends(lastWeek.minusWeeks(weeks - 1), lastWeek));
+	}
+	
+	private List<CategoryTrendResponse> loadWeeklyTrends(LocalDate firstWeek, LocalDate lastWeek) {
+		
+		//Step 1: One pass; the 11 weeks before firstWeek only fill the windows
+		List<Object[]> rows = sketchRepository.findWeeklyTrends(TenantContext.currentTenant(),
+				firstWeek.minusWeeks(11), firstWeek, lastWeek);
+		
+		//Step 2: Rows arrive ordered by category (total first), then week
+		Map<Long, List<WeeklyTrendResponse>> series = new LinkedHashMap<>();
+		for (Object[] row : rows) {
+			Long categoryId = row[0] != null ? ((Number) row[0]).longValue() : null;
+			series.computeIfAbsent(categoryId, id -> new ArrayList<>()).add(new WeeklyTrendResponse(
+					toLocalDate(row[1]), (BigDecimal) row[2], ((Number) row[3]).longValue(),
+					(BigDecimal) row[4], (BigDecimal) row[5], (BigDecimal) row[6], (BigDecimal) row[7],
+					((Number) row[8]).intValue()));
+		}
+		
+		//Step 3: Names for the category series
+		Map<Long, String> names = new HashMap<>();
+		categoryRepository.findAllById(series.keySet().stream().filter(id -> id != null).toList())
+				.forEach(category -> names.put(category.getId(), category.getName()));
+		
+		List<CategoryTrendResponse> trends = new ArrayList<>(series.size());
+		series.forEach((categoryId, weeks) ->
+				trends.add(new CategoryTrendResponse(categoryId, names.get(categoryId), List.copyOf(weeks))));
+		return List.copyOf(trends);
+	}
+	
+	//Native queries return DATE columns as java.sql.Date or LocalDate depending on the driver mapping
+	private static LocalDate toLocalDate(Object value) {
+		return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+	}
+	
+	/*
+	 * Recreate every sketch from the transactions table (after bulk loads or to repair drift).
+	 * Streams rows in (category, created_at) order so only the current day and week digests
+	 * are held in memory
+	 */
+	public void rebuildAll() {
+		String tenantId = TenantContext.currentTenant();
+		sketchRepository.deleteAllSketches(tenantId);
+		SketchRebuilder rebuilder = new SketchRebuilder(tenantId);
+		jdbcTemplate.query(connection -> {
+			PreparedStatement statement = connection.prepareStatement(
+					"SELECT category_id, created_at, amount FROM transactions WHERE tenant_id = ? ORDER BY category_id, created_at",
+					ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			statement.setFetchSize(LedgerExportService.FETCH_SIZE);
+			statement.setString(1, tenantId);
+			return statement;
+		}, resultSet -> {
+			rebuilder.accept(resultSet.getLong(1), resultSet.getTimestamp(2).toLocalDateTime().toLocalDate(),
+					resultSet.getBigDecimal(3));
+		});
+		rebuilder.finish();
+	}
+	
+	//Helper: lock a bucket row, creating it first if needed
+	private SpendingSketch lockBucket(Long categoryId, SketchGranularity granularity, LocalDate date) {
+		LocalDate bucketStart = granularity.bucketStart(date);
+		return sketchRepository.findForUpdate(categoryId, granularity, bucketStart).orElseGet(() -> {
+			sketchRepository.insertIfMissing(TenantContext.currentTenant(), categoryId, granularity.name(), bucketStart, EMPTY_DIGEST);
+			return sketchRepository.findForUpdate(categoryId, granularity, bucketStart).orElseThrow();
+		});
+	}
+	
+	private List<SpendingSketch> findBuckets(Long categoryId, SketchGranularity granularity, LocalDate from, LocalDate to) {
+		return categoryId != null
+				? sketchRepository.findBuckets(categoryId, granularity, from, to)
+				: sketchRepository.findBucketsForAllCategories(granularity, from, to);
+	}
+	
+	//Helper: recompute one bucket's digest (and exact figures) from its transactions
+	private void rebuildBucket(SpendingSketch bucket) {
+		LocalDate start = bucket.getBucketStart();
+		LocalDate end = bucket.getGranularity().bucketEnd(start);
+		List<BigDecimal> amounts = transactionRepository.findAmountsByCategoryIdAndCreatedAtRange(
+				bucket.getCategoryId(), start.atStartOfDay(), end.atStartOfDay());
+		
+		TDigest digest = new TDigest();
+		BigDecimal total = BigDecimal.ZERO;
+		for (BigDecimal amount : amounts) {
+			digest.add(amount.doubleValue());
+			total = total.add(amount);
+		}
+		bucket.setDigest(digest.toBytes());
+		bucket.setTransactionCount(amounts.size());
+		bucket.setTotalAmount(total);
+		bucket.setNeedsRebuild(false);
+	}
+	
+	private static String percentileLabel(double q) {
+		BigDecimal percent = BigDecimal.valueOf(q).multiply(BigDecimal.valueOf(100)).stripTrailingZeros();
+		return "p" + percent.toPlainString();
+	}
+	
+	/*
+	 * Accumulates the current (category, day) and (category, week) digests while rows stream past,
+	 * writing each bucket as soon as the stream moves beyond it
+	 */
+	private class SketchRebuilder {
+		
+		private static final int BATCH_SIZE = 500;
+		
+		private final String tenantId;
+		private final List<Object[]> pending = new ArrayList<>();
+		private final Bucket day = new Bucket(SketchGranularity.DAY);
+		private final Bucket week = new Bucket(SketchGranularity.WEEK);
+		
+		SketchRebuilder(String tenantId) {
+			this.tenantId = tenantId;
+		}
+		
+		void accept(long categoryId, LocalDate date, BigDecimal amount) {
+			day.accept(categoryId, date, amount);
+			week.accept(categoryId, date, amount);
+		}
+		
+		void finish() {
+			day.flush();
+			week.flush();
+			writePending();
+		}
+		
+		private void writePending() {
+			if (pending.isEmpty()) {
+				return;
+			}
+			jdbcTemplate.batchUpdate("INSERT INTO spending_sketches (tenant_id, category_id, granularity, bucket_start, " +
+					"transaction_count, total_amount, digest, needs_rebuild, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, FALSE, NOW())",
+					pending);
+			pending.clear();
+		}
+		
+		private class Bucket {
+			final SketchGranularity granularity;
+			Long categoryId;
+			LocalDate start;
+			TDigest digest;
+			long count;
+			BigDecimal total;
+			
+			Bucket(SketchGranularity granularity) {
+				this.granularity = granularity;
+			}
+			
+			void accept(long rowCategoryId, LocalDate date, BigDecimal amount) {
+				LocalDate rowStart = granularity.bucketStart(date);
+				if (categoryId == null || categoryId != rowCategoryId || !start.equals(rowStart)) {
+					flush();
+					categoryId = rowCategoryId;
+					start = rowStart;
+					digest = new TDigest();
+					count = 0;
+					total = BigDecimal.ZERO;
+				}
+				digest.add(amount.doubleValue());
+				count++;
+				total = total.add(amount);
+			}
+			
+			void flush() {
+				if (categoryId == null) {
+					return;
+				}
+				pending.add(new Object[] {tenantId, categoryId, granularity.name(), start, count, total, digest.toBytes()});
+				categoryId = null;
+				if (pending.size() >= BATCH_SIZE) {
+					writePending();
+				}
+			}
+		}
+	}
+
+}
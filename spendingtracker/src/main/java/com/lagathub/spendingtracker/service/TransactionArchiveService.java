@@ -0,0 +1,305 @@
+package com.lagathub.spendingtracker.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.lagathub.spendingtracker.cache.SpendingCaches;
+import com.lagathub.spendingtracker.dto.response.ArchiveSegmentResponse;
+import com.lagathub.spendingtracker.exception.ResourceNotFoundException;
+import com.lagathub.spendingtracker.service.archive.ArchiveSummary;
+import com.lagathub.spendingtracker.service.archive.ArchivedLedgerCursor;
+import com.lagathub.spendingtracker.service.export.ColumnarLedgerReader;
+import com.lagathub.spendingtracker.service.export.ColumnarLedgerWriter;
+import com.lagathub.spendingtracker.service.export.LedgerRow;
+import com.lagathub.spendingtracker.service.report.WeekCategoryTotal;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+/*
+ * Moves closed months of the ledger out of the transactions table into compressed archive
+ * segments (one gzipped columnar ledger file per tenant and month) and back.
+ *
+ * A month's segment holds the whole weeks starting in it, so no week is split between the tiers.
+ * Rows are removed with DELETE ... RETURNING, and the same rows are encoded and summed per
+ * week and category, so the stored weekly reports written alongside are exactly what was archived.
+ * Running statistics, sketches and budget counters are left as they are: they keep describing the
+ * whole ledger. Each month is archived or restored in its own transaction
+ */
+@Service
+public class TransactionArchiveService {
+	
+	private static final Logger log = LoggerFactory.getLogger(TransactionArchiveService.class);
+	
+	//Rows fetched per round trip while archiving, and inserted per batch while restoring
+	static final int FETCH_SIZE = 5_000;
+	static final int RESTORE_BATCH_SIZE = 1_000;
+	
+	private static final String ARCHIVE_SQL =
+			"WITH archived AS (DELETE FROM transactions WHERE tenant_id = ? AND created_at >= ? AND created_at < ? " +
+			"RETURNING id, created_at, amount, category_id, note) " +
+			"SELECT a.id, a.created_at, a.amount, a.category_id, c.name, a.note " +
+			"FROM archived a JOIN categories c ON c.id = a.category_id ORDER BY a.created_at, a.id";
+	
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final WeeklyReportService weeklyReportService;
+	private final CategoryService categoryService;
+	private final SpendingCaches spendingCaches;
+	
+	public TransactionArchiveService(JdbcTemplate jdbcTemplate,
+									 PlatformTransactionManager transactionManager,
+									 WeeklyReportService weeklyReportService,
+									 CategoryService categoryService,
+									 SpendingCaches spendingCaches) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.weeklyReportService = weeklyReportService;
+		this.categoryService = categoryService;
+		this.spendingCaches = spendingCaches;
+	}
+	
+	//First day a month's segment covers: the first Monday on or after the 1st
+	public static LocalDate segmentStart(YearMonth month) {
+		return month.atDay(1).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+	}
+	
+	//The segment a day belongs to: the month its week starts in
+	public static YearMonth segmentMonth(LocalDate date) {
+		return YearMonth.from(date.with(DayOfWeek.MONDAY));
+	}
+	
+	/*
+	 * Archive every month whose segment ends before the segment of firstKeptMonth starts,
+	 * oldest first. Months already archived or without live rows are skipped
+	 */
+	public List<ArchiveSummary> archiveBefore(YearMonth firstKeptMonth) {
+		String tenantId = TenantContext.currentTenant();
+		Timestamp oldest = jdbcTemplate.queryForObject(
+				"SELECT MIN(created_at) FROM transactions WHERE tenant_id = ?", Timestamp.class, tenantId);
+		List<ArchiveSummary> archived = new ArrayList<>();
+		if (oldest == null) {
+			return archived;
+		}
+		for (YearMonth month = segmentMonth(oldest.toLocalDateTime().toLocalDate()); month.isBefore(firstKeptMonth); month = month.plusMonths(1)) {
+			if (!isArchived(tenantId, month)) {
+				ArchiveSummary summary = archiveMonth(month);
+				if (summary.rows() > 0) {
+					archived.add(summary);
+				}
+			}
+		}
+		return archived;
+	}
+	
+	//Move one closed month of the current tenant's ledger into the archive
+	public ArchiveSummary archiveMonth(YearMonth month) {
+		LocalDate rangeStart = segmentStart(month);
+		LocalDate rangeEnd = segmentStart(month.plusMonths(1));
+		if (rangeEnd.isAfter(LocalDate.now().with(DayOfWeek.MONDAY))) {
+			throw new IllegalArgumentException("Month " + month + " is not closed yet (its last week ends " + rangeEnd.minusDays(1) + ")");
+		}
+		String tenantId = TenantContext.currentTenant();
+		long started = System.nanoTime();
+		
+		return transactionTemplate.execute(status -> {
+			if (isArchived(tenantId, month)) {
+				throw new IllegalArgumentException("Month " + month + " is already archived");
+			}
+			
+			//Step 1: Delete the rows and encode them in (created_at, id) order, summing weeks as they pass
+			ByteArrayOutputStream payload = new ByteArrayOutputStream(64 * 1024);
+			Map<LocalDate, Map<Long, WeekCategoryTotal>> weeks = new TreeMap<>();
+			long[] rows = new long[1];
+			BigDecimal[] totalAmount = {BigDecimal.ZERO};
+			try (GZIPOutputStream compressed = new GZIPOutputStream(payload, 64 * 1024)) {
+				ColumnarLedgerWriter writer = new ColumnarLedgerWriter(compressed);
+				jdbcTemplate.query(connection -> {
+					PreparedStatement statement = connection.prepareStatement(ARCHIVE_SQL,
+							ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+					statement.setFetchSize(FETCH_SIZE);
+					statement.setString(1, tenantId);
+					statement.setTimestamp(2, Timestamp.valueOf(rangeStart.atStartOfDay()));
+					statement.setTimestamp(3, Timestamp.valueOf(rangeEnd.atStartOfDay()));
+					return statement;
+				}, resultSet -> {
+					LedgerRow row = new LedgerRow(
+							resultSet.getLong(1),
+							resultSet.getTimestamp(2).toLocalDateTime(),
+							resultSet.getBigDecimal(3),
+							resultSet.getLong(4),
+							resultSet.getString(5),
+							resultSet.getString(6));
+					try {
+						writer.writeRow(row);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+					rows[0]++;
+					totalAmount[0] = totalAmount[0].add(row.amount());
+					LocalDate weekStart = row.createdAt().toLocalDate().with(DayOfWeek.MONDAY);
+					weeks.computeIfAbsent(weekStart, week -> new HashMap<>()).merge(row.categoryId(),
+							new WeekCategoryTotal(weekStart, row.categoryId(), row.amount(), 1), TransactionArchiveService::plus);
+				});
+				writer.finish();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			if (rows[0] == 0) {
+				return new ArchiveSummary(month, 0, 0, elapsedMillis(started));
+			}
+			
+			//Step 2: Stored reports for every week in the segment, from exactly the rows archived
+			List<LocalDate> weekStarts = new ArrayList<>();
+			for (LocalDate weekStart = rangeStart; weekStart.isBefore(rangeEnd); weekStart = weekStart.plusWeeks(1)) {
+				weekStarts.add(weekStart);
+			}
+			weeklyReportService.storeWeeks(weekStarts,
+					weeks.values().stream().flatMap(categories -> categories.values().stream()).toList());
+			
+			//Step 3: The segment itself
+			byte[] bytes = payload.toByteArray();
+			jdbcTemplate.update("INSERT INTO transaction_archive_segments " +
+					"(tenant_id, archive_month, range_start, range_end, row_count, total_amount, payload) VALUES (?, ?, ?, ?, ?, ?, ?)",
+					tenantId, month.atDay(1), rangeStart, rangeEnd, rows[0], totalAmount[0], bytes);
+			
+			//Categories may have lost their last live row
+			spendingCaches.evictUsedCategories();
+			
+			ArchiveSummary summary = new ArchiveSummary(month, rows[0], bytes.length, elapsedMillis(started));
+			log.info("Archived {} rows of {} for tenant {} into {} bytes in {} ms - {} rows/s",
+					summary.rows(), month, tenantId, summary.bytes(), summary.elapsedMillis(), Math.round(summary.rowsPerSecond()));
+			return summary;
+		});
+	}
+	
+	/*
+	 * Put an archived month back into the transactions table (same ids) and drop its segment.
+	 * Stored reports already match. A category deleted since (e.g. merged away) is recreated by name
+	 */
+	public ArchiveSummary restoreMonth(YearMonth month) {
+		String tenantId = TenantContext.currentTenant();
+		long started = System.nanoTime();
+		
+		return transactionTemplate.execute(status -> {
+			//Step 1: Lock the segment so a concurrent restore of the same month waits and then finds nothing
+			List<byte[]> payloads = jdbcTemplate.queryForList("SELECT payload FROM transaction_archive_segments " +
+					"WHERE tenant_id = ? AND archive_month = ? FOR UPDATE", byte[].class, tenantId, month.atDay(1));
+			if (payloads.isEmpty()) {
+				throw new ResourceNotFoundException("No archived segment for " + month);
+			}
+			byte[] payload = payloads.get(0);
+			
+			//Step 2: Decode one row group at a time and insert it in batches
+			Map<Long, Long> categoryIds = new HashMap<>();
+			long rows = 0;
+			try {
+				ColumnarLedgerReader reader = new ColumnarLedgerReader(new GZIPInputStream(new ByteArrayInputStream(payload), 64 * 1024));
+				for (List<LedgerRow> group = reader.nextRowGroup(); !group.isEmpty(); group = reader.nextRowGroup()) {
+					List<Object[]> batch = new ArrayList<>(RESTORE_BATCH_SIZE);
+					for (LedgerRow row : group) {
+						Long categoryId = categoryIds.computeIfAbsent(row.categoryId(), id -> resolveCategory(tenantId, id, row.categoryName()));
+						batch.add(new Object[] {row.id(), tenantId, row.amount(), categoryId, Timestamp.valueOf(row.createdAt()), row.note()});
+						if (batch.size() == RESTORE_BATCH_SIZE) {
+							insertRows(batch);
+							batch.clear();
+						}
+					}
+					insertRows(batch);
+					rows += group.size();
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException("Corrupt archive segment for " + month, e);
+			}
+			
+			//Step 3: Drop the segment
+			jdbcTemplate.update("DELETE FROM transaction_archive_segments WHERE tenant_id = ? AND archive_month = ?",
+					tenantId, month.atDay(1));
+			spendingCaches.evictUsedCategories();
+			
+			ArchiveSummary summary = new ArchiveSummary(month, rows, payload.length, elapsedMillis(started));
+			log.info("Restored {} rows of {} for tenant {} in {} ms - {} rows/s",
+					summary.rows(), month, tenantId, summary.elapsedMillis(), Math.round(summary.rowsPerSecond()));
+			return summary;
+		});
+	}
+	
+	//The current tenant's segments, oldest first
+	public List<ArchiveSegmentResponse> getSegments() {
+		return jdbcTemplate.query("SELECT archive_month, range_start, range_end, row_count, total_amount, " +
+				"octet_length(payload), archived_at FROM transaction_archive_segments WHERE tenant_id = ? ORDER BY archive_month",
+				(resultSet, rowNum) -> new ArchiveSegmentResponse(
+						YearMonth.from(resultSet.getObject(1, LocalDate.class)),
+						resultSet.getObject(2, LocalDate.class),
+						resultSet.getObject(3, LocalDate.class),
+						resultSet.getLong(4),
+						resultSet.getBigDecimal(5),
+						resultSet.getLong(6),
+						resultSet.getTimestamp(7).toLocalDateTime()),
+				TenantContext.currentTenant());
+	}
+	
+	//Archived rows of the current tenant created in [from, to), optionally after a resume position
+	public ArchivedLedgerCursor openArchivedRows(LocalDateTime from, LocalDateTime to,
+												 LocalDateTime resumeAfterCreatedAt, Long resumeAfterId) {
+		return new ArchivedLedgerCursor(jdbcTemplate, TenantContext.currentTenant(), from, to, resumeAfterCreatedAt, resumeAfterId);
+	}
+	
+	//Whether any part of [from, to) lies in an archived segment of the current tenant
+	public boolean overlapsArchive(LocalDate from, LocalDate to) {
+		return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+				"SELECT EXISTS (SELECT 1 FROM transaction_archive_segments WHERE tenant_id = ? AND range_start < ? AND range_end > ?)",
+				Boolean.class, TenantContext.currentTenant(), to, from));
+	}
+	
+	private boolean isArchived(String tenantId, YearMonth month) {
+		return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+				"SELECT EXISTS (SELECT 1 FROM transaction_archive_segments WHERE tenant_id = ? AND archive_month = ?)",
+				Boolean.class, tenantId, month.atDay(1)));
+	}
+	
+	private Long resolveCategory(String tenantId, Long categoryId, String categoryName) {
+		List<Long> existing = jdbcTemplate.queryForList("SELECT id FROM categories WHERE tenant_id = ? AND id = ?",
+				Long.class, tenantId, categoryId);
+		return existing.isEmpty() ? categoryService.findOrCreateCategory(categoryName).getId() : categoryId;
+	}
+	
+	private void insertRows(List<Object[]> batch) {
+		if (!batch.isEmpty()) {
+			jdbcTemplate.batchUpdate("INSERT INTO transactions (id, tenant_id, amount, category_id, created_at, note) " +
+					"VALUES (?, ?, ?, ?, ?, ?)", batch);
+		}
+	}
+	
+	private static WeekCategoryTotal plus(WeekCategoryTotal a, WeekCategoryTotal b) {
+		return new WeekCategoryTotal(a.weekStart(), a.categoryId(), a.amount().add(b.amount()), a.count() + b.count());
+	}
+	
+	private static long elapsedMillis(long started) {
+		return (System.nanoTime() - started) / 1_000_000;
+	}
+
+}
@@ -1,42 +1,85 @@
 package com.lagathub.spendingtracker.service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.time.DayOfWeek;
 
+import com.lagathub.spendingtracker.cache.SpendingCaches;
 import com.lagathub.spendingtracker.domain.model.Category;
 import com.lagathub.spendingtracker.domain.model.Transaction;
+import com.lagathub.spendingtracker.dto.response.TransactionField;
 import com.lagathub.spendingtracker.exception.InvalidTransactionException;
 import com.lagathub.spendingtracker.exception.ResourceNotFoundException;
+import com.lagathub.spendingtracker.jfr.TransactionRecordedEvent;
+import com.lagathub.spendingtracker.journal.JournalRecord;
+import com.lagathub.spendingtracker.journal.TransactionIdBlocks;
+import com.lagathub.spendingtracker.journal.TransactionJournal;
 import com.lagathub.spendingtracker.repository.TransactionRepository;
+import com.lagathub.spendingtracker.repository.TransactionSpecifications;
+import com.lagathub.spendingtracker.service.report.DirtyWeekLedger;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import jakarta.persistence.Tuple;
 
 
 @Service
 @Transactional //Important as it ensures database consistency
 public class TransactionService {
 	
+	//Upper bound for top-N queries
+	static final int MAX_TOP_N = 100;
+	
 	private final TransactionRepository transactionRepository;
 	private final CategoryService categoryService; //Depends on other service
+	private final CategoryStatisticsService categoryStatisticsService;
+	private final SpendingSketchService spendingSketchService;
+	private final SpendingCaches spendingCaches;
+	private final DirtyWeekLedger dirtyWeekLedger;
+	private final BudgetService budgetService;
+	private final TransactionJournal transactionJournal; //null unless ledger.journal.enabled
+	private final TransactionIdBlocks transactionIds;
 	
 	public TransactionService(TransactionRepository transactionRepository,
-							 CategoryService categoryService) {
+							 CategoryService categoryService,
+							 CategoryStatisticsService categoryStatisticsService,
+							 SpendingSketchService spendingSketchService,
+							 SpendingCaches spendingCaches,
+							 DirtyWeekLedger dirtyWeekLedger,
+							 BudgetService budgetService,
+							 ObjectProvider<TransactionJournal> transactionJournal,
+							 ObjectProvider<TransactionIdBlocks> transactionIds) {
 		this.transactionRepository = transactionRepository;
 		this.categoryService = categoryService;
+		this.categoryStatisticsService = categoryStatisticsService;
+		this.spendingSketchService = spendingSketchService;
+		this.spendingCaches = spendingCaches;
+		this.dirtyWeekLedger = dirtyWeekLedger;
+		this.budgetService = budgetService;
+		this.transactionJournal = transactionJournal.getIfAvailable();
+		this.transactionIds = transactionIds.getIfAvailable();
 	}
 	
 	//Main method operation: Record a new transaction
 	public Transaction recordTransaction(BigDecimal amount, String categoryName, String note) {
+		TransactionRecordedEvent event = new TransactionRecordedEvent();
+		event.begin();
 		
 		//Step 1: Validate input
 		validateTransactionData(amount, categoryName);
@@ -44,11 +87,40 @@ public class TransactionService {
 		//Step 2: Get or create category (delegate to CategoryService)
 		Category category = categoryService.findOrCreateCategory(categoryName);
 		
+		//Journal mode: accepted once journaled; JournalProjector saves it and does steps 5-6 later
+		if (transactionJournal != null) {
+			BigDecimal stored = amount.setScale(2, RoundingMode.HALF_UP); //The column's scale, rounded like Postgres rounds
+			LocalDateTime now = LocalDateTime.now();
+			Transaction journaled = new Transaction(transactionIds.nextId(), stored, category, note, now, now);
+			transactionJournal.append(JournalRecord.created(TenantContext.currentTenant(), journaled.getId(), category, stored, note, now));
+			event.commit(category.getId(), amount);
+			return journaled;
+		}
+		
 		//Step 3: Create transaction (using constructor - slightly cleaner)
 		Transaction transaction = new Transaction(amount, category, note);
 		
-		//Step 4: Save and return
-		return transactionRepository.save(transaction);
+		//Step 4: Statistics row first, like updates, deletes and merges, then save (the insert runs right away)
+		categoryStatisticsService.recordAdded(category.getId(), amount);
+		Transaction saved = transactionRepository.save(transaction);
+		
+		//Step 5-6: Sketches, budget, dirty week and caches
+		recordAdded(category.getId(), amount, saved.getCreatedAt());
+		
+		event.commit(category.getId(), amount);
+		return saved;
+	}
+	
+	private void recordAdded(Long categoryId, BigDecimal amount, LocalDateTime createdAt) {
+		//Step 5: Keep the category's sketches and budget counters in step (same DB transaction) - the caller has
+		//counted it in the statistics row - and mark the week so a stored report for it gets recomputed in the background
+		spendingSketchService.recordAdded(categoryId, amount, createdAt);
+		budgetService.recordSpent(categoryId, createdAt, amount);
+		dirtyWeekLedger.markChanged(createdAt);
+		
+		//Step 6: Invalidate only the cache entries this write affects
+		spendingCaches.categoryUsed(categoryId);
+		spendingCaches.transactionChanged(createdAt);
 	}
 	
 	//Update existing transaction
@@ -57,6 +129,9 @@ public class TransactionService {
 		if (amount.compareTo(BigDecimal.ZERO) <= 0) {
 			throw new InvalidTransactionException("Amount must be positive");
 		}
+		if (transactionJournal != null) {
+			validateTransactionData(amount, categoryName); //Once journaled, the write can no longer be refused
+		}
 		
 		//Find existing transaction
 		Transaction existingTransaction = transactionRepository.findById(id)
@@ -65,13 +140,41 @@ public class TransactionService {
 		//Find or create category
 		Category category = categoryService.findOrCreateCategory(categoryName);
 		
+		//Journal mode: the entity is left untouched (a change to it would be flushed on commit)
+		if (transactionJournal != null) {
+			BigDecimal stored = amount.setScale(2, RoundingMode.HALF_UP);
+			LocalDateTime now = LocalDateTime.now();
+			transactionJournal.append(JournalRecord.updated(TenantContext.currentTenant(), id, category, stored, note, now));
+			return new Transaction(id, stored, category, note, existingTransaction.getCreatedAt(), now);
+		}
+		
+		return applyUpdate(existingTransaction, category, amount, note, LocalDateTime.now());
+	}
+	
+	private Transaction applyUpdate(Transaction existingTransaction, Category category, BigDecimal amount, String note,
+									LocalDateTime updatedAt) {
+		//Remember what the statistics currently include
+		Long oldCategoryId = existingTransaction.getCategory().getId();
+		BigDecimal oldAmount = existingTransaction.getAmount();
+		
 		//Update fields
 		existingTransaction.setAmount(amount);
 		existingTransaction.setCategory(category);
 		existingTransaction.setNote(note);
-		existingTransaction.setUpdatedAt(LocalDateTime.now()); //Track when updated
+		existingTransaction.setUpdatedAt(updatedAt); //Track when updated
 		
-		return transactionRepository.save(existingTransaction);
+		Transaction saved = transactionRepository.save(existingTransaction);
+		categoryStatisticsService.recordChanged(oldCategoryId, oldAmount, category.getId(), amount);
+		spendingSketchService.recordChanged(oldCategoryId, oldAmount, category.getId(), amount, saved.getCreatedAt());
+		budgetService.recordChanged(oldCategoryId, oldAmount, category.getId(), amount, saved.getCreatedAt());
+		dirtyWeekLedger.markChanged(saved.getCreatedAt());
+		
+		if (!oldCategoryId.equals(category.getId())) {
+			spendingCaches.categoryUsed(category.getId());
+			evictIfCategoryUnused(oldCategoryId);
+		}
+		spendingCaches.transactionChanged(saved.getCreatedAt());
+		return saved;
 	}
 	
 	//Delete transaction
@@ -79,7 +182,57 @@ public class TransactionService {
 		Transaction transaction = transactionRepository.findById(id)
 				.orElseThrow(() -> new ResourceNotFoundException("Transaction not found with id: " + id));
 		
+		if (transactionJournal != null) {
+			transactionJournal.append(JournalRecord.deleted(TenantContext.currentTenant(), id, LocalDateTime.now()));
+			return;
+		}
+		applyDelete(transaction);
+	}
+	
+	private void applyDelete(Transaction transaction) {
 		transactionRepository.delete(transaction);
+		categoryStatisticsService.recordRemoved(transaction.getCategory().getId(), transaction.getAmount());
+		spendingSketchService.recordRemoved(transaction.getCategory().getId(), transaction.getAmount(), transaction.getCreatedAt());
+		budgetService.recordSpent(transaction.getCategory().getId(), transaction.getCreatedAt(), transaction.getAmount().negate());
+		dirtyWeekLedger.markChanged(transaction.getCreatedAt());
+		
+		evictIfCategoryUnused(transaction.getCategory().getId());
+		spendingCaches.transactionChanged(transaction.getCreatedAt());
+	}
+	
+	/*
+	 * Journal mode: JournalProjector applies each record here, inside its batch transaction and in the
+	 * record's tenant. A create that is already in the table is skipped, so a replay never counts twice.
+	 * A row updated or deleted again since (or never created) is simply not there any more
+	 */
+	public void applyJournalRecord(JournalRecord record) {
+		switch (record.type()) {
+			case CREATE -> {
+				Category category = journaledCategory(record);
+				categoryStatisticsService.lockForAdd(category.getId());
+				if (transactionRepository.insertJournaled(record.transactionId(), record.tenantId(), record.amount(),
+						category.getId(), record.at(), record.note()) > 0) {
+					categoryStatisticsService.recordAdded(category.getId(), record.amount());
+					recordAdded(category.getId(), record.amount(), record.at());
+				}
+			}
+			case UPDATE -> transactionRepository.findById(record.transactionId()).ifPresent(existing ->
+					applyUpdate(existing, journaledCategory(record), record.amount(), record.note(), record.at()));
+			case DELETE -> transactionRepository.findById(record.transactionId()).ifPresent(this::applyDelete);
+		}
+	}
+	
+	//The category the write was accepted with, or one of the same name if it was merged away meanwhile
+	private Category journaledCategory(JournalRecord record) {
+		return categoryService.findCategory(record.categoryId())
+				.orElseGet(() -> categoryService.findOrCreateCategory(record.categoryName()));
+	}
+	
+	//Helper: the used-categories list only changes when a category loses its last transaction
+	private void evictIfCategoryUnused(Long categoryId) {
+		if (!transactionRepository.existsByCategoryId(categoryId)) {
+			spendingCaches.evictUsedCategories();
+		}
 	}
 	
 	//Get single transaction by ID
@@ -88,21 +241,74 @@ public class TransactionService {
 				.orElseThrow(() -> new ResourceNotFoundException("Transaction not found with id: " + id));
 	}
 	
-	//Get transactions with filters and pagination
+	//Get transactions with filters and pagination (newest first)
+	@Transactional(readOnly = true)
 	public List<Transaction> getTransactions(int page, int size, String category, LocalDate startDate, LocalDate endDate) {
-		Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-		
-		//If no filters, return recent transactions
-		if (category == null && startDate == null && endDate == null) {
-			Page<Transaction> transactionPage = transactionRepository.findAll(pageable);
-			return transactionPage.getContent();
+		Specification<Transaction> filters = buildFilters(category, startDate, endDate);
+		if (filters == null) {
+			return List.of(); //Unknown category: nothing to query
 		}
-		
-		//Apply filters
-		LocalDateTime startDateTime = startDate != null ? startDate.atStartOfDay() : null;
-		LocalDateTime endDateTime = endDate != null ? endDate.atTime(23, 59, 59) : null;
-		
-		return transactionRepository.findWithFilters(category, startDateTime, endDateTime, pageable);
+		//Fetch one slice - no COUNT(*) over the whole ledger just to render a page
+		return transactionRepository.findBy(filters, q -> q.slice(newestFirst(page, size))).getContent();
+	}
+	
+	/*
+	 * Same page as getTransactions, but only the requested fields: the SQL selects just their
+	 * columns and each row comes back as a map with only those keys
+	 */
+	@Transactional(readOnly = true)
+	public List<Map<String, Object>> getTransactionFields(int page, int size, String category, LocalDate startDate,
+														  LocalDate endDate, Set<TransactionField> fields) {
+		Specification<Transaction> filters = buildFilters(category, startDate, endDate);
+		if (filters == null) {
+			return List.of();
+		}
+		return toFieldMaps(transactionRepository.findFields(filters, fields, newestFirst(page, size)), fields);
+	}
+	
+	private Pageable newestFirst(int page, int size) {
+		return PageRequest.of(page, size,
+				Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id")));
+	}
+	
+	//Only the filters actually supplied go into the query; null when the category does not exist
+	private Specification<Transaction> buildFilters(String category, LocalDate startDate, LocalDate endDate) {
+		Specification<Transaction> filters = Specification.unrestricted();
+		if (category != null) {
+			//Resolve the name once, then filter on the indexed category_id column
+			Optional<Long> categoryId = categoryService.findCategoryId(category);
+			if (categoryId.isEmpty()) {
+				return null;
+			}
+			filters = filters.and(TransactionSpecifications.inCategory(categoryId.get()));
+		}
+		if (startDate != null) {
+			filters = filters.and(TransactionSpecifications.createdOnOrAfter(startDate.atStartOfDay()));
+		}
+		if (endDate != null) {
+			filters = filters.and(TransactionSpecifications.createdBefore(endDate.plusDays(1).atStartOfDay()));
+		}
+		return filters;
+	}
+	
+	//Tuple rows (aliased by field name) to JSON-ready maps; recentlyUpdated is derived here, with one 'now' per page
+	private List<Map<String, Object>> toFieldMaps(List<Tuple> rows, Set<TransactionField> fields) {
+		LocalDateTime now = LocalDateTime.now();
+		List<Map<String, Object>> maps = new ArrayList<>(rows.size());
+		for (Tuple row : rows) {
+			Map<String, Object> map = new LinkedHashMap<>();
+			for (TransactionField field : fields) {
+				if (field == TransactionField.RECENTLY_UPDATED) {
+					map.put(field.getJsonName(), Transaction.wasRecentlyUpdated(
+							row.get(TransactionField.CREATED_AT.getJsonName(), LocalDateTime.class),
+							row.get(TransactionField.UPDATED_AT.getJsonName(), LocalDateTime.class), now));
+				} else {
+					map.put(field.getJsonName(), row.get(field.getJsonName()));
+				}
+			}
+			maps.add(map);
+		}
+		return maps;
 	}
 	
     // Validation helper - your validation logic is excellent!
@@ -128,7 +334,7 @@ public class TransactionService {
 		
 		return transactionRepository.findByCreatedAtBetween(startOfDay, endOfDay);
 	}
-
+	
 	//Get total spent today (for immediate feedback)
 	public BigDecimal getTodayTotal() {
 		LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
@@ -168,15 +374,44 @@ public class TransactionService {
         return transactionRepository.findByCreatedAtBetween(start, end);
     }
     
+    // Biggest N expenses in a date range (both dates inclusive)
+    public List<Transaction> getLargestTransactions(LocalDate startDate, LocalDate endDate, int limit) {
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must be before or equal to end date");
+        }
+        if (limit < 1 || limit > MAX_TOP_N) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_TOP_N);
+        }
+        return transactionRepository.findLargestInRange(startDate.atStartOfDay(),
+                endDate.plusDays(1).atStartOfDay(), PageRequest.of(0, limit));
+    }
+    
+    //Largest transactions with only the requested fields
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getLargestTransactionFields(LocalDate startDate, LocalDate endDate, int limit,
+                                                                 Set<TransactionField> fields) {
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must be before or equal to end date");
+        }
+        if (limit < 1 || limit > MAX_TOP_N) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_TOP_N);
+        }
+        Specification<Transaction> range = TransactionSpecifications.createdOnOrAfter(startDate.atStartOfDay())
+                .and(TransactionSpecifications.createdBefore(endDate.plusDays(1).atStartOfDay()));
+        Pageable largestFirst = PageRequest.of(0, limit,
+                Sort.by(Sort.Direction.DESC, "amount").and(Sort.by(Sort.Direction.DESC, "id")));
+        return toFieldMaps(transactionRepository.findFields(range, fields, largestFirst), fields);
+    }
+    
     public List<Transaction> getAllTransactions() {
         return transactionRepository.findAll();
     }
-
+    
     public Transaction findById(Long id) {
         return transactionRepository.findById(id)
             .orElseThrow(() -> new InvalidTransactionException("Transaction not found with id: " + id));
     }
-
+    
     public List<Transaction> searchTransactions(String categoryName, String note) {
         if (note == null || note.trim().isEmpty()) {
             return transactionRepository.findByCategoryName(categoryName);
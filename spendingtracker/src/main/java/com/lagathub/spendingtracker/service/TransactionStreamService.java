@@ -0,0 +1,118 @@
+package com.lagathub.spendingtracker.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.lagathub.spendingtracker.dto.response.JsonRows;
+import com.lagathub.spendingtracker.dto.response.TransactionJsonWriter;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+/*
+ * The transaction list endpoints without entities or DTO lists: parameters are validated (and
+ * the category resolved) up front, and the returned JsonRows runs the query when the response
+ * is written, copying each row from the result set straight into the generator.
+ * Same pages, order and JSON as TransactionService.getTransactions/getLargestTransactions
+ * mapped through TransactionResponse
+ */
+@Service
+public class TransactionStreamService {
+	
+	private static final String SELECT_SQL =
+			"SELECT t.id, t.amount, c.name, t.category_id, t.created_at, t.updated_at, t.note " +
+			"FROM transactions t JOIN categories c ON c.id = t.category_id " +
+			"WHERE t.tenant_id = ? ";
+	
+	private final JdbcTemplate jdbcTemplate;
+	private final CategoryService categoryService;
+	
+	public TransactionStreamService(JdbcTemplate jdbcTemplate, CategoryService categoryService) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.categoryService = categoryService;
+	}
+	
+	//Page of transactions, newest first, with the same optional filters as TransactionService.getTransactions
+	public JsonRows getTransactionRows(int page, int size, String category, LocalDate startDate, LocalDate endDate) {
+		PageRequest pageRequest = PageRequest.of(page, size); //Same bounds checks as the JPA path
+		
+		//Step 1: Only the filters actually supplied go into the query
+		StringBuilder sql = new StringBuilder(SELECT_SQL);
+		List<Object> args = new ArrayList<>();
+		args.add(TenantContext.currentTenant()); //Plain JDBC: filter by tenant explicitly
+		if (category != null) {
+			Optional<Long> categoryId = categoryService.findCategoryId(category);
+			if (categoryId.isEmpty()) {
+				return JsonRows.EMPTY_ARRAY; //Unknown category: nothing to query
+			}
+			sql.append("AND t.category_id = ? ");
+			args.add(categoryId.get());
+		}
+		if (startDate != null) {
+			sql.append("AND t.created_at >= ? ");
+			args.add(startDate.atStartOfDay());
+		}
+		if (endDate != null) {
+			sql.append("AND t.created_at < ? ");
+			args.add(endDate.plusDays(1).atStartOfDay());
+		}
+		
+		//Step 2: One slice, no COUNT(*)
+		sql.append("ORDER BY t.created_at DESC, t.id DESC LIMIT ? OFFSET ?");
+		args.add(pageRequest.getPageSize());
+		args.add(pageRequest.getOffset());
+		return rows(sql.toString(), args.toArray());
+	}
+	
+	//Largest transactions in a date range (both inclusive), same rules as TransactionService.getLargestTransactions
+	public JsonRows getLargestTransactionRows(LocalDate startDate, LocalDate endDate, int limit) {
+		if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+			throw new IllegalArgumentException("Start date must be before or equal to end date");
+		}
+		if (limit < 1 || limit > TransactionService.MAX_TOP_N) {
+			throw new IllegalArgumentException("Limit must be between 1 and " + TransactionService.MAX_TOP_N);
+		}
+		return rows(SELECT_SQL + "AND t.created_at >= ? AND t.created_at < ? ORDER BY t.amount DESC, t.id DESC LIMIT ?",
+				TenantContext.currentTenant(), startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay(), limit);
+	}
+	
+	private JsonRows rows(String sql, Object... args) {
+		return generator -> {
+			TransactionJsonWriter writer = new TransactionJsonWriter(LocalDateTime.now());
+			generator.writeStartArray();
+			try {
+				jdbcTemplate.query(sql, (RowCallbackHandler) resultSet -> writeRow(writer, generator, resultSet), args);
+			} catch (UncheckedIOException e) {
+				throw e.getCause(); //Client went away - the query is already aborted
+			}
+			generator.writeEndArray();
+		};
+	}
+	
+	private static void writeRow(TransactionJsonWriter writer, JsonGenerator generator, ResultSet resultSet) throws SQLException {
+		try {
+			writer.write(generator,
+					resultSet.getLong(1),
+					resultSet.getBigDecimal(2),
+					resultSet.getString(3),
+					resultSet.getLong(4),
+					resultSet.getObject(5, LocalDateTime.class),
+					resultSet.getObject(6, LocalDateTime.class),
+					resultSet.getString(7));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}
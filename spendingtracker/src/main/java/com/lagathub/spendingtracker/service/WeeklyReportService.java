@@ -8,43 +8,72 @@ import java.util.stream.Collectors;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
+import java.util.LinkedHashMap;
 import java.math.BigDecimal;
 
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.lagathub.spendingtracker.domain.model.AmountSummary;
 import com.lagathub.spendingtracker.domain.model.WeeklyReport;
 import com.lagathub.spendingtracker.domain.model.Transaction;
 import com.lagathub.spendingtracker.domain.model.Category;
 import com.lagathub.spendingtracker.domain.model.CategorySpending;
+import com.lagathub.spendingtracker.cache.SpendingCaches;
+import com.lagathub.spendingtracker.dto.response.WeeklyReportResponse;
+import com.lagathub.spendingtracker.jfr.WeeklyReportEvent;
+import com.lagathub.spendingtracker.repository.CategorySpendingRepository;
 import com.lagathub.spendingtracker.repository.TransactionRepository;
 import com.lagathub.spendingtracker.repository.WeeklyReportRepository;
+import com.lagathub.spendingtracker.service.report.DirtyWeekLedger;
+import com.lagathub.spendingtracker.service.report.WeekCategoryTotal;
+import com.lagathub.spendingtracker.tenant.TenantContext;
 
 
 @Service
 @Transactional
 public class WeeklyReportService {
 	
+	//Archived weeks have no rows left to recompute from - their stored reports are final
+	private static final String NOT_ARCHIVED = "AND NOT EXISTS (SELECT 1 FROM transaction_archive_segments s " +
+			"WHERE s.tenant_id = wr.tenant_id AND wr.week_start_date >= s.range_start AND wr.week_start_date < s.range_end)";
+	
 	private final WeeklyReportRepository weeklyReportRepository;
 	private final TransactionRepository transactionRepository;
+	private final CategorySpendingRepository categorySpendingRepository;
+	private final SpendingCaches spendingCaches;
+	private final JdbcTemplate jdbcTemplate;
+	private final DirtyWeekLedger dirtyWeekLedger;
 	
 	public WeeklyReportService(WeeklyReportRepository weeklyReportRepository,
 		                      TransactionRepository transactionRepository,
-		                      TransactionService transactionService) {
+		                      TransactionService transactionService,
+		                      CategorySpendingRepository categorySpendingRepository,
+		                      SpendingCaches spendingCaches,
+		                      JdbcTemplate jdbcTemplate,
+		                      DirtyWeekLedger dirtyWeekLedger) {
 		this.weeklyReportRepository = weeklyReportRepository;
 		this.transactionRepository = transactionRepository;
+		this.categorySpendingRepository = categorySpendingRepository;
+		this.spendingCaches = spendingCaches;
+		this.jdbcTemplate = jdbcTemplate;
+		this.dirtyWeekLedger = dirtyWeekLedger;
 	}
 	
 	//Main operation: Generate weekly report
 	public WeeklyReport generateWeeklyReport(LocalDate weekStartDate) {
+		WeeklyReportEvent event = new WeeklyReportEvent();
+		event.begin();
 		
 		//Step 1: Ensures it starts on Monday
 		LocalDate weekStart = weekStartDate.with(DayOfWeek.MONDAY);
 		LocalDate weekEnd = weekStart.plusDays(6);
 		
 		//Step 2: Check if report already exists
-		Optional<WeeklyReport> existing = weeklyReportRepository.findByWeekStartDate(weekStartDate);
+		Optional<WeeklyReport> existing = weeklyReportRepository.findByWeekStartDate(weekStart);
 		if (existing.isPresent()) {
+			event.commit(existing.get(), true);
 			return existing.get(); //Don't regenerate
 		}
 		
@@ -63,7 +92,9 @@ public class WeeklyReportService {
 		report.setCategoryBreakdowns(breakdowns);
 		
 		//Step 7: SAve and return
-		return weeklyReportRepository.save(report);
+		WeeklyReport saved = weeklyReportRepository.save(report);
+		event.commit(saved, false);
+		return saved;
 	}
 	
 	//Helper: Get transactions for week
@@ -106,6 +137,141 @@ public class WeeklyReportService {
 		return breakdowns;
 	}
 	
+	/*
+	 * Stored reports after a category merge: breakdowns move to the target category, adding into
+	 * the target's row where a week has both. Weekly totals do not change
+	 */
+	public void recordMerged(Long sourceCategoryId, Long targetCategoryId) {
+		String tenantId = TenantContext.currentTenant();
+		categorySpendingRepository.addIntoExistingRows(tenantId, sourceCategoryId, targetCategoryId);
+		categorySpendingRepository.deleteFoldedRows(tenantId, sourceCategoryId, targetCategoryId);
+		categorySpendingRepository.reassignCategory(tenantId, sourceCategoryId, targetCategoryId);
+	}
+	
+	/*
+	 * Stored reports after a bulk recategorize. movedByDay holds, per source category, what moved
+	 * from each day; it is rolled up to weeks and applied to existing reports only (weeks without a
+	 * stored report are generated from the transactions when first asked for)
+	 */
+	public void recordMoved(Map<Long, Map<LocalDate, AmountSummary>> movedByDay, Long targetCategoryId) {
+		String tenantId = TenantContext.currentTenant();
+		
+		//Step 1: Roll days up into what left each (source, week) and what reached (target, week)
+		Map<String, Object[]> removed = new LinkedHashMap<>();
+		Map<String, Object[]> added = new LinkedHashMap<>();
+		movedByDay.forEach((categoryId, days) -> days.forEach((day, moved) -> {
+			LocalDate weekStart = day.with(DayOfWeek.MONDAY);
+			addDelta(removed, tenantId, weekStart, categoryId, moved);
+			addDelta(added, tenantId, weekStart, targetCategoryId, moved);
+		}));
+		
+		//Step 2: Batched writes against the reports that exist, then drop emptied breakdowns.
+		//Reports are snapshots, so a week may not list a source yet - GREATEST keeps the checks satisfied
+		jdbcTemplate.batchUpdate("UPDATE category_spending cs SET amount_spent = GREATEST(0, cs.amount_spent - ?), " +
+				"transaction_count = GREATEST(0, cs.transaction_count - ?) FROM weekly_reports wr " +
+				"WHERE cs.weekly_report_id = wr.id AND cs.category_id = ? AND wr.tenant_id = ? AND wr.week_start_date = ?",
+				new ArrayList<>(removed.values()));
+		jdbcTemplate.batchUpdate("INSERT INTO category_spending (amount_spent, transaction_count, category_id, tenant_id, weekly_report_id) " +
+				"SELECT ?, ?, ?, wr.tenant_id, wr.id FROM weekly_reports wr WHERE wr.tenant_id = ? AND wr.week_start_date = ? " +
+				"ON CONFLICT (weekly_report_id, category_id) DO UPDATE SET " +
+				"amount_spent = category_spending.amount_spent + EXCLUDED.amount_spent, " +
+				"transaction_count = category_spending.transaction_count + EXCLUDED.transaction_count",
+				new ArrayList<>(added.values()));
+		categorySpendingRepository.deleteEmptyRows(tenantId);
+	}
+	
+	//Helper: accumulate one (category, week) change as {amount, count, categoryId, tenantId, weekStart}
+	private static void addDelta(Map<String, Object[]> deltas, String tenantId, LocalDate weekStart, Long categoryId,
+								 AmountSummary moved) {
+		Object[] row = deltas.computeIfAbsent(categoryId + "/" + weekStart,
+				key -> new Object[] {BigDecimal.ZERO, 0, categoryId, tenantId, weekStart});
+		row[0] = ((BigDecimal) row[0]).add(moved.total());
+		row[1] = (Integer) row[1] + (int) moved.count();
+	}
+	
+	/*
+	 * Report for the week containing the given date; closed weeks are served from the cache.
+	 * A stored report touched by later writes is returned as is and flagged stale until
+	 * DirtyWeekRefresher has recomputed it (which also evicts the cached copy)
+	 */
+	public WeeklyReportResponse getWeeklyReport(LocalDate date) {
+		LocalDate weekStart = date.with(DayOfWeek.MONDAY);
+		return spendingCaches.weeklyReport(weekStart, () -> {
+			WeeklyReportResponse response = WeeklyReportResponse.from(generateWeeklyReport(weekStart));
+			response.setStale(dirtyWeekLedger.isDirty(weekStart));
+			return response;
+		});
+	}
+	
+	/*
+	 * Bring the current tenant's stored reports for these weeks back in line with the ledger.
+	 * Only weeks that still have marks are recomputed, each with set-based statements: totals and
+	 * breakdowns are re-aggregated from the transactions (weeks without a stored report are just
+	 * unmarked, they are generated fresh when first asked for). Returns the weeks recomputed
+	 */
+	public List<LocalDate> refreshWeeks(List<LocalDate> weekStarts) {
+		String tenantId = TenantContext.currentTenant();
+		
+		//Step 1: Claim the marks - what they stand for is committed and visible from here on
+		List<LocalDate> claimed = dirtyWeekLedger.claim(weekStarts);
+		if (claimed.isEmpty()) {
+			return claimed;
+		}
+		List<Object[]> weeks = claimed.stream().map(weekStart -> new Object[] {tenantId, weekStart}).toList();
+		
+		//Step 2: Totals
+		jdbcTemplate.batchUpdate("UPDATE weekly_reports wr SET total_spent = COALESCE((SELECT SUM(t.amount) FROM transactions t " +
+				"WHERE t.tenant_id = wr.tenant_id AND t.created_at >= wr.week_start_date " +
+				"AND t.created_at < wr.week_start_date + 7), 0), generated_at = LOCALTIMESTAMP " +
+				"WHERE wr.tenant_id = ? AND wr.week_start_date = ? " + NOT_ARCHIVED, weeks);
+		
+		//Step 3: Breakdowns, replaced wholesale
+		jdbcTemplate.batchUpdate("DELETE FROM category_spending cs USING weekly_reports wr " +
+				"WHERE cs.weekly_report_id = wr.id AND wr.tenant_id = ? AND wr.week_start_date = ? " + NOT_ARCHIVED, weeks);
+		jdbcTemplate.batchUpdate("INSERT INTO category_spending (weekly_report_id, category_id, amount_spent, transaction_count, tenant_id) " +
+				"SELECT wr.id, t.category_id, SUM(t.amount), COUNT(*), wr.tenant_id FROM weekly_reports wr " +
+				"JOIN transactions t ON t.tenant_id = wr.tenant_id AND t.created_at >= wr.week_start_date " +
+				"AND t.created_at < wr.week_start_date + 7 " +
+				"WHERE wr.tenant_id = ? AND wr.week_start_date = ? " + NOT_ARCHIVED + " GROUP BY wr.id, t.category_id, wr.tenant_id", weeks);
+		
+		//Step 4: Cached copies go once this commits
+		claimed.forEach(spendingCaches::evictWeeklyReport);
+		return claimed;
+	}
+	
+	/*
+	 * Store exact reports for these weeks from totals computed by the caller (the archiver, from the
+	 * rows it removes): every week gets a report, zero when it has no totals, and any dirty marks go
+	 */
+	public void storeWeeks(List<LocalDate> weekStarts, List<WeekCategoryTotal> totals) {
+		String tenantId = TenantContext.currentTenant();
+		
+		//Step 1: Totals per week, including the empty ones
+		Map<LocalDate, BigDecimal> weekTotals = new LinkedHashMap<>();
+		weekStarts.forEach(weekStart -> weekTotals.put(weekStart, BigDecimal.ZERO));
+		totals.forEach(total -> weekTotals.merge(total.weekStart(), total.amount(), BigDecimal::add));
+		jdbcTemplate.batchUpdate("INSERT INTO weekly_reports (week_start_date, week_end_date, total_spent, generated_at, tenant_id) " +
+				"VALUES (?, ?, ?, LOCALTIMESTAMP, ?) ON CONFLICT (tenant_id, week_start_date) DO UPDATE SET " +
+				"total_spent = EXCLUDED.total_spent, generated_at = EXCLUDED.generated_at",
+				weekTotals.entrySet().stream()
+						.map(week -> new Object[] {week.getKey(), week.getKey().plusDays(6), week.getValue(), tenantId})
+						.toList());
+		
+		//Step 2: Breakdowns, replaced wholesale
+		jdbcTemplate.batchUpdate("DELETE FROM category_spending cs USING weekly_reports wr " +
+				"WHERE cs.weekly_report_id = wr.id AND wr.tenant_id = ? AND wr.week_start_date = ?",
+				weekStarts.stream().map(weekStart -> new Object[] {tenantId, weekStart}).toList());
+		jdbcTemplate.batchUpdate("INSERT INTO category_spending (weekly_report_id, category_id, amount_spent, transaction_count, tenant_id) " +
+				"SELECT wr.id, ?, ?, ?, wr.tenant_id FROM weekly_reports wr WHERE wr.tenant_id = ? AND wr.week_start_date = ?",
+				totals.stream()
+						.map(total -> new Object[] {total.categoryId(), total.amount(), total.count(), tenantId, total.weekStart()})
+						.toList());
+		
+		//Step 3: Nothing left to refresh; cached copies go once this commits
+		dirtyWeekLedger.claim(weekStarts);
+		weekStarts.forEach(spendingCaches::evictWeeklyReport);
+	}
+	
 	//Get current week report (generate if doesn't exist)
 	public WeeklyReport getCurrentWeekReport() {
 		LocalDate currentWeekStart = LocalDate.now().with(DayOfWeek.MONDAY);
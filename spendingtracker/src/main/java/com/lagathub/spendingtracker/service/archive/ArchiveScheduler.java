@@ -0,0 +1,61 @@
+package com.lagathub.spendingtracker.service.archive;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.lagathub.spendingtracker.service.TransactionArchiveService;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+/*
+ * Nightly job that archives every month older than the retention period, tenant by tenant.
+ * A failing tenant is logged and retried the next night; months it did archive stay archived.
+ *
+ * Only runs in the web application, like DirtyWeekRefresher
+ */
+@Component
+@EnableScheduling
+@ConditionalOnWebApplication
+public class ArchiveScheduler {
+	
+	private static final Logger log = LoggerFactory.getLogger(ArchiveScheduler.class);
+	
+	private final TransactionArchiveService archiveService;
+	private final JdbcTemplate jdbcTemplate;
+	private final int retentionMonths;
+	
+	public ArchiveScheduler(TransactionArchiveService archiveService,
+							JdbcTemplate jdbcTemplate,
+							@Value("${ledger.archive.retention-months:24}") int retentionMonths) {
+		this.archiveService = archiveService;
+		this.jdbcTemplate = jdbcTemplate;
+		this.retentionMonths = retentionMonths;
+	}
+	
+	@Scheduled(cron = "${ledger.archive.cron:0 30 3 * * *}")
+	public void archiveOldMonths() {
+		YearMonth firstKeptMonth = YearMonth.now().minusMonths(retentionMonths);
+		List<String> tenants = jdbcTemplate.queryForList("SELECT DISTINCT tenant_id FROM transactions WHERE created_at < ?",
+				String.class, Timestamp.valueOf(TransactionArchiveService.segmentStart(firstKeptMonth).atStartOfDay()));
+		
+		for (String tenantId : tenants) {
+			try (TenantContext.Scope scope = TenantContext.open(tenantId)) {
+				List<ArchiveSummary> archived = archiveService.archiveBefore(firstKeptMonth);
+				log.info("Archived {} months ({} rows) for tenant {}", archived.size(),
+						archived.stream().mapToLong(ArchiveSummary::rows).sum(), tenantId);
+			} catch (RuntimeException e) {
+				log.warn("Archiving for tenant {} failed, retrying next run", tenantId, e);
+			}
+		}
+	}
+
+}
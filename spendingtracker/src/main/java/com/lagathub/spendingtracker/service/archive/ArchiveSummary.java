@@ -0,0 +1,17 @@
+package com.lagathub.spendingtracker.service.archive;
+
+import java.time.YearMonth;
+
+/*
+ * What one archive or restore run moved and how fast. bytes is the compressed segment size
+ */
+public record ArchiveSummary(
+		YearMonth month,
+		long rows,
+		long bytes,
+		long elapsedMillis) {
+	
+	public double rowsPerSecond() {
+		return rows * 1000.0 / Math.max(1, elapsedMillis);
+	}
+}
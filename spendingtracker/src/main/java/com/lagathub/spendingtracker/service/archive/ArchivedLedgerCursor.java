@@ -0,0 +1,116 @@
+package com.lagathub.spendingtracker.service.archive;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.lagathub.spendingtracker.service.export.ColumnarLedgerReader;
+import com.lagathub.spendingtracker.service.export.LedgerRow;
+
+/*
+ * Archived rows created in [from, to), in (created_at, id) order - the same order as the live
+ * ledger, so the two can be merged row by row. Segments are fetched one at a time and decoded
+ * one row group at a time, so at most one segment's payload is held in memory
+ */
+public class ArchivedLedgerCursor implements Iterator<LedgerRow> {
+	
+	private final JdbcTemplate jdbcTemplate;
+	private final LocalDateTime from;
+	private final LocalDateTime to;
+	private final LocalDateTime resumeAfterCreatedAt;
+	private final Long resumeAfterId;
+	
+	private final Deque<Long> segmentIds;
+	private final Deque<LedgerRow> rows = new ArrayDeque<>();
+	private ColumnarLedgerReader reader;
+	
+	public ArchivedLedgerCursor(JdbcTemplate jdbcTemplate, String tenantId, LocalDateTime from, LocalDateTime to,
+						 LocalDateTime resumeAfterCreatedAt, Long resumeAfterId) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.from = from;
+		this.to = to;
+		this.resumeAfterCreatedAt = resumeAfterCreatedAt;
+		this.resumeAfterId = resumeAfterId;
+		//Segments never overlap, so range order is row order
+		this.segmentIds = new ArrayDeque<>(jdbcTemplate.queryForList(
+				"SELECT id FROM transaction_archive_segments WHERE tenant_id = ? AND range_start < ? AND range_end > ? " +
+				"ORDER BY range_start", Long.class,
+				tenantId, Timestamp.valueOf(to), Timestamp.valueOf(from)));
+	}
+	
+	@Override
+	public boolean hasNext() {
+		try {
+			while (rows.isEmpty()) {
+				if (reader == null) {
+					if (segmentIds.isEmpty()) {
+						return false;
+					}
+					reader = openSegment(segmentIds.poll());
+				}
+				List<LedgerRow> group = reader.nextRowGroup();
+				if (group.isEmpty()) {
+					reader = null;
+				}
+				for (LedgerRow row : group) {
+					if (included(row)) {
+						rows.add(row);
+					}
+				}
+			}
+			return true;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Corrupt archive segment", e);
+		}
+	}
+	
+	//Next row without consuming it, for merging with the live cursor
+	public LedgerRow peek() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return rows.peek();
+	}
+	
+	@Override
+	public LedgerRow next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return rows.poll();
+	}
+	
+	//Row order: (created_at, id)
+	public static boolean isBefore(LedgerRow row, LocalDateTime createdAt, long id) {
+		int byTime = row.createdAt().compareTo(createdAt);
+		return byTime < 0 || (byTime == 0 && row.id() < id);
+	}
+	
+	private boolean included(LedgerRow row) {
+		if (row.createdAt().isBefore(from) || !row.createdAt().isBefore(to)) {
+			return false;
+		}
+		if (resumeAfterId == null) {
+			return true;
+		}
+		int byTime = row.createdAt().compareTo(resumeAfterCreatedAt);
+		return byTime > 0 || (byTime == 0 && row.id() > resumeAfterId);
+	}
+	
+	private ColumnarLedgerReader openSegment(Long segmentId) throws IOException {
+		byte[] payload = jdbcTemplate.queryForObject(
+				"SELECT payload FROM transaction_archive_segments WHERE id = ?", byte[].class, segmentId);
+		return new ColumnarLedgerReader(new GZIPInputStream(new ByteArrayInputStream(payload), 64 * 1024));
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.lagathub.spendingtracker.service.budget;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/*
+ * Emits budget alerts off the request path: only once the crossing write has committed
+ * (a rolled back write never alerts), on the application task executor. The alert row is
+ * written with plain JDBC and an explicit tenant, as this thread has no tenant scope
+ */
+@Component
+@EnableAsync
+public class BudgetAlertListener {
+	
+	private static final Logger log = LoggerFactory.getLogger(BudgetAlertListener.class);
+	
+	private final JdbcTemplate jdbcTemplate;
+	
+	public BudgetAlertListener(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+	
+	@Async
+	@TransactionalEventListener
+	public void onThresholdCrossed(BudgetThresholdCrossed event) {
+		jdbcTemplate.update("INSERT INTO budget_alerts (tenant_id, budget_id, category_id, period_start, level, spent, limit_amount, triggered_at) " +
+				"VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+				event.tenantId(), event.budgetId(), event.categoryId(), event.periodStart(), event.level().name(),
+				event.spent(), event.limitAmount(), event.triggeredAt());
+		log.warn("Budget {} for category {} (tenant {}): {} - spent {} of {} in period starting {}",
+				event.budgetId(), event.categoryId(), event.tenantId(), event.level(),
+				event.spent(), event.limitAmount(), event.periodStart());
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.lagathub.spendingtracker.service.budget;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.lagathub.spendingtracker.domain.model.BudgetAlertLevel;
+
+/*
+ * Published by BudgetService when a write takes a budget period to a higher alert level.
+ * Carries the tenant because listeners run on other threads
+ */
+public record BudgetThresholdCrossed(String tenantId, Long budgetId, Long categoryId, LocalDate periodStart,
+									 BudgetAlertLevel level, BigDecimal spent, BigDecimal limitAmount,
+									 LocalDateTime triggeredAt) {
+	
+}
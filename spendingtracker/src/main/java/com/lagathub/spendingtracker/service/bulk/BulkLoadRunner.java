@@ -0,0 +1,63 @@
+package com.lagathub.spendingtracker.service.bulk;
+
+import java.time.LocalDate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.lagathub.spendingtracker.service.BulkLedgerLoadService;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+/*
+ * Loads synthetic data at startup when ledger.bulk-load.rows is set, e.g.
+ *
+ *   ./mvnw spring-boot:run -Dspring-boot.run.arguments="--ledger.bulk-load.rows=10000000
+ *       --ledger.bulk-load.tenant=bench --spring.main.web-application-type=none"
+ *
+ * Without a web server the app exits once the load and rebuild are done
+ */
+@Component
+@ConditionalOnProperty(name = "ledger.bulk-load.rows")
+public class BulkLoadRunner implements ApplicationRunner {
+	
+	private static final Logger log = LoggerFactory.getLogger(BulkLoadRunner.class);
+	
+	private final BulkLedgerLoadService loadService;
+	private final long rows;
+	private final long seed;
+	private final String tenant;
+	private final int days;
+	
+	public BulkLoadRunner(BulkLedgerLoadService loadService,
+						  @Value("${ledger.bulk-load.rows}") long rows,
+						  @Value("${ledger.bulk-load.seed:42}") long seed,
+						  @Value("${ledger.bulk-load.tenant:" + TenantContext.DEFAULT_TENANT + "}") String tenant,
+						  @Value("${ledger.bulk-load.days:365}") int days) {
+		this.loadService = loadService;
+		this.rows = rows;
+		this.seed = seed;
+		this.tenant = tenant;
+		this.days = days;
+	}
+	
+	@Override
+	public void run(ApplicationArguments args) {
+		LocalDate endDate = LocalDate.now().minusDays(1);
+		LocalDate startDate = endDate.minusDays(days - 1);
+		log.info("Bulk loading {} synthetic transactions ({} to {}, seed {}) for tenant {}",
+				rows, startDate, endDate, seed, tenant);
+		
+		try (TenantContext.Scope scope = TenantContext.open(tenant)) {
+			BulkLoadSummary summary = loadService.loadSynthetic(rows, seed, startDate, endDate);
+			log.info("Bulk load done: {} rows in {}s ({} rows/s), aggregates rebuilt in {}s",
+					summary.rows(), String.format("%.1f", summary.copySeconds()),
+					String.format("%.0f", summary.rowsPerSecond()), String.format("%.1f", summary.rebuildSeconds()));
+		}
+	}
+
+}
@@ -0,0 +1,16 @@
+package com.lagathub.spendingtracker.service.bulk;
+
+/*
+ * What a bulk load did and how long each part took
+ */
+public record BulkLoadSummary(
+		String tenantId,
+		long rows,
+		int categoriesCreated,
+		double copySeconds,
+		double rebuildSeconds) {
+	
+	public double rowsPerSecond() {
+		return copySeconds > 0 ? rows / copySeconds : rows;
+	}
+}
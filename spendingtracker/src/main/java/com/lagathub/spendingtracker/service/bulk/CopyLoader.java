@@ -0,0 +1,84 @@
+package com.lagathub.spendingtracker.service.bulk;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+/*
+ * Writes categories and transactions through COPY ... FROM STDIN on one connection.
+ * The caller owns the connection and the surrounding transaction
+ */
+public class CopyLoader {
+	
+	//Bytes buffered before each round trip to the server
+	private static final int FLUSH_BYTES = 1 << 20;
+	
+	private static final String COPY_CATEGORIES_SQL =
+			"COPY categories (tenant_id, name, description, created_at) FROM STDIN";
+	private static final String COPY_TRANSACTIONS_SQL =
+			"COPY transactions (tenant_id, amount, category_id, created_at, updated_at, note) FROM STDIN";
+	
+	private final CopyManager copyManager;
+	private final String tenantId;
+	
+	public CopyLoader(CopyManager copyManager, String tenantId) {
+		this.copyManager = copyManager;
+		this.tenantId = tenantId;
+	}
+	
+	//Adds the named categories the tenant does not have yet; returns how many were added
+	public int copyMissingCategories(Map<String, Long> existing, List<String> names, List<String> descriptions)
+			throws SQLException {
+		CopyIn copyIn = copyManager.copyIn(COPY_CATEGORIES_SQL);
+		CopyTextEncoder encoder = new CopyTextEncoder(copyIn, FLUSH_BYTES);
+		LocalDateTime now = LocalDateTime.now().withNano(0);
+		int added = 0;
+		try {
+			for (int i = 0; i < names.size(); i++) {
+				if (existing.containsKey(names.get(i))) {
+					continue;
+				}
+				encoder.text(tenantId).text(names.get(i)).text(descriptions.get(i)).timestamp(now).endRow();
+				added++;
+			}
+			encoder.flush();
+			copyIn.endCopy();
+			return added;
+		} finally {
+			if (copyIn.isActive()) {
+				copyIn.cancelCopy();
+			}
+		}
+	}
+	
+	/*
+	 * Streams `rows` generated transactions into the table.
+	 * categoryIds maps the generator's category index to the tenant's category id
+	 */
+	public long copyTransactions(SyntheticLedgerGenerator generator, long rows, List<Long> categoryIds)
+			throws SQLException {
+		CopyIn copyIn = copyManager.copyIn(COPY_TRANSACTIONS_SQL);
+		CopyTextEncoder encoder = new CopyTextEncoder(copyIn, FLUSH_BYTES);
+		try {
+			generator.generate(rows, row -> encoder
+					.text(tenantId)
+					.cents(row.amountCents())
+					.number(categoryIds.get(row.categoryIndex()))
+					.timestamp(row.createdAt())
+					.timestamp(row.createdAt())
+					.text(row.note())
+					.endRow());
+			encoder.flush();
+			return copyIn.endCopy();
+		} finally {
+			if (copyIn.isActive()) {
+				copyIn.cancelCopy();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,153 @@
+package com.lagathub.spendingtracker.service.bulk;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import org.postgresql.copy.CopyIn;
+
+/*
+ * Encodes rows in PostgreSQL's COPY text format (tab separated, \N for null) into a byte
+ * buffer and hands it to the COPY stream whenever it fills up.
+ * Numbers and timestamps are written digit by digit, so encoding allocates nothing per row
+ */
+class CopyTextEncoder {
+	
+	private static final byte TAB = '\t';
+	private static final byte NEWLINE = '\n';
+	private static final byte[] NULL = {'\\', 'N'};
+	
+	private final CopyIn copyIn;
+	private final int flushThreshold;
+	private byte[] buffer;
+	private int length;
+	private boolean firstColumn = true;
+	
+	CopyTextEncoder(CopyIn copyIn, int flushThreshold) {
+		this.copyIn = copyIn;
+		this.flushThreshold = flushThreshold;
+		this.buffer = new byte[flushThreshold + 1024];
+	}
+	
+	CopyTextEncoder text(String value) {
+		separator();
+		if (value == null) {
+			put(NULL);
+			return this;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		ensure(bytes.length * 2);
+		for (byte b : bytes) {
+			switch (b) {
+				case '\\' -> { buffer[length++] = '\\'; buffer[length++] = '\\'; }
+				case '\t' -> { buffer[length++] = '\\'; buffer[length++] = 't'; }
+				case '\n' -> { buffer[length++] = '\\'; buffer[length++] = 'n'; }
+				case '\r' -> { buffer[length++] = '\\'; buffer[length++] = 'r'; }
+				default -> buffer[length++] = b;
+			}
+		}
+		return this;
+	}
+	
+	CopyTextEncoder number(long value) {
+		separator();
+		digits(value);
+		return this;
+	}
+	
+	//Fixed two decimal places, e.g. 12345 -> 123.45
+	CopyTextEncoder cents(long cents) {
+		separator();
+		digits(cents / 100);
+		ensure(3);
+		long fraction = Math.abs(cents % 100);
+		buffer[length++] = '.';
+		buffer[length++] = (byte) ('0' + fraction / 10);
+		buffer[length++] = (byte) ('0' + fraction % 10);
+		return this;
+	}
+	
+	//yyyy-MM-dd HH:mm:ss (generated data has no fractional seconds)
+	CopyTextEncoder timestamp(LocalDateTime value) {
+		separator();
+		ensure(19);
+		padded(value.getYear(), 4);
+		buffer[length++] = '-';
+		padded(value.getMonthValue(), 2);
+		buffer[length++] = '-';
+		padded(value.getDayOfMonth(), 2);
+		buffer[length++] = ' ';
+		padded(value.getHour(), 2);
+		buffer[length++] = ':';
+		padded(value.getMinute(), 2);
+		buffer[length++] = ':';
+		padded(value.getSecond(), 2);
+		return this;
+	}
+	
+	//Ends the row; flushes to the server when the buffer is full enough
+	void endRow() throws SQLException {
+		ensure(1);
+		buffer[length++] = NEWLINE;
+		firstColumn = true;
+		if (length >= flushThreshold) {
+			flush();
+		}
+	}
+	
+	void flush() throws SQLException {
+		if (length > 0) {
+			copyIn.writeToCopy(buffer, 0, length);
+			length = 0;
+		}
+	}
+	
+	private void separator() {
+		if (!firstColumn) {
+			ensure(1);
+			buffer[length++] = TAB;
+		}
+		firstColumn = false;
+	}
+	
+	private void digits(long value) {
+		ensure(20);
+		if (value < 0) {
+			buffer[length++] = '-';
+			value = -value;
+		}
+		int start = length;
+		do {
+			buffer[length++] = (byte) ('0' + value % 10);
+			value /= 10;
+		} while (value > 0);
+		//Digits were written least significant first
+		for (int i = start, j = length - 1; i < j; i++, j--) {
+			byte tmp = buffer[i];
+			buffer[i] = buffer[j];
+			buffer[j] = tmp;
+		}
+	}
+	
+	private void padded(int value, int width) {
+		for (int i = width - 1; i >= 0; i--) {
+			buffer[length + i] = (byte) ('0' + value % 10);
+			value /= 10;
+		}
+		length += width;
+	}
+	
+	private void put(byte[] bytes) {
+		ensure(bytes.length);
+		System.arraycopy(bytes, 0, buffer, length, bytes.length);
+		length += bytes.length;
+	}
+	
+	private void ensure(int extra) {
+		if (length + extra > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+		}
+	}
+
+}
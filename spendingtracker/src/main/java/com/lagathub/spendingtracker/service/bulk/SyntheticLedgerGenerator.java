@@ -0,0 +1,177 @@
+package com.lagathub.spendingtracker.service.bulk;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/*
+ * Deterministic synthetic ledger: the same seed, range and row count always produce the same rows.
+ *
+ * - Category mix and amounts follow per-category log-normal distributions, skewed so most
+ *   spending is small everyday expenses (under Ksh 1000)
+ * - Days are weighted by weekday (busier Fridays/Saturdays) and month end (payday, rent, bills)
+ * - Times within a day follow a diurnal curve: quiet nights, lunch and evening peaks
+ * Rows come out in created_at order, like a real ledger
+ */
+public class SyntheticLedgerGenerator {
+	
+	//Everyday categories first; rent and bills cluster around month end
+	static final List<CategoryProfile> PROFILES = List.of(
+			new CategoryProfile("Food", "Meals, snacks, drinks", 34, 220, 0.7, 1.0,
+					"lunch", "groceries", "chai", "supper", "snacks"),
+			new CategoryProfile("Transport", "Matatu, boda, fuel", 24, 120, 0.6, 1.0,
+					"matatu", "boda", "fuel", "uber"),
+			new CategoryProfile("Airtime", "Phone credit, data bundles", 14, 100, 0.8, 1.0,
+					"bundles", "airtime", "safaricom"),
+			new CategoryProfile("Entertainment", "Outings, movies, subscriptions", 8, 900, 0.9, 1.3,
+					"movie", "drinks", "showmax", "concert"),
+			new CategoryProfile("Shopping", "Clothes, household items", 9, 1500, 1.0, 1.5,
+					"clothes", "shoes", "household"),
+			new CategoryProfile("Bills", "Electricity, water, internet", 5, 3500, 0.8, 4.0,
+					"kplc tokens", "water", "wifi"),
+			new CategoryProfile("Rent", "Monthly rent", 1, 18000, 0.4, 12.0,
+					"rent"),
+			new CategoryProfile("Other", "Miscellaneous expenses", 5, 400, 1.2, 1.0,
+					"misc", "gift", "church"));
+	
+	//Relative activity per hour of day (0-23)
+	private static final double[] HOUR_WEIGHTS = {
+			0.2, 0.1, 0.05, 0.05, 0.1, 0.4, 1.2, 2.5, 3.0, 2.0, 1.8, 2.2,
+			3.5, 3.8, 2.5, 2.0, 2.2, 3.2, 4.0, 3.6, 2.8, 1.8, 1.0, 0.5};
+	
+	//Relative activity Monday..Sunday
+	private static final double[] WEEKDAY_WEIGHTS = {1.0, 0.95, 0.95, 1.0, 1.25, 1.35, 0.9};
+	
+	private static final double MONTH_END_BOOST = 1.3;
+	private static final double NOTE_PROBABILITY = 0.7;
+	private static final long MIN_CENTS = 500; //Ksh 5
+	private static final long MAX_CENTS = 500_000_000; //Ksh 5M, well inside DECIMAL(12,2)
+	
+	private final long seed;
+	private final LocalDate startDate;
+	private final LocalDate endDate;
+	private final double[] hourCumulative = cumulative(HOUR_WEIGHTS);
+	private final double[] categoryCumulative;
+	private final double[] monthEndCategoryCumulative;
+	
+	/*
+	 * A row sink that may throw - lets the loader write straight into a COPY stream
+	 */
+	@FunctionalInterface
+	public interface RowSink<E extends Exception> {
+		void accept(SyntheticTransaction row) throws E;
+	}
+	
+	record CategoryProfile(String name, String description, double weight,
+						   double medianAmount, double sigma, double monthEndBoost, String... notes) {
+	}
+	
+	//Dates are inclusive
+	public SyntheticLedgerGenerator(long seed, LocalDate startDate, LocalDate endDate) {
+		if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+			throw new IllegalArgumentException("Generator needs a start date on or before the end date");
+		}
+		this.seed = seed;
+		this.startDate = startDate;
+		this.endDate = endDate;
+		this.categoryCumulative = cumulative(PROFILES.stream().mapToDouble(CategoryProfile::weight).toArray());
+		this.monthEndCategoryCumulative = cumulative(PROFILES.stream()
+				.mapToDouble(profile -> profile.weight() * profile.monthEndBoost()).toArray());
+	}
+	
+	public static List<String> categoryNames() {
+		return PROFILES.stream().map(CategoryProfile::name).toList();
+	}
+	
+	public static List<String> categoryDescriptions() {
+		return PROFILES.stream().map(CategoryProfile::description).toList();
+	}
+	
+	//Generate exactly `rows` transactions in created_at order
+	public <E extends Exception> void generate(long rows, RowSink<E> sink) throws E {
+		if (rows < 0) {
+			throw new IllegalArgumentException("Row count cannot be negative");
+		}
+		SplittableRandom random = new SplittableRandom(seed);
+		int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+		double[] dayCumulative = new double[days];
+		double total = 0;
+		for (int d = 0; d < days; d++) {
+			total += dayWeight(startDate.plusDays(d));
+			dayCumulative[d] = total;
+		}
+		
+		long emitted = 0;
+		for (int d = 0; d < days; d++) {
+			//Step 1: Share of rows for this day, rounding carried so the total is exact
+			long target = Math.round(rows * (dayCumulative[d] / total));
+			int count = (int) (target - emitted);
+			emitted = target;
+			if (count == 0) {
+				continue;
+			}
+			
+			//Step 2: Sorted times of day from the diurnal curve
+			LocalDate date = startDate.plusDays(d);
+			int[] seconds = new int[count];
+			for (int i = 0; i < count; i++) {
+				seconds[i] = pick(hourCumulative, random) * 3600 + random.nextInt(3600);
+			}
+			Arrays.sort(seconds);
+			
+			//Step 3: Category, amount and note per row
+			double[] categories = isMonthEnd(date) ? monthEndCategoryCumulative : categoryCumulative;
+			for (int i = 0; i < count; i++) {
+				int categoryIndex = pick(categories, random);
+				CategoryProfile profile = PROFILES.get(categoryIndex);
+				String note = random.nextDouble() < NOTE_PROBABILITY
+						? profile.notes()[random.nextInt(profile.notes().length)]
+						: null;
+				sink.accept(new SyntheticTransaction(categoryIndex, amountCents(profile, random),
+						date.atTime(LocalTime.ofSecondOfDay(seconds[i])), note));
+			}
+		}
+	}
+	
+	//Helper: log-normal amount around the category's median
+	private static long amountCents(CategoryProfile profile, SplittableRandom random) {
+		double amount = profile.medianAmount() * Math.exp(profile.sigma() * random.nextGaussian());
+		long cents = Math.round(amount * 100);
+		if (amount >= 100) {
+			cents = cents / 100 * 100; //Larger amounts are usually whole shillings
+		}
+		return Math.max(MIN_CENTS, Math.min(MAX_CENTS, cents));
+	}
+	
+	private static double dayWeight(LocalDate date) {
+		double weight = WEEKDAY_WEIGHTS[date.getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue()];
+		return isMonthEnd(date) ? weight * MONTH_END_BOOST : weight;
+	}
+	
+	//Last three days of the month and the first day of the next (salary lands around here)
+	private static boolean isMonthEnd(LocalDate date) {
+		return date.getDayOfMonth() == 1 || date.getDayOfMonth() > date.lengthOfMonth() - 3;
+	}
+	
+	private static double[] cumulative(double[] weights) {
+		double[] cumulative = new double[weights.length];
+		double running = 0;
+		for (int i = 0; i < weights.length; i++) {
+			running += weights[i];
+			cumulative[i] = running;
+		}
+		return cumulative;
+	}
+	
+	private static int pick(double[] cumulative, SplittableRandom random) {
+		double ticket = random.nextDouble() * cumulative[cumulative.length - 1];
+		int index = Arrays.binarySearch(cumulative, ticket);
+		index = index >= 0 ? index + 1 : -index - 1;
+		return Math.min(index, cumulative.length - 1);
+	}
+
+}
@@ -0,0 +1,14 @@
+package com.lagathub.spendingtracker.service.bulk;
+
+import java.time.LocalDateTime;
+
+/*
+ * One generated ledger row. Amount is in cents so generating millions of rows
+ * does not allocate a BigDecimal each
+ */
+public record SyntheticTransaction(
+		int categoryIndex,
+		long amountCents,
+		LocalDateTime createdAt,
+		String note) {
+}
@@ -0,0 +1,94 @@
+package com.lagathub.spendingtracker.service.export;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/*
+ * Growable byte buffer with LEB128 varint helpers, used for one column of a row group.
+ * It is reset (not reallocated) between row groups so steady state export allocates nothing here
+ */
+class ColumnBuffer {
+	
+	private byte[] bytes;
+	private int size;
+	
+	ColumnBuffer(int initialCapacity) {
+		this.bytes = new byte[initialCapacity];
+	}
+	
+	void writeVarLong(long value) {
+		ensureCapacity(10);
+		while ((value & ~0x7FL) != 0) {
+			bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		bytes[size++] = (byte) value;
+	}
+	
+	//ZigZag keeps small negative deltas small
+	void writeSignedVarLong(long value) {
+		writeVarLong((value << 1) ^ (value >> 63));
+	}
+	
+	void writeBytes(byte[] src) {
+		ensureCapacity(src.length);
+		System.arraycopy(src, 0, bytes, size, src.length);
+		size += src.length;
+	}
+	
+	int size() {
+		return size;
+	}
+	
+	void reset() {
+		size = 0;
+	}
+	
+	ByteBuffer asByteBuffer() {
+		return ByteBuffer.wrap(bytes, 0, size);
+	}
+	
+	private void ensureCapacity(int extra) {
+		if (size + extra > bytes.length) {
+			bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+		}
+	}
+	
+	/*
+	 * Sequential reader over a decoded column chunk
+	 */
+	static class Reader {
+		
+		private final byte[] bytes;
+		private int position;
+		
+		Reader(byte[] bytes) {
+			this.bytes = bytes;
+		}
+		
+		long readVarLong() {
+			long result = 0;
+			int shift = 0;
+			while (true) {
+				byte b = bytes[position++];
+				result |= (long) (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return result;
+				}
+				shift += 7;
+			}
+		}
+		
+		long readSignedVarLong() {
+			long raw = readVarLong();
+			return (raw >>> 1) ^ -(raw & 1);
+		}
+		
+		byte[] readBytes(int length) {
+			byte[] result = Arrays.copyOfRange(bytes, position, position + length);
+			position += length;
+			return result;
+		}
+	}
+
+}
@@ -0,0 +1,111 @@
+package com.lagathub.spendingtracker.service.export;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Reads files produced by ColumnarLedgerWriter one row group at a time
+ */
+public class ColumnarLedgerReader {
+	
+	private final DataInputStream in;
+	private final List<Long> dictionaryIds = new ArrayList<>();
+	private final List<String> dictionaryNames = new ArrayList<>();
+	private boolean finished;
+	
+	public ColumnarLedgerReader(InputStream in) throws IOException {
+		this.in = new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+		byte[] magic = new byte[ColumnarLedgerWriter.MAGIC.length];
+		this.in.readFully(magic);
+		if (!Arrays.equals(magic, ColumnarLedgerWriter.MAGIC)) {
+			throw new IOException("Not a columnar ledger file");
+		}
+		byte version = this.in.readByte();
+		if (version != ColumnarLedgerWriter.VERSION) {
+			throw new IOException("Unsupported columnar ledger version: " + version);
+		}
+	}
+	
+	//Returns the next row group, or an empty list at end of file
+	public List<LedgerRow> nextRowGroup() throws IOException {
+		if (finished) {
+			return Collections.emptyList();
+		}
+		int rowCount = (int) readVarLong();
+		if (rowCount == 0) {
+			finished = true;
+			return Collections.emptyList();
+		}
+		int newDictionaryEntries = (int) readVarLong();
+		
+		ColumnBuffer.Reader ids = readChunk();
+		ColumnBuffer.Reader timestamps = readChunk();
+		ColumnBuffer.Reader amounts = readChunk();
+		ColumnBuffer.Reader dictionary = readChunk();
+		ColumnBuffer.Reader categoryCodes = readChunk();
+		ColumnBuffer.Reader notes = readChunk();
+		
+		for (int i = 0; i < newDictionaryEntries; i++) {
+			dictionaryIds.add(dictionary.readVarLong());
+			dictionaryNames.add(readString(dictionary));
+		}
+		
+		List<LedgerRow> rows = new ArrayList<>(rowCount);
+		long id = 0;
+		long micros = 0;
+		for (int i = 0; i < rowCount; i++) {
+			id += ids.readSignedVarLong();
+			micros += timestamps.readSignedVarLong();
+			BigDecimal amount = BigDecimal.valueOf(amounts.readSignedVarLong(), ColumnarLedgerWriter.AMOUNT_SCALE);
+			int code = (int) categoryCodes.readVarLong();
+			rows.add(new LedgerRow(id, fromEpochMicros(micros), amount,
+					dictionaryIds.get(code), dictionaryNames.get(code), readString(notes)));
+		}
+		return rows;
+	}
+	
+	private ColumnBuffer.Reader readChunk() throws IOException {
+		int length = in.readInt();
+		byte[] chunk = new byte[length];
+		in.readFully(chunk);
+		return new ColumnBuffer.Reader(chunk);
+	}
+	
+	private long readVarLong() throws IOException {
+		long result = 0;
+		int shift = 0;
+		while (true) {
+			int b = in.readUnsignedByte();
+			result |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return result;
+			}
+			shift += 7;
+		}
+	}
+	
+	private static String readString(ColumnBuffer.Reader column) {
+		int length = (int) column.readVarLong();
+		if (length == 0) {
+			return null;
+		}
+		return new String(column.readBytes(length - 1), StandardCharsets.UTF_8);
+	}
+	
+	private static LocalDateTime fromEpochMicros(long micros) {
+		long seconds = Math.floorDiv(micros, 1_000_000L);
+		int nanos = (int) Math.floorMod(micros, 1_000_000L) * 1_000;
+		return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+	}
+
+}
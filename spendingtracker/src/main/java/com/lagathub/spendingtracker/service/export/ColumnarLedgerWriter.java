@@ -0,0 +1,148 @@
+package com.lagathub.spendingtracker.service.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Compact column-oriented ledger file ("LDGC").
+ *
+ * Layout:
+ *   magic "LDGC", version byte
+ *   row groups: varint rowCount, then one chunk per column (int length + bytes)
+ *   a row group with rowCount 0 marks the end of the file
+ *
+ * Columns are encoded for what the ledger actually looks like:
+ *   id, created_at -> zigzag varint deltas (rows are exported in (created_at, id) order)
+ *   amount         -> unscaled cents as zigzag varint (DECIMAL(12,2) always fits a long)
+ *   category       -> file-wide dictionary; each chunk carries only the new entries, rows carry codes
+ *   note           -> varint (length + 1), 0 meaning null, followed by UTF-8 bytes
+ */
+public class ColumnarLedgerWriter implements LedgerRowWriter {
+	
+	static final byte[] MAGIC = {'L', 'D', 'G', 'C'};
+	static final byte VERSION = 1;
+	static final int ROWS_PER_GROUP = 8192;
+	static final int AMOUNT_SCALE = 2;
+	
+	private final WritableByteChannel channel;
+	private final ByteBuffer lengthBuffer = ByteBuffer.allocate(Integer.BYTES);
+	
+	private final ColumnBuffer ids = new ColumnBuffer(ROWS_PER_GROUP * 2);
+	private final ColumnBuffer timestamps = new ColumnBuffer(ROWS_PER_GROUP * 4);
+	private final ColumnBuffer amounts = new ColumnBuffer(ROWS_PER_GROUP * 3);
+	private final ColumnBuffer categoryCodes = new ColumnBuffer(ROWS_PER_GROUP);
+	private final ColumnBuffer categoryDictionary = new ColumnBuffer(256);
+	private final ColumnBuffer notes = new ColumnBuffer(ROWS_PER_GROUP * 16);
+	
+	private final Map<Long, Integer> dictionaryCodes = new HashMap<>();
+	private int newDictionaryEntries;
+	private int rowsInGroup;
+	private long previousId;
+	private long previousMicros;
+	
+	public ColumnarLedgerWriter(OutputStream out) throws IOException {
+		this.channel = Channels.newChannel(out);
+		ByteBuffer header = ByteBuffer.allocate(MAGIC.length + 1);
+		header.put(MAGIC).put(VERSION).flip();
+		writeFully(header);
+	}
+	
+	@Override
+	public void writeRow(LedgerRow row) throws IOException {
+		ids.writeSignedVarLong(row.id() - previousId);
+		previousId = row.id();
+		
+		long micros = toEpochMicros(row);
+		timestamps.writeSignedVarLong(micros - previousMicros);
+		previousMicros = micros;
+		
+		amounts.writeSignedVarLong(toCents(row.amount()));
+		
+		Integer code = dictionaryCodes.get(row.categoryId());
+		if (code == null) {
+			code = dictionaryCodes.size();
+			dictionaryCodes.put(row.categoryId(), code);
+			categoryDictionary.writeVarLong(row.categoryId());
+			writeString(categoryDictionary, row.categoryName());
+			newDictionaryEntries++;
+		}
+		categoryCodes.writeVarLong(code);
+		
+		writeString(notes, row.note());
+		
+		if (++rowsInGroup == ROWS_PER_GROUP) {
+			flushRowGroup();
+		}
+	}
+	
+	@Override
+	public void finish() throws IOException {
+		if (rowsInGroup > 0) {
+			flushRowGroup();
+		}
+		ColumnBuffer end = new ColumnBuffer(1);
+		end.writeVarLong(0);
+		writeFully(end.asByteBuffer());
+	}
+	
+	//Helper: write the buffered row group and reset the column buffers for the next one
+	private void flushRowGroup() throws IOException {
+		ColumnBuffer groupHeader = new ColumnBuffer(16);
+		groupHeader.writeVarLong(rowsInGroup);
+		groupHeader.writeVarLong(newDictionaryEntries);
+		writeFully(groupHeader.asByteBuffer());
+		
+		writeChunk(ids);
+		writeChunk(timestamps);
+		writeChunk(amounts);
+		writeChunk(categoryDictionary);
+		writeChunk(categoryCodes);
+		writeChunk(notes);
+		
+		rowsInGroup = 0;
+		newDictionaryEntries = 0;
+		previousId = 0;
+		previousMicros = 0;
+	}
+	
+	private void writeChunk(ColumnBuffer column) throws IOException {
+		lengthBuffer.clear();
+		lengthBuffer.putInt(column.size()).flip();
+		writeFully(lengthBuffer);
+		writeFully(column.asByteBuffer());
+		column.reset();
+	}
+	
+	private void writeFully(ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+	
+	private static void writeString(ColumnBuffer column, String value) {
+		if (value == null) {
+			column.writeVarLong(0);
+			return;
+		}
+		byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+		column.writeVarLong(utf8.length + 1L);
+		column.writeBytes(utf8);
+	}
+	
+	static long toEpochMicros(LedgerRow row) {
+		return row.createdAt().toEpochSecond(ZoneOffset.UTC) * 1_000_000L + row.createdAt().getNano() / 1_000;
+	}
+	
+	static long toCents(BigDecimal amount) {
+		return amount.setScale(AMOUNT_SCALE).unscaledValue().longValueExact();
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.lagathub.spendingtracker.service.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+
+/*
+ * RFC 4180 style CSV: header line, comma separated, fields quoted only when needed
+ */
+public class CsvLedgerWriter implements LedgerRowWriter {
+	
+	static final String HEADER = "id,created_at,amount,category_id,category_name,note";
+	
+	private static final int BUFFER_SIZE = 64 * 1024;
+	
+	private final Writer writer;
+	
+	public CsvLedgerWriter(OutputStream out) throws IOException {
+		this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+		writer.write(HEADER);
+		writer.write('\n');
+	}
+	
+	@Override
+	public void writeRow(LedgerRow row) throws IOException {
+		writer.write(Long.toString(row.id()));
+		writer.write(',');
+		DateTimeFormatter.ISO_LOCAL_DATE_TIME.formatTo(row.createdAt(), writer);
+		writer.write(',');
+		writer.write(row.amount().toPlainString());
+		writer.write(',');
+		writer.write(Long.toString(row.categoryId()));
+		writer.write(',');
+		writeField(row.categoryName());
+		writer.write(',');
+		writeField(row.note());
+		writer.write('\n');
+	}
+	
+	@Override
+	public void finish() throws IOException {
+		writer.flush();
+	}
+	
+	//Helper: quote a field if it contains a separator, quote or line break
+	private void writeField(String value) throws IOException {
+		if (value == null) {
+			return; //Empty field means null
+		}
+		if (!needsQuoting(value)) {
+			writer.write(value);
+			return;
+		}
+		writer.write('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"') {
+				writer.write('"');
+			}
+			writer.write(c);
+		}
+		writer.write('"');
+	}
+	
+	private static boolean needsQuoting(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.lagathub.spendingtracker.service.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public enum ExportFormat {
+	
+	CSV("text/csv", "csv"),
+	COLUMNAR("application/octet-stream", "ldgc"); //Compact column-oriented binary format
+	
+	private final String contentType;
+	private final String extension;
+	
+	ExportFormat(String contentType, String extension) {
+		this.contentType = contentType;
+		this.extension = extension;
+	}
+	
+	public String getContentType() {
+		return contentType;
+	}
+	
+	public String getExtension() {
+		return extension;
+	}
+	
+	public LedgerRowWriter newWriter(OutputStream out) throws IOException {
+		return switch (this) {
+			case CSV -> new CsvLedgerWriter(out);
+			case COLUMNAR -> new ColumnarLedgerWriter(out);
+		};
+	}
+	
+	//Lenient lookup for request parameters ("csv", "CSV", ...)
+	public static ExportFormat fromParameter(String value) {
+		for (ExportFormat format : values()) {
+			if (format.name().equalsIgnoreCase(value) || format.extension.equalsIgnoreCase(value)) {
+				return format;
+			}
+		}
+		throw new IllegalArgumentException("Unsupported export format: " + value);
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.lagathub.spendingtracker.service.export;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/*
+ * Outcome of one export run. lastCreatedAt/lastId form the resume cursor
+ * a client passes back to continue an interrupted export
+ */
+public record ExportSummary(long rows,
+							long bytesWritten,
+							Duration elapsed,
+							LocalDateTime lastCreatedAt,
+							Long lastId) {
+	
+	public double rowsPerSecond() {
+		long millis = Math.max(1, elapsed.toMillis());
+		return rows * 1000.0 / millis;
+	}
+
+}
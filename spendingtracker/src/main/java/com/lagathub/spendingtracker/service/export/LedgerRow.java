@@ -0,0 +1,16 @@
+package com.lagathub.spendingtracker.service.export;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/*
+ * One exported ledger line: a transaction flattened together with its category name
+ * so the file can be read without a second lookup against the categories table
+ */
+public record LedgerRow(long id,
+						LocalDateTime createdAt,
+						BigDecimal amount,
+						long categoryId,
+						String categoryName,
+						String note) {
+}
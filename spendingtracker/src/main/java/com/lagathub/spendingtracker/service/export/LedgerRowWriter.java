@@ -0,0 +1,16 @@
+package com.lagathub.spendingtracker.service.export;
+
+import java.io.IOException;
+
+/*
+ * Sink for exported rows. Implementations write straight to the output channel
+ * and only keep a bounded buffer in memory, so exports run in constant memory
+ */
+public interface LedgerRowWriter {
+	
+	void writeRow(LedgerRow row) throws IOException;
+	
+	//Flush buffered data and write any trailer (does not close the underlying stream)
+	void finish() throws IOException;
+
+}
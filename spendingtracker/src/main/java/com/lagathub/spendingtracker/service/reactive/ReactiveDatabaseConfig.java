@@ -0,0 +1,53 @@
+package com.lagathub.spendingtracker.service.reactive;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+
+/*
+ * Non-blocking Postgres access for the reactive read API.
+ * The pool is deliberately not a bean: any ConnectionFactory bean makes Boot skip the JDBC DataSource
+ * that JPA, Flyway and the exports run on. Only the DatabaseClient is exposed
+ */
+@Configuration
+public class ReactiveDatabaseConfig implements DisposableBean {
+	
+	private final ConnectionPool pool;
+	
+	public ReactiveDatabaseConfig(@Value("${ledger.r2dbc.url}") String url,
+								  @Value("${ledger.r2dbc.username}") String username,
+								  @Value("${ledger.r2dbc.password}") String password,
+								  @Value("${ledger.r2dbc.max-size:20}") int maxSize) {
+		ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+				.option(ConnectionFactoryOptions.USER, username)
+				.option(ConnectionFactoryOptions.PASSWORD, password)
+				.build();
+		//Connections are opened on first use, so the migrate profile never touches this pool
+		this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+				.initialSize(0)
+				.maxSize(maxSize)
+				.maxIdleTime(Duration.ofMinutes(10))
+				.maxAcquireTime(Duration.ofSeconds(10))
+				.build());
+	}
+	
+	@Bean
+	public DatabaseClient reactiveDatabaseClient() {
+		return DatabaseClient.create(pool);
+	}
+	
+	@Override
+	public void destroy() {
+		pool.dispose();
+	}
+
+}
@@ -0,0 +1,207 @@
+package com.lagathub.spendingtracker.service.reactive;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+
+import com.lagathub.spendingtracker.domain.model.Transaction;
+import com.lagathub.spendingtracker.dto.response.CategorySpendingResponse;
+import com.lagathub.spendingtracker.dto.response.TransactionField;
+import com.lagathub.spendingtracker.dto.response.TransactionResponse;
+import com.lagathub.spendingtracker.dto.response.WeeklyReportResponse;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+ * Read-only queries over R2DBC. Nothing here blocks a thread while Postgres works or while the
+ * client reads: rows are pulled from the portal FETCH_SIZE at a time, only as fast as the
+ * subscriber requests them.
+ * The tenant is read on the calling (request) thread when the query is built - the rows arrive
+ * on driver threads where TenantContext is not set - and filtered on explicitly like the JDBC queries
+ */
+@Service
+public class ReactiveSpendingService {
+	
+	//Rows per round trip; together with the subscriber's demand this bounds memory per stream
+	static final int FETCH_SIZE = 500;
+	
+	private static final String ALL_COLUMNS = "t.id, t.amount, c.name, t.category_id, t.created_at, t.updated_at, t.note ";
+	private static final String ORDER_SQL = "ORDER BY t.created_at DESC, t.id DESC";
+	
+	private final DatabaseClient databaseClient;
+	
+	public ReactiveSpendingService(DatabaseClient reactiveDatabaseClient) {
+		this.databaseClient = reactiveDatabaseClient;
+	}
+	
+	/*
+	 * Every transaction matching the filters, newest first, as a stream.
+	 * Same filters as TransactionService.getTransactions: endDate is inclusive, all of them optional
+	 */
+	public Flux<TransactionResponse> streamTransactions(String categoryName, LocalDate startDate, LocalDate endDate) {
+		return transactionsQuery(ALL_COLUMNS, true, categoryName, startDate, endDate)
+				.map(ReactiveSpendingService::toTransaction)
+				.all();
+	}
+	
+	//Same stream with only the requested fields (?fields=), selecting just their columns
+	public Flux<Map<String, Object>> streamTransactionFields(String categoryName, LocalDate startDate, LocalDate endDate,
+															 Set<TransactionField> fields) {
+		//Step 1: recentlyUpdated is derived from the two timestamps; categories is only joined when needed
+		Set<TransactionField> columns = EnumSet.copyOf(fields);
+		if (columns.remove(TransactionField.RECENTLY_UPDATED)) {
+			columns.add(TransactionField.CREATED_AT);
+			columns.add(TransactionField.UPDATED_AT);
+		}
+		String select = columns.stream()
+				.map(ReactiveSpendingService::column)
+				.collect(Collectors.joining(", ", "", " "));
+		boolean joinCategories = categoryName != null || columns.contains(TransactionField.CATEGORY_NAME);
+		
+		//Step 2: Stream rows as maps with just the requested keys
+		LocalDateTime now = LocalDateTime.now();
+		return transactionsQuery(select, joinCategories, categoryName, startDate, endDate)
+				.map(row -> {
+					Map<String, Object> map = new LinkedHashMap<>();
+					for (TransactionField field : fields) {
+						map.put(field.getJsonName(), field == TransactionField.RECENTLY_UPDATED
+								? Transaction.wasRecentlyUpdated(row.get(TransactionField.CREATED_AT.getJsonName(), LocalDateTime.class),
+										row.get(TransactionField.UPDATED_AT.getJsonName(), LocalDateTime.class), now)
+								: row.get(field.getJsonName()));
+					}
+					return map;
+				})
+				.all();
+	}
+	
+	private DatabaseClient.GenericExecuteSpec transactionsQuery(String columns, boolean joinCategories, String categoryName,
+																LocalDate startDate, LocalDate endDate) {
+		validateRange(startDate, endDate);
+		String tenant = TenantContext.currentTenant();
+		
+		//Only add the predicates that were asked for, so the (category_id, created_at) index applies
+		StringBuilder sql = new StringBuilder("SELECT ").append(columns).append("FROM transactions t ");
+		if (joinCategories) {
+			sql.append("JOIN categories c ON c.id = t.category_id ");
+		}
+		sql.append("WHERE t.tenant_id = :tenant ");
+		if (categoryName != null) {
+			sql.append("AND c.name = :category ");
+		}
+		if (startDate != null) {
+			sql.append("AND t.created_at >= :start ");
+		}
+		if (endDate != null) {
+			sql.append("AND t.created_at < :end ");
+		}
+		sql.append(ORDER_SQL);
+		
+		DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+				.filter(statement -> statement.fetchSize(FETCH_SIZE))
+				.bind("tenant", tenant);
+		if (categoryName != null) {
+			spec = spec.bind("category", categoryName);
+		}
+		if (startDate != null) {
+			spec = spec.bind("start", startDate.atStartOfDay());
+		}
+		if (endDate != null) {
+			spec = spec.bind("end", endDate.plusDays(1).atStartOfDay());
+		}
+		return spec;
+	}
+	
+	//Column for a stored field, aliased to its JSON name
+	private static String column(TransactionField field) {
+		return switch (field) {
+			case ID -> "t.id AS \"id\"";
+			case AMOUNT -> "t.amount AS \"amount\"";
+			case CATEGORY_NAME -> "c.name AS \"categoryName\"";
+			case CATEGORY_ID -> "t.category_id AS \"categoryId\"";
+			case CREATED_AT -> "t.created_at AS \"createdAt\"";
+			case UPDATED_AT -> "t.updated_at AS \"updatedAt\"";
+			case NOTE -> "t.note AS \"note\"";
+			case RECENTLY_UPDATED -> throw new IllegalStateException("Computed field");
+		};
+	}
+	
+	//Total spent between startDate and endDate (both inclusive)
+	public Mono<BigDecimal> getRangeTotal(LocalDate startDate, LocalDate endDate) {
+		validateRange(startDate, endDate);
+		return databaseClient.sql("SELECT COALESCE(SUM(amount), 0) AS total FROM transactions " +
+						"WHERE tenant_id = :tenant AND created_at >= :start AND created_at < :end")
+				.bind("tenant", TenantContext.currentTenant())
+				.bind("start", startDate.atStartOfDay())
+				.bind("end", endDate.plusDays(1).atStartOfDay())
+				.map(row -> row.get("total", BigDecimal.class))
+				.one();
+	}
+	
+	/*
+	 * Weekly report for the week containing the date, aggregated in Postgres.
+	 * Read-only: unlike WeeklyReportService nothing is stored, so the response has no id
+	 */
+	public Mono<WeeklyReportResponse> getWeeklyReport(LocalDate date) {
+		LocalDate weekStart = date.with(DayOfWeek.MONDAY);
+		LocalDate weekEnd = weekStart.plusDays(6);
+		
+		return databaseClient.sql("SELECT t.category_id, c.name, SUM(t.amount) AS spent, COUNT(*) AS transactions " +
+						"FROM transactions t JOIN categories c ON c.id = t.category_id " +
+						"WHERE t.tenant_id = :tenant AND t.created_at >= :start AND t.created_at < :end " +
+						"GROUP BY t.category_id, c.name ORDER BY spent DESC")
+				.bind("tenant", TenantContext.currentTenant())
+				.bind("start", weekStart.atStartOfDay())
+				.bind("end", weekEnd.plusDays(1).atStartOfDay())
+				.map(row -> new CategorySpendingResponse(
+						row.get("category_id", Long.class),
+						row.get("name", String.class),
+						row.get("spent", BigDecimal.class),
+						row.get("transactions", Long.class).intValue()))
+				.all()
+				.collectList()
+				.map(breakdowns -> toWeeklyReport(weekStart, weekEnd, breakdowns));
+	}
+	
+	private static WeeklyReportResponse toWeeklyReport(LocalDate weekStart, LocalDate weekEnd, List<CategorySpendingResponse> breakdowns) {
+		BigDecimal total = breakdowns.stream()
+				.map(CategorySpendingResponse::getAmountSpent)
+				.reduce(BigDecimal.ZERO, BigDecimal::add);
+		return new WeeklyReportResponse(null, weekStart, weekEnd, total, LocalDateTime.now(), new ArrayList<>(breakdowns));
+	}
+	
+	private static TransactionResponse toTransaction(Readable row) {
+		LocalDateTime createdAt = row.get("created_at", LocalDateTime.class);
+		LocalDateTime updatedAt = row.get("updated_at", LocalDateTime.class);
+		boolean recentlyUpdated = Transaction.wasRecentlyUpdated(createdAt, updatedAt, LocalDateTime.now());
+		return new TransactionResponse(
+				row.get("id", Long.class),
+				row.get("amount", BigDecimal.class),
+				row.get("name", String.class),
+				row.get("category_id", Long.class),
+				createdAt,
+				updatedAt,
+				row.get("note", String.class),
+				recentlyUpdated);
+	}
+	
+	private static void validateRange(LocalDate startDate, LocalDate endDate) {
+		if (startDate != null && endDate != null && endDate.isBefore(startDate)) {
+			throw new IllegalArgumentException("endDate must not be before startDate");
+		}
+	}
+
+}
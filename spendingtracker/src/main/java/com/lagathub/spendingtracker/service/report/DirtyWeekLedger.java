@@ -0,0 +1,72 @@
+package com.lagathub.spendingtracker.service.report;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+/*
+ * The dirty_weeks table: which weeks were touched by transaction writes since their stored
+ * report was last recomputed. Plain JDBC, so every statement names the tenant explicitly
+ */
+@Component
+public class DirtyWeekLedger {
+	
+	private final JdbcTemplate jdbcTemplate;
+	
+	public DirtyWeekLedger(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+	
+	//A transaction created at this time was added, changed or removed (call inside the write's transaction)
+	public void markChanged(LocalDateTime createdAt) {
+		jdbcTemplate.update("INSERT INTO dirty_weeks (tenant_id, week_start_date) VALUES (?, ?)",
+				TenantContext.currentTenant(), createdAt.toLocalDate().with(DayOfWeek.MONDAY));
+	}
+	
+	public boolean isDirty(LocalDate weekStart) {
+		return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+				"SELECT EXISTS (SELECT 1 FROM dirty_weeks WHERE tenant_id = ? AND week_start_date = ?)",
+				Boolean.class, TenantContext.currentTenant(), weekStart.with(DayOfWeek.MONDAY)));
+	}
+	
+	//Distinct dirty weeks across all tenants, oldest mark first, grouped by tenant
+	public Map<String, List<LocalDate>> pendingWeeks(int limit) {
+		Map<String, List<LocalDate>> pending = new LinkedHashMap<>();
+		jdbcTemplate.query("SELECT tenant_id, week_start_date FROM dirty_weeks " +
+				"GROUP BY tenant_id, week_start_date ORDER BY MIN(id) LIMIT ?",
+				rs -> {
+					pending.computeIfAbsent(rs.getString(1), tenant -> new ArrayList<>())
+							.add(rs.getObject(2, LocalDate.class));
+				}, limit);
+		return pending;
+	}
+	
+	/*
+	 * Delete the current tenant's marks for these weeks and return the weeks that had any.
+	 * Marks from writes that have not committed yet are invisible here and stay for the next round,
+	 * so everything a claimed mark stood for is visible to the statements that follow in this transaction
+	 */
+	public List<LocalDate> claim(List<LocalDate> weekStarts) {
+		String tenantId = TenantContext.currentTenant();
+		List<Object[]> rows = weekStarts.stream().map(weekStart -> new Object[] {tenantId, weekStart}).toList();
+		int[] deleted = jdbcTemplate.batchUpdate("DELETE FROM dirty_weeks WHERE tenant_id = ? AND week_start_date = ?", rows);
+		
+		List<LocalDate> claimed = new ArrayList<>();
+		for (int i = 0; i < deleted.length; i++) {
+			if (deleted[i] > 0) {
+				claimed.add(weekStarts.get(i));
+			}
+		}
+		return claimed;
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.lagathub.spendingtracker.service.report;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.lagathub.spendingtracker.service.WeeklyReportService;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+/*
+ * Background worker that recomputes stored weekly reports touched by transaction writes.
+ * Each round takes the oldest dirty weeks (all marks for a week coalesce into one recompute),
+ * splits them into per-tenant batches and runs the batches in parallel, one transaction each.
+ * A failed batch rolls back its claims, so those weeks are retried next round.
+ *
+ * Only runs in the web application: the migrate profile and bulk loads run without a web
+ * server and must exit when done, which the scheduler's threads would prevent
+ */
+@Component
+@EnableScheduling
+@ConditionalOnWebApplication
+public class DirtyWeekRefresher {
+	
+	private static final Logger log = LoggerFactory.getLogger(DirtyWeekRefresher.class);
+	
+	private final DirtyWeekLedger dirtyWeekLedger;
+	private final WeeklyReportService weeklyReportService;
+	private final int maxWeeks;
+	private final int batchSize;
+	private final int parallelism;
+	
+	public DirtyWeekRefresher(DirtyWeekLedger dirtyWeekLedger,
+							  WeeklyReportService weeklyReportService,
+							  @Value("${ledger.reports.refresh.max-weeks:1000}") int maxWeeks,
+							  @Value("${ledger.reports.refresh.batch-size:16}") int batchSize,
+							  @Value("${ledger.reports.refresh.parallelism:4}") int parallelism) {
+		this.dirtyWeekLedger = dirtyWeekLedger;
+		this.weeklyReportService = weeklyReportService;
+		this.maxWeeks = maxWeeks;
+		this.batchSize = batchSize;
+		this.parallelism = parallelism;
+	}
+	
+	@Scheduled(initialDelayString = "${ledger.reports.refresh.interval:PT30S}",
+			fixedDelayString = "${ledger.reports.refresh.interval:PT30S}")
+	public void refreshDirtyWeeks() {
+		//Step 1: Oldest dirty weeks, cut into per-tenant batches
+		Queue<WeekBatch> batches = new ConcurrentLinkedQueue<>();
+		dirtyWeekLedger.pendingWeeks(maxWeeks).forEach((tenantId, weeks) -> {
+			for (int from = 0; from < weeks.size(); from += batchSize) {
+				batches.add(new WeekBatch(tenantId, List.copyOf(weeks.subList(from, Math.min(from + batchSize, weeks.size())))));
+			}
+		});
+		if (batches.isEmpty()) {
+			return;
+		}
+		
+		//Step 2: A fixed number of workers drain the queue, so at most that many connections are in use
+		long started = System.nanoTime();
+		AtomicInteger refreshed = new AtomicInteger();
+		int workers = Math.min(parallelism, batches.size());
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < workers; i++) {
+				executor.submit(() -> {
+					WeekBatch batch;
+					while ((batch = batches.poll()) != null) {
+						refreshed.addAndGet(refresh(batch));
+					}
+				});
+			}
+		} //close() waits for the workers
+		
+		log.info("Refreshed {} dirty weeks in {} ms", refreshed.get(), (System.nanoTime() - started) / 1_000_000);
+	}
+	
+	private int refresh(WeekBatch batch) {
+		try (TenantContext.Scope scope = TenantContext.open(batch.tenantId())) {
+			return weeklyReportService.refreshWeeks(batch.weeks()).size();
+		} catch (RuntimeException e) {
+			log.warn("Refreshing {} weeks for tenant {} failed, retrying next round", batch.weeks().size(), batch.tenantId(), e);
+			return 0;
+		}
+	}
+	
+	private record WeekBatch(String tenantId, List<LocalDate> weeks) {
+		
+	}
+
+}
@@ -0,0 +1,11 @@
+package com.lagathub.spendingtracker.service.report;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/*
+ * Exact amount and count of one category in one week, for storing report breakdowns directly
+ */
+public record WeekCategoryTotal(LocalDate weekStart, long categoryId, BigDecimal amount, int count) {
+	
+}
@@ -0,0 +1,48 @@
+package com.lagathub.spendingtracker.service.sketch;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/*
+ * Splits an inclusive date range into the sketch buckets that cover it exactly:
+ * WEEK buckets for every complete Monday-Sunday week, DAY buckets for the partial
+ * weeks at the head and tail. Empty parts have from > to.
+ */
+public record SketchRangePlan(LocalDate weekFrom, LocalDate weekTo,
+							  LocalDate headDayFrom, LocalDate headDayTo,
+							  LocalDate tailDayFrom, LocalDate tailDayTo) {
+	
+	public static SketchRangePlan of(LocalDate startDate, LocalDate endDate) {
+		if (startDate == null || endDate == null) {
+			throw new IllegalArgumentException("Date range cannot be null");
+		}
+		if (startDate.isAfter(endDate)) {
+			throw new IllegalArgumentException("Start date must be before or equal to end date");
+		}
+		
+		LocalDate firstWeek = startDate.with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+		LocalDate lastWeek = endDate.plusDays(1).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).minusWeeks(1);
+		
+		if (firstWeek.isAfter(lastWeek)) {
+			//No complete week inside the range: days only
+			return new SketchRangePlan(firstWeek, lastWeek, startDate, endDate, endDate.plusDays(1), endDate);
+		}
+		return new SketchRangePlan(firstWeek, lastWeek,
+				startDate, firstWeek.minusDays(1),
+				lastWeek.plusWeeks(1), endDate);
+	}
+	
+	public boolean hasWeeks() {
+		return !weekFrom.isAfter(weekTo);
+	}
+	
+	public boolean hasHeadDays() {
+		return !headDayFrom.isAfter(headDayTo);
+	}
+	
+	public boolean hasTailDays() {
+		return !tailDayFrom.isAfter(tailDayTo);
+	}
+
+}
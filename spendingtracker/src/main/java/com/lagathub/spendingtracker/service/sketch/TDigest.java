@@ -0,0 +1,279 @@
+package com.lagathub.spendingtracker.service.sketch;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/*
+ * Merging t-digest (Dunning & Ertl) for approximate quantiles of spending amounts.
+ *
+ * Values are buffered and periodically merged into at most ~compression centroids using the
+ * arcsine scale function, which keeps centroids small near the tails (p1/p99 stay accurate)
+ * and lets them grow around the median. Two digests merge by re-adding one's centroids to
+ * the other, so day sketches can be combined into week or arbitrary range answers.
+ *
+ * Serialized form: version, compression, min, max, centroid count, then (mean, varint weight)
+ * per centroid. Exact min/max are kept so the extreme quantiles are never extrapolated.
+ */
+public class TDigest {
+	
+	public static final double DEFAULT_COMPRESSION = 100;
+	
+	private static final byte FORMAT_VERSION = 1;
+	
+	private final double compression;
+	
+	private double[] means;
+	private long[] weights;
+	private int centroidCount;
+	
+	private double[] bufferValues;
+	private long[] bufferWeights;
+	private int bufferSize;
+	
+	private long totalWeight;
+	private double min = Double.POSITIVE_INFINITY;
+	private double max = Double.NEGATIVE_INFINITY;
+	
+	public TDigest() {
+		this(DEFAULT_COMPRESSION);
+	}
+	
+	public TDigest(double compression) {
+		this.compression = compression;
+		int capacity = (int) Math.ceil(compression) * 2 + 10;
+		this.means = new double[capacity];
+		this.weights = new long[capacity];
+		this.bufferValues = new double[capacity * 5];
+		this.bufferWeights = new long[capacity * 5];
+	}
+	
+	public void add(double value) {
+		add(value, 1);
+	}
+	
+	public void add(double value, long weight) {
+		if (Double.isNaN(value)) {
+			throw new IllegalArgumentException("Cannot add NaN to a digest");
+		}
+		if (bufferSize == bufferValues.length) {
+			compress();
+		}
+		bufferValues[bufferSize] = value;
+		bufferWeights[bufferSize] = weight;
+		bufferSize++;
+		totalWeight += weight;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+	
+	//Fold another digest into this one (the other digest is left unchanged)
+	public void merge(TDigest other) {
+		other.compress();
+		for (int i = 0; i < other.centroidCount; i++) {
+			add(other.means[i], other.weights[i]);
+		}
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+	}
+	
+	public long size() {
+		return totalWeight;
+	}
+	
+	public int centroidCount() {
+		compress();
+		return centroidCount;
+	}
+	
+	/**
+	 * Approximate value at quantile q (0..1); NaN when the digest is empty
+	 */
+	public double quantile(double q) {
+		if (q < 0 || q > 1) {
+			throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+		}
+		compress();
+		if (totalWeight == 0) {
+			return Double.NaN;
+		}
+		if (centroidCount == 1) {
+			return means[0];
+		}
+		
+		double index = q * totalWeight;
+		
+		//Below the first centroid's centre: interpolate from the exact minimum
+		double firstHalf = weights[0] / 2.0;
+		if (index < firstHalf) {
+			return weights[0] == 1 ? min : min + (means[0] - min) * (index / firstHalf);
+		}
+		
+		//Above the last centroid's centre: interpolate to the exact maximum
+		int last = centroidCount - 1;
+		double lastHalf = weights[last] / 2.0;
+		if (index > totalWeight - lastHalf) {
+			double fromTop = totalWeight - index;
+			return weights[last] == 1 ? max : max - (max - means[last]) * (fromTop / lastHalf);
+		}
+		
+		//Between two centroid centres
+		double cumulative = firstHalf;
+		for (int i = 0; i < last; i++) {
+			double gap = (weights[i] + weights[i + 1]) / 2.0;
+			if (cumulative + gap >= index) {
+				double fraction = (index - cumulative) / gap;
+				return means[i] + (means[i + 1] - means[i]) * fraction;
+			}
+			cumulative += gap;
+		}
+		return max;
+	}
+	
+	public double getMin() {
+		return totalWeight == 0 ? Double.NaN : min;
+	}
+	
+	public double getMax() {
+		return totalWeight == 0 ? Double.NaN : max;
+	}
+	
+	//Merge buffered values into the centroid list
+	private void compress() {
+		if (bufferSize == 0) {
+			return;
+		}
+		int n = centroidCount + bufferSize;
+		double[] allMeans = new double[n];
+		long[] allWeights = new long[n];
+		System.arraycopy(means, 0, allMeans, 0, centroidCount);
+		System.arraycopy(weights, 0, allWeights, 0, centroidCount);
+		System.arraycopy(bufferValues, 0, allMeans, centroidCount, bufferSize);
+		System.arraycopy(bufferWeights, 0, allWeights, centroidCount, bufferSize);
+		sortByMean(allMeans, allWeights);
+		
+		int merged = 0;
+		double currentMean = allMeans[0];
+		long currentWeight = allWeights[0];
+		long weightBefore = 0;
+		double weightLimit = totalWeight * quantileForScale(scale(0) + 1);
+		
+		for (int i = 1; i < n; i++) {
+			long proposed = currentWeight + allWeights[i];
+			if (weightBefore + proposed <= weightLimit) {
+				currentMean += (allMeans[i] - currentMean) * allWeights[i] / proposed;
+				currentWeight = proposed;
+			} else {
+				merged = emit(merged, currentMean, currentWeight);
+				weightBefore += currentWeight;
+				weightLimit = totalWeight * quantileForScale(scale((double) weightBefore / totalWeight) + 1);
+				currentMean = allMeans[i];
+				currentWeight = allWeights[i];
+			}
+		}
+		centroidCount = emit(merged, currentMean, currentWeight);
+		bufferSize = 0;
+	}
+	
+	private int emit(int index, double mean, long weight) {
+		if (index == means.length) {
+			means = Arrays.copyOf(means, index * 2);
+			weights = Arrays.copyOf(weights, index * 2);
+		}
+		means[index] = mean;
+		weights[index] = weight;
+		return index + 1;
+	}
+	
+	//Arcsine scale function k1 and its inverse
+	private double scale(double q) {
+		return compression / (2 * Math.PI) * Math.asin(2 * q - 1);
+	}
+	
+	private double quantileForScale(double k) {
+		double limit = compression / 4;
+		if (k >= limit) {
+			return 1.0;
+		}
+		return (Math.sin(k * 2 * Math.PI / compression) + 1) / 2;
+	}
+	
+	//Helper: sort two parallel arrays by mean
+	private static void sortByMean(double[] values, long[] counts) {
+		Integer[] order = new Integer[values.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+		double[] sortedValues = new double[values.length];
+		long[] sortedCounts = new long[counts.length];
+		for (int i = 0; i < order.length; i++) {
+			sortedValues[i] = values[order[i]];
+			sortedCounts[i] = counts[order[i]];
+		}
+		System.arraycopy(sortedValues, 0, values, 0, values.length);
+		System.arraycopy(sortedCounts, 0, counts, 0, counts.length);
+	}
+	
+	//Serialization
+	
+	public byte[] toBytes() {
+		compress();
+		ByteArrayOutputStream out = new ByteArrayOutputStream(32 + centroidCount * 10);
+		ByteBuffer header = ByteBuffer.allocate(1 + 8 + 8 + 8);
+		header.put(FORMAT_VERSION).putDouble(compression).putDouble(min).putDouble(max);
+		out.write(header.array(), 0, header.position());
+		writeVarLong(out, centroidCount);
+		ByteBuffer meanBytes = ByteBuffer.allocate(8);
+		for (int i = 0; i < centroidCount; i++) {
+			meanBytes.clear();
+			meanBytes.putDouble(means[i]);
+			out.write(meanBytes.array(), 0, 8);
+			writeVarLong(out, weights[i]);
+		}
+		return out.toByteArray();
+	}
+	
+	public static TDigest fromBytes(byte[] bytes) {
+		ByteBuffer in = ByteBuffer.wrap(bytes);
+		byte version = in.get();
+		if (version != FORMAT_VERSION) {
+			throw new IllegalArgumentException("Unsupported digest version: " + version);
+		}
+		TDigest digest = new TDigest(in.getDouble());
+		double min = in.getDouble();
+		double max = in.getDouble();
+		int count = (int) readVarLong(in);
+		for (int i = 0; i < count; i++) {
+			double mean = in.getDouble();
+			long weight = readVarLong(in);
+			digest.centroidCount = digest.emit(digest.centroidCount, mean, weight);
+			digest.totalWeight += weight;
+		}
+		digest.min = min;
+		digest.max = max;
+		return digest;
+	}
+	
+	private static void writeVarLong(ByteArrayOutputStream out, long value) {
+		while ((value & ~0x7FL) != 0) {
+			out.write((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+	
+	private static long readVarLong(ByteBuffer in) {
+		long result = 0;
+		int shift = 0;
+		while (true) {
+			byte b = in.get();
+			result |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return result;
+			}
+			shift += 7;
+		}
+	}
+
+}
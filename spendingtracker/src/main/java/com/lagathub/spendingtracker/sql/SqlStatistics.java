@@ -0,0 +1,92 @@
+package com.lagathub.spendingtracker.sql;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Statements, rows and statement time collected on this thread while the scope is open.
+ * SqlStatisticsFilter opens one per HTTP request; tests can open an outer one around a call
+ * (the request's numbers are added into it when the request's scope closes) to enforce a query budget.
+ * Identical SQL text executed again and again in one scope is the N+1 signature
+ */
+public class SqlStatistics implements AutoCloseable {
+	
+	private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+	
+	private final SqlStatistics parent;
+	private final Map<String, Integer> executionsBySql = new HashMap<>();
+	private int statements;
+	private long rows;
+	private long nanos;
+	private boolean closed;
+	
+	private SqlStatistics(SqlStatistics parent) {
+		this.parent = parent;
+	}
+	
+	//Start collecting on this thread until the returned scope is closed
+	public static SqlStatistics open() {
+		SqlStatistics statistics = new SqlStatistics(CURRENT.get());
+		CURRENT.set(statistics);
+		return statistics;
+	}
+	
+	//The innermost open scope, or null when nobody is collecting
+	static SqlStatistics current() {
+		return CURRENT.get();
+	}
+	
+	void recordStatement(String sql, long elapsedNanos, long affectedRows) {
+		statements++;
+		nanos += elapsedNanos;
+		rows += affectedRows;
+		executionsBySql.merge(sql, 1, Integer::sum);
+	}
+	
+	void recordRow() {
+		rows++;
+	}
+	
+	public int getStatements() {
+		return statements;
+	}
+	
+	//Rows read from result sets plus rows reported by updates
+	public long getRows() {
+		return rows;
+	}
+	
+	//Time spent executing statements (not fetching rows)
+	public long getNanos() {
+		return nanos;
+	}
+	
+	//Statements executed at least threshold times, most repeated first
+	public Map<String, Integer> repeatedStatements(int threshold) {
+		Map<String, Integer> repeated = new LinkedHashMap<>();
+		executionsBySql.entrySet().stream()
+				.filter(entry -> entry.getValue() >= threshold)
+				.sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+				.forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+		return repeated;
+	}
+	
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		if (parent != null) {
+			parent.statements += statements;
+			parent.rows += rows;
+			parent.nanos += nanos;
+			executionsBySql.forEach((sql, count) -> parent.executionsBySql.merge(sql, count, Integer::sum));
+			CURRENT.set(parent);
+		} else {
+			CURRENT.remove();
+		}
+	}
+
+}
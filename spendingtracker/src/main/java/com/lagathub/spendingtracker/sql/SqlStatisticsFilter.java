@@ -0,0 +1,87 @@
+package com.lagathub.spendingtracker.sql;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/*
+ * Collects SqlStatistics for every request and publishes them per endpoint:
+ *   /actuator/metrics/http.server.sql.statements?tag=uri:/api/spending/transactions
+ *   /actuator/metrics/http.server.sql.rows, http.server.sql.time, http.server.sql.n_plus_one
+ * A statement executed n-plus-one-threshold times or more in one request is logged as a suspected N+1.
+ * Bodies streamed on another thread (exports, NDJSON) are not counted
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20) //Inside TenantFilter
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+	
+	private static final Logger log = LoggerFactory.getLogger(SqlStatisticsFilter.class);
+	
+	private final MeterRegistry meterRegistry;
+	private final int nPlusOneThreshold;
+	
+	public SqlStatisticsFilter(MeterRegistry meterRegistry,
+							   @Value("${ledger.sql.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+		this.meterRegistry = meterRegistry;
+		this.nPlusOneThreshold = nPlusOneThreshold;
+	}
+	
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		try (SqlStatistics statistics = SqlStatistics.open()) {
+			try {
+				chain.doFilter(request, response);
+			} finally {
+				publish(request, statistics);
+			}
+		}
+	}
+	
+	private void publish(HttpServletRequest request, SqlStatistics statistics) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		String method = request.getMethod();
+		String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+		
+		//Step 1: Per-endpoint distributions
+		DistributionSummary.builder("http.server.sql.statements").baseUnit("statements")
+				.tag("method", method).tag("uri", uri).register(meterRegistry).record(statistics.getStatements());
+		DistributionSummary.builder("http.server.sql.rows").baseUnit("rows")
+				.tag("method", method).tag("uri", uri).register(meterRegistry).record(statistics.getRows());
+		Timer.builder("http.server.sql.time")
+				.tag("method", method).tag("uri", uri).register(meterRegistry).record(statistics.getNanos(), TimeUnit.NANOSECONDS);
+		
+		//Step 2: Repeated identical statements
+		Map<String, Integer> repeated = statistics.repeatedStatements(nPlusOneThreshold);
+		if (!repeated.isEmpty()) {
+			Counter.builder("http.server.sql.n_plus_one")
+					.tag("method", method).tag("uri", uri).register(meterRegistry).increment();
+			Map.Entry<String, Integer> worst = repeated.entrySet().iterator().next();
+			log.warn("Suspected N+1 on {} {}: statement executed {} times in one request ({} statements in total): {}",
+					method, uri, worst.getValue(), statistics.getStatements(), worst.getKey());
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("{} {}: {} statements, {} rows, {} ms in SQL", method, uri, statistics.getStatements(),
+					statistics.getRows(), TimeUnit.NANOSECONDS.toMillis(statistics.getNanos()));
+		}
+	}
+
+}
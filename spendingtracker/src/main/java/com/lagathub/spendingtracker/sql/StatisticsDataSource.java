@@ -0,0 +1,195 @@
+package com.lagathub.spendingtracker.sql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/*
+ * Wraps the pool so every statement - Hibernate's and JdbcTemplate's alike - reports to the
+ * thread's SqlStatistics: one statement per execute call (a batch counts once), its execution
+ * time, and the rows read from its result sets or reported by updates.
+ * Nothing is recorded when no scope is open. unwrap() still reaches the driver (COPY in bulk loads)
+ */
+public class StatisticsDataSource extends DelegatingDataSource {
+	
+	public StatisticsDataSource(DataSource targetDataSource) {
+		super(targetDataSource);
+	}
+	
+	@Override
+	public Connection getConnection() throws SQLException {
+		return wrap(super.getConnection());
+	}
+	
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return wrap(super.getConnection(username, password));
+	}
+	
+	private static Connection wrap(Connection connection) {
+		return (Connection) Proxy.newProxyInstance(StatisticsDataSource.class.getClassLoader(),
+				new Class<?>[] {ConnectionProxy.class}, new ConnectionHandler(connection));
+	}
+	
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		//A proxy is only equal to itself, so connection holders still recognize their connection
+		switch (method.getName()) {
+			case "equals" -> {
+				return args[0] != null && Proxy.isProxyClass(args[0].getClass())
+						&& Proxy.getInvocationHandler(args[0]) instanceof TargetHolder holder && holder.target() == target;
+			}
+			case "hashCode" -> {
+				return System.identityHashCode(target);
+			}
+			default -> { }
+		}
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+	
+	private interface TargetHolder extends InvocationHandler {
+		
+		Object target();
+	}
+	
+	private static class ConnectionHandler implements TargetHolder {
+		
+		private final Connection target;
+		
+		ConnectionHandler(Connection target) {
+			this.target = target;
+		}
+		
+		@Override
+		public Object target() {
+			return target;
+		}
+		
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (method.getName().equals("getTargetConnection")) {
+				return target;
+			}
+			Object result = StatisticsDataSource.invoke(target, method, args);
+			//prepareStatement/prepareCall carry their SQL; plain statements get it with each execute
+			if (result instanceof CallableStatement statement) {
+				return wrapStatement(statement, CallableStatement.class, (String) args[0]);
+			}
+			if (result instanceof PreparedStatement statement) {
+				return wrapStatement(statement, PreparedStatement.class, (String) args[0]);
+			}
+			if (result instanceof Statement statement) {
+				return wrapStatement(statement, Statement.class, null);
+			}
+			return result;
+		}
+		
+		private static Object wrapStatement(Statement statement, Class<? extends Statement> type, String sql) {
+			return Proxy.newProxyInstance(StatisticsDataSource.class.getClassLoader(),
+					new Class<?>[] {type}, new StatementHandler(statement, sql));
+		}
+	}
+	
+	private static class StatementHandler implements TargetHolder {
+		
+		private final Statement target;
+		private final String preparedSql;
+		
+		StatementHandler(Statement target, String preparedSql) {
+			this.target = target;
+			this.preparedSql = preparedSql;
+		}
+		
+		@Override
+		public Object target() {
+			return target;
+		}
+		
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			SqlStatistics statistics = SqlStatistics.current();
+			if (statistics == null || !name.startsWith("execute")) {
+				Object result = StatisticsDataSource.invoke(target, method, args);
+				return name.equals("getResultSet") && result != null ? wrapResultSet((ResultSet) result) : result;
+			}
+			
+			//Step 1: Time the execution itself
+			String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+			long started = System.nanoTime();
+			Object result = StatisticsDataSource.invoke(target, method, args);
+			long elapsed = System.nanoTime() - started;
+			
+			//Step 2: Updates report their row counts now, queries count rows as they are read
+			statistics.recordStatement(sql != null ? sql : "<batch>", elapsed, affectedRows(result));
+			return result instanceof ResultSet resultSet ? wrapResultSet(resultSet) : result;
+		}
+		
+		private static long affectedRows(Object result) {
+			if (result instanceof Integer count) {
+				return Math.max(0, count);
+			}
+			if (result instanceof Long count) {
+				return Math.max(0, count);
+			}
+			long total = 0;
+			if (result instanceof int[] counts) {
+				for (int count : counts) {
+					total += Math.max(0, count);
+				}
+			} else if (result instanceof long[] counts) {
+				for (long count : counts) {
+					total += Math.max(0, count);
+				}
+			}
+			return total;
+		}
+		
+		private static ResultSet wrapResultSet(ResultSet resultSet) {
+			return (ResultSet) Proxy.newProxyInstance(StatisticsDataSource.class.getClassLoader(),
+					new Class<?>[] {ResultSet.class}, new ResultSetHandler(resultSet));
+		}
+	}
+	
+	private static class ResultSetHandler implements TargetHolder {
+		
+		private final ResultSet target;
+		
+		ResultSetHandler(ResultSet target) {
+			this.target = target;
+		}
+		
+		@Override
+		public Object target() {
+			return target;
+		}
+		
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			Object result = StatisticsDataSource.invoke(target, method, args);
+			if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+				SqlStatistics statistics = SqlStatistics.current();
+				if (statistics != null) {
+					statistics.recordRow();
+				}
+			}
+			return result;
+		}
+	}
+
+}
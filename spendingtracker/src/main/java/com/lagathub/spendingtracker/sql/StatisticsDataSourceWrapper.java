@@ -0,0 +1,20 @@
+package com.lagathub.spendingtracker.sql;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+//Puts StatisticsDataSource in front of the application's DataSource, so JPA, JdbcTemplate and Flyway all go through it
+@Component
+public class StatisticsDataSourceWrapper implements BeanPostProcessor {
+	
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof DataSource dataSource && !(bean instanceof StatisticsDataSource)) {
+			return new StatisticsDataSource(dataSource);
+		}
+		return bean;
+	}
+
+}
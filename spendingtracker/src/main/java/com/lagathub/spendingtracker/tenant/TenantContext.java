@@ -0,0 +1,56 @@
+package com.lagathub.spendingtracker.tenant;
+
+import java.util.regex.Pattern;
+
+/*
+ * Holds the tenant (ledger owner) for the current thread.
+ * Set per request by TenantFilter; background work and streaming responses that run on
+ * other threads must open their own scope with TenantContext.open(tenantId)
+ */
+public final class TenantContext {
+	
+	public static final String DEFAULT_TENANT = "default";
+	
+	private static final Pattern VALID_TENANT = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+	private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+	
+	private TenantContext() {
+		
+	}
+	
+	//Tenant for the current thread (the default ledger when none was set)
+	public static String currentTenant() {
+		String tenant = CURRENT.get();
+		return tenant != null ? tenant : DEFAULT_TENANT;
+	}
+	
+	/**
+	 * Switch the current thread to a tenant until the returned scope is closed:
+	 * try (TenantContext.Scope scope = TenantContext.open(tenantId)) { ... }
+	 */
+	public static Scope open(String tenantId) {
+		validate(tenantId);
+		String previous = CURRENT.get();
+		CURRENT.set(tenantId);
+		return () -> {
+			if (previous != null) {
+				CURRENT.set(previous);
+			} else {
+				CURRENT.remove();
+			}
+		};
+	}
+	
+	public static void validate(String tenantId) {
+		if (tenantId == null || !VALID_TENANT.matcher(tenantId).matches()) {
+			throw new IllegalArgumentException("Invalid tenant id: '" + tenantId + "'");
+		}
+	}
+	
+	@FunctionalInterface
+	public interface Scope extends AutoCloseable {
+		@Override
+		void close(); //No checked exception
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.lagathub.spendingtracker.tenant;
+
+import java.io.IOException;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/*
+ * Resolves the tenant from the X-Tenant-Id header for every request.
+ * Requests without the header use the default ledger, so single-user setups keep working
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class TenantFilter extends OncePerRequestFilter {
+	
+	public static final String TENANT_HEADER = "X-Tenant-Id";
+	
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		String header = request.getHeader(TENANT_HEADER);
+		String tenantId = header == null || header.isBlank() ? TenantContext.DEFAULT_TENANT : header.trim();
+		
+		TenantContext.Scope scope;
+		try {
+			scope = TenantContext.open(tenantId);
+		} catch (IllegalArgumentException e) {
+			response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+			return;
+		}
+		try (scope) {
+			chain.doFilter(request, response);
+		}
+	}
+
+}
@@ -0,0 +1,33 @@
+package com.lagathub.spendingtracker.tenant;
+
+import java.util.Map;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+/*
+ * Feeds TenantContext to Hibernate. Every entity has a @TenantId column, so Hibernate
+ * stamps new rows with the current tenant and adds "tenant_id = ?" to every JPQL,
+ * derived and criteria query. Native SQL and JdbcTemplate queries must filter explicitly
+ */
+@Component
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<String>, HibernatePropertiesCustomizer {
+	
+	@Override
+	public String resolveCurrentTenantIdentifier() {
+		return TenantContext.currentTenant();
+	}
+	
+	@Override
+	public boolean validateExistingCurrentSessions() {
+		return true;
+	}
+	
+	@Override
+	public void customize(Map<String, Object> hibernateProperties) {
+		hibernateProperties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, this);
+	}
+
+}
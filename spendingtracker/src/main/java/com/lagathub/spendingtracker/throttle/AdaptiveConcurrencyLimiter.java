@@ -0,0 +1,85 @@
+package com.lagathub.spendingtracker.throttle;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Caps concurrent writes at a limit that follows database latency, AIMD style (as in TCP
+ * congestion control): every write finishing within the latency target raises the limit by
+ * 1/limit - about one per round of requests - and every slower one lowers it by the backoff
+ * spread over the same round. Once the pool queues, latency passes the target and the limit
+ * settles near what the database can actually serve; requests beyond it are rejected at once
+ * instead of waiting for a connection until they time out
+ */
+public class AdaptiveConcurrencyLimiter {
+	
+	private static final double BACKOFF = 0.9;
+	
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final int minLimit;
+	private final int maxLimit;
+	private final long latencyTargetNanos;
+	private volatile int limit;
+	
+	private double estimatedLimit; //Guarded by this
+	
+	public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyTargetNanos) {
+		if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit || latencyTargetNanos <= 0) {
+			throw new IllegalArgumentException("Need 1 <= min <= initial <= max and a positive latency target");
+		}
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.latencyTargetNanos = latencyTargetNanos;
+		this.limit = initialLimit;
+		this.estimatedLimit = initialLimit;
+	}
+	
+	public boolean tryAcquire() {
+		while (true) {
+			int current = inFlight.get();
+			if (current >= limit) {
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+	
+	//A request that got through finished after rttNanos; its latency feeds the limit
+	public void release(long rttNanos) {
+		int inFlightBefore = inFlight.getAndDecrement();
+		update(rttNanos > latencyTargetNanos, inFlightBefore);
+	}
+	
+	//The database failed the request (e.g. no pooled connection in time): backs off like a slow one, however quickly it failed
+	public void releaseDropped() {
+		int inFlightBefore = inFlight.getAndDecrement();
+		update(true, inFlightBefore);
+	}
+	
+	//A request rejected as invalid says nothing about database latency
+	public void releaseIgnored() {
+		inFlight.decrementAndGet();
+	}
+	
+	public int getLimit() {
+		return limit;
+	}
+	
+	public int getInFlight() {
+		return inFlight.get();
+	}
+	
+	private synchronized void update(boolean overloaded, int inFlightBefore) {
+		if (overloaded) {
+			estimatedLimit -= estimatedLimit * (1 - BACKOFF) / Math.max(1, inFlightBefore);
+		} else if (inFlightBefore * 2 >= estimatedLimit) {
+			estimatedLimit += 1 / estimatedLimit; //Only grow a limit the traffic is using
+		} else {
+			return;
+		}
+		estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit));
+		limit = (int) estimatedLimit;
+	}
+
+}
@@ -0,0 +1,71 @@
+package com.lagathub.spendingtracker.throttle;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/*
+ * Per-client token buckets without locks or per-client objects: clients hash onto a fixed array
+ * of stripes, and each stripe is one long updated with a single CAS:
+ *   [ last refill, ms since start : 40 bits ][ missing tokens, in thousandths : 24 bits ]
+ * Counting missing tokens means an untouched stripe (0) is a full bucket.
+ * Two clients on the same stripe share a bucket, so use many more stripes than active clients
+ */
+public class StripedTokenBuckets {
+	
+	private static final long MILLI_TOKENS = 1000;
+	private static final int DEFICIT_BITS = 24;
+	private static final long DEFICIT_MASK = (1L << DEFICIT_BITS) - 1;
+	
+	private final AtomicLongArray stripes;
+	private final int mask;
+	private final long capacity; //Thousandths of a token
+	private final long refillPerMilli; //Thousandths of a token per ms = tokens per second
+	private final LongSupplier clockMillis;
+	private final long origin;
+	
+	public StripedTokenBuckets(int stripes, int burst, int tokensPerSecond, LongSupplier clockMillis) {
+		if (Integer.bitCount(stripes) != 1) {
+			throw new IllegalArgumentException("Stripes must be a power of two");
+		}
+		if (burst < 1 || burst * MILLI_TOKENS > DEFICIT_MASK || tokensPerSecond < 1) {
+			throw new IllegalArgumentException("Burst must be 1.." + DEFICIT_MASK / MILLI_TOKENS + " and the rate positive");
+		}
+		this.stripes = new AtomicLongArray(stripes);
+		this.mask = stripes - 1;
+		this.capacity = burst * MILLI_TOKENS;
+		this.refillPerMilli = tokensPerSecond;
+		this.clockMillis = clockMillis;
+		this.origin = clockMillis.getAsLong();
+	}
+	
+	//Take a token from the client's bucket: 0 when taken, otherwise the ms until one will be available
+	public long tryAcquire(Object client) {
+		int stripe = spread(client.hashCode()) & mask;
+		long now = clockMillis.getAsLong() - origin;
+		while (true) {
+			long state = stripes.get(stripe);
+			long last = state >>> DEFICIT_BITS;
+			long deficit = state & DEFICIT_MASK;
+			
+			//Step 1: Refill for the time since the stripe was last touched
+			long elapsed = Math.max(0, now - last);
+			deficit = Math.max(0, deficit - elapsed * refillPerMilli);
+			
+			//Step 2: Take a whole token if there is one
+			if (capacity - deficit < MILLI_TOKENS) {
+				long missing = deficit + MILLI_TOKENS - capacity;
+				return (missing + refillPerMilli - 1) / refillPerMilli;
+			}
+			long next = (Math.max(last, now) << DEFICIT_BITS) | (deficit + MILLI_TOKENS);
+			if (stripes.compareAndSet(stripe, state, next)) {
+				return 0;
+			}
+		}
+	}
+	
+	private static int spread(int hash) {
+		int h = hash * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+}
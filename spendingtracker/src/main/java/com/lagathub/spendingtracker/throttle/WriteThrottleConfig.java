@@ -0,0 +1,36 @@
+package com.lagathub.spendingtracker.throttle;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class WriteThrottleConfig implements WebMvcConfigurer {
+	
+	private final WriteThrottleInterceptor interceptor;
+	
+	public WriteThrottleConfig(@Value("${ledger.throttle.stripes:4096}") int stripes,
+							   @Value("${ledger.throttle.burst:20}") int burst,
+							   @Value("${ledger.throttle.writes-per-second:10}") int writesPerSecond,
+							   @Value("${ledger.throttle.concurrency.initial:20}") int initialLimit,
+							   @Value("${ledger.throttle.concurrency.min:4}") int minLimit,
+							   @Value("${ledger.throttle.concurrency.max:200}") int maxLimit,
+							   @Value("${ledger.throttle.concurrency.latency-target:100ms}") Duration latencyTarget,
+							   MeterRegistry meterRegistry) {
+		this.interceptor = new WriteThrottleInterceptor(
+				new StripedTokenBuckets(stripes, burst, writesPerSecond, System::currentTimeMillis),
+				new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyTarget.toNanos()),
+				meterRegistry);
+	}
+	
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(interceptor).addPathPatterns("/api/spending/**");
+	}
+
+}
@@ -0,0 +1,109 @@
+package com.lagathub.spendingtracker.throttle;
+
+import java.io.IOException;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.transaction.TransactionException;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.lagathub.spendingtracker.controllers.SpendingController;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/*
+ * In front of SpendingController's writes (POST/PUT/DELETE): first the client's token bucket
+ * (tenant + remote address), then the adaptive concurrency limit. Either one answers
+ * 429 Too Many Requests with Retry-After right away, so a flood is shed before it reaches the pool.
+ * Shed requests are counted in http.server.requests.throttled (reason=rate|concurrency).
+ * Completed writes feed the limiter: successes and server errors with their latency, database
+ * failures (a pool timeout is the clearest overload signal) as a back-off; client errors are ignored
+ */
+public class WriteThrottleInterceptor implements HandlerInterceptor {
+	
+	private static final String STARTED_ATTRIBUTE = WriteThrottleInterceptor.class.getName() + ".started";
+	
+	private final StripedTokenBuckets buckets;
+	private final AdaptiveConcurrencyLimiter limiter;
+	private final Counter rateLimited;
+	private final Counter concurrencyLimited;
+	
+	public WriteThrottleInterceptor(StripedTokenBuckets buckets, AdaptiveConcurrencyLimiter limiter, MeterRegistry meterRegistry) {
+		this.buckets = buckets;
+		this.limiter = limiter;
+		this.rateLimited = meterRegistry.counter("http.server.requests.throttled", "reason", "rate");
+		this.concurrencyLimited = meterRegistry.counter("http.server.requests.throttled", "reason", "concurrency");
+		meterRegistry.gauge("http.server.requests.write.limit", limiter, AdaptiveConcurrencyLimiter::getLimit);
+	}
+	
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+		if (!isWrite(request, handler)) {
+			return true;
+		}
+		
+		//Step 1: Per-client rate
+		long waitMillis = buckets.tryAcquire(TenantContext.currentTenant() + "|" + request.getRemoteAddr());
+		if (waitMillis > 0) {
+			rateLimited.increment();
+			reject(response, waitMillis, "Rate limit exceeded");
+			return false;
+		}
+		
+		//Step 2: Shared database capacity
+		if (!limiter.tryAcquire()) {
+			concurrencyLimited.increment();
+			reject(response, 1000, "Server busy");
+			return false;
+		}
+		request.setAttribute(STARTED_ATTRIBUTE, System.nanoTime());
+		return true;
+	}
+	
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		if (request.getAttribute(STARTED_ATTRIBUTE) instanceof Long started) {
+			request.removeAttribute(STARTED_ATTRIBUTE);
+			if (isDatabaseFailure(ex)) {
+				limiter.releaseDropped();
+			} else if (ex == null && HttpStatusCode.valueOf(response.getStatus()).is4xxClientError()) {
+				limiter.releaseIgnored(); //Rejected as invalid, not a sign of database load
+			} else {
+				limiter.release(System.nanoTime() - started);
+			}
+		}
+	}
+	
+	//Anywhere in the cause chain, e.g. CannotCreateTransactionException when Hikari times out
+	private static boolean isDatabaseFailure(Throwable ex) {
+		for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+			if (cause instanceof DataAccessException || cause instanceof TransactionException) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private static boolean isWrite(HttpServletRequest request, Object handler) {
+		return handler instanceof HandlerMethod method
+				&& method.getBeanType() == SpendingController.class
+				&& !HttpMethod.GET.matches(request.getMethod())
+				&& !HttpMethod.HEAD.matches(request.getMethod());
+	}
+	
+	private static void reject(HttpServletResponse response, long waitMillis, String message) throws IOException {
+		response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, (waitMillis + 999) / 1000)));
+		response.setContentType("text/plain");
+		response.getWriter().write(message);
+	}
+
+}
@@ -0,0 +1,24 @@
+package com.lagathub.spendingtracker.web;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/*
+ * Executor that writes streamed responses (NDJSON from the reactive API, ledger exports).
+ * A write to a slow client blocks until its socket drains; on Boot's default pool (8 core threads,
+ * unbounded queue) eight slow clients would stall every other stream. A virtual thread per write
+ * only parks, so the number of slow clients is bounded by memory instead
+ */
+@Configuration
+public class AsyncStreamingConfig implements WebMvcConfigurer {
+	
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("stream-");
+		executor.setVirtualThreads(true);
+		configurer.setTaskExecutor(executor);
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.lagathub.spendingtracker.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.lagathub.spendingtracker.dto.response.JsonRows;
+
+/*
+ * Writes JsonRows bodies through a generator of the negotiated format: the same JSON, CBOR and
+ * Smile factories the regular converters use, so the wire formats stay interchangeable.
+ * Write-only - JsonRows never appear in requests
+ */
+public class JsonRowsHttpMessageConverter extends AbstractHttpMessageConverter<JsonRows> {
+	
+	private final JsonFactory jsonFactory;
+	private final JsonFactory cborFactory;
+	private final JsonFactory smileFactory;
+	
+	public JsonRowsHttpMessageConverter(JsonFactory jsonFactory, JsonFactory cborFactory, JsonFactory smileFactory) {
+		super(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, WireFormatConfig.APPLICATION_SMILE);
+		this.jsonFactory = jsonFactory;
+		this.cborFactory = cborFactory;
+		this.smileFactory = smileFactory;
+	}
+	
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return JsonRows.class.isAssignableFrom(clazz);
+	}
+	
+	@Override
+	protected boolean canRead(MediaType mediaType) {
+		return false;
+	}
+	
+	@Override
+	protected JsonRows readInternal(Class<? extends JsonRows> clazz, HttpInputMessage inputMessage) {
+		throw new HttpMessageNotReadableException("JsonRows are write-only", inputMessage);
+	}
+	
+	@Override
+	protected void writeInternal(JsonRows rows, HttpOutputMessage outputMessage) throws IOException {
+		//Closing the generator returns its buffers to the pool; the response stream stays open for the container
+		OutputStream body = StreamUtils.nonClosing(outputMessage.getBody());
+		try (JsonGenerator generator = factoryFor(outputMessage.getHeaders().getContentType()).createGenerator(body, JsonEncoding.UTF8)) {
+			rows.writeTo(generator);
+		}
+	}
+	
+	private JsonFactory factoryFor(MediaType contentType) {
+		if (MediaType.APPLICATION_CBOR.isCompatibleWith(contentType)) {
+			return cborFactory;
+		}
+		if (WireFormatConfig.APPLICATION_SMILE.isCompatibleWith(contentType)) {
+			return smileFactory;
+		}
+		return jsonFactory;
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.lagathub.spendingtracker.web;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+/*
+ * Binary encodings picked by the Accept header, alongside JSON:
+ *   Accept: application/cbor            -> CBOR
+ *   Accept: application/x-jackson-smile -> Smile (repeated keys and category names sent once)
+ * Both use the same Jackson setup as JSON, so responses keep exactly the JSON field names and
+ * shapes (TransactionResponse etc.) - clients only swap the decoder.
+ * JSON itself is gzip-compressed by the server when the client accepts it (server.compression).
+ * Streamed row bodies (JsonRows) are written with the same three factories
+ */
+@Configuration
+public class WireFormatConfig {
+	
+	public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+	
+	//Boot registers HttpMessageConverter beans ahead of its defaults; the builder carries Boot's Jackson settings
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+	}
+	
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		SmileFactory smile = SmileFactory.builder()
+				.enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES) //Category names repeat on every row
+				.build();
+		return new MappingJackson2SmileHttpMessageConverter(builder.factory(smile).build());
+	}
+	
+	@Bean
+	public JsonRowsHttpMessageConverter jsonRowsHttpMessageConverter(ObjectMapper objectMapper,
+																	 MappingJackson2CborHttpMessageConverter cborHttpMessageConverter,
+																	 MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter) {
+		return new JsonRowsHttpMessageConverter(objectMapper.getFactory(),
+				cborHttpMessageConverter.getObjectMapper().getFactory(),
+				smileHttpMessageConverter.getObjectMapper().getFactory());
+	}
+
+}
@@ -0,0 +1,84 @@
+-- Multi-tenant ledgers: every table carries the owning tenant and every
+-- index that serves per-user queries leads with tenant_id, so a tenant's
+-- queries only ever touch that tenant's part of each index.
+-- Existing rows belong to the 'default' tenant (requests without X-Tenant-Id).
+
+ALTER TABLE categories          ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE transactions        ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE weekly_reports      ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE category_spending   ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE category_statistics ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE spending_sketches   ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+
+-- Categories: names unique per tenant (case-insensitive, matching findByNameIgnoreCase)
+ALTER TABLE categories DROP CONSTRAINT categories_name_key;
+DROP INDEX idx_categories_name_lower;
+CREATE UNIQUE INDEX uk_categories_tenant_name ON categories (tenant_id, LOWER(name));
+
+-- Weekly reports: one report per week per tenant
+ALTER TABLE weekly_reports DROP CONSTRAINT weekly_reports_week_start_date_key;
+DROP INDEX idx_weekly_reports_week_start;
+DROP INDEX idx_weekly_reports_generated_at;
+ALTER TABLE weekly_reports ADD CONSTRAINT uk_weekly_reports_tenant_week UNIQUE (tenant_id, week_start_date);
+CREATE INDEX idx_weekly_reports_tenant_generated_at ON weekly_reports(tenant_id, generated_at DESC);
+
+-- Transactions: date range, export/resume, filter and top-N paths, all tenant-leading
+DROP INDEX idx_transactions_created_at;
+DROP INDEX idx_transactions_created_at_id;
+DROP INDEX idx_transactions_amount_desc;
+DROP INDEX idx_transactions_small_amounts;
+CREATE INDEX idx_transactions_tenant_created_at_id ON transactions(tenant_id, created_at, id);
+CREATE INDEX idx_transactions_tenant_amount_desc ON transactions(tenant_id, amount DESC, created_at);
+CREATE INDEX idx_transactions_tenant_small_amounts ON transactions(tenant_id, amount) WHERE amount < 1000;
+-- idx_transactions_category and idx_transactions_category_amount stay: a category belongs to one tenant
+
+-- Sketch range lookups across a tenant's categories
+DROP INDEX idx_spending_sketches_granularity_start;
+CREATE INDEX idx_spending_sketches_tenant_granularity_start ON spending_sketches(tenant_id, granularity, bucket_start);
+
+-- Views expose the tenant so ad-hoc queries can filter on it
+CREATE OR REPLACE VIEW current_week_transactions AS
+SELECT 
+    t.id,
+    t.amount,
+    c.name as category_name,
+    t.created_at,
+    t.note,
+    t.tenant_id
+FROM transactions t
+JOIN categories c ON t.category_id = c.id
+WHERE t.created_at >= DATE_TRUNC('week', NOW()) 
+    AND t.created_at < DATE_TRUNC('week', NOW()) + INTERVAL '7 days';
+
+CREATE OR REPLACE VIEW weekly_spending_summary AS
+SELECT 
+    wr.id as report_id,
+    wr.week_start_date,
+    wr.week_end_date,
+    wr.total_spent,
+    wr.generated_at,
+    cs.category_id,
+    c.name as category_name,
+    cs.amount_spent,
+    cs.transaction_count,
+    cs.average_transaction,
+    ROUND((cs.amount_spent / NULLIF(wr.total_spent, 0)) * 100, 2) as percentage_of_total,
+    wr.tenant_id
+FROM weekly_reports wr
+LEFT JOIN category_spending cs ON wr.id = cs.weekly_report_id
+LEFT JOIN categories c ON cs.category_id = c.id
+ORDER BY wr.week_start_date DESC, cs.amount_spent DESC;
+
+CREATE OR REPLACE VIEW small_transactions AS
+SELECT 
+    t.id,
+    t.amount,
+    c.name as category_name,
+    t.created_at,
+    t.note,
+    DATE_TRUNC('week', t.created_at) as week_start,
+    t.tenant_id
+FROM transactions t
+JOIN categories c ON t.category_id = c.id
+WHERE t.amount < 1000
+ORDER BY t.created_at DESC;
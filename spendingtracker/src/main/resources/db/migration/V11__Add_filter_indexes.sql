@@ -0,0 +1,11 @@
+-- Indexes for the dynamic transaction filters (TransactionService.getTransactions).
+-- Every combination is newest-first with a LIMIT, so each index matches that order
+-- and the scan stops after one page.
+--
+--   no filter / date range only   -> idx_transactions_tenant_created_at_id (V10, scanned backward)
+--   category (+ optional dates)   -> idx_transactions_category_created_at below
+
+CREATE INDEX idx_transactions_category_created_at ON transactions(category_id, created_at DESC, id DESC);
+
+-- Its leading column covers every lookup the plain category index served (including FK checks)
+DROP INDEX idx_transactions_category;
@@ -0,0 +1,3 @@
+-- Transaction.updatedAt has been mapped since edits were added, but the column only ever
+-- came from ddl-auto. With schema validation in prod the migrations must create it.
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP;
@@ -0,0 +1,17 @@
+-- Weeks whose stored report no longer matches the ledger. Every transaction write appends a
+-- mark in its own transaction; a background worker coalesces the marks per week, recomputes
+-- the stored report and deletes exactly the marks it saw. Append-only, so concurrent writes
+-- to the same week never wait on each other.
+CREATE TABLE dirty_weeks (
+    id BIGSERIAL PRIMARY KEY,
+
+    tenant_id VARCHAR(64) NOT NULL,
+
+    -- Monday of the touched week
+    week_start_date DATE NOT NULL,
+
+    marked_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- Staleness checks and claims by week
+CREATE INDEX idx_dirty_weeks_tenant_week ON dirty_weeks(tenant_id, week_start_date);
@@ -0,0 +1,67 @@
+-- Spending limits per category and period (WEEK: Monday-based, MONTH: calendar month)
+CREATE TABLE budgets (
+    id BIGSERIAL PRIMARY KEY,
+    
+    tenant_id VARCHAR(64) NOT NULL DEFAULT 'default',
+    
+    category_id BIGINT NOT NULL,
+    period VARCHAR(10) NOT NULL,
+    limit_amount DECIMAL(12,2) NOT NULL,
+    
+    -- Optional early warning at this share of the limit (e.g. 80)
+    warn_percent INTEGER,
+    
+    -- Start of the first period the running counters cover (the period the budget was created in)
+    tracked_from DATE NOT NULL,
+    
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    
+    CONSTRAINT fk_budgets_category
+        FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE,
+    
+    CONSTRAINT chk_budget_period CHECK (period IN ('WEEK', 'MONTH')),
+    CONSTRAINT chk_budget_limit_positive CHECK (limit_amount > 0),
+    CONSTRAINT chk_budget_warn_percent CHECK (warn_percent IS NULL OR warn_percent BETWEEN 1 AND 99),
+    
+    -- One budget per category and period length (also serves the per-write lookup by category)
+    CONSTRAINT uk_budgets_category_period UNIQUE (category_id, period)
+);
+
+-- Running amount spent per budget and period, adjusted atomically by every transaction write
+-- (INSERT ... ON CONFLICT DO UPDATE ... RETURNING), so the threshold check is a comparison
+CREATE TABLE budget_usage (
+    budget_id BIGINT NOT NULL,
+    tenant_id VARCHAR(64) NOT NULL DEFAULT 'default',
+    period_start DATE NOT NULL,
+    spent DECIMAL(14,2) NOT NULL DEFAULT 0,
+    
+    PRIMARY KEY (budget_id, period_start),
+    
+    CONSTRAINT fk_budget_usage_budget
+        FOREIGN KEY (budget_id) REFERENCES budgets(id) ON DELETE CASCADE,
+    
+    CONSTRAINT chk_budget_usage_spent_non_negative CHECK (spent >= 0)
+);
+
+-- Thresholds crossed, written asynchronously after the crossing write commits
+CREATE TABLE budget_alerts (
+    id BIGSERIAL PRIMARY KEY,
+    
+    tenant_id VARCHAR(64) NOT NULL DEFAULT 'default',
+    
+    budget_id BIGINT NOT NULL,
+    category_id BIGINT NOT NULL,
+    period_start DATE NOT NULL,
+    level VARCHAR(10) NOT NULL,
+    spent DECIMAL(14,2) NOT NULL,
+    limit_amount DECIMAL(12,2) NOT NULL,
+    triggered_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    
+    CONSTRAINT fk_budget_alerts_budget
+        FOREIGN KEY (budget_id) REFERENCES budgets(id) ON DELETE CASCADE,
+    
+    CONSTRAINT chk_budget_alert_level CHECK (level IN ('WARNING', 'EXCEEDED'))
+);
+
+-- Latest alerts per tenant
+CREATE INDEX idx_budget_alerts_tenant_triggered_at ON budget_alerts(tenant_id, triggered_at DESC);
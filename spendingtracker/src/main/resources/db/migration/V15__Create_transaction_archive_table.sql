@@ -0,0 +1,33 @@
+-- Archive tier for old transactions. Each row holds one closed month of a tenant's ledger,
+-- deleted from transactions and stored as a gzipped columnar ledger file (the export format).
+-- A month's segment covers the whole weeks starting in it (range_start/range_end are Mondays),
+-- so every week is either fully live or fully archived and its stored report stays exact.
+CREATE TABLE transaction_archive_segments (
+    id BIGSERIAL PRIMARY KEY,
+    
+    tenant_id VARCHAR(64) NOT NULL DEFAULT 'default',
+    
+    -- First day of the archived month
+    archive_month DATE NOT NULL,
+    
+    -- Archived created_at range: [range_start, range_end)
+    range_start DATE NOT NULL,
+    range_end DATE NOT NULL,
+    
+    row_count BIGINT NOT NULL,
+    total_amount DECIMAL(16,2) NOT NULL,
+    
+    -- Columnar ledger file, gzipped
+    payload BYTEA NOT NULL,
+    
+    archived_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    
+    CONSTRAINT chk_archive_range CHECK (range_start < range_end),
+    CONSTRAINT uk_archive_segments_tenant_month UNIQUE (tenant_id, archive_month)
+);
+
+-- The payload is already compressed: store it out of line without a second compression pass
+ALTER TABLE transaction_archive_segments ALTER COLUMN payload SET STORAGE EXTERNAL;
+
+-- Segments overlapping a date range
+CREATE INDEX idx_archive_segments_tenant_range ON transaction_archive_segments(tenant_id, range_start, range_end);
@@ -0,0 +1,13 @@
+-- Journal mode (ledger.journal.enabled): how far the projector has applied the local write journal.
+-- Updated in the same transaction as each applied batch, so after a crash the projector resumes
+-- exactly after the last batch that committed. One row: journal mode runs on a single node.
+CREATE TABLE journal_checkpoint (
+    id SMALLINT PRIMARY KEY DEFAULT 1,
+    
+    -- Journal offset just past the last applied record
+    applied_offset BIGINT NOT NULL,
+    
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    
+    CONSTRAINT chk_journal_checkpoint_single_row CHECK (id = 1)
+);
@@ -0,0 +1,40 @@
+-- V16 made each tenant's change_seqs commit in order with a per-tenant advisory lock taken inside the
+-- row triggers. That lock came after the row lock of an INSERT but before the flushed UPDATE of an
+-- update or delete that had already locked category_statistics, so a create racing an update in the
+-- same category could deadlock; and, held until commit, it serialized all of a tenant's writes.
+--
+-- Instead every change is stamped with the id of the transaction that made it. Sync only returns
+-- changes of transactions older than every transaction still running (the xmin of the reader's
+-- snapshot): all of those have committed or aborted, so nothing can commit below the cursor later.
+-- Changes are ordered by (change_txid, change_seq); the cursor carries both.
+-- Existing rows get txid 0, so their change_seq order - and a client's cursor from before - stay valid.
+ALTER TABLE transactions      ADD COLUMN change_txid BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE categories        ADD COLUMN change_txid BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE ledger_tombstones ADD COLUMN change_txid BIGINT NOT NULL DEFAULT 0;
+
+DROP INDEX idx_transactions_tenant_change_seq;
+DROP INDEX idx_categories_tenant_change_seq;
+DROP INDEX idx_ledger_tombstones_tenant_change_seq;
+CREATE INDEX idx_transactions_tenant_change ON transactions(tenant_id, change_txid, change_seq);
+CREATE INDEX idx_categories_tenant_change ON categories(tenant_id, change_txid, change_seq);
+CREATE INDEX idx_ledger_tombstones_tenant_change ON ledger_tombstones(tenant_id, change_txid, change_seq);
+
+-- Same trigger functions, no lock: the top-level transaction id (epoch-extended, never wraps) plus a
+-- sequence value to order the changes within one transaction
+CREATE OR REPLACE FUNCTION ledger_stamp_change() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.change_txid := pg_current_xact_id()::text::bigint;
+    NEW.change_seq := nextval('ledger_change_seq');
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION ledger_record_tombstone() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO ledger_tombstones (change_seq, change_txid, tenant_id, entity_type, entity_id)
+    VALUES (nextval('ledger_change_seq'), pg_current_xact_id()::text::bigint, OLD.tenant_id, TG_ARGV[0], OLD.id);
+    RETURN OLD;
+END
+$$ LANGUAGE plpgsql;
+
+DROP FUNCTION ledger_next_change_seq(VARCHAR);
@@ -0,0 +1,21 @@
+-- Journal mode: records the projector could not apply however often it retried (a database outage is
+-- retried until it ends and never lands here). Written in the same transaction that moves the
+-- checkpoint past the record, so a skipped write is kept with its error instead of lost, and can be
+-- fixed up and re-entered by hand.
+CREATE TABLE journal_dead_letters (
+    -- Journal offset just past the record, unique: a record is dead-lettered once
+    end_offset BIGINT PRIMARY KEY,
+    
+    -- The journaled write, field by field (see JournalRecord); unconstrained, as it may be why it failed
+    tenant_id TEXT NOT NULL,
+    record_type VARCHAR(10) NOT NULL,
+    transaction_id BIGINT NOT NULL,
+    category_id BIGINT,
+    category_name TEXT,
+    amount NUMERIC,
+    note TEXT,
+    recorded_at TIMESTAMP NOT NULL,
+    
+    error TEXT NOT NULL,
+    failed_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
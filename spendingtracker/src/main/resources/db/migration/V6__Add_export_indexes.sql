@@ -0,0 +1,3 @@
+-- Ledger export walks transactions in (created_at, id) order and resumes with a
+-- row comparison on the same pair, so both columns go in one index
+CREATE INDEX idx_transactions_created_at_id ON transactions(created_at, id);
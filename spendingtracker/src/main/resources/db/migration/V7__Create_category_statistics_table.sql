@@ -0,0 +1,33 @@
+CREATE TABLE category_statistics (
+    -- One row per category, sharing its id
+    category_id BIGINT PRIMARY KEY,
+    
+    -- Running count and exact sum of transaction amounts
+    transaction_count BIGINT NOT NULL DEFAULT 0,
+    total_amount DECIMAL(19,2) NOT NULL DEFAULT 0,
+    
+    -- Welford state: running mean and sum of squared deviations
+    mean DOUBLE PRECISION NOT NULL DEFAULT 0,
+    m2 DOUBLE PRECISION NOT NULL DEFAULT 0,
+    
+    -- Smallest and largest amount (NULL while the category is empty)
+    min_amount DECIMAL(12,2),
+    max_amount DECIMAL(12,2),
+    
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    
+    CONSTRAINT fk_category_statistics_category
+        FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE,
+    
+    CONSTRAINT chk_statistics_count_non_negative CHECK (transaction_count >= 0)
+);
+
+-- Lets MIN/MAX per category be answered from the index after a bound is deleted
+CREATE INDEX idx_transactions_category_amount ON transactions(category_id, amount);
+
+-- Seed from existing data
+INSERT INTO category_statistics (category_id, transaction_count, total_amount, mean, m2, min_amount, max_amount)
+SELECT c.id, COUNT(t.id), COALESCE(SUM(t.amount), 0), COALESCE(AVG(t.amount), 0),
+       COALESCE(VAR_POP(t.amount) * COUNT(t.id), 0), MIN(t.amount), MAX(t.amount)
+FROM categories c LEFT JOIN transactions t ON t.category_id = c.id
+GROUP BY c.id;
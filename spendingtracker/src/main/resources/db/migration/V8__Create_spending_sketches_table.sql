@@ -0,0 +1,33 @@
+CREATE TABLE spending_sketches (
+    -- Primary key
+    id BIGSERIAL PRIMARY KEY,
+    
+    -- Category and time bucket this sketch summarizes
+    category_id BIGINT NOT NULL,
+    granularity VARCHAR(10) NOT NULL,
+    bucket_start DATE NOT NULL,
+    
+    -- Exact figures for the bucket
+    transaction_count BIGINT NOT NULL DEFAULT 0,
+    total_amount DECIMAL(19,2) NOT NULL DEFAULT 0,
+    
+    -- Serialized t-digest of the bucket's amounts (about 1-2 KB at most)
+    digest BYTEA NOT NULL,
+    
+    -- Set after deletes/edits: the digest is rebuilt from the bucket's rows on next read
+    needs_rebuild BOOLEAN NOT NULL DEFAULT FALSE,
+    
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    
+    CONSTRAINT fk_spending_sketches_category
+        FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE,
+    
+    CONSTRAINT chk_sketch_granularity CHECK (granularity IN ('DAY', 'WEEK')),
+    
+    -- One sketch per category and bucket (also serves per-category range lookups)
+    CONSTRAINT uk_spending_sketches_bucket
+        UNIQUE (category_id, granularity, bucket_start)
+);
+
+-- Range lookups across all categories
+CREATE INDEX idx_spending_sketches_granularity_start ON spending_sketches(granularity, bucket_start);
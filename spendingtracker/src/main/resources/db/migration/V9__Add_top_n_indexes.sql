@@ -0,0 +1,5 @@
+-- Top-N largest transactions in a date range. With both this index and
+-- idx_transactions_created_at the planner can either walk amounts from the
+-- top and stop after N rows inside the range (wide ranges), or range-scan
+-- created_at and keep a bounded top-N heap (narrow ranges)
+CREATE INDEX idx_transactions_amount_desc ON transactions(amount DESC, created_at);
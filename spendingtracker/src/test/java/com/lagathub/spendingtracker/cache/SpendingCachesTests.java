@@ -0,0 +1,136 @@
+package com.lagathub.spendingtracker.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+
+import com.lagathub.spendingtracker.dto.response.CategoryResponse;
+import com.lagathub.spendingtracker.dto.response.CategoryTrendResponse;
+import com.lagathub.spendingtracker.dto.response.DailyTotalResponse;
+import com.lagathub.spendingtracker.dto.response.WeeklyReportResponse;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+class SpendingCachesTests {
+	
+	private final CacheManager cacheManager = new CacheConfig().cacheManager();
+	private final SpendingCaches caches = new SpendingCaches(cacheManager);
+	
+	@Test
+	void closedWeeksAreCachedPerTenant() {
+		LocalDate lastWeek = LocalDate.now().with(DayOfWeek.MONDAY).minusWeeks(1);
+		AtomicInteger loads = new AtomicInteger();
+		
+		try (TenantContext.Scope scope = TenantContext.open("a")) {
+			caches.weeklyReport(lastWeek, () -> report(lastWeek, loads));
+			caches.weeklyReport(lastWeek.plusDays(3), () -> report(lastWeek, loads)); //Same week
+		}
+		try (TenantContext.Scope scope = TenantContext.open("b")) {
+			caches.weeklyReport(lastWeek, () -> report(lastWeek, loads));
+		}
+		assertEquals(2, loads.get());
+		
+		LocalDate thisWeek = LocalDate.now().with(DayOfWeek.MONDAY);
+		caches.weeklyReport(thisWeek, () -> report(thisWeek, loads));
+		caches.weeklyReport(thisWeek, () -> report(thisWeek, loads));
+		assertEquals(4, loads.get()); //Open week is never cached
+	}
+	
+	@Test
+	void transactionChangeEvictsOnlyItsWeek() {
+		LocalDate lastWeek = LocalDate.now().with(DayOfWeek.MONDAY).minusWeeks(1);
+		LocalDate twoWeeksAgo = lastWeek.minusWeeks(1);
+		AtomicInteger loads = new AtomicInteger();
+		caches.weeklyReport(lastWeek, () -> report(lastWeek, loads));
+		caches.weeklyReport(twoWeeksAgo, () -> report(twoWeeksAgo, loads));
+		
+		caches.transactionChanged(lastWeek.plusDays(2).atTime(10, 0));
+		caches.weeklyReport(lastWeek, () -> report(lastWeek, loads));
+		caches.weeklyReport(twoWeeksAgo, () -> report(twoWeeksAgo, loads));
+		assertEquals(3, loads.get());
+	}
+	
+	@Test
+	void usedCategoriesEvictedOnlyForNewlyUsedCategory() {
+		String key = TenantContext.DEFAULT_TENANT;
+		cacheManager.getCache(SpendingCaches.USED_CATEGORIES).put(key, List.of(category(1L)));
+		
+		caches.categoryUsed(1L);
+		assertNotNull(cacheManager.getCache(SpendingCaches.USED_CATEGORIES).get(key));
+		
+		caches.categoryUsed(2L);
+		assertNull(cacheManager.getCache(SpendingCaches.USED_CATEGORIES).get(key));
+	}
+	
+	@Test
+	void evictTenantLeavesOtherTenants() {
+		cacheManager.getCache(SpendingCaches.CATEGORIES).put("a", List.of(category(1L)));
+		cacheManager.getCache(SpendingCaches.CATEGORIES).put("ab", List.of(category(2L)));
+		cacheManager.getCache(SpendingCaches.WEEKLY_REPORTS).put("a:2025-01-06", report(LocalDate.of(2025, 1, 6), new AtomicInteger()));
+		
+		caches.evictTenant("a");
+		
+		assertNull(cacheManager.getCache(SpendingCaches.CATEGORIES).get("a"));
+		assertNull(cacheManager.getCache(SpendingCaches.WEEKLY_REPORTS).get("a:2025-01-06"));
+		assertNotNull(cacheManager.getCache(SpendingCaches.CATEGORIES).get("ab"));
+	}
+	
+	@Test
+	void heatmapCachesClosedMonthsAndEvictsTheChangedMonth() {
+		YearMonth lastMonth = YearMonth.now().minusMonths(1);
+		YearMonth twoMonthsAgo = lastMonth.minusMonths(1);
+		List<DailyTotalResponse> days = List.of(new DailyTotalResponse(lastMonth.atDay(1), BigDecimal.ONE, 1));
+		
+		caches.putHeatmapMonth(lastMonth, null, days);
+		caches.putHeatmapMonth(lastMonth, 7L, days);
+		caches.putHeatmapMonth(twoMonthsAgo, null, days);
+		caches.putHeatmapMonth(YearMonth.now(), null, days); //Open month is never cached
+		assertNotNull(caches.heatmapMonth(lastMonth, 7L));
+		assertNull(caches.heatmapMonth(lastMonth, 8L));
+		assertNull(caches.heatmapMonth(YearMonth.now(), null));
+		
+		caches.transactionChanged(lastMonth.atDay(15).atTime(12, 0));
+		assertNull(caches.heatmapMonth(lastMonth, null));
+		assertNull(caches.heatmapMonth(lastMonth, 7L));
+		assertNotNull(caches.heatmapMonth(twoMonthsAgo, null));
+	}
+	
+	@Test
+	void trendsStayCachedUntilAClosedWeekChanges() {
+		LocalDate lastWeek = LocalDate.now().with(DayOfWeek.MONDAY).minusWeeks(1);
+		AtomicInteger loads = new AtomicInteger();
+		
+		caches.weeklyTrends(lastWeek, 12, () -> trends(loads));
+		caches.transactionChanged(LocalDate.now().with(DayOfWeek.MONDAY).atTime(9, 0)); //Open week: no effect
+		caches.weeklyTrends(lastWeek, 12, () -> trends(loads));
+		assertEquals(1, loads.get());
+		
+		caches.transactionChanged(lastWeek.minusWeeks(3).atTime(9, 0));
+		caches.weeklyTrends(lastWeek, 12, () -> trends(loads));
+		assertEquals(2, loads.get());
+	}
+	
+	private static List<CategoryTrendResponse> trends(AtomicInteger loads) {
+		loads.incrementAndGet();
+		return List.of(new CategoryTrendResponse(null, null, List.of()));
+	}
+	
+	private static WeeklyReportResponse report(LocalDate weekStart, AtomicInteger loads) {
+		loads.incrementAndGet();
+		return new WeeklyReportResponse(1L, weekStart, weekStart.plusDays(6), BigDecimal.TEN, null, List.of());
+	}
+	
+	private static CategoryResponse category(Long id) {
+		return new CategoryResponse(id, "Food" + id, null, null);
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.lagathub.spendingtracker.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.lagathub.spendingtracker.dto.response.TransactionResponse;
+import com.lagathub.spendingtracker.service.reactive.ReactiveSpendingService;
+
+import reactor.core.publisher.Flux;
+
+class ReactiveSpendingControllerTests {
+	
+	private final ReactiveSpendingService service = mock(ReactiveSpendingService.class);
+	private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ReactiveSpendingController(service)).build();
+	
+	@Test
+	void streamsNdjsonOneRowPerDemand() throws Exception {
+		List<Long> demand = new CopyOnWriteArrayList<>();
+		Flux<TransactionResponse> rows = Flux.range(1, 5)
+				.map(i -> new TransactionResponse((long) i, BigDecimal.TEN, "Groceries", 1L,
+						LocalDateTime.of(2025, 3, 1, 12, 0), null, null, false))
+				.doOnRequest(demand::add);
+		when(service.streamTransactions(eq("Groceries"), any(), any())).thenReturn(rows);
+		
+		MvcResult started = mockMvc.perform(get("/api/spending/reactive/transactions")
+						.param("category", "Groceries")
+						.accept(MediaType.APPLICATION_NDJSON))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		MvcResult result = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+				.andReturn();
+		
+		String[] lines = result.getResponse().getContentAsString().trim().split("\n");
+		assertEquals(5, lines.length);
+		//The next row is only requested after the previous one was written
+		assertEquals(List.of(1L), demand.stream().distinct().toList());
+	}
+
+}
@@ -0,0 +1,110 @@
+package com.lagathub.spendingtracker.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import com.lagathub.spendingtracker.domain.model.Transaction;
+import com.lagathub.spendingtracker.service.TransactionService;
+import com.lagathub.spendingtracker.sql.SqlStatistics;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+import com.lagathub.spendingtracker.tenant.TenantFilter;
+
+/*
+ * Query budget per SpendingController endpoint: the statements a request may run, whatever the
+ * page size, and no statement repeated as often as the production N+1 warning fires. A lazy
+ * association touched per row breaks both. Writes keep the counters of the old and the new
+ * category in step, so they legitimately repeat a few statements. Run with -Pintegration
+ */
+@Tag("integration")
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SpendingControllerQueryBudgetTests {
+	
+	private static final String TENANT = "query-budget";
+	private static final String[] CATEGORIES = {"Food", "Transport", "Rent", "Fun"};
+	
+	@Autowired
+	private MockMvc mockMvc;
+	
+	@Autowired
+	private TransactionService transactionService;
+	
+	@Value("${ledger.sql.n-plus-one-threshold}")
+	private int nPlusOneThreshold;
+	
+	private long updatableId;
+	private long deletableId;
+	
+	@BeforeAll
+	void seedLedger() {
+		try (TenantContext.Scope scope = TenantContext.open(TENANT)) {
+			for (int i = 0; i < 40; i++) {
+				Transaction saved = transactionService.recordTransaction(BigDecimal.valueOf(5 + i), CATEGORIES[i % CATEGORIES.length], "n" + i);
+				if (i == 0) {
+					updatableId = saved.getId();
+				} else if (i == 1) {
+					deletableId = saved.getId();
+				}
+			}
+		}
+	}
+	
+	Stream<Arguments> budgets() {
+		String today = LocalDate.now().toString();
+		return Stream.of(
+				Arguments.of(get("/api/spending/transactions?size=50"), 1),
+				Arguments.of(get("/api/spending/transactions?size=50&category=Food&startDate=" + today), 2),
+				Arguments.of(get("/api/spending/transactions?size=50&fields=id,amount,categoryName"), 1),
+				Arguments.of(get("/api/spending/transactions/top?limit=20&startDate=" + today + "&endDate=" + today), 1),
+				Arguments.of(get("/api/spending/transactions/top?limit=20&fields=id,categoryName&startDate=" + today + "&endDate=" + today), 1),
+				Arguments.of(get("/api/spending/today-total"), 1),
+				Arguments.of(put("/api/spending/transactions/" + updatableId).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"amount\": 99.50, \"categoryName\": \"Transport\", \"note\": \"moved\"}"), 22),
+				Arguments.of(delete("/api/spending/transactions/" + deletableId), 14));
+	}
+	
+	@ParameterizedTest
+	@MethodSource("budgets")
+	void staysWithinQueryBudget(RequestBuilder request, int maxStatements) throws Exception {
+		try (SqlStatistics statistics = SqlStatistics.open()) {
+			mockMvc.perform(withTenant(request)).andExpect(status().is2xxSuccessful());
+			
+			Map<String, Integer> repeated = statistics.repeatedStatements(nPlusOneThreshold);
+			assertTrue(statistics.getStatements() <= maxStatements,
+					"Ran " + statistics.getStatements() + " statements, budget " + maxStatements);
+			assertTrue(repeated.isEmpty(), "Repeated statements (suspected N+1): " + repeated);
+		}
+	}
+	
+	private static RequestBuilder withTenant(RequestBuilder request) {
+		return servletContext -> {
+			var built = request.buildRequest(servletContext);
+			built.addHeader(TenantFilter.TENANT_HEADER, TENANT);
+			return built;
+		};
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.lagathub.spendingtracker.domain.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+class BudgetAlertLevelTests {
+	
+	private static final BigDecimal LIMIT = new BigDecimal("100.00");
+	
+	@Test
+	void eachThresholdAlertsOnlyOnTheWriteThatCrossesIt() {
+		//Walk spending up in steps and collect what each write crossed
+		BigDecimal[] steps = {amount("50"), amount("29.99"), amount("0.01"), amount("15"), amount("5"), amount("0.01"), amount("40")};
+		BudgetAlertLevel[] expected = {null, null, BudgetAlertLevel.WARNING, null, null, BudgetAlertLevel.EXCEEDED, null};
+		
+		BigDecimal spent = BigDecimal.ZERO;
+		for (int i = 0; i < steps.length; i++) {
+			BigDecimal after = spent.add(steps[i]);
+			assertEquals(expected[i], BudgetAlertLevel.crossed(spent, after, LIMIT, 80), "step " + i);
+			spent = after;
+		}
+	}
+	
+	@Test
+	void singleWriteCanSkipStraightToExceeded() {
+		assertEquals(BudgetAlertLevel.EXCEEDED, BudgetAlertLevel.crossed(amount("10"), amount("150"), LIMIT, 80));
+		assertEquals(BudgetAlertLevel.EXCEEDED, BudgetAlertLevel.crossed(amount("10"), amount("150"), LIMIT, null));
+		//Exactly at the limit is not over it
+		assertNull(BudgetAlertLevel.crossed(amount("10"), amount("100"), LIMIT, null));
+	}
+	
+	@Test
+	void decreasesAndRecrossingsDoNotAlert() {
+		assertNull(BudgetAlertLevel.crossed(amount("150"), amount("50"), LIMIT, 80));
+		//Already exceeded: a further increase is not a new crossing
+		assertNull(BudgetAlertLevel.crossed(amount("120"), amount("130"), LIMIT, 80));
+		//Back below after a removal, then over again: alerts again
+		assertEquals(BudgetAlertLevel.WARNING, BudgetAlertLevel.crossed(amount("70"), amount("85"), LIMIT, 80));
+	}
+	
+	@Test
+	void periodsStartOnMondayAndTheFirstOfTheMonth() {
+		LocalDate sunday = LocalDate.of(2025, 3, 9);
+		assertEquals(LocalDate.of(2025, 3, 3), BudgetPeriod.WEEK.periodStart(sunday));
+		assertEquals(LocalDate.of(2025, 3, 1), BudgetPeriod.MONTH.periodStart(sunday));
+		assertEquals(LocalDate.of(2025, 3, 10), BudgetPeriod.WEEK.periodEnd(LocalDate.of(2025, 3, 3)));
+		assertEquals(LocalDate.of(2025, 4, 1), BudgetPeriod.MONTH.periodEnd(LocalDate.of(2025, 3, 1)));
+	}
+	
+	private static BigDecimal amount(String value) {
+		return new BigDecimal(value);
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.lagathub.spendingtracker.domain.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CategoryStatisticsTests {
+	
+	@Test
+	void addAndRemoveMatchFullRecompute() {
+		Random random = new Random(42);
+		CategoryStatistics statistics = new CategoryStatistics(1L);
+		List<BigDecimal> amounts = new ArrayList<>();
+		
+		for (int i = 0; i < 10_000; i++) {
+			BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(500_000), 2);
+			amounts.add(amount);
+			statistics.add(amount);
+		}
+		//Remove every third amount again
+		for (int i = amounts.size() - 1; i >= 0; i -= 3) {
+			statistics.remove(amounts.remove(i));
+		}
+		
+		double mean = amounts.stream().mapToDouble(BigDecimal::doubleValue).average().orElse(0);
+		double variance = amounts.stream().mapToDouble(a -> Math.pow(a.doubleValue() - mean, 2)).sum() / amounts.size();
+		BigDecimal total = amounts.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+		
+		assertEquals(amounts.size(), statistics.getTransactionCount());
+		assertEquals(0, total.compareTo(statistics.getTotalAmount()));
+		assertEquals(mean, statistics.getMean(), 1e-9 * mean);
+		assertEquals(variance, statistics.getVariance(), 1e-9 * variance);
+	}
+	
+	@Test
+	void removingABoundAsksForRecompute() {
+		CategoryStatistics statistics = new CategoryStatistics(1L);
+		statistics.add(new BigDecimal("10.00"));
+		statistics.add(new BigDecimal("20.00"));
+		statistics.add(new BigDecimal("30.00"));
+		
+		assertFalse(statistics.remove(new BigDecimal("20.00")));
+		assertTrue(statistics.remove(new BigDecimal("30.00")));
+	}
+	
+	@Test
+	void removingLastAmountResets() {
+		CategoryStatistics statistics = new CategoryStatistics(1L);
+		statistics.add(new BigDecimal("99.99"));
+		statistics.remove(new BigDecimal("99.99"));
+		
+		assertEquals(0, statistics.getTransactionCount());
+		assertEquals(0.0, statistics.getVariance());
+		assertNull(statistics.getMinAmount());
+	}
+	
+	@Test
+	void mergeAndSubtractMatchFullRecompute() {
+		Random random = new Random(7);
+		CategoryStatistics food = new CategoryStatistics(1L);
+		CategoryStatistics snacks = new CategoryStatistics(2L);
+		List<BigDecimal> all = new ArrayList<>();
+		
+		for (int i = 0; i < 5_000; i++) {
+			BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(100_000), 2);
+			all.add(amount);
+			(i % 4 == 0 ? snacks : food).add(amount);
+		}
+		CategoryStatistics merged = new CategoryStatistics(1L);
+		all.forEach(merged::add);
+		
+		food.merge(snacks.summary());
+		assertEquals(merged.getTransactionCount(), food.getTransactionCount());
+		assertEquals(0, merged.getTotalAmount().compareTo(food.getTotalAmount()));
+		assertEquals(merged.getMean(), food.getMean(), 1e-9 * merged.getMean());
+		assertEquals(merged.getVariance(), food.getVariance(), 1e-9 * merged.getVariance());
+		assertEquals(merged.getMaxAmount(), food.getMaxAmount());
+		
+		food.subtract(snacks.summary());
+		CategoryStatistics rest = new CategoryStatistics(1L);
+		for (int i = 0; i < all.size(); i++) {
+			if (i % 4 != 0) {
+				rest.add(all.get(i));
+			}
+		}
+		assertEquals(rest.getTransactionCount(), food.getTransactionCount());
+		assertEquals(0, rest.getTotalAmount().compareTo(food.getTotalAmount()));
+		assertEquals(rest.getMean(), food.getMean(), 1e-9 * rest.getMean());
+		assertEquals(rest.getVariance(), food.getVariance(), 1e-9 * rest.getVariance());
+	}
+
+}
@@ -0,0 +1,29 @@
+package com.lagathub.spendingtracker.dto.response;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.EnumSet;
+
+import org.junit.jupiter.api.Test;
+
+class TransactionFieldTests {
+	
+	@Test
+	void parsesJsonNames() {
+		assertEquals(EnumSet.of(TransactionField.ID, TransactionField.AMOUNT, TransactionField.CATEGORY_NAME, TransactionField.CREATED_AT),
+				TransactionField.parse("id, amount,categoryName,createdAt,id"));
+	}
+	
+	@Test
+	void blankMeansEveryField() {
+		assertEquals(EnumSet.allOf(TransactionField.class), TransactionField.parse(" , "));
+		assertEquals(EnumSet.allOf(TransactionField.class), TransactionField.parse(null));
+	}
+	
+	@Test
+	void rejectsUnknownField() {
+		assertThrows(IllegalArgumentException.class, () -> TransactionField.parse("id,tenantId"));
+	}
+
+}
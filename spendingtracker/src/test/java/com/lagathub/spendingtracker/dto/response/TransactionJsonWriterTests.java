@@ -0,0 +1,195 @@
+package com.lagathub.spendingtracker.dto.response;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.lagathub.spendingtracker.domain.model.Transaction;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+class TransactionJsonWriterTests {
+	
+	//Bytes allocated per row written, not counting the row's values (the driver creates those either way)
+	private static final long BYTES_PER_ROW_BUDGET = 64;
+	private static final int ROWS = 50_000;
+	
+	//ISO strings for dates, as Spring Boot configures Jackson
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+			.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+			.build();
+	private final LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0);
+	
+	@Test
+	void writesTheSameJsonAsTransactionResponse() throws IOException {
+		List<Object[]> rows = List.of(
+				new Object[] {1L, new BigDecimal("12.50"), "Food", 3L, LocalDateTime.of(2025, 6, 1, 11, 40, 0, 120_000_000),
+						LocalDateTime.of(2025, 6, 1, 11, 50, 5), "lunch \"out\" é"},
+				new Object[] {2L, new BigDecimal("0.01"), "Rent", 4L, LocalDateTime.of(2025, 5, 1, 0, 0), null, null},
+				new Object[] {3L, new BigDecimal("1E+3"), "Travel", 5L, LocalDateTime.of(2025, 1, 2, 3, 4, 5, 6),
+						LocalDateTime.of(2025, 1, 2, 3, 4, 5, 6), ""},
+				new Object[] {4L, new BigDecimal("99.99"), "Misc", 6L, LocalDateTime.of(12025, 1, 2, 3, 4, 5, 123_456_789),
+						LocalDateTime.of(2024, 12, 31, 23, 59, 59, 999_999_999), "far"});
+		
+		List<TransactionResponse> responses = new ArrayList<>();
+		StringWriter streamed = new StringWriter();
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(streamed)) {
+			TransactionJsonWriter writer = new TransactionJsonWriter(now);
+			generator.writeStartArray();
+			for (Object[] row : rows) {
+				LocalDateTime createdAt = (LocalDateTime) row[4];
+				LocalDateTime updatedAt = (LocalDateTime) row[5];
+				writer.write(generator, (Long) row[0], (BigDecimal) row[1], (String) row[2], (Long) row[3],
+						createdAt, updatedAt, (String) row[6]);
+				responses.add(new TransactionResponse((Long) row[0], (BigDecimal) row[1], (String) row[2], (Long) row[3],
+						createdAt, updatedAt, (String) row[6], Transaction.wasRecentlyUpdated(createdAt, updatedAt, now)));
+			}
+			generator.writeEndArray();
+		}
+		
+		assertEquals(objectMapper.writeValueAsString(responses), streamed.toString());
+	}
+	
+	/*
+	 * Exact bytes come from the per-thread allocation counter; JFR's allocation events are
+	 * sampled per TLAB, so they only name the top allocating classes when the budget is exceeded
+	 */
+	@Test
+	void staysWithinAllocationBudgetPerRow() throws IOException {
+		long threadId = Thread.currentThread().threadId();
+		List<Object[]> rows = rows();
+		
+		//Step 1: Warm up so the JIT has compiled (and scalar-replaced) what it will
+		for (int i = 0; i < 5; i++) {
+			writeStreamed(rows);
+		}
+		
+		//Step 2: Measure, recording allocation events for the failure message
+		Path events = Files.createTempFile("allocations", ".jfr");
+		long streamedBytes;
+		try (Recording recording = new Recording()) {
+			recording.enable("jdk.ObjectAllocationInNewTLAB");
+			recording.enable("jdk.ObjectAllocationOutsideTLAB");
+			recording.start();
+			long before = allocatedBytes();
+			writeStreamed(rows);
+			streamedBytes = allocatedBytes() - before;
+			recording.stop();
+			recording.dump(events);
+		}
+		
+		long perRow = streamedBytes / ROWS;
+		try {
+			String attribution = perRow > BYTES_PER_ROW_BUDGET ? topAllocations(events, threadId) : "";
+			assertTrue(perRow <= BYTES_PER_ROW_BUDGET, "Allocated " + perRow + " bytes per row (budget "
+					+ BYTES_PER_ROW_BUDGET + "), top allocations: " + attribution);
+		} finally {
+			Files.deleteIfExists(events);
+		}
+	}
+	
+	//The same rows through TransactionResponse + ObjectMapper, for comparison (run with -Pbenchmark)
+	@Tag("benchmark")
+	@Test
+	void allocatesLessThanTheResponsePath() throws IOException {
+		List<Object[]> rows = rows();
+		for (int i = 0; i < 5; i++) {
+			writeStreamed(rows);
+			writeViaResponses(rows);
+		}
+		
+		long before = allocatedBytes();
+		writeStreamed(rows);
+		long streamedPerRow = (allocatedBytes() - before) / ROWS;
+		before = allocatedBytes();
+		writeViaResponses(rows);
+		long responsePerRow = (allocatedBytes() - before) / ROWS;
+		
+		System.out.printf("Allocated per row: streamed %d bytes, TransactionResponse + ObjectMapper %d bytes%n",
+				streamedPerRow, responsePerRow);
+		assertTrue(streamedPerRow < responsePerRow, "Streaming allocated " + streamedPerRow + " bytes per row, the response path "
+				+ responsePerRow);
+	}
+	
+	private void writeStreamed(List<Object[]> rows) throws IOException {
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+			TransactionJsonWriter writer = new TransactionJsonWriter(now);
+			generator.writeStartArray();
+			for (Object[] row : rows) {
+				writer.write(generator, (Long) row[0], (BigDecimal) row[1], (String) row[2], (Long) row[3],
+						(LocalDateTime) row[4], (LocalDateTime) row[5], (String) row[6]);
+			}
+			generator.writeEndArray();
+		}
+	}
+	
+	private void writeViaResponses(List<Object[]> rows) throws IOException {
+		List<TransactionResponse> responses = new ArrayList<>(rows.size());
+		for (Object[] row : rows) {
+			LocalDateTime createdAt = (LocalDateTime) row[4];
+			LocalDateTime updatedAt = (LocalDateTime) row[5];
+			responses.add(new TransactionResponse((Long) row[0], (BigDecimal) row[1], (String) row[2], (Long) row[3],
+					createdAt, updatedAt, (String) row[6], Transaction.wasRecentlyUpdated(createdAt, updatedAt, now)));
+		}
+		objectMapper.writeValue(OutputStream.nullOutputStream(), responses);
+	}
+	
+	private static long allocatedBytes() {
+		return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+				.getThreadAllocatedBytes(Thread.currentThread().threadId());
+	}
+	
+	private List<Object[]> rows() {
+		List<Object[]> rows = new ArrayList<>(ROWS);
+		for (int i = 0; i < ROWS; i++) {
+			rows.add(row(i));
+		}
+		return rows;
+	}
+	
+	//Distinct value objects per row, the way the JDBC driver hands them over
+	private Object[] row(int i) {
+		LocalDateTime createdAt = now.minusMinutes(i % 10_000).withNano((i % 1000) * 1_000_000);
+		return new Object[] {(long) i, BigDecimal.valueOf(i % 100_000, 2), "Groceries", (long) (i % 20),
+				createdAt, i % 3 == 0 ? createdAt.plusSeconds(90) : null, i % 2 == 0 ? "weekly shop" : null};
+	}
+	
+	private static String topAllocations(Path events, long threadId) throws IOException {
+		Map<String, Long> bytesByClass = new TreeMap<>();
+		for (RecordedEvent event : RecordingFile.readAllEvents(events)) {
+			if (event.getThread("eventThread") != null && event.getThread("eventThread").getJavaThreadId() == threadId) {
+				String type = event.getClass("objectClass").getName();
+				long bytes = event.hasField("tlabSize") ? event.getLong("tlabSize") : event.getLong("allocationSize");
+				bytesByClass.merge(type, bytes, Long::sum);
+			}
+		}
+		return bytesByClass.entrySet().stream()
+				.sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+				.limit(8)
+				.map(entry -> entry.getKey() + "=" + entry.getValue())
+				.collect(Collectors.joining(", "));
+	}
+
+}
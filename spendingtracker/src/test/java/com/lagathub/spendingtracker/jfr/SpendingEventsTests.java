@@ -0,0 +1,140 @@
+package com.lagathub.spendingtracker.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.lagathub.spendingtracker.domain.model.CategorySpending;
+import com.lagathub.spendingtracker.domain.model.WeeklyReport;
+import com.lagathub.spendingtracker.exception.ResourceNotFoundException;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/*
+ * Events carry their fields into an on-demand recording, and the benchmark (run with -Pbenchmark)
+ * measures what an instrumented call costs while no recording is running
+ */
+class SpendingEventsTests {
+	
+	private final FlightRecordingService service = new FlightRecordingService();
+	
+	@Test
+	void onDemandRecordingCapturesEvents() throws IOException {
+		service.start("default", Duration.ofMinutes(5));
+		assertEquals("RUNNING", service.status().state());
+		assertThrows(IllegalArgumentException.class, () -> service.start("default", null));
+		
+		try (TenantContext.Scope scope = TenantContext.open("acme")) {
+			TransactionRecordedEvent recorded = new TransactionRecordedEvent();
+			recorded.begin();
+			recorded.commit(7L, new BigDecimal("12.50"));
+			
+			WeeklyReportEvent report = new WeeklyReportEvent();
+			report.begin();
+			report.commit(weeklyReport(3, 4), false);
+		}
+		
+		Path file = service.stop();
+		try {
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+			RecordedEvent recorded = single(events, "spendingtracker.TransactionRecorded");
+			assertEquals(7L, recorded.getLong("categoryId"));
+			assertEquals(12.5, recorded.getDouble("amount"));
+			assertEquals("acme", recorded.getString("tenant"));
+			
+			RecordedEvent report = single(events, "spendingtracker.WeeklyReport");
+			assertEquals("2025-06-02", report.getString("weekStart"));
+			assertEquals(2, report.getInt("categoryCount"));
+			assertEquals(7, report.getInt("transactionCount"));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+		assertThrows(ResourceNotFoundException.class, service::status);
+	}
+	
+	@Test
+	void rejectsUnknownSettings() {
+		assertThrows(IllegalArgumentException.class, () -> service.start("verbose", null));
+		assertThrows(IllegalArgumentException.class, () -> service.start("default", Duration.ZERO));
+	}
+	
+	@Tag("benchmark")
+	@Test
+	void disabledEventsCostNearlyNothing() {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().threadId();
+		int calls = 20_000_000;
+		
+		//Warm up so the JIT compiles the instrumented path with the event disabled
+		for (int i = 0; i < 5; i++) {
+			instrumented(calls);
+			bare(calls);
+		}
+		
+		long allocated = threads.getThreadAllocatedBytes(threadId);
+		long started = System.nanoTime();
+		long checksum = instrumented(calls);
+		long instrumentedNanos = System.nanoTime() - started;
+		allocated = threads.getThreadAllocatedBytes(threadId) - allocated;
+		
+		started = System.nanoTime();
+		checksum += bare(calls);
+		long bareNanos = System.nanoTime() - started;
+		
+		System.out.printf("Disabled event: %.2f ns/call instrumented vs %.2f ns/call bare, %d bytes allocated (checksum %d)%n",
+				(double) instrumentedNanos / calls, (double) bareNanos / calls, allocated, checksum);
+		assertTrue(allocated < 1024 * 1024, "Disabled events should be scalar-replaced, allocated " + allocated + " bytes");
+		assertTrue((double) (instrumentedNanos - bareNanos) / calls < 5, "Disabled events should cost nanoseconds per call");
+	}
+	
+	private static long instrumented(int calls) {
+		long sum = 0;
+		for (int i = 0; i < calls; i++) {
+			RepositoryQueryEvent event = new RepositoryQueryEvent();
+			event.begin();
+			sum += i ^ (sum >>> 3);
+			event.commit("TransactionRepository", "findById");
+		}
+		return sum;
+	}
+	
+	private static long bare(int calls) {
+		long sum = 0;
+		for (int i = 0; i < calls; i++) {
+			sum += i ^ (sum >>> 3);
+		}
+		return sum;
+	}
+	
+	private static RecordedEvent single(List<RecordedEvent> events, String name) {
+		List<RecordedEvent> matching = events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+		assertEquals(1, matching.size(), name);
+		return matching.get(0);
+	}
+	
+	private static WeeklyReport weeklyReport(int... transactionCounts) {
+		LocalDate weekStart = LocalDate.of(2025, 6, 2);
+		WeeklyReport report = new WeeklyReport(weekStart, weekStart.plusDays(6), BigDecimal.TEN);
+		for (int count : transactionCounts) {
+			CategorySpending breakdown = new CategorySpending();
+			breakdown.setTransactionCount(count);
+			report.getCategoryBreakdowns().add(breakdown);
+		}
+		return report;
+	}
+
+}
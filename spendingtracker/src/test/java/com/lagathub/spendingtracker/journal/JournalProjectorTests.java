@@ -0,0 +1,155 @@
+package com.lagathub.spendingtracker.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.lagathub.spendingtracker.service.TransactionService;
+
+/*
+ * The projector against a database that goes away: an outage longer than MAX_ATTEMPTS is waited out
+ * without skipping anything, and only a record that keeps failing on its own is dead-lettered
+ */
+class JournalProjectorTests {
+	
+	private static final int RECORDS = 5;
+	
+	@TempDir
+	Path directory;
+	
+	private final OutageDataSource dataSource = new OutageDataSource();
+	private final JournalCheckpoints checkpoints = mock(JournalCheckpoints.class);
+	private final TransactionService transactionService = mock(TransactionService.class);
+	private final List<Long> applied = new CopyOnWriteArrayList<>();
+	private TransactionJournal journal;
+	private JournalProjector projector;
+	
+	@AfterEach
+	void stopProjector() {
+		if (projector != null) {
+			projector.stop();
+		}
+		if (journal != null) {
+			journal.close();
+		}
+	}
+	
+	@Test
+	void outageLongerThanTheRetryLimitSkipsNothing() throws Exception {
+		recordApplied();
+		dataSource.refuse(10); //Every attempt for a while cannot get a connection
+		start();
+		
+		awaitProjected();
+		assertEquals(List.of(1L, 2L, 3L, 4L, 5L), applied);
+		assertTrue(dataSource.refused.get() >= 10, "the outage was waited out");
+		verify(checkpoints, never()).deadLetter(any(), anyString());
+		assertTrue(projector.isRunning());
+		
+		//And it carries on once the database is back
+		journal.append(record(6));
+		awaitProjected();
+		assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), applied);
+	}
+	
+	@Test
+	void recordThatKeepsFailingIsDeadLettered() throws Exception {
+		recordApplied();
+		doThrow(new IllegalStateException("bad record")).when(transactionService)
+				.applyJournalRecord(argThat(record -> record != null && record.transactionId() == 3));
+		//The first dead-letter write fails too; the loop survives it and tries again
+		doThrow(new IllegalStateException("dead letter write failed")).doNothing().when(checkpoints).deadLetter(any(), anyString());
+		start();
+		
+		awaitProjected();
+		assertEquals(List.of(1L, 2L, 4L, 5L), applied.stream().distinct().toList());
+		ArgumentCaptor<TransactionJournal.Entry> deadLettered = ArgumentCaptor.forClass(TransactionJournal.Entry.class);
+		verify(checkpoints, times(2)).deadLetter(deadLettered.capture(), anyString());
+		assertEquals(3, deadLettered.getValue().record().transactionId());
+		assertTrue(projector.isRunning());
+	}
+	
+	private void recordApplied() {
+		doAnswer(invocation -> applied.add(invocation.<JournalRecord>getArgument(0).transactionId()))
+				.when(transactionService).applyJournalRecord(any());
+		doNothing().when(checkpoints).save(anyLong());
+	}
+	
+	private void start() {
+		journal = new TransactionJournal(directory, 1024, FsyncPolicy.ALWAYS, Duration.ofMillis(10), 0);
+		for (int i = 1; i <= RECORDS; i++) {
+			journal.append(record(i));
+		}
+		TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		projector = new JournalProjector(journal, checkpoints, transactionService, transactionTemplate, 10, Duration.ofMillis(5));
+		projector.start();
+	}
+	
+	private void awaitProjected() throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+		while (journal.getLagBytes() > 0 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(0, journal.getLagBytes(), "projected to the end of the journal");
+	}
+	
+	private static JournalRecord record(long id) {
+		return new JournalRecord(JournalRecord.Type.CREATE, "alpha", id, 3, "Food", new BigDecimal("12.50"), null,
+				LocalDateTime.of(2026, 3, 1, 12, 0).plusMinutes(id));
+	}
+	
+	//Refuses connections for the next few requests, as a database that is down or restarting would
+	private static class OutageDataSource extends AbstractDataSource {
+		
+		private final AtomicInteger refusals = new AtomicInteger();
+		private final AtomicInteger refused = new AtomicInteger();
+		
+		void refuse(int count) {
+			refusals.set(count);
+		}
+		
+		@Override
+		public Connection getConnection() throws SQLTransientConnectionException {
+			if (refusals.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+				refused.incrementAndGet();
+				throw new SQLTransientConnectionException("Connection refused", "08001");
+			}
+			return mock(Connection.class);
+		}
+		
+		@Override
+		public Connection getConnection(String username, String password) throws SQLTransientConnectionException {
+			return getConnection();
+		}
+	
+	}
+
+}
@@ -0,0 +1,171 @@
+package com.lagathub.spendingtracker.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/*
+ * Journal framing, segment rolls, recovery of a torn tail after a crash, the checkpoint on reopen,
+ * segment cleanup and the per-tenant projection barrier
+ */
+class TransactionJournalTests {
+	
+	private static final int SEGMENT_SIZE = 1024;
+	
+	@TempDir
+	Path directory;
+	
+	@Test
+	void recordsRoundTripAcrossSegments() {
+		try (TransactionJournal journal = open(0)) {
+			for (int i = 1; i <= 40; i++) {
+				journal.append(record("alpha", i));
+			}
+			journal.append(JournalRecord.deleted("beta", 7, LocalDateTime.of(2026, 1, 2, 3, 4, 5, 6)));
+			
+			List<TransactionJournal.Entry> entries = journal.read(0, 100);
+			assertEquals(41, entries.size());
+			assertEquals(record("alpha", 1), entries.getFirst().record());
+			assertEquals(record("alpha", 40), entries.get(39).record());
+			assertEquals(JournalRecord.Type.DELETE, entries.getLast().record().type());
+			assertEquals(journal.getWrittenOffset(), entries.getLast().endOffset());
+			assertTrue(segmentCount() > 1, "small segments must have rolled");
+			
+			//Reading on from the middle continues at the next record
+			List<TransactionJournal.Entry> rest = journal.read(entries.get(19).endOffset(), 100);
+			assertEquals(21, rest.size());
+			assertEquals(record("alpha", 21), rest.getFirst().record());
+		}
+	}
+	
+	@Test
+	void reopenResumesAfterCheckpoint() {
+		long checkpoint;
+		long end;
+		try (TransactionJournal journal = open(0)) {
+			for (int i = 1; i <= 10; i++) {
+				journal.append(record("alpha", i));
+			}
+			checkpoint = journal.read(0, 4).getLast().endOffset();
+			end = journal.getWrittenOffset();
+		}
+		
+		try (TransactionJournal journal = open(checkpoint)) {
+			assertEquals(end, journal.getWrittenOffset());
+			assertEquals(end - checkpoint, journal.getLagBytes());
+			List<TransactionJournal.Entry> pending = journal.read(checkpoint, 100);
+			assertEquals(6, pending.size());
+			assertEquals(record("alpha", 5), pending.getFirst().record());
+			
+			//Appends continue after the recovered end
+			journal.append(record("alpha", 11));
+			assertEquals(7, journal.read(checkpoint, 100).size());
+		}
+	}
+	
+	@Test
+	void tornTailIsTruncatedOnRecovery() throws IOException {
+		long intact;
+		try (TransactionJournal journal = open(0)) {
+			journal.append(record("alpha", 1));
+			intact = journal.append(record("alpha", 2));
+			journal.append(record("alpha", 3));
+		}
+		
+		//Corrupt the last record's payload, as a crash part-way through it could leave it
+		Path segment = segmentFiles().getLast();
+		try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+			file.seek(intact + JournalSegment.FRAME_HEADER + 3);
+			file.write(0x5A);
+		}
+		
+		try (TransactionJournal journal = open(0)) {
+			assertEquals(intact, journal.getWrittenOffset());
+			assertEquals(2, journal.read(0, 100).size());
+			
+			//The next append lands where the torn record was and reads back cleanly
+			journal.append(record("alpha", 4));
+			List<TransactionJournal.Entry> entries = journal.read(0, 100);
+			assertEquals(3, entries.size());
+			assertEquals(record("alpha", 4), entries.getLast().record());
+		}
+	}
+	
+	@Test
+	void projectedDeletesAppliedSegments() {
+		try (TransactionJournal journal = open(0)) {
+			for (int i = 1; i <= 40; i++) {
+				journal.append(record("alpha", i));
+			}
+			int before = segmentCount();
+			journal.projected(journal.getWrittenOffset());
+			
+			assertEquals(0, journal.getLagBytes());
+			assertEquals(1, segmentCount(), "only the active segment remains");
+			assertTrue(before > 1);
+			assertTrue(journal.read(journal.getWrittenOffset(), 100).isEmpty());
+		}
+	}
+	
+	@Test
+	void readsWaitOnlyForTheirOwnTenant() throws Exception {
+		try (TransactionJournal journal = open(0)) {
+			long alpha = journal.append(record("alpha", 1));
+			long beta = journal.append(record("beta", 2));
+			
+			assertTrue(journal.awaitProjected("gamma", Duration.ZERO), "no pending writes, no wait");
+			assertFalse(journal.awaitProjected("alpha", Duration.ofMillis(20)));
+			
+			journal.projected(alpha);
+			assertTrue(journal.awaitProjected("alpha", Duration.ZERO));
+			assertFalse(journal.awaitProjected("beta", Duration.ofMillis(20)));
+			
+			//A waiting reader is released as soon as the projector gets there
+			Thread projector = Thread.ofPlatform().start(() -> {
+				try {
+					Thread.sleep(50);
+				} catch (InterruptedException e) {
+					return;
+				}
+				journal.projected(beta);
+			});
+			assertTrue(journal.awaitProjected("beta", Duration.ofSeconds(5)));
+			projector.join();
+		}
+	}
+	
+	private TransactionJournal open(long checkpoint) {
+		return new TransactionJournal(directory, SEGMENT_SIZE, FsyncPolicy.ALWAYS, Duration.ofMillis(10), checkpoint);
+	}
+	
+	private static JournalRecord record(String tenantId, long id) {
+		return new JournalRecord(JournalRecord.Type.CREATE, tenantId, id, 3, "Food", new BigDecimal("12.50").add(BigDecimal.valueOf(id)),
+				id % 2 == 0 ? null : "lunch " + id, LocalDateTime.of(2026, 3, 1, 12, 0).plusMinutes(id));
+	}
+	
+	private int segmentCount() {
+		return segmentFiles().size();
+	}
+	
+	private List<Path> segmentFiles() {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.sorted().toList();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
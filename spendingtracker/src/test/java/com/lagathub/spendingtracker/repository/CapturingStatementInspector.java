@@ -0,0 +1,31 @@
+package com.lagathub.spendingtracker.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/*
+ * Records the SQL Hibernate sends, so tests can EXPLAIN exactly what the app runs.
+ * Registered through hibernate.session_factory.statement_inspector in the test's properties
+ */
+public class CapturingStatementInspector implements StatementInspector {
+	
+	private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+	
+	@Override
+	public String inspect(String sql) {
+		STATEMENTS.add(sql);
+		return sql;
+	}
+	
+	public static void clear() {
+		STATEMENTS.clear();
+	}
+	
+	public static List<String> statements() {
+		return new ArrayList<>(STATEMENTS);
+	}
+
+}
@@ -0,0 +1,126 @@
+package com.lagathub.spendingtracker.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lagathub.spendingtracker.service.BulkLedgerLoadService;
+import com.lagathub.spendingtracker.service.TransactionService;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+/*
+ * Plan regression suite for the transaction filters: runs EXPLAIN on the SQL Hibernate actually
+ * generates for every filter combination and fails on a sequential scan of a large table.
+ * Plans are generic (as used once the driver switches to server-side prepared statements),
+ * so this needs Postgres 16+. Run with -Pintegration
+ */
+@Tag("integration")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.lagathub.spendingtracker.repository.CapturingStatementInspector")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TransactionQueryPlanTests {
+	
+	private static final String TENANT = "plan-check";
+	private static final long ROWS = 300_000;
+	private static final List<String> LARGE_TABLES = List.of("transactions");
+	
+	@Autowired
+	private TransactionService transactionService;
+	
+	@Autowired
+	private BulkLedgerLoadService loadService;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	private final ObjectMapper mapper = new ObjectMapper();
+	
+	@BeforeAll
+	void loadLedger() {
+		Integer version = jdbcTemplate.queryForObject("SELECT current_setting('server_version_num')::int", Integer.class);
+		assumeTrue(version != null && version >= 160000, "EXPLAIN (GENERIC_PLAN) needs Postgres 16+");
+		
+		Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE tenant_id = ?", Long.class, TENANT);
+		if (existing == null || existing < ROWS) {
+			try (TenantContext.Scope scope = TenantContext.open(TENANT)) {
+				loadService.loadSynthetic(ROWS, 34, LocalDate.now().minusDays(365), LocalDate.now().minusDays(1));
+			}
+		}
+		jdbcTemplate.execute("ANALYZE transactions");
+	}
+	
+	static Stream<Arguments> filterCombinations() {
+		LocalDate start = LocalDate.now().minusDays(90);
+		LocalDate end = LocalDate.now().minusDays(60);
+		List<Arguments> combinations = new ArrayList<>();
+		for (String category : new String[] {null, "Food"}) {
+			for (LocalDate from : new LocalDate[] {null, start}) {
+				for (LocalDate to : new LocalDate[] {null, end}) {
+					combinations.add(Arguments.of(category, from, to));
+				}
+			}
+		}
+		return combinations.stream();
+	}
+	
+	@ParameterizedTest(name = "category={0} start={1} end={2}")
+	@MethodSource("filterCombinations")
+	void noSequentialScanOnLargeTables(String category, LocalDate startDate, LocalDate endDate) throws Exception {
+		CapturingStatementInspector.clear();
+		try (TenantContext.Scope scope = TenantContext.open(TENANT)) {
+			transactionService.getTransactions(0, 50, category, startDate, endDate);
+		}
+		
+		List<String> ledgerQueries = CapturingStatementInspector.statements().stream()
+				.filter(sql -> sql.toLowerCase().contains("from transactions"))
+				.toList();
+		assertEquals(1, ledgerQueries.size(), "expected one ledger query (no COUNT), got " + ledgerQueries);
+		
+		JsonNode plan = explain(ledgerQueries.get(0));
+		List<String> seqScans = new ArrayList<>();
+		collectSeqScans(plan, seqScans);
+		assertTrue(seqScans.isEmpty(), "Sequential scan on " + seqScans + " for\n" + ledgerQueries.get(0) + "\n" + plan.toPrettyString());
+	}
+	
+	//Hibernate's ? placeholders become $n so Postgres can plan the statement without values
+	private JsonNode explain(String sql) throws Exception {
+		StringBuilder numbered = new StringBuilder();
+		int parameter = 0;
+		for (char c : sql.toCharArray()) {
+			if (c == '?') {
+				numbered.append('$').append(++parameter);
+			} else {
+				numbered.append(c);
+			}
+		}
+		String json = jdbcTemplate.queryForObject("EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + numbered, String.class);
+		return mapper.readTree(json).get(0).get("Plan");
+	}
+	
+	private static void collectSeqScans(JsonNode node, List<String> found) {
+		if ("Seq Scan".equals(node.path("Node Type").asText()) && LARGE_TABLES.contains(node.path("Relation Name").asText())) {
+			found.add(node.path("Relation Name").asText());
+		}
+		for (JsonNode child : node.path("Plans")) {
+			collectSeqScans(child, found);
+		}
+	}
+
+}
@@ -0,0 +1,218 @@
+package com.lagathub.spendingtracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.lagathub.spendingtracker.domain.model.Transaction;
+import com.lagathub.spendingtracker.dto.response.SyncChangesResponse;
+import com.lagathub.spendingtracker.dto.response.SyncDeletion;
+import com.lagathub.spendingtracker.dto.response.TransactionResponse;
+import com.lagathub.spendingtracker.sql.SqlStatistics;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+/*
+ * Delta sync against a real database (the change triggers live there): a client that replays every
+ * batch ends up with the live ledger, a sync after a few writes reads only those rows, a write that
+ * commits late is not skipped, and stamping changes never makes concurrent writes deadlock.
+ * Run with -Pintegration
+ */
+@Tag("integration")
+@SpringBootTest
+class LedgerSyncServiceTests {
+	
+	@Autowired
+	private LedgerSyncService ledgerSyncService;
+	
+	@Autowired
+	private TransactionService transactionService;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	@Test
+	void returnsOnlyWhatChangedAfterTheCursor() {
+		try (TenantContext.Scope scope = TenantContext.open("sync-" + UUID.randomUUID())) {
+			Transaction kept = transactionService.recordTransaction(new BigDecimal("12.50"), "Food", "lunch");
+			Transaction removed = transactionService.recordTransaction(new BigDecimal("3.00"), "Transport", "bus");
+			for (int i = 0; i < 200; i++) {
+				transactionService.recordTransaction(BigDecimal.valueOf(1 + i), "Food", "n" + i);
+			}
+			String cursor = drain("0", 1000, new HashMap<>());
+			
+			transactionService.updateTransaction(kept.getId(), new BigDecimal("14.00"), "Rent", "moved");
+			transactionService.deleteTransaction(removed.getId());
+			
+			try (SqlStatistics statistics = SqlStatistics.open()) {
+				SyncChangesResponse changes = ledgerSyncService.getChanges(cursor, 500);
+				
+				assertEquals(List.of(kept.getId()), changes.getTransactions().stream().map(TransactionResponse::getId).toList());
+				assertEquals(new BigDecimal("14.00"), changes.getTransactions().get(0).getAmount());
+				assertEquals(List.of("Rent"), changes.getCategories().stream().map(category -> category.getName()).toList());
+				assertEquals(1, changes.getDeleted().size());
+				assertEquals("transaction", changes.getDeleted().get(0).getType());
+				assertEquals(removed.getId(), changes.getDeleted().get(0).getId());
+				assertFalse(changes.isHasMore());
+				assertNotEquals(cursor, changes.getCursor());
+				assertTrue(statistics.getRows() <= 4, "Read " + statistics.getRows() + " rows for 3 changes and the watermark");
+				
+				assertTrue(ledgerSyncService.getChanges(changes.getCursor(), 500).getTransactions().isEmpty());
+			}
+		}
+	}
+	
+	@Test
+	void smallBatchesReplayToTheLiveLedger() {
+		try (TenantContext.Scope scope = TenantContext.open("sync-" + UUID.randomUUID())) {
+			Map<Long, BigDecimal> live = new HashMap<>();
+			for (int i = 0; i < 30; i++) {
+				Transaction saved = transactionService.recordTransaction(BigDecimal.valueOf(10 + i), i % 2 == 0 ? "Food" : "Fun", null);
+				live.put(saved.getId(), saved.getAmount());
+			}
+			Long first = live.keySet().stream().min(Long::compare).orElseThrow();
+			transactionService.deleteTransaction(first);
+			live.remove(first);
+			Long second = live.keySet().stream().min(Long::compare).orElseThrow();
+			transactionService.updateTransaction(second, new BigDecimal("77.00"), "Food", null);
+			live.put(second, new BigDecimal("77.00"));
+			
+			Map<Long, BigDecimal> replica = new HashMap<>();
+			drain("0", 7, replica);
+			
+			assertEquals(live.keySet(), replica.keySet());
+			assertEquals(0, new BigDecimal("77.00").compareTo(replica.get(second)));
+			assertEquals(Set.of(), Set.copyOf(transactionService.getTransactions(0, 100, null, null, null).stream()
+					.map(Transaction::getId).filter(id -> !replica.containsKey(id)).toList()));
+		}
+	}
+	
+	@Test
+	void changeCommittedBehindAnOpenWriteIsNotSkipped() throws Exception {
+		String tenantId = "sync-" + UUID.randomUUID();
+		try (TenantContext.Scope scope = TenantContext.open(tenantId)) {
+			transactionService.recordTransaction(new BigDecimal("1.00"), "Food", null);
+			transactionService.recordTransaction(new BigDecimal("1.00"), "Fun", null);
+			Map<Long, BigDecimal> replica = new HashMap<>();
+			String cursor = drain("0", 100, replica);
+			
+			//The earlier write stays open while a later one commits
+			CountDownLatch written = new CountDownLatch(1);
+			CountDownLatch release = new CountDownLatch(1);
+			CompletableFuture<Transaction> early = inTransaction(tenantId, () -> {
+				Transaction saved = transactionService.recordTransaction(new BigDecimal("2.00"), "Food", "early");
+				written.countDown();
+				await(release);
+				return saved;
+			});
+			assertTrue(written.await(10, TimeUnit.SECONDS));
+			Transaction late = transactionService.recordTransaction(new BigDecimal("3.00"), "Fun", "late");
+			
+			SyncChangesResponse pending = ledgerSyncService.getChanges(cursor, 100);
+			assertTrue(pending.getTransactions().isEmpty(), "Changes behind an open write are held back");
+			assertEquals(cursor, pending.getCursor());
+			
+			release.countDown();
+			Transaction saved = early.get(10, TimeUnit.SECONDS);
+			drain(cursor, 100, replica);
+			assertTrue(replica.containsKey(saved.getId()), "The write that committed last is synced");
+			assertTrue(replica.containsKey(late.getId()));
+		}
+	}
+	
+	@Test
+	void concurrentCreateAndUpdateInOneCategoryBothCommit() throws Exception {
+		String tenantId = "sync-" + UUID.randomUUID();
+		try (TenantContext.Scope scope = TenantContext.open(tenantId)) {
+			Transaction existing = transactionService.recordTransaction(new BigDecimal("10.00"), "Food", null);
+			
+			//The update locks the category's statistics and holds them, its row change not yet flushed
+			CountDownLatch locked = new CountDownLatch(1);
+			CountDownLatch release = new CountDownLatch(1);
+			CompletableFuture<Transaction> update = inTransaction(tenantId, () -> {
+				Transaction updated = transactionService.updateTransaction(existing.getId(), new BigDecimal("11.00"), "Food", "put");
+				locked.countDown();
+				await(release);
+				return updated;
+			});
+			assertTrue(locked.await(10, TimeUnit.SECONDS));
+			
+			//A create in the same category queues behind it; the update then flushes and commits
+			CompletableFuture<Transaction> create = inTransaction(tenantId, () ->
+					transactionService.recordTransaction(new BigDecimal("5.00"), "Food", "post"));
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+			while (!create.isDone() && waitingLocks() == 0 && System.nanoTime() < deadline) {
+				Thread.sleep(10);
+			}
+			release.countDown();
+			
+			assertEquals(0, new BigDecimal("11.00").compareTo(update.get(10, TimeUnit.SECONDS).getAmount()));
+			Transaction created = create.get(10, TimeUnit.SECONDS);
+			assertEquals(0, new BigDecimal("11.00").compareTo(transactionService.findById(existing.getId()).getAmount()));
+			assertEquals(0, new BigDecimal("5.00").compareTo(transactionService.findById(created.getId()).getAmount()));
+		}
+	}
+	
+	private <T> CompletableFuture<T> inTransaction(String tenantId, Supplier<T> work) {
+		return CompletableFuture.supplyAsync(() -> {
+			try (TenantContext.Scope scope = TenantContext.open(tenantId)) {
+				return new TransactionTemplate(transactionManager).execute(status -> work.get());
+			}
+		});
+	}
+	
+	private int waitingLocks() {
+		Integer waiting = jdbcTemplate.queryForObject("SELECT count(*) FROM pg_locks WHERE NOT granted", Integer.class);
+		return waiting == null ? 0 : waiting;
+	}
+	
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	//Applies batches like a client would until caught up; returns the final cursor
+	private String drain(String since, int limit, Map<Long, BigDecimal> replica) {
+		String cursor = since;
+		SyncChangesResponse changes;
+		do {
+			changes = ledgerSyncService.getChanges(cursor, limit);
+			int size = changes.getTransactions().size() + changes.getCategories().size() + changes.getDeleted().size();
+			assertTrue(size <= limit, "Batch of " + size + " over the limit " + limit);
+			for (SyncDeletion deletion : changes.getDeleted()) {
+				if (deletion.getType().equals("transaction")) {
+					replica.remove(deletion.getId());
+				}
+			}
+			changes.getTransactions().forEach(transaction -> replica.put(transaction.getId(), transaction.getAmount()));
+			cursor = changes.getCursor();
+		} while (changes.isHasMore());
+		return cursor;
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.lagathub.spendingtracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lagathub.spendingtracker.dto.response.TransactionField;
+import com.lagathub.spendingtracker.dto.response.TransactionResponse;
+import com.lagathub.spendingtracker.repository.CapturingStatementInspector;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+/*
+ * Full rows vs ?fields=id,amount,categoryName,createdAt for one 1,000-row page (run with -Pbenchmark).
+ * DB bytes are the stored sizes (pg_column_size) of the columns each query reads for that page;
+ * response bytes are the serialized JSON
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.lagathub.spendingtracker.repository.CapturingStatementInspector")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SparseFieldsBenchmarkTests {
+	
+	private static final String TENANT = "sparse-bench";
+	private static final long ROWS = 100_000;
+	private static final int PAGE = 1_000;
+	private static final String LIST_FIELDS = "id,amount,categoryName,createdAt";
+	
+	private static final String PAGE_SQL = "FROM (SELECT * FROM transactions WHERE tenant_id = ? " +
+			"ORDER BY created_at DESC, id DESC LIMIT " + PAGE + ") t JOIN categories c ON c.id = t.category_id";
+	
+	@Autowired
+	private TransactionService transactionService;
+	
+	@Autowired
+	private BulkLedgerLoadService loadService;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
+	@BeforeAll
+	void loadLedger() {
+		Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE tenant_id = ?", Long.class, TENANT);
+		if (existing == null || existing < ROWS) {
+			try (TenantContext.Scope scope = TenantContext.open(TENANT)) {
+				loadService.loadSynthetic(ROWS, 38, LocalDate.now().minusDays(365), LocalDate.now().minusDays(1));
+			}
+		}
+	}
+	
+	@Test
+	void sparsePageReadsAndSendsLess() throws Exception {
+		try (TenantContext.Scope scope = TenantContext.open(TENANT)) {
+			//Step 1: Full entities, as the list endpoint serves them today
+			List<TransactionResponse> full = transactionService.getTransactions(0, PAGE, null, null, null).stream()
+					.map(TransactionResponse::from)
+					.toList();
+			
+			//Step 2: Sparse tuples
+			CapturingStatementInspector.clear();
+			List<Map<String, Object>> sparse = transactionService.getTransactionFields(0, PAGE, null, null, null,
+					TransactionField.parse(LIST_FIELDS));
+			String sparseSql = CapturingStatementInspector.statements().get(0);
+			assertFalse(sparseSql.contains("note"), sparseSql);
+			assertEquals(full.size(), sparse.size());
+			
+			//Step 3: Compare
+			long fullDbBytes = jdbcTemplate.queryForObject("SELECT SUM(pg_column_size(t.*)) + " +
+					"(SELECT SUM(pg_column_size(c2.*)) FROM categories c2 WHERE c2.id IN (SELECT category_id " +
+					"FROM transactions WHERE tenant_id = ? ORDER BY created_at DESC, id DESC LIMIT " + PAGE + ")) " +
+					"FROM (SELECT * FROM transactions WHERE tenant_id = ? ORDER BY created_at DESC, id DESC LIMIT " + PAGE + ") t",
+					Long.class, TENANT, TENANT);
+			long sparseDbBytes = jdbcTemplate.queryForObject("SELECT SUM(pg_column_size(t.id) + pg_column_size(t.amount) + " +
+					"pg_column_size(c.name) + pg_column_size(t.created_at)) " + PAGE_SQL, Long.class, TENANT);
+			int fullResponseBytes = objectMapper.writeValueAsBytes(full).length;
+			int sparseResponseBytes = objectMapper.writeValueAsBytes(sparse).length;
+			
+			System.out.printf("%-8s %12s %16s%n", "rows", "db bytes", "response bytes");
+			System.out.printf("%-8s %,12d %,16d%n", "full", fullDbBytes, fullResponseBytes);
+			System.out.printf("%-8s %,12d %,16d%n", "sparse", sparseDbBytes, sparseResponseBytes);
+			System.out.printf("saved    %11.0f%% %15.0f%%%n", 100.0 * (fullDbBytes - sparseDbBytes) / fullDbBytes,
+					100.0 * (fullResponseBytes - sparseResponseBytes) / fullResponseBytes);
+		}
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.lagathub.spendingtracker.service.archive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.lagathub.spendingtracker.service.TransactionArchiveService;
+import com.lagathub.spendingtracker.service.export.ColumnarLedgerWriter;
+import com.lagathub.spendingtracker.service.export.LedgerRow;
+
+class ArchivedLedgerCursorTests {
+	
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	
+	@Test
+	void segmentsTileWholeWeeks() {
+		for (YearMonth month = YearMonth.of(2023, 1); month.isBefore(YearMonth.of(2026, 1)); month = month.plusMonths(1)) {
+			LocalDate start = TransactionArchiveService.segmentStart(month);
+			LocalDate end = TransactionArchiveService.segmentStart(month.plusMonths(1));
+			assertEquals(DayOfWeek.MONDAY, start.getDayOfWeek());
+			assertEquals(month, YearMonth.from(start));
+			//Every day from start up to the next segment belongs to this month's segment
+			for (LocalDate day = start; day.isBefore(end); day = day.plusDays(1)) {
+				assertEquals(month, TransactionArchiveService.segmentMonth(day));
+			}
+		}
+	}
+	
+	@Test
+	void readsSegmentsInOrderWithinRangeAndAfterResumePosition() throws IOException {
+		List<LedgerRow> january = rows(1, LocalDateTime.of(2024, 1, 1, 9, 0), 40);
+		List<LedgerRow> february = rows(41, LocalDateTime.of(2024, 2, 5, 9, 0), 40);
+		when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(), any(), any())).thenReturn(List.of(1L, 2L));
+		when(jdbcTemplate.queryForObject(anyString(), eq(byte[].class), eq(1L))).thenReturn(segment(january));
+		when(jdbcTemplate.queryForObject(anyString(), eq(byte[].class), eq(2L))).thenReturn(segment(february));
+		
+		//Range cuts both segments; resume skips up to row 20
+		LocalDateTime from = january.get(10).createdAt();
+		LocalDateTime to = february.get(30).createdAt();
+		ArchivedLedgerCursor cursor = new ArchivedLedgerCursor(jdbcTemplate, "t", from, to,
+				january.get(19).createdAt(), january.get(19).id());
+		
+		List<Long> ids = new ArrayList<>();
+		while (cursor.hasNext()) {
+			ids.add(cursor.next().id());
+		}
+		List<Long> expected = new ArrayList<>();
+		for (long id = 21; id <= 70; id++) {
+			expected.add(id);
+		}
+		assertEquals(expected, ids);
+		assertFalse(cursor.hasNext());
+	}
+	
+	private static List<LedgerRow> rows(long firstId, LocalDateTime start, int count) {
+		List<LedgerRow> rows = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			rows.add(new LedgerRow(firstId + i, start.plusHours(i * 6L), BigDecimal.valueOf(100 + i, 2), 7, "Food", null));
+		}
+		return rows;
+	}
+	
+	private static byte[] segment(List<LedgerRow> rows) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream compressed = new GZIPOutputStream(out)) {
+			ColumnarLedgerWriter writer = new ColumnarLedgerWriter(compressed);
+			for (LedgerRow row : rows) {
+				writer.writeRow(row);
+			}
+			writer.finish();
+		}
+		return out.toByteArray();
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.lagathub.spendingtracker.service.bulk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.lagathub.spendingtracker.service.BulkLedgerLoadService;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+/*
+ * COPY throughput against the local Postgres (run with -Pbenchmark).
+ * 1M rows here; 10M via BulkLoadRunner scales linearly
+ */
+@Tag("benchmark")
+@SpringBootTest
+class BulkLoadBenchmarkTests {
+	
+	private static final String TENANT = "bulk-bench";
+	private static final long ROWS = 1_000_000;
+	
+	@Autowired
+	private BulkLedgerLoadService loadService;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	@Test
+	void copiesAMillionRows() {
+		try (TenantContext.Scope scope = TenantContext.open(TENANT)) {
+			BulkLoadSummary summary = loadService.loadSynthetic(ROWS, 42, LocalDate.now().minusDays(365), LocalDate.now().minusDays(1));
+			System.out.printf("copy %,.0f rows/s (%.1fs), rebuild %.1fs%n",
+					summary.rowsPerSecond(), summary.copySeconds(), summary.rebuildSeconds());
+		}
+		Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE tenant_id = ?", Long.class, TENANT);
+		assertEquals(ROWS, count);
+	}
+	
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM spending_sketches WHERE tenant_id = ?", TENANT);
+		jdbcTemplate.update("DELETE FROM category_statistics WHERE tenant_id = ?", TENANT);
+		jdbcTemplate.update("DELETE FROM transactions WHERE tenant_id = ?", TENANT);
+		jdbcTemplate.update("DELETE FROM categories WHERE tenant_id = ?", TENANT);
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.lagathub.spendingtracker.service.bulk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class SyntheticLedgerGeneratorTests {
+	
+	private static final LocalDate START = LocalDate.of(2025, 1, 1);
+	private static final LocalDate END = LocalDate.of(2025, 12, 31);
+	
+	@Test
+	void sameSeedSameLedger() {
+		List<SyntheticTransaction> first = generate(42, 20_000);
+		List<SyntheticTransaction> second = generate(42, 20_000);
+		List<SyntheticTransaction> other = generate(43, 20_000);
+		
+		assertEquals(first, second);
+		assertFalse(first.equals(other));
+	}
+	
+	@Test
+	void exactRowCountInOrderAndInRange() {
+		List<SyntheticTransaction> rows = generate(7, 123_457);
+		
+		assertEquals(123_457, rows.size());
+		LocalDateTime previous = START.atStartOfDay();
+		for (SyntheticTransaction row : rows) {
+			assertFalse(row.createdAt().isBefore(previous));
+			assertTrue(row.createdAt().toLocalDate().isBefore(END.plusDays(1)));
+			assertTrue(row.amountCents() > 0);
+			previous = row.createdAt();
+		}
+	}
+	
+	@Test
+	void realisticShape() {
+		List<SyntheticTransaction> rows = generate(1, 200_000);
+		
+		//Most spending is small everyday expenses
+		long small = rows.stream().filter(row -> row.amountCents() < 100_000).count();
+		assertTrue(small > rows.size() * 0.7, "small share " + small);
+		
+		//Busier Saturdays than Sundays, busier evenings than the small hours
+		long saturdays = rows.stream().filter(row -> row.createdAt().getDayOfWeek() == DayOfWeek.SATURDAY).count();
+		long sundays = rows.stream().filter(row -> row.createdAt().getDayOfWeek() == DayOfWeek.SUNDAY).count();
+		long evening = rows.stream().filter(row -> row.createdAt().getHour() == 18).count();
+		long night = rows.stream().filter(row -> row.createdAt().getHour() == 3).count();
+		assertTrue(saturdays > sundays * 1.2);
+		assertTrue(evening > night * 20);
+		
+		//Rent clusters around month end
+		int rent = SyntheticLedgerGenerator.categoryNames().indexOf("Rent");
+		long rentAtMonthEnd = rows.stream()
+				.filter(row -> row.categoryIndex() == rent)
+				.filter(row -> row.createdAt().getDayOfMonth() == 1 || row.createdAt().getDayOfMonth() >= 28)
+				.count();
+		long rentTotal = rows.stream().filter(row -> row.categoryIndex() == rent).count();
+		assertTrue(rentAtMonthEnd > rentTotal / 2);
+	}
+	
+	private static List<SyntheticTransaction> generate(long seed, long rows) {
+		List<SyntheticTransaction> out = new ArrayList<>();
+		new SyntheticLedgerGenerator(seed, START, END).generate(rows, out::add);
+		return out;
+	}
+
+}
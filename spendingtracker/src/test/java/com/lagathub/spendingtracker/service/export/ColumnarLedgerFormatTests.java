@@ -0,0 +1,86 @@
+package com.lagathub.spendingtracker.service.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ColumnarLedgerFormatTests {
+	
+	@Test
+	void columnarRoundTripPreservesEveryField() throws IOException {
+		List<LedgerRow> rows = sampleRows(ColumnarLedgerWriter.ROWS_PER_GROUP * 2 + 17); //Spans several row groups
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		LedgerRowWriter writer = ExportFormat.COLUMNAR.newWriter(out);
+		for (LedgerRow row : rows) {
+			writer.writeRow(row);
+		}
+		writer.finish();
+		
+		ColumnarLedgerReader reader = new ColumnarLedgerReader(new ByteArrayInputStream(out.toByteArray()));
+		List<LedgerRow> decoded = new ArrayList<>();
+		List<LedgerRow> group;
+		while (!(group = reader.nextRowGroup()).isEmpty()) {
+			decoded.addAll(group);
+		}
+		
+		assertEquals(rows, decoded);
+	}
+	
+	@Test
+	void columnarIsSmallerThanCsv() throws IOException {
+		List<LedgerRow> rows = sampleRows(50_000);
+		
+		ByteArrayOutputStream csv = new ByteArrayOutputStream();
+		ByteArrayOutputStream columnar = new ByteArrayOutputStream();
+		LedgerRowWriter csvWriter = ExportFormat.CSV.newWriter(csv);
+		LedgerRowWriter columnarWriter = ExportFormat.COLUMNAR.newWriter(columnar);
+		for (LedgerRow row : rows) {
+			csvWriter.writeRow(row);
+			columnarWriter.writeRow(row);
+		}
+		csvWriter.finish();
+		columnarWriter.finish();
+		
+		assertTrue(columnar.size() * 2 < csv.size(),
+				"columnar " + columnar.size() + " bytes vs csv " + csv.size() + " bytes");
+	}
+	
+	@Test
+	void csvQuotesFieldsWithSeparators() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		LedgerRowWriter writer = ExportFormat.CSV.newWriter(out);
+		writer.writeRow(new LedgerRow(7, LocalDateTime.of(2025, 3, 1, 8, 30), new BigDecimal("120.50"),
+				2, "Food", "lunch, \"special\""));
+		writer.finish();
+		
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(CsvLedgerWriter.HEADER, lines[0]);
+		assertEquals("7,2025-03-01T08:30:00,120.50,2,Food,\"lunch, \"\"special\"\"\"", lines[1]);
+	}
+	
+	static List<LedgerRow> sampleRows(int count) {
+		String[] categories = {"Food", "Transport", "Airtime", "Other", "Rent"};
+		List<LedgerRow> rows = new ArrayList<>(count);
+		LocalDateTime time = LocalDateTime.of(2024, 1, 1, 6, 0);
+		for (int i = 0; i < count; i++) {
+			time = time.plusSeconds(37 + (i % 300)).plusNanos((i % 1000) * 1_000L);
+			int category = (i * 7) % categories.length;
+			BigDecimal amount = BigDecimal.valueOf(50 + (i * 31L) % 2_000, 0).add(BigDecimal.valueOf(i % 100, 2));
+			String note = i % 3 == 0 ? null : "note " + (i % 50);
+			rows.add(new LedgerRow(1_000 + i, time, amount, category + 1, categories[category], note));
+		}
+		return rows;
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.lagathub.spendingtracker.service.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/*
+ * Encoder throughput in rows/s, without the database (run with -Pbenchmark).
+ * End-to-end numbers including the JDBC cursor are logged by LedgerExportService on every export
+ */
+@Tag("benchmark")
+class LedgerExportBenchmarkTests {
+	
+	private static final int ROWS = 2_000_000;
+	
+	@Test
+	void encoderThroughput() throws IOException {
+		List<LedgerRow> sample = ColumnarLedgerFormatTests.sampleRows(100_000);
+		for (ExportFormat format : ExportFormat.values()) {
+			for (boolean gzip : new boolean[] {false, true}) {
+				run(format, gzip, sample); //Warm up
+				run(format, gzip, sample);
+			}
+		}
+	}
+	
+	private void run(ExportFormat format, boolean gzip, List<LedgerRow> sample) throws IOException {
+		CountingSink sink = new CountingSink();
+		OutputStream out = gzip ? new GZIPOutputStream(sink, 64 * 1024) : sink;
+		long started = System.nanoTime();
+		LedgerRowWriter writer = format.newWriter(out);
+		for (int i = 0; i < ROWS; i++) {
+			writer.writeRow(sample.get(i % sample.size()));
+		}
+		writer.finish();
+		out.close();
+		double seconds = (System.nanoTime() - started) / 1e9;
+		System.out.printf("%-8s gzip=%-5s %,12.0f rows/s %8.1f bytes/row%n",
+				format, gzip, ROWS / seconds, (double) sink.bytes / ROWS);
+	}
+	
+	private static class CountingSink extends OutputStream {
+		long bytes;
+		
+		@Override
+		public void write(int b) {
+			bytes++;
+		}
+		
+		@Override
+		public void write(byte[] b, int off, int len) {
+			bytes += len;
+		}
+	}
+
+}
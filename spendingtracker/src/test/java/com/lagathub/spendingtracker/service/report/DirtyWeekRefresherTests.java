@@ -0,0 +1,81 @@
+package com.lagathub.spendingtracker.service.report;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.lagathub.spendingtracker.service.WeeklyReportService;
+import com.lagathub.spendingtracker.tenant.TenantContext;
+
+class DirtyWeekRefresherTests {
+	
+	private final DirtyWeekLedger ledger = mock(DirtyWeekLedger.class);
+	private final WeeklyReportService reports = mock(WeeklyReportService.class);
+	
+	@Test
+	void batchesPerTenantWithBoundedParallelism() {
+		Map<String, List<LocalDate>> pending = new LinkedHashMap<>();
+		pending.put("a", weeks(10));
+		pending.put("b", weeks(3));
+		when(ledger.pendingWeeks(1000)).thenReturn(pending);
+		
+		Map<String, List<LocalDate>> refreshed = new ConcurrentHashMap<>();
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		when(reports.refreshWeeks(anyList())).thenAnswer(invocation -> {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			Thread.sleep(20);
+			List<LocalDate> weeks = invocation.getArgument(0);
+			refreshed.computeIfAbsent(TenantContext.currentTenant(), tenant -> Collections.synchronizedList(new ArrayList<>())).addAll(weeks);
+			running.decrementAndGet();
+			assertTrue(weeks.size() <= 4);
+			return weeks;
+		});
+		
+		new DirtyWeekRefresher(ledger, reports, 1000, 4, 2).refreshDirtyWeeks();
+		
+		assertEquals(Set.copyOf(pending.get("a")), Set.copyOf(refreshed.get("a")));
+		assertEquals(Set.copyOf(pending.get("b")), Set.copyOf(refreshed.get("b")));
+		assertTrue(maxRunning.get() <= 2);
+	}
+	
+	@Test
+	void failedBatchDoesNotStopTheRound() {
+		when(ledger.pendingWeeks(1000)).thenReturn(Map.of("a", weeks(2)));
+		AtomicInteger calls = new AtomicInteger();
+		when(reports.refreshWeeks(anyList())).thenAnswer(invocation -> {
+			if (calls.incrementAndGet() == 1) {
+				throw new IllegalStateException("deadlock detected");
+			}
+			return invocation.getArgument(0);
+		});
+		
+		new DirtyWeekRefresher(ledger, reports, 1000, 1, 1).refreshDirtyWeeks();
+		
+		assertEquals(2, calls.get());
+	}
+	
+	private static List<LocalDate> weeks(int count) {
+		LocalDate monday = LocalDate.of(2025, 1, 6);
+		List<LocalDate> weeks = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			weeks.add(monday.plusWeeks(i));
+		}
+		return weeks;
+	}
+
+}
@@ -0,0 +1,47 @@
+package com.lagathub.spendingtracker.service.sketch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+class SketchRangePlanTests {
+	
+	@Test
+	void monthSplitsIntoWeeksAndEdgeDays() {
+		//March 2025: Saturday 1st to Monday 31st
+		SketchRangePlan plan = SketchRangePlan.of(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31));
+		
+		assertEquals(LocalDate.of(2025, 3, 3), plan.weekFrom());
+		assertEquals(LocalDate.of(2025, 3, 24), plan.weekTo());
+		assertEquals(LocalDate.of(2025, 3, 1), plan.headDayFrom());
+		assertEquals(LocalDate.of(2025, 3, 2), plan.headDayTo());
+		assertEquals(LocalDate.of(2025, 3, 31), plan.tailDayFrom());
+		assertEquals(LocalDate.of(2025, 3, 31), plan.tailDayTo());
+	}
+	
+	@Test
+	void exactWeekNeedsNoDays() {
+		SketchRangePlan plan = SketchRangePlan.of(LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 9));
+		
+		assertTrue(plan.hasWeeks());
+		assertEquals(plan.weekFrom(), plan.weekTo());
+		assertFalse(plan.hasHeadDays());
+		assertFalse(plan.hasTailDays());
+	}
+	
+	@Test
+	void shortRangeUsesDaysOnly() {
+		SketchRangePlan plan = SketchRangePlan.of(LocalDate.of(2025, 3, 5), LocalDate.of(2025, 3, 11));
+		
+		assertFalse(plan.hasWeeks());
+		assertTrue(plan.hasHeadDays());
+		assertFalse(plan.hasTailDays());
+		assertEquals(LocalDate.of(2025, 3, 5), plan.headDayFrom());
+		assertEquals(LocalDate.of(2025, 3, 11), plan.headDayTo());
+	}
+
+}
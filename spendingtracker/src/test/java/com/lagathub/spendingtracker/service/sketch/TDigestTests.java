@@ -0,0 +1,128 @@
+package com.lagathub.spendingtracker.service.sketch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/*
+ * Documents the accuracy and size we rely on for percentile endpoints:
+ * rank error below 1% in the middle and 0.2% at p1/p99, and a serialized
+ * digest of at most ~2 KB no matter how many values it summarizes
+ */
+class TDigestTests {
+	
+	private static final double[] QUANTILES = {0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99};
+	
+	@Test
+	void rankErrorStaysWithinBoundsForSkewedAmounts() {
+		double[] amounts = skewedAmounts(new Random(7), 200_000);
+		TDigest digest = new TDigest();
+		for (double amount : amounts) {
+			digest.add(amount);
+		}
+		assertAccurate(digest, amounts);
+	}
+	
+	@Test
+	void mergedDaySketchesAreAsAccurateAsOneSketch() {
+		Random random = new Random(11);
+		double[] all = new double[0];
+		TDigest month = new TDigest();
+		for (int day = 0; day < 31; day++) {
+			double[] amounts = skewedAmounts(random, 500 + random.nextInt(5_000));
+			TDigest daily = new TDigest();
+			for (double amount : amounts) {
+				daily.add(amount);
+			}
+			//Round trip through the stored form, like the database path does
+			month.merge(TDigest.fromBytes(daily.toBytes()));
+			all = concat(all, amounts);
+		}
+		assertEquals(all.length, month.size());
+		assertAccurate(month, all);
+	}
+	
+	@Test
+	void serializedSizeIsBoundedByCompression() {
+		TDigest digest = new TDigest();
+		Random random = new Random(3);
+		for (int i = 0; i < 1_000_000; i++) {
+			digest.add(skewedAmount(random));
+		}
+		byte[] bytes = digest.toBytes();
+		assertTrue(digest.centroidCount() <= 2 * TDigest.DEFAULT_COMPRESSION,
+				"centroids: " + digest.centroidCount());
+		assertTrue(bytes.length <= 2_048, "serialized bytes: " + bytes.length);
+	}
+	
+	@Test
+	void extremesAreExact() {
+		TDigest digest = new TDigest();
+		Random random = new Random(5);
+		double[] amounts = skewedAmounts(random, 50_000);
+		for (double amount : amounts) {
+			digest.add(amount);
+		}
+		Arrays.sort(amounts);
+		assertEquals(amounts[0], digest.quantile(0.0));
+		assertEquals(amounts[amounts.length - 1], digest.quantile(1.0));
+	}
+	
+	private static void assertAccurate(TDigest digest, double[] values) {
+		double[] sorted = values.clone();
+		Arrays.sort(sorted);
+		for (double q : QUANTILES) {
+			double estimate = digest.quantile(q);
+			double rank = rankOf(sorted, estimate);
+			double allowed = (q <= 0.01 || q >= 0.99) ? 0.002 : 0.01;
+			assertTrue(Math.abs(rank - q) <= allowed,
+					"q=" + q + " estimate=" + estimate + " has rank " + rank);
+		}
+	}
+	
+	//Fraction of values below the estimate (midpoint for ties)
+	private static double rankOf(double[] sorted, double value) {
+		int below = lowerBound(sorted, value);
+		int notAbove = lowerBound(sorted, Math.nextUp(value));
+		return (below + notAbove) / 2.0 / sorted.length;
+	}
+	
+	private static int lowerBound(double[] sorted, double value) {
+		int low = 0;
+		int high = sorted.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (sorted[mid] < value) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+	
+	//Mostly small expenses with a long tail, rounded to cents like real amounts
+	private static double[] skewedAmounts(Random random, int count) {
+		double[] amounts = new double[count];
+		for (int i = 0; i < count; i++) {
+			amounts[i] = skewedAmount(random);
+		}
+		return amounts;
+	}
+	
+	private static double skewedAmount(Random random) {
+		double value = Math.exp(4.5 + 1.2 * random.nextGaussian());
+		return Math.max(1, Math.round(value * 100) / 100.0);
+	}
+	
+	private static double[] concat(double[] a, double[] b) {
+		double[] result = Arrays.copyOf(a, a.length + b.length);
+		System.arraycopy(b, 0, result, a.length, b.length);
+		return result;
+	}
+
+}
@@ -0,0 +1,130 @@
+package com.lagathub.spendingtracker.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SqlStatisticsTests {
+	
+	private static final String BY_ID = "select c.name from categories c where c.id=?";
+	private static final String PAGE = "select t.id from transactions t order by t.created_at desc limit ?";
+	
+	private final DataSource dataSource = new StatisticsDataSource(driver());
+	
+	@Test
+	void countsStatementsRowsAndRepeats() throws SQLException {
+		try (SqlStatistics statistics = SqlStatistics.open()) {
+			readPageThenEachCategory(6);
+			
+			assertEquals(7, statistics.getStatements());
+			assertEquals(3 + 6 * 3, statistics.getRows());
+			assertEquals(Map.of(BY_ID, 6), statistics.repeatedStatements(5));
+			assertTrue(statistics.repeatedStatements(7).isEmpty());
+		}
+		assertNull(SqlStatistics.current());
+	}
+	
+	@Test
+	void innerScopeAddsIntoOuterScope() throws SQLException {
+		try (SqlStatistics outer = SqlStatistics.open()) {
+			try (SqlStatistics inner = SqlStatistics.open()) {
+				readPageThenEachCategory(1);
+				assertEquals(2, inner.getStatements());
+			}
+			assertSame(outer, SqlStatistics.current());
+			assertEquals(2, outer.getStatements());
+		}
+	}
+	
+	@Test
+	void unwrapStillReachesTheDriver() throws SQLException {
+		try (Connection connection = dataSource.getConnection()) {
+			assertEquals(connection, connection);
+			assertEquals(String.class.getName(), connection.unwrap(String.class));
+		}
+	}
+	
+	@Test
+	void filterPublishesPerEndpointMetrics() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/spending/transactions");
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/spending/transactions");
+		MockFilterChain chain = new MockFilterChain(new jakarta.servlet.http.HttpServlet() {
+			@Override
+			protected void service(jakarta.servlet.http.HttpServletRequest req, jakarta.servlet.http.HttpServletResponse resp) {
+				try {
+					readPageThenEachCategory(6);
+				} catch (SQLException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		});
+		
+		new SqlStatisticsFilter(registry, 5).doFilter(request, new MockHttpServletResponse(), chain);
+		
+		assertEquals(7, registry.get("http.server.sql.statements").tag("uri", "/api/spending/transactions").summary().totalAmount());
+		assertEquals(1, registry.get("http.server.sql.n_plus_one").tag("method", "GET").counter().count());
+		assertNull(SqlStatistics.current());
+	}
+	
+	//One page query, then one lookup per row - the shape lazy associations produce
+	private void readPageThenEachCategory(int rows) throws SQLException {
+		try (Connection connection = dataSource.getConnection()) {
+			try (PreparedStatement page = connection.prepareStatement(PAGE); ResultSet result = page.executeQuery()) {
+				while (result.next()) {
+					//consume
+				}
+			}
+			for (int i = 0; i < rows; i++) {
+				try (PreparedStatement byId = connection.prepareStatement(BY_ID); ResultSet result = byId.executeQuery()) {
+					while (result.next()) {
+						//consume
+					}
+				}
+			}
+		}
+	}
+	
+	//Every query returns three rows
+	private static DataSource driver() {
+		try {
+			DataSource dataSource = mock(DataSource.class);
+			Connection connection = mock(Connection.class);
+			when(dataSource.getConnection()).thenReturn(connection);
+			when(connection.unwrap(String.class)).thenReturn(String.class.getName());
+			when(connection.prepareStatement(anyString())).thenAnswer(invocation -> {
+				PreparedStatement statement = mock(PreparedStatement.class);
+				when(statement.executeQuery()).thenAnswer(query -> {
+					ResultSet resultSet = mock(ResultSet.class);
+					when(resultSet.next()).thenReturn(true, true, true, false);
+					return resultSet;
+				});
+				return statement;
+			});
+			return dataSource;
+		} catch (SQLException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,142 @@
+package com.lagathub.spendingtracker.tenant;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.lagathub.spendingtracker.service.TransactionService;
+
+/*
+ * Per-tenant latency must not depend on how many tenants share the instance.
+ * Measures the same 100 tenants' list/today-total calls with 100 tenants loaded and
+ * again with 5,000 tenants loaded. Needs the local Postgres (run with -Pbenchmark); isolation itself
+ * is checked in TenantIsolationTests
+ */
+@Tag("benchmark")
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MultiTenantLoadTests {
+	
+	private static final String PREFIX = "load-";
+	private static final int SAMPLE_TENANTS = 100;
+	private static final int TOTAL_TENANTS = 5_000;
+	private static final int TRANSACTIONS_PER_TENANT = 200;
+	private static final int ROUNDS = 5;
+	
+	@Autowired
+	private TransactionService transactionService;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	@Test
+	void perTenantLatencyDoesNotGrowWithTenantCount() {
+		cleanUp();
+		seedTenants(0, SAMPLE_TENANTS);
+		analyze();
+		double[] small = measure();
+		
+		seedTenants(SAMPLE_TENANTS, TOTAL_TENANTS);
+		analyze();
+		double[] large = measure();
+		
+		System.out.printf("tenants=%d p50=%.2fms p95=%.2fms%n", SAMPLE_TENANTS, small[0], small[1]);
+		System.out.printf("tenants=%d p50=%.2fms p95=%.2fms%n", TOTAL_TENANTS, large[0], large[1]);
+		assertTrue(large[1] <= Math.max(small[1] * 2, small[1] + 2.0),
+				"p95 grew from " + small[1] + "ms to " + large[1] + "ms");
+	}
+	
+	@AfterAll
+	void cleanUp() {
+		String like = PREFIX + "%";
+		jdbcTemplate.update("DELETE FROM spending_sketches WHERE tenant_id LIKE ?", like);
+		jdbcTemplate.update("DELETE FROM category_statistics WHERE tenant_id LIKE ?", like);
+		jdbcTemplate.update("DELETE FROM transactions WHERE tenant_id LIKE ?", like);
+		jdbcTemplate.update("DELETE FROM categories WHERE tenant_id LIKE ?", like);
+	}
+	
+	//Helper: p50/p95 in ms over the sample tenants' typical dashboard calls
+	private double[] measure() {
+		List<Double> millis = new ArrayList<>();
+		for (int round = 0; round < ROUNDS; round++) {
+			for (int tenant = 0; tenant < SAMPLE_TENANTS; tenant++) {
+				try (TenantContext.Scope scope = TenantContext.open(PREFIX + tenant)) {
+					long started = System.nanoTime();
+					transactionService.getTransactions(0, 50, null, null, null);
+					transactionService.getTransactions(0, 50, "Food", null, null);
+					transactionService.getTodayTotal();
+					if (round > 0) { //First round warms caches and the JIT
+						millis.add((System.nanoTime() - started) / 1e6);
+					}
+				}
+			}
+		}
+		double[] sorted = millis.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+		return new double[] {percentile(sorted, 0.50), percentile(sorted, 0.95)};
+	}
+	
+	private void seedTenants(int from, int to) {
+		Random random = new Random(from);
+		List<Object[]> categories = new ArrayList<>();
+		for (int tenant = from; tenant < to; tenant++) {
+			for (String name : new String[] {"Food", "Transport", "Airtime"}) {
+				categories.add(new Object[] {PREFIX + tenant, name});
+			}
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO categories (tenant_id, name, created_at) VALUES (?, ?, NOW())", categories);
+		
+		List<Map<String, Object>> ids = jdbcTemplate.queryForList(
+				"SELECT id, tenant_id FROM categories WHERE tenant_id LIKE ?", PREFIX + "%");
+		List<Object[]> rows = new ArrayList<>();
+		LocalDateTime now = LocalDateTime.now();
+		for (Map<String, Object> category : ids) {
+			int tenant = Integer.parseInt(((String) category.get("tenant_id")).substring(PREFIX.length()));
+			if (tenant < from || tenant >= to) {
+				continue;
+			}
+			for (int i = 0; i < TRANSACTIONS_PER_TENANT / 3; i++) {
+				Timestamp createdAt = Timestamp.valueOf(now.minusMinutes(random.nextInt(60 * 24 * 90)));
+				rows.add(new Object[] {category.get("tenant_id"), BigDecimal.valueOf(50 + random.nextInt(2_000)),
+						category.get("id"), createdAt, createdAt});
+				if (rows.size() == 10_000) {
+					insertTransactions(rows);
+				}
+			}
+		}
+		insertTransactions(rows);
+	}
+	
+	private void insertTransactions(List<Object[]> rows) {
+		jdbcTemplate.batchUpdate("INSERT INTO transactions (tenant_id, amount, category_id, created_at, updated_at) " +
+				"VALUES (?, ?, ?, ?, ?)", rows);
+		rows.clear();
+	}
+	
+	private void analyze() {
+		jdbcTemplate.execute("ANALYZE transactions");
+		jdbcTemplate.execute("ANALYZE categories");
+	}
+	
+	private static double percentile(double[] sorted, double q) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		return sorted[Math.min(sorted.length - 1, (int) Math.ceil(q * sorted.length) - 1)];
+	}
+	
+
+}
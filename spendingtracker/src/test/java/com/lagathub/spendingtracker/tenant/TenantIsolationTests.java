@@ -0,0 +1,50 @@
+package com.lagathub.spendingtracker.tenant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.lagathub.spendingtracker.domain.model.Transaction;
+import com.lagathub.spendingtracker.service.TransactionService;
+
+/*
+ * Tenants sharing the database never see each other's rows, even under the same category name.
+ * Run with -Pintegration
+ */
+@Tag("integration")
+@SpringBootTest
+class TenantIsolationTests {
+	
+	@Autowired
+	private TransactionService transactionService;
+	
+	@Test
+	void tenantsOnlySeeTheirOwnRows() {
+		String run = UUID.randomUUID().toString();
+		Transaction first;
+		try (TenantContext.Scope scope = TenantContext.open("isolation-a-" + run)) {
+			first = transactionService.recordTransaction(new BigDecimal("10.00"), "Food", "a");
+		}
+		try (TenantContext.Scope scope = TenantContext.open("isolation-b-" + run)) {
+			assertEquals(0, transactionService.getTransactions(0, 50, null, null, null).size());
+			Transaction second = transactionService.recordTransaction(new BigDecimal("20.00"), "Food", "b"); //Same name, other tenant
+			assertNotEquals(first.getCategory().getId(), second.getCategory().getId());
+			
+			List<Transaction> seen = transactionService.getTransactions(0, 50, "Food", null, null);
+			assertEquals(List.of(second.getId()), seen.stream().map(Transaction::getId).toList());
+		}
+		try (TenantContext.Scope scope = TenantContext.open("isolation-a-" + run)) {
+			List<Transaction> seen = transactionService.getTransactions(0, 50, null, null, null);
+			assertEquals(List.of(first.getId()), seen.stream().map(Transaction::getId).toList());
+		}
+	}
+
+}
@@ -0,0 +1,236 @@
+package com.lagathub.spendingtracker.throttle;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.method.HandlerMethod;
+
+import com.lagathub.spendingtracker.controllers.SpendingController;
+import com.lagathub.spendingtracker.dto.request.TransactionRequest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/*
+ * Bucket and limiter arithmetic, the 429 response, and a flood benchmark (run with -Pbenchmark):
+ * a simulated database behind the throttle, well-behaved clients measuring their p99 while
+ * misbehaving ones hammer writes and ignore Retry-After
+ */
+class WriteThrottleTests {
+	
+	private final AtomicLong clock = new AtomicLong(1_000_000);
+	
+	@Test
+	void bucketAllowsBurstThenRefillsAtRate() {
+		StripedTokenBuckets buckets = new StripedTokenBuckets(1024, 3, 2, clock::get);
+		
+		assertEquals(0, buckets.tryAcquire("a"));
+		assertEquals(0, buckets.tryAcquire("a"));
+		assertEquals(0, buckets.tryAcquire("a"));
+		assertEquals(500, buckets.tryAcquire("a"));
+		assertEquals(0, buckets.tryAcquire("b"));
+		
+		clock.addAndGet(499);
+		assertEquals(1, buckets.tryAcquire("a"));
+		clock.addAndGet(1);
+		assertEquals(0, buckets.tryAcquire("a"));
+		
+		clock.addAndGet(60_000); //Refill stops at the burst size
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, buckets.tryAcquire("a"));
+		}
+		assertTrue(buckets.tryAcquire("a") > 0);
+	}
+	
+	@Test
+	void limiterShrinksWhenLatencyRisesAndRecovers() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200, TimeUnit.MILLISECONDS.toNanos(20));
+		rounds(limiter, 10, TimeUnit.MILLISECONDS.toNanos(5));
+		int steady = limiter.getLimit();
+		assertTrue(steady >= 24, "Grows while latency holds: " + steady);
+		
+		rounds(limiter, 10, TimeUnit.MILLISECONDS.toNanos(50));
+		assertTrue(limiter.getLimit() < steady / 2, "Backs off when latency rises: " + limiter.getLimit());
+		
+		rounds(limiter, 20, TimeUnit.MILLISECONDS.toNanos(5));
+		assertTrue(limiter.getLimit() > steady / 2, "Recovers: " + limiter.getLimit());
+	}
+	
+	@Test
+	void rejectsWritesOverTheRateWith429AndRetryAfter() throws Exception {
+		WriteThrottleInterceptor interceptor = new WriteThrottleInterceptor(new StripedTokenBuckets(1024, 1, 1, clock::get),
+				new AdaptiveConcurrencyLimiter(4, 1, 4, TimeUnit.SECONDS.toNanos(1)), new SimpleMeterRegistry());
+		HandlerMethod addTransaction = new HandlerMethod(mock(SpendingController.class),
+				SpendingController.class.getMethod("addTransaction", TransactionRequest.class));
+		
+		MockHttpServletRequest first = new MockHttpServletRequest("POST", "/api/spending/transactions");
+		assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), addTransaction));
+		interceptor.afterCompletion(first, new MockHttpServletResponse(), addTransaction, null);
+		
+		MockHttpServletResponse rejected = new MockHttpServletResponse();
+		assertFalse(interceptor.preHandle(new MockHttpServletRequest("POST", "/api/spending/transactions"), rejected, addTransaction));
+		assertEquals(429, rejected.getStatus());
+		assertEquals("1", rejected.getHeader("Retry-After"));
+		
+		assertTrue(interceptor.preHandle(new MockHttpServletRequest("GET", "/api/spending/transactions"),
+				new MockHttpServletResponse(), addTransaction));
+	}
+	
+	@Test
+	void failingWritesShrinkTheLimitButClientErrorsDoNot() throws Exception {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 20, TimeUnit.MILLISECONDS.toNanos(1));
+		WriteThrottleInterceptor interceptor = new WriteThrottleInterceptor(new StripedTokenBuckets(1024, 10_000, 10_000, clock::get),
+				limiter, new SimpleMeterRegistry());
+		HandlerMethod addTransaction = new HandlerMethod(mock(SpendingController.class),
+				SpendingController.class.getMethod("addTransaction", TransactionRequest.class));
+		
+		//Rejected as invalid: the limit stays put
+		completeRound(interceptor, addTransaction, 400, null, 0);
+		assertEquals(20, limiter.getLimit());
+		
+		//Slow server errors count like slow successes
+		completeRound(interceptor, addTransaction, 500, new IllegalStateException("boom"), 3);
+		int afterServerErrors = limiter.getLimit();
+		assertTrue(afterServerErrors < 20, "Slow failures back off: " + afterServerErrors);
+		
+		//Pool timeouts back off however fast they come back
+		completeRound(interceptor, addTransaction, 200, new CannotCreateTransactionException("Connection is not available"), 0);
+		assertTrue(limiter.getLimit() < afterServerErrors, "Database failures back off: " + limiter.getLimit());
+		assertEquals(0, limiter.getInFlight());
+	}
+	
+	@Tag("benchmark")
+	@Test
+	void wellBehavedClientsKeepTheirP99DuringAFlood() throws InterruptedException {
+		//One noisy client: its bucket does the work and nobody else is shed.
+		//Many noisy clients, each within its rate: the concurrency limit sheds everyone alike, good clients included
+		for (int floodClients : new int[] {1, 32}) {
+			double open = goodClientP99(floodClients, false).p99Millis();
+			FloodResult protectedRun = goodClientP99(floodClients, true);
+			System.out.printf("%d flooding client(s): good clients' p99 %.1f ms unprotected, %.1f ms protected (%d of %d good writes shed)%n",
+					floodClients, open, protectedRun.p99Millis(), protectedRun.shed(), protectedRun.attempts());
+			assertTrue(protectedRun.p99Millis() < open * 2 / 3, "Throttle should protect the p99");
+			int shedBudget = floodClients == 1 ? protectedRun.attempts() / 20 : protectedRun.attempts() / 2;
+			assertTrue(protectedRun.shed() < shedBudget, "Too many well-behaved writes shed");
+		}
+	}
+	
+	private FloodResult goodClientP99(int floodClients, boolean throttled) throws InterruptedException {
+		Semaphore connections = new Semaphore(4, true); //Database: 4 connections, 5 ms per write
+		StripedTokenBuckets buckets = new StripedTokenBuckets(4096, 20, 10, System::currentTimeMillis);
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200, TimeUnit.MILLISECONDS.toNanos(30));
+		List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+		AtomicInteger attempts = new AtomicInteger();
+		AtomicInteger shed = new AtomicInteger();
+		AtomicBoolean running = new AtomicBoolean(true);
+		
+		try (ExecutorService executor = Executors.newCachedThreadPool()) {
+			for (int i = 0; i < 32; i++) {
+				String client = "flood-" + (i % floodClients);
+				executor.submit(() -> {
+					while (running.get()) {
+						if (!write(client, throttled, buckets, limiter, connections)) {
+							Thread.sleep(1); //Straight back, only a round trip later
+						}
+					}
+					return null;
+				});
+			}
+			for (int i = 0; i < 8; i++) {
+				String client = "good-" + i;
+				executor.submit(() -> {
+					while (running.get()) {
+						long started = System.nanoTime();
+						attempts.incrementAndGet();
+						if (write(client, throttled, buckets, limiter, connections)) {
+							latencies.add(System.nanoTime() - started);
+						} else {
+							shed.incrementAndGet();
+						}
+						Thread.sleep(200); //5 writes per second, half its rate
+					}
+					return null;
+				});
+			}
+			Thread.sleep(6_000);
+			running.set(false);
+		}
+		
+		List<Long> sorted = new ArrayList<>(latencies);
+		Collections.sort(sorted);
+		long p99 = sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+		return new FloodResult(p99 / 1e6, shed.get(), attempts.get());
+	}
+	
+	//Same order of checks as WriteThrottleInterceptor; false when shed
+	private static boolean write(String client, boolean throttled, StripedTokenBuckets buckets,
+								 AdaptiveConcurrencyLimiter limiter, Semaphore connections) throws InterruptedException {
+		if (throttled && (buckets.tryAcquire(client) > 0 || !limiter.tryAcquire())) {
+			return false;
+		}
+		long started = System.nanoTime();
+		connections.acquire();
+		try {
+			Thread.sleep(5);
+		} finally {
+			connections.release();
+		}
+		if (throttled) {
+			limiter.release(System.nanoTime() - started);
+		}
+		return true;
+	}
+	
+	//Fill the limit through the interceptor, then complete every write the same way after sleepMillis
+	private static void completeRound(WriteThrottleInterceptor interceptor, HandlerMethod handler, int status, Exception ex,
+									  long sleepMillis) throws Exception {
+		List<MockHttpServletRequest> admitted = new ArrayList<>();
+		while (true) {
+			MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/spending/transactions");
+			if (!interceptor.preHandle(request, new MockHttpServletResponse(), handler)) {
+				break;
+			}
+			admitted.add(request);
+		}
+		Thread.sleep(sleepMillis);
+		for (MockHttpServletRequest request : admitted) {
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			response.setStatus(status);
+			interceptor.afterCompletion(request, response, handler, ex);
+		}
+	}
+	
+	//Rounds of requests filling the limit, each completing after rttNanos
+	private static void rounds(AdaptiveConcurrencyLimiter limiter, int rounds, long rttNanos) {
+		for (int round = 0; round < rounds; round++) {
+			while (limiter.tryAcquire()) {
+				//fill up to the limit
+			}
+			while (limiter.getInFlight() > 0) {
+				limiter.release(rttNanos);
+			}
+		}
+	}
+	
+	private record FloodResult(double p99Millis, int shed, int attempts) {
+		
+	}
+
+}
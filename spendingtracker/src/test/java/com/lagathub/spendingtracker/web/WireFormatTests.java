@@ -0,0 +1,109 @@
+package com.lagathub.spendingtracker.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.lagathub.spendingtracker.dto.response.TransactionResponse;
+
+/*
+ * The binary encodings must decode to the same tree as JSON, and the benchmark (run with -Pbenchmark)
+ * prints bytes-on-wire and encode CPU per 1,000 transactions for each format
+ */
+class WireFormatTests {
+	
+	private static final String[] CATEGORIES = {"Groceries", "Transport", "Eating Out", "Utilities", "Entertainment"};
+	
+	private final WireFormatConfig config = new WireFormatConfig();
+	private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+	private final ObjectMapper cbor = config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+	private final ObjectMapper smile = config.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+	
+	@Test
+	void binaryFormatsKeepTheJsonShape() throws IOException {
+		List<TransactionResponse> page = transactions(50);
+		JsonNode expected = json.readTree(json.writeValueAsBytes(page));
+		
+		assertEquals(expected, json.readTree(cbor.readTree(cbor.writeValueAsBytes(page)).toString()));
+		assertEquals(expected, json.readTree(smile.readTree(smile.writeValueAsBytes(page)).toString()));
+		
+		List<TransactionResponse> decoded = smile.readValue(smile.writeValueAsBytes(page), new TypeReference<>() {});
+		assertEquals(page.get(7).getAmount(), decoded.get(7).getAmount());
+		assertEquals(page.get(7).getCreatedAt(), decoded.get(7).getCreatedAt());
+	}
+	
+	@Test
+	void cborMapperUsesCborFactory() {
+		assertEquals(CBORFactory.class, cbor.getFactory().getClass());
+	}
+	
+	@Tag("benchmark")
+	@Test
+	void bytesAndCpuPerThousandTransactions() throws IOException {
+		List<TransactionResponse> page = transactions(1_000);
+		int rounds = 2_000;
+		
+		System.out.printf("%-12s %10s %14s%n", "format", "bytes", "encode us/1k");
+		report("json", page, rounds, json, false);
+		report("json+gzip", page, rounds, json, true);
+		report("cbor", page, rounds, cbor, false);
+		report("smile", page, rounds, smile, false);
+		report("smile+gzip", page, rounds, smile, true);
+	}
+	
+	private void report(String name, List<TransactionResponse> page, int rounds, ObjectMapper mapper, boolean gzip) throws IOException {
+		int bytes = 0;
+		//Step 1: warm up so the JIT has compiled the serializers before we time them
+		for (int i = 0; i < rounds / 2; i++) {
+			bytes = encode(page, mapper, gzip).length;
+		}
+		//Step 2: timed rounds
+		long start = System.nanoTime();
+		for (int i = 0; i < rounds; i++) {
+			bytes = encode(page, mapper, gzip).length;
+		}
+		double micros = (System.nanoTime() - start) / 1_000.0 / rounds;
+		System.out.printf("%-12s %,10d %,14.1f%n", name, bytes, micros);
+	}
+	
+	private byte[] encode(List<TransactionResponse> page, ObjectMapper mapper, boolean gzip) throws IOException {
+		if (!gzip) {
+			return mapper.writeValueAsBytes(page);
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+			mapper.writeValue(zip, page);
+		}
+		return out.toByteArray();
+	}
+	
+	private List<TransactionResponse> transactions(int count) {
+		Random random = new Random(42);
+		LocalDateTime now = LocalDateTime.of(2025, 3, 31, 18, 0);
+		List<TransactionResponse> page = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			int category = random.nextInt(CATEGORIES.length);
+			LocalDateTime createdAt = now.minusMinutes(i * 37L);
+			page.add(new TransactionResponse((long) (100_000 + i), BigDecimal.valueOf(50 + random.nextInt(500_000), 2),
+					CATEGORIES[category], (long) category + 1, createdAt, i % 10 == 0 ? createdAt.plusHours(2) : null,
+					i % 3 == 0 ? "card " + random.nextInt(9999) : null, i % 10 == 0));
+		}
+		return page;
+	}
+
+}